@@ -0,0 +1,98 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: BenchmarkDatabase.java
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.1.0 (Synthetic Data Generator)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Estado JMH compartido: crea una base SQLite temporal, aplica el esquema
+ * completo (DatabaseSetup) y la siembra con SyntheticDataGenerator al volumen
+ * indicado por @Param.
+ * Al terminar cierra los pools y borra el archivo junto con su WAL.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.bench;
+
+import com.swimcore.dao.Conexion;
+import com.swimcore.util.DatabaseSetup;
+import com.swimcore.util.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * [BENCHMARK - ESTADO] Base de datos temporal sembrada una vez por trial.
+ * El tamaño se cambia desde la línea de comandos: {@code -p sales=100000}.
+ * [INTEGRIDAD] La ruta se fija con siconi.db.file antes del primer uso de Conexion,
+ * por eso cada trial corre en su propio fork (@Fork) y nunca toca siconi.db.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    /** Ventas sembradas; productos y clientes se derivan con Scale.proportional(). */
+    @Param({"10000"})
+    public int sales;
+
+    /** Días de histórico sobre los que se reparten las ventas. */
+    @Param({"365"})
+    public int days;
+
+    /** Semilla de la carga: la misma en cada corrida para comparar resultados. */
+    @Param({"42"})
+    public long seed;
+
+    SyntheticDataGenerator.Scale scale;
+    SyntheticDataGenerator.Result seeded;
+    File file;
+
+    /** @return ID del producto de índice {@code m} (0..productos-1). */
+    int productId(int m) { return seeded.getFirstProductId() + m; }
+
+    /** @return ID del cliente de índice {@code n} (0..clientes-1). */
+    int clientId(int n) { return seeded.getFirstClientId() + n; }
+
+    /** @return ID de la venta de índice {@code k} (0..ventas-1). */
+    String orderId(int k) { return SyntheticDataGenerator.orderId(seeded.getFirstOrderNumber() + k); }
+
+    // Rangos de consulta: último mes (típico de la pantalla de reportes) y año completo.
+    Date monthFrom;
+    Date yearFrom;
+    Date to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = File.createTempFile("siconi-bench-", ".db");
+        file.delete(); // SQLite crea el archivo con su propio encabezado
+        System.setProperty("siconi.db.file", file.getAbsolutePath());
+
+        DatabaseSetup.inicializarBD();
+        scale = SyntheticDataGenerator.Scale.proportional(sales, days, seed);
+        seeded = SyntheticDataGenerator.generate(scale, null);
+        System.out.println("SICONI: Base de benchmark sembrada (" + scale + "): " + seeded);
+
+        Calendar cal = Calendar.getInstance();
+        to = cal.getTime();
+        cal.add(Calendar.MONTH, -1);
+        monthFrom = cal.getTime();
+        cal.add(Calendar.MONTH, -11);
+        yearFrom = cal.getTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Conexion.cerrar();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(file.getAbsolutePath() + suffix).delete();
+        }
+    }
+}
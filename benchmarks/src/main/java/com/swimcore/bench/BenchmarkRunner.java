@@ -0,0 +1,48 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: BenchmarkRunner.java
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (JMH Launcher)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Punto de entrada del jar de benchmarks. Acepta las opciones estándar de JMH
+ * y, si no se indican, guarda los resultados en JSON con marca de tiempo para
+ * poder comparar corridas (por ejemplo en jmh.morethan.io).
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * [BENCHMARK - LANZADOR] Ejemplos:
+ * <pre>
+ *   java -jar target/benchmarks.jar                          (todos, 10 mil ventas)
+ *   java -jar target/benchmarks.jar -p sales=100000 search   (un método, 100 mil ventas)
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+
+        if (cmd.getIncludes().isEmpty()) builder.include(DaoBenchmarks.class.getSimpleName());
+        if (!cmd.getResultFormat().hasValue()) builder.resultFormat(ResultFormatType.JSON);
+        if (!cmd.getResult().hasValue()) {
+            builder.result("jmh-result-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
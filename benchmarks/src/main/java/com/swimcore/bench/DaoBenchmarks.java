@@ -0,0 +1,137 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: DaoBenchmarks.java
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.1.0 (Synthetic Data Generator)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Microbenchmarks JMH de las rutas calientes de la capa DAO: registro de venta,
+ * búsqueda de productos, búsqueda de cliente por cédula, rentabilidad por
+ * producto, registro de pagos e historial de kardex por rango de fechas.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.bench;
+
+import com.swimcore.dao.ClientDAO;
+import com.swimcore.dao.PaymentDAO;
+import com.swimcore.dao.ProductDAO;
+import com.swimcore.dao.ReportsDAO;
+import com.swimcore.dao.SaleDAO;
+import com.swimcore.model.Client;
+import com.swimcore.model.Payment;
+import com.swimcore.model.Product;
+import com.swimcore.model.Sale;
+import com.swimcore.model.SaleDetail;
+import com.swimcore.util.SyntheticDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * [BENCHMARK - DAO] Latencia media por operación, en microsegundos.
+ * Las escrituras pasan por WriteQueue igual que en la aplicación: lo medido incluye
+ * el COMMIT agrupado. Las ventas y pagos de la medición se acumulan en la base
+ * temporal, que se descarta al terminar el trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmarks {
+
+    // IDs propios para no chocar con la secuencia PED- de la aplicación ni con la siembra.
+    private static final AtomicLong NEXT_SALE = new AtomicLong();
+    private static final DateTimeFormatter DB_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * [CONCURRENCIA] Estado por hilo: DAOs y generador de números propios, para que
+     * medir con -t N no mida contención en el generador.
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+        final SplittableRandom rnd = new SplittableRandom(7);
+        final SaleDAO saleDAO = new SaleDAO();
+        final ProductDAO productDAO = new ProductDAO();
+        final ClientDAO clientDAO = new ClientDAO();
+        final ReportsDAO reportsDAO = new ReportsDAO();
+        final PaymentDAO paymentDAO = new PaymentDAO();
+
+        int product(BenchmarkDatabase db) { return rnd.nextInt(db.scale.getProducts()); }
+        int client(BenchmarkDatabase db) { return rnd.nextInt(db.scale.getClients()); }
+        int sale(BenchmarkDatabase db) { return rnd.nextInt(db.scale.getSales()); }
+    }
+
+    // ========================================================================================
+    //                                  ESCRITURAS
+    // ========================================================================================
+
+    @Benchmark
+    public boolean registerSale(BenchmarkDatabase db, Picker p) {
+        String id = "BENCH-" + NEXT_SALE.incrementAndGet();
+        int a = db.productId(p.product(db)), b = db.productId(p.product(db));
+        List<SaleDetail> details = Arrays.asList(
+                new SaleDetail(id, String.valueOf(a), "Producto " + a, 1, 25.0),
+                new SaleDetail(id, String.valueOf(b), "Producto " + b, 2, 18.5));
+        Sale sale = new Sale(id, LocalDateTime.now().format(DB_DATE), String.valueOf(db.clientId(p.client(db))),
+                62.0, 62.0, 65.0, "PAGO MÓVIL", "000123", "PAGADO", "Benchmark");
+        return p.saleDAO.registerSale(sale, details);
+    }
+
+    @Benchmark
+    public boolean savePaymentAndUpdateSale(BenchmarkDatabase db, Picker p) {
+        Payment payment = new Payment(db.orderId(p.sale(db)), LocalDateTime.now().format(DB_DATE),
+                1.0, "EFECTIVO", null, "Benchmark");
+        return p.paymentDAO.savePaymentAndUpdateSale(payment);
+    }
+
+    // ========================================================================================
+    //                                  LECTURAS
+    // ========================================================================================
+
+    /** Búsqueda tal como la teclea el vendedor: prefijos de dos palabras del catálogo. */
+    @Benchmark
+    public List<Product> searchProducts(BenchmarkDatabase db, Picker p) {
+        int n = p.product(db);
+        return p.productDAO.searchProducts(SyntheticDataGenerator.word(n).substring(0, 3) + " " + SyntheticDataGenerator.word(n / 3));
+    }
+
+    @Benchmark
+    public Client getClientByIdNumber(BenchmarkDatabase db, Picker p) {
+        return p.clientDAO.getClientByIdNumber(SyntheticDataGenerator.idNumber(db.clientId(p.client(db))));
+    }
+
+    @Benchmark
+    public List<Object[]> getProductProfitabilityMonth(BenchmarkDatabase db, Picker p) {
+        return p.reportsDAO.getProductProfitability(db.monthFrom, db.to);
+    }
+
+    @Benchmark
+    public List<Object[]> getProductProfitabilityYear(BenchmarkDatabase db, Picker p) {
+        return p.reportsDAO.getProductProfitability(db.yearFrom, db.to);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Vector<Object>> getHistoryByDateRangeMonth(BenchmarkDatabase db, Picker p) {
+        return p.productDAO.getHistoryByDateRange(db.monthFrom, db.to);
+    }
+}
@@ -10,7 +10,7 @@
  * AUTORA: Johanna Guedez - V14089807
  * PROFESORA: Ing. Dubraska Roca
  * FECHA: 06 de Febrero de 2026 - 01:15 PM
- * VERSIÓN: 2.6.0 (DPI SAFE - SECURITY ENABLED)
+ * VERSIÓN: 3.0.0 (EDT Stall Watchdog)
  *
  * DESCRIPCIÓN TÉCNICA:
  * Clase ejecutora (Entry Point).
@@ -26,13 +26,19 @@ package com.swimcore;
 
 import com.formdev.flatlaf.FlatDarkLaf;
 import com.swimcore.dao.Conexion;
+import com.swimcore.dao.DatabaseMetrics;
+import com.swimcore.dao.InventoryLedgerDAO;
 import com.swimcore.dao.UserDAO;
 import com.swimcore.model.User;
 import com.swimcore.util.DatabaseSetup;
+import com.swimcore.util.EdtWatchdog;
+import com.swimcore.util.PdfRenderService;
+import com.swimcore.util.UiMetrics;
 // import com.swimcore.util.DataSeeder; // Mantener comentado salvo para resetear
 import com.swimcore.view.LoginView;
 import javax.swing.*;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 /**
  * Clase principal que contiene el metodo main.
@@ -65,10 +71,17 @@ public class Main {
 
         // 2. CAPA DE PERSISTENCIA Y SEGURIDAD
         // Se verifica la conectividad con SQLite antes de lanzar la interfaz.
-        Connection conn = Conexion.conectar();
-        if (conn != null) {
+        boolean dbDisponible;
+        try (Connection conn = Conexion.conectar()) {
+            dbDisponible = conn != null;
+        } catch (SQLException e) {
+            dbDisponible = false;
+        }
+        if (dbDisponible) {
             // Inicialización de Tablas: Se asegura que el esquema relacional exista.
             DatabaseSetup.inicializarBD();
+            // Fotos de stock pendientes del kardex (acota la reconstrucción histórica).
+            new InventoryLedgerDAO().checkpoint();
 
             // -------------------------------------------------------
             // ⚠ ZONA DE CARGA DE DATOS (Data Seeder) ⚠
@@ -91,7 +104,21 @@ public class Main {
         }
 
         // [GESTIÓN DE RECURSOS] Hook para cerrar la conexión de forma segura al apagar la JVM.
-        Runtime.getRuntime().addShutdownHook(new Thread(Conexion::cerrar));
+        // Primero se terminan los PDF en curso (recibos recién guardados), luego la base.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            PdfRenderService.shutdownIfStarted();
+            Conexion.cerrar();
+            // Resumen de la sesión: qué líneas de la interfaz congelaron más tiempo la pantalla.
+            String stalls = EdtWatchdog.formatTop(5);
+            if (!stalls.isEmpty()) System.out.print("SICONI: Congelamientos de la interfaz por origen:\n" + stalls);
+        }));
+
+        // [DIAGNÓSTICO] Las métricas se acumulan desde el arranque: al abrir el panel ya
+        // hay historia de los congelamientos de la sesión.
+        DatabaseMetrics.register();
+        UiMetrics.start();
+        // Cola de eventos cronometrada: cada congelamiento del EDT queda con su línea de origen.
+        EdtWatchdog.install();
 
         // 3. ARRANQUE DE LA INTERFAZ GRÁFICA
         // [CONCURRENCIA] Se utiliza invokeLater para garantizar que la UI se ejecute en el Event Dispatch Thread (EDT).
@@ -10,7 +10,7 @@
  * AUTORA: Johanna Guedez - V14089807
  * PROFESORA: Ing. Dubraska Roca
  * FECHA: 06 de Febrero de 2026
- * VERSIÓN: 2.2.0 (Receipt Flow Fix & Snapshot Bridge)
+ * VERSIÓN: 2.4.1 (No Invented Fiscal Numbers)
  * -----------------------------------------------------------------------------
  * DESCRIPCIÓN TÉCNICA:
  * Clase de la Capa de Controlador. Actúa como mediador entre los componentes de
@@ -24,15 +24,19 @@ package com.swimcore.controller;
 
 import com.swimcore.dao.ClientDAO;
 import com.swimcore.dao.SaleDAO;
+import com.swimcore.dao.SequenceAllocator;
 import com.swimcore.model.Client;
+import com.swimcore.model.ClientLifetimeValue;
 import com.swimcore.model.Sale;
 import com.swimcore.model.SaleDetail;
 import com.swimcore.util.ReceiptGenerator;
 import com.swimcore.view.dialogs.ReceiptPreviewDialog;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * [CONTROLLER] Orquestador de procesos comerciales y transaccionales.
@@ -49,6 +53,7 @@ public class SaleController {
     // Referencias a la capa de persistencia mediante Inyección por Constructor.
     private final SaleDAO saleDAO;
     private final ClientDAO clientDAO;
+    private final SequenceAllocator sequences = SequenceAllocator.getInstance();
 
     /**
      * Constructor de la clase.
@@ -63,40 +68,36 @@ public class SaleController {
     //                                  GESTIÓN DE CORRELATIVOS FISCALES
     // ========================================================================================
 
-    /** @return Siguiente número correlativo de orden basado en el conteo histórico. */
+    /**
+     * Reserva el siguiente número de orden. El número queda asignado a quien lo pide,
+     * de modo que dos cajas abiertas a la vez nunca muestran el mismo pedido.
+     * [INTEGRIDAD] Si la secuencia no responde no se inventa un número: un conteo de
+     * ventas repetiría pedidos ya reservados por otra caja.
+     * @return Correlativo de orden (sin prefijo), o -1 si no se pudo reservar.
+     */
     public int getNextOrderNumber() {
-        return saleDAO.getTotalSaleCount() + 1;
+        long next = sequences.next(SequenceAllocator.ORDER);
+        return next > 0 ? (int) next : -1;
     }
 
     /**
-     * Implementa la lógica incremental para la numeración de facturas (FAC-XXXX).
-     * @return String con el siguiente formato de factura.
+     * Reserva el siguiente número de factura (FAC-XXXX).
+     * @return String con el siguiente formato de factura, o null si no se pudo reservar.
      */
     public String getNextInvoiceNumber() {
-        String lastInvoice = saleDAO.getLastInvoiceAndControlNumbers()[0];
-        try {
-            int num = Integer.parseInt(lastInvoice.split("-")[1]);
-            return String.format("FAC-%04d", num + 1);
-        } catch (Exception e) {
-            return "FAC-0001"; // Fallback para primer registro o error de formato.
-        }
+        long next = sequences.next(SequenceAllocator.INVOICE);
+        return next > 0 ? String.format("FAC-%04d", next) : null;
     }
 
     /**
-     * Genera el número de control fiscal basado en el año en curso.
-     * Detecta el cambio de año para reiniciar el correlativo (CTRL-YYYY-XXXX).
+     * Reserva el número de control fiscal del año en curso (CTRL-YYYY-XXXX).
+     * Cada año tiene su propia secuencia, así que el correlativo se reinicia solo en enero.
+     * @return Número de control, o null si no se pudo reservar.
      */
     public String getNextControlNumber() {
-        String lastControl = saleDAO.getLastInvoiceAndControlNumbers()[1];
         String year = new SimpleDateFormat("yyyy").format(new Date());
-        try {
-            String lastYear = lastControl.split("-")[1];
-            int num = Integer.parseInt(lastControl.split("-")[2]);
-            if (year.equals(lastYear)) {
-                return String.format("CTRL-%s-%04d", year, num + 1);
-            }
-        } catch (Exception e) { /* Manejo de excepción para inicialización */ }
-        return "CTRL-" + year + "-0001";
+        long next = sequences.next(SequenceAllocator.CONTROL_PREFIX + year);
+        return next > 0 ? String.format("CTRL-%s-%04d", year, next) : null;
     }
 
     // ========================================================================================
@@ -145,12 +146,9 @@ public class SaleController {
     //                                  MÉTODOS ANALÍTICOS (REPORTING)
     // ========================================================================================
 
-    /** Calcula el gasto total acumulado de un cliente específico en USD. */
+    /** Calcula el gasto total acumulado de un cliente específico en USD (SUM indexado). */
     public double getCustomerTotalSpending(String clientId) {
-        return saleDAO.getAllSales().stream()
-                .filter(s -> s.getClientId().equals(clientId))
-                .mapToDouble(Sale::getTotalAmountUSD)
-                .sum();
+        return saleDAO.getClientTotalSpending(clientId);
     }
 
     /** Contabiliza la recurrencia de compra (frecuencia) de un cliente. */
@@ -158,8 +156,16 @@ public class SaleController {
         if (clientId.isEmpty()) {
             return saleDAO.getTotalSaleCount();
         }
-        return (int) saleDAO.getAllSales().stream()
-                .filter(s -> s.getClientId().equals(clientId))
-                .count();
+        return saleDAO.getClientOrderCount(clientId);
+    }
+
+    /**
+     * Valor histórico (pedidos y gasto) de muchos clientes en una sola consulta.
+     * Los clientes sin compras reciben {@link ClientLifetimeValue#EMPTY}.
+     */
+    public Map<String, ClientLifetimeValue> getCustomerLifetimeValues(Collection<String> clientIds) {
+        Map<String, ClientLifetimeValue> values = saleDAO.getClientLifetimeValues(clientIds);
+        for (String id : clientIds) values.putIfAbsent(id, ClientLifetimeValue.EMPTY);
+        return values;
     }
 }
\ No newline at end of file
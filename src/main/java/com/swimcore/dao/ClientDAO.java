@@ -2,7 +2,7 @@
  * -----------------------------------------------------------------------------
  * INSTITUCIÓN: UNEG - SICONI
  * ARCHIVO: ClientDAO.java
- * VERSIÓN: 2.8.0 (RECOVERY: Restored deleteClient + Receipt Support)
+ * VERSIÓN: 2.9.1 (Batch Lookup Keeps Original Keys)
  * FECHA: 05 de Febrero de 2026 - 12:20 AM (Venezuela)
  * -----------------------------------------------------------------------------
  */
@@ -12,14 +12,18 @@ package com.swimcore.dao;
 import com.swimcore.model.Client;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class ClientDAO {
 
     public String generateNextCode() {
         String nextCode = "DG-0001";
         String sql = "SELECT code FROM clients ORDER BY id DESC LIMIT 1";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql); ResultSet rs = pst.executeQuery()) {
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql); ResultSet rs = pst.executeQuery()) {
             if (rs.next()) {
                 String lastCode = rs.getString("code");
                 if (lastCode != null && lastCode.startsWith("DG-")) {
@@ -90,7 +94,7 @@ public class ClientDAO {
     public List<Client> getAllClients() {
         List<Client> list = new ArrayList<>();
         String sql = "SELECT * FROM clients ORDER BY id DESC";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql); ResultSet rs = pst.executeQuery()) {
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql); ResultSet rs = pst.executeQuery()) {
             while (rs.next()) list.add(mapClient(rs));
         } catch (SQLException e) { e.printStackTrace(); }
         return list;
@@ -110,7 +114,7 @@ public class ClientDAO {
 
     public Client getClientById(int id) {
         String sql = "SELECT * FROM clients WHERE id = ?";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql)) {
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setInt(1, id);
             ResultSet rs = pst.executeQuery();
             if (rs.next()) return mapClient(rs);
@@ -120,7 +124,7 @@ public class ClientDAO {
 
     public Client getClientByCode(String code) {
         String sql = "SELECT * FROM clients WHERE code = ?";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql)) {
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, code);
             ResultSet rs = pst.executeQuery();
             if (rs.next()) return mapClient(rs);
@@ -130,7 +134,7 @@ public class ClientDAO {
 
     public Client getClientByIdNumber(String id) {
         String sql = "SELECT * FROM clients WHERE REPLACE(id_number, '.', '') = REPLACE(?, '.', '')";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql)) {
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, id);
             ResultSet rs = pst.executeQuery();
             if (rs.next()) return mapClient(rs);
@@ -138,6 +142,63 @@ public class ClientDAO {
         return null;
     }
 
+    /**
+     * [CONSULTA POR LOTES] Resuelve varios clientes en bloques de hasta 500 parámetros.
+     * Las claves numéricas se buscan por ID y el resto por código, igual que en las
+     * búsquedas individuales del recibo. Una clave numérica sin cliente con ese ID se
+     * busca también como código (códigos solo de dígitos).
+     * @param keys Valores tal como se guardan en sales.client_id.
+     * @return Mapa clave original -> cliente (las claves sin cliente no aparecen). "7" y
+     *         "007" resuelven al mismo cliente, cada una bajo su propia clave.
+     */
+    public Map<String, Client> getClientsByKeys(Collection<String> keys) {
+        Map<String, Client> clients = new HashMap<>();
+        Map<Long, List<String>> ids = new HashMap<>();
+        Map<String, List<String>> codes = new HashMap<>();
+        for (String key : keys) {
+            if (key == null || key.isEmpty()) continue;
+            if (key.length() < 19 && key.chars().allMatch(Character::isDigit)) {
+                ids.computeIfAbsent(Long.parseLong(key), k -> new ArrayList<>()).add(key);
+            } else {
+                codes.computeIfAbsent(key, k -> new ArrayList<>()).add(key);
+            }
+        }
+        try (Connection con = Conexion.conectarLectura()) {
+            fetchClientsIn(con, "id", ids, c -> (long) c.getId(), clients);
+            for (List<String> numeric : ids.values()) {
+                for (String key : numeric) {
+                    if (!clients.containsKey(key)) codes.computeIfAbsent(key, k -> new ArrayList<>()).add(key);
+                }
+            }
+            fetchClientsIn(con, "code", codes, Client::getCode, clients);
+        } catch (SQLException e) { e.printStackTrace(); }
+        return clients;
+    }
+
+    /**
+     * @param keys Valor de la columna -> claves originales que lo pidieron.
+     * @param keyOf Valor de la columna en el cliente leído.
+     */
+    private <K> void fetchClientsIn(Connection con, String column, Map<K, List<String>> keys,
+                                    Function<Client, K> keyOf, Map<String, Client> out) throws SQLException {
+        final int chunk = 500;
+        List<K> values = new ArrayList<>(keys.keySet());
+        for (int from = 0; from < values.size(); from += chunk) {
+            List<K> part = values.subList(from, Math.min(from + chunk, values.size()));
+            String sql = "SELECT * FROM clients WHERE " + column + " IN (" + "?,".repeat(part.size() - 1) + "?)";
+            try (PreparedStatement pst = con.prepareStatement(sql)) {
+                for (int i = 0; i < part.size(); i++) pst.setObject(i + 1, part.get(i));
+                try (ResultSet rs = pst.executeQuery()) {
+                    while (rs.next()) {
+                        Client c = mapClient(rs);
+                        List<String> originals = keys.get(keyOf.apply(c));
+                        if (originals != null) originals.forEach(key -> out.put(key, c));
+                    }
+                }
+            }
+        }
+    }
+
     private Client mapClient(ResultSet rs) throws SQLException {
         return new Client(
                 rs.getInt("id"), rs.getString("code"), rs.getString("id_type"),
@@ -10,29 +10,35 @@
  * AUTORA: Johanna Guedez - V14089807
  * PROFESORA: Ing. Dubraska Roca
  * FECHA: 06 de Febrero de 2026
- * VERSIÓN: 3.0.0 (TURBO: WAL Mode + Cache Tuning + Foreign Keys)
+ * VERSIÓN: 4.9.0 (Diagnostics Accessors)
  * -----------------------------------------------------------------------------
  * DESCRIPCIÓN TÉCNICA:
  * Módulo central de conectividad para el motor de base de datos relacional
  * SQLite. Implementa una arquitectura de conexión optimizada que garantiza la
  * persistencia de datos mediante el controlador JDBC, incorporando directivas
  * de bajo nivel para maximizar el rendimiento de entrada/salida (I/O).
+ * Desde la v4.0 las conexiones provienen de un pool acotado: el archivo se
+ * abre y se configura una sola vez, y cerrar la conexión la devuelve al pool.
+ * Desde la v4.1 hay un único escritor (cola de escritura serializada) y N
+ * lectores de solo lectura que, gracias a WAL, nunca esperan al escritor.
+ * Desde la v4.8 cada sentencia queda medida por QueryStats (con registro de
+ * consultas lentas) y al cerrar se imprime un resumen de la sesión.
  * -----------------------------------------------------------------------------
  */
 
 package com.swimcore.dao;
 
+import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * [DAO - INFRAESTRUCTURA] Gestor centralizado de conexión SQLite.
- * [PATRÓN DE DISEÑO: SINGLETON] Provee un único punto de acceso sincronizado
- * a la instancia de conexión, optimizando el consumo de recursos de memoria.
- * [INGENIERÍA DE RENDIMIENTO] Implementa optimizaciones de motor para
- * concurrencia y velocidad de escritura.
+ * [PATRÓN DE DISEÑO: OBJECT POOL] Presta conexiones pre-calentadas desde dos
+ * {@link ConnectionPool}: un escritor dedicado y un grupo de lectores.
+ * [CONCURRENCIA WAL] SQLite admite un solo escritor a la vez pero lectores ilimitados.
+ * {@link #conectar()} entrega la conexión de escritura (en orden de llegada) y
+ * {@link #conectarLectura()} una de solo lectura, que no espera a las escrituras.
  */
 public class Conexion {
 
@@ -40,15 +46,24 @@ public class Conexion {
     //                                  ATRIBUTOS DE CONFIGURACIÓN
     // ========================================================================================
 
-    // Cadena de conexión JDBC para el archivo de base de datos local.
-    private static final String URL = "jdbc:sqlite:siconi.db";
+    // Cadena de conexión JDBC para el archivo de base de datos local
+    // (-Dsiconi.db.file=... para apuntar a otra base, p. ej. benchmarks o pruebas de carga).
+    private static final String DB_FILE = System.getProperty("siconi.db.file", "siconi.db");
+    private static final String URL = "jdbc:sqlite:" + DB_FILE;
 
-    // Instancia persistente de la conexión (Objeto Singleton).
-    private static Connection con = null;
+    // Parámetros de los pools (ajustables con -Dsiconi.db.readers=..., etc.).
+    private static final int READER_COUNT = Integer.getInteger("siconi.db.readers", 4);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("siconi.db.statementCacheSize", 64);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("siconi.db.borrowTimeoutMs", 10_000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("siconi.db.leakThresholdMs", 30_000L);
+
+    // Escritor único: el semáforo justo del pool actúa como cola de escritura serializada.
+    private static volatile ConnectionPool writerPool = null;
+    // Lectores con PRAGMA query_only.
+    private static volatile ConnectionPool readerPool = null;
 
     /**
      * Constructor privado para restringir la instanciación externa.
-     * Garantiza el cumplimiento del patrón Singleton.
      */
     private Conexion() {}
 
@@ -57,59 +72,96 @@ public class Conexion {
     // ========================================================================================
 
     /**
-     * [MÉTODO SINCRONIZADO] Establece y configura la conexión con el motor de base de datos.
-     * Realiza una inyección de parámetros PRAGMA para elevar el rendimiento del motor SQLite
-     * por encima de los valores predeterminados.
-     * * @return Objeto Connection activo y configurado.
+     * Presta la conexión de ESCRITURA. Las peticiones concurrentes se atienden en orden
+     * de llegada. Cerrarla (try-with-resources) la devuelve al pool.
+     * * @return Objeto Connection activo y configurado, o null si el motor no está disponible.
      */
-    public static synchronized Connection conectar() {
-        // Supresión de logs redundantes para limpieza del flujo de diagnóstico.
-        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "off");
-
+    public static Connection conectar() {
         try {
-            // Evaluación del estado de la conexión para reutilización o reapertura.
-            if (con == null || con.isClosed()) {
-                con = DriverManager.getConnection(URL);
+            ensurePools();
+            return writerPool.borrow();
+        } catch (SQLException e) {
+            System.err.println("❌ ERROR CRÍTICO DE CONEXIÓN: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-                // --- OPTIMIZACIÓN DE MOTOR (MODO ALTO RENDIMIENTO) ---
-                // Se ejecutan directivas específicas de SQLite para mejorar la experiencia de usuario.
-                try (Statement stmt = con.createStatement()) {
+    /**
+     * Presta una conexión de SOLO LECTURA para consultas (SELECT).
+     * Si el hilo ya está dentro de una escritura, reutiliza esa conexión para que la
+     * consulta vea sus propios cambios aún no confirmados.
+     * * @return Objeto Connection de solo lectura, o null si el motor no está disponible.
+     */
+    public static Connection conectarLectura() {
+        try {
+            ensurePools();
+            if (writerPool.isHeldByCurrentThread()) return writerPool.borrow();
+            return readerPool.borrow();
+        } catch (SQLException e) {
+            System.err.println("❌ ERROR CRÍTICO DE CONEXIÓN: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-                    // 1. INTEGRIDAD REFERENCIAL: Activa la validación de llaves foráneas (FK).
-                    stmt.execute("PRAGMA foreign_keys = ON;");
+    /** @return true si el hilo actual tiene prestada la conexión de escritura. */
+    static boolean isWriterHeldByCurrentThread() {
+        ConnectionPool writer = writerPool;
+        return writer != null && writer.isHeldByCurrentThread();
+    }
 
-                    // 2. MODO WAL (Write-Ahead Logging): Mejora la concurrencia permitiendo
-                    // lecturas y escrituras simultáneas sin bloqueos de archivo.
-                    stmt.execute("PRAGMA journal_mode = WAL;");
+    /** @return Archivo de la base (su WAL es el mismo nombre con sufijo -wal). */
+    static File getDatabaseFile() { return new File(DB_FILE); }
 
-                    // 3. SYNCHRONOUS NORMAL: Optimiza los ciclos de escritura en disco duro.
-                    stmt.execute("PRAGMA synchronous = NORMAL;");
+    /** @return Pool de escritura, o null si aún no se abrió la base. */
+    static ConnectionPool getWriterPool() { return writerPool; }
 
-                    // 4. MEMORY CACHE: Incrementa el tamaño de la caché de páginas en RAM
-                    // (10,000 páginas) para reducir la latencia de acceso al disco.
-                    stmt.execute("PRAGMA cache_size = 10000;");
-                }
+    /** @return Pool de lectura, o null si aún no se abrió la base. */
+    static ConnectionPool getReaderPool() { return readerPool; }
 
-                System.out.println("🚀 SICONI: Base de Datos conectada en MODO ALTO RENDIMIENTO.");
+    /**
+     * [DOBLE VERIFICACIÓN] Crea los pools la primera vez que se necesitan (o tras un cierre).
+     * El monitor solo se toma durante la creación; los préstamos no se sincronizan aquí.
+     * El escritor se abre primero para que fije el modo WAL antes que los lectores.
+     */
+    private static void ensurePools() throws SQLException {
+        if (readerPool != null && !readerPool.isClosed()) return;
+        synchronized (Conexion.class) {
+            if (readerPool != null && !readerPool.isClosed()) return;
+            // Supresión de logs redundantes para limpieza del flujo de diagnóstico.
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "off");
+            ConnectionPool writer = new ConnectionPool("writer", URL, 1, false, STATEMENT_CACHE_SIZE, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS);
+            ConnectionPool readers;
+            try {
+                readers = new ConnectionPool("readers", URL, READER_COUNT, true, STATEMENT_CACHE_SIZE, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS);
+            } catch (SQLException e) {
+                writer.shutdown();
+                throw e;
             }
-        } catch (SQLException e) {
-            System.err.println("❌ ERROR CRÍTICO DE CONEXIÓN: " + e.getMessage());
-            e.printStackTrace();
+            writerPool = writer;
+            readerPool = readers;
+            System.out.println("🚀 SICONI: Base de Datos conectada en MODO ALTO RENDIMIENTO (1 escritor + " + readers.getSize() + " lectores).");
         }
-        return con;
     }
 
     /**
      * Libera los recursos de conexión de forma controlada.
      */
-    public static void cerrar() {
-        try {
-            if (con != null && !con.isClosed()) {
-                con.close();
-                System.out.println("🔒 SICONI: Conexión cerrada.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    public static synchronized void cerrar() {
+        if (readerPool != null && !readerPool.isClosed()) {
+            // Escribe los ajustes de stock acumulados, toma las fotos pendientes del kardex,
+            // confirma las escrituras encoladas y devuelve los correlativos no usados.
+            StockDeltaCoalescer.flushIfStarted();
+            new InventoryLedgerDAO().checkpoint();
+            WriteQueue.shutdownIfStarted();
+            SequenceAllocator.getInstance().releaseUnused();
+            readerPool.shutdown();
+            writerPool.shutdown();
+            // Resumen de la sesión: qué sentencias consumieron más tiempo de base de datos.
+            String top = QueryStats.formatTop(5);
+            if (!top.isEmpty()) System.out.print("SICONI: Sentencias con más tiempo acumulado:\n" + top);
+            System.out.println("🔒 SICONI: Conexión cerrada.");
         }
     }
-}
\ No newline at end of file
+}
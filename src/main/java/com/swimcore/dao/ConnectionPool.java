@@ -0,0 +1,295 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Técnicas de Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: ConnectionPool.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.3.0 (Connection Wait Timing)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Pool acotado de conexiones físicas SQLite. Las conexiones se abren y se
+ * configuran (PRAGMAs) una sola vez al arrancar; los DAOs reciben un proxy
+ * cuyo close() devuelve la conexión al pool en lugar de cerrar el archivo.
+ * Un hilo vigilante reporta los préstamos que nunca se devolvieron. Cada
+ * conexión física conserva su propia caché de sentencias preparadas. La espera
+ * por una conexión libre se registra en QueryStats.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [DAO - INFRAESTRUCTURA] Pool de conexiones pre-calentadas con semántica préstamo/devolución.
+ * [CONCURRENCIA] El acceso se regula con un semáforo justo y una pila sin bloqueo de
+ * conexiones libres, de modo que varios hilos obtienen conexión sin pasar por un monitor.
+ * [REENTRADA] Si un hilo ya tiene una conexión prestada, las peticiones anidadas comparten
+ * la misma conexión física (igual que con el antiguo Singleton) y no agotan el pool.
+ */
+final class ConnectionPool {
+
+    // ========================================================================================
+    //                                  ATRIBUTOS DE CONFIGURACIÓN
+    // ========================================================================================
+
+    private final String name;
+    private final String url;
+    private final int size;
+    private final boolean readOnly;
+    private final int statementCacheSize;
+    private final long borrowTimeoutMs;
+    private final long leakThresholdMs;
+
+    // Conexiones físicas libres (LIFO: la última devuelta es la más "caliente").
+    private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+    // Permisos disponibles = conexiones que aún pueden prestarse.
+    private final Semaphore permits;
+    // Préstamos activos indexados por conexión física (para detección de fugas).
+    private final Map<Connection, Lease> leased = new ConcurrentHashMap<>();
+    // Caché de sentencias preparadas de cada conexión física.
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    // Préstamo activo del hilo actual (reentrada).
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+
+    private final ScheduledExecutorService leakWatcher;
+    private volatile boolean closed = false;
+
+    /**
+     * Registro de un préstamo: quién, cuándo y desde dónde se pidió la conexión.
+     */
+    static final class Lease {
+        final Connection physical;
+        final StatementCache statements;
+        final Thread owner;
+        final long borrowedAt;
+        final Throwable origin;
+        int depth = 1;
+        volatile boolean reported = false;
+
+        Lease(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+            this.owner = Thread.currentThread();
+            this.borrowedAt = System.currentTimeMillis();
+            this.origin = new Throwable("Conexión prestada aquí");
+        }
+    }
+
+    /**
+     * Crea el pool y abre (pre-calienta) todas sus conexiones.
+     * @param name Nombre descriptivo usado en los mensajes de diagnóstico.
+     * @param url Cadena JDBC de la base de datos.
+     * @param size Número máximo de conexiones simultáneas.
+     * @param readOnly true para abrir conexiones de solo lectura (PRAGMA query_only).
+     * @param statementCacheSize Sentencias preparadas retenidas por conexión (0 desactiva la caché).
+     * @param borrowTimeoutMs Espera máxima para obtener una conexión.
+     * @param leakThresholdMs Tiempo tras el cual un préstamo se considera fuga.
+     */
+    ConnectionPool(String name, String url, int size, boolean readOnly, int statementCacheSize, long borrowTimeoutMs, long leakThresholdMs) throws SQLException {
+        this.name = name;
+        this.url = url;
+        this.size = Math.max(1, size);
+        this.readOnly = readOnly;
+        this.statementCacheSize = statementCacheSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.permits = new Semaphore(this.size, true);
+
+        for (int i = 0; i < this.size; i++) {
+            idle.push(openPhysical());
+        }
+
+        this.leakWatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "siconi-pool-leaks-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, leakThresholdMs / 2);
+        leakWatcher.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // ========================================================================================
+    //                                  CICLO DE VIDA DE LA CONEXIÓN FÍSICA
+    // ========================================================================================
+
+    /**
+     * Abre el archivo SQLite y aplica las directivas PRAGMA una única vez por conexión.
+     */
+    private Connection openPhysical() throws SQLException {
+        Connection con = DriverManager.getConnection(url);
+        try (Statement stmt = con.createStatement()) {
+            // 1. INTEGRIDAD REFERENCIAL: Activa la validación de llaves foráneas (FK).
+            stmt.execute("PRAGMA foreign_keys = ON;");
+            // 2. MODO WAL: lecturas y escrituras simultáneas sin bloqueos de archivo.
+            // Es persistente en el archivo, por lo que basta con que lo fije el escritor.
+            if (!readOnly) stmt.execute("PRAGMA journal_mode = WAL;");
+            // 3. SYNCHRONOUS NORMAL: Optimiza los ciclos de escritura en disco.
+            stmt.execute("PRAGMA synchronous = NORMAL;");
+            // 4. MEMORY CACHE: 10,000 páginas en RAM para reducir la latencia de disco.
+            stmt.execute("PRAGMA cache_size = 10000;");
+            // 5. BUSY TIMEOUT: con varias conexiones abiertas, espera en lugar de fallar con SQLITE_BUSY.
+            stmt.execute("PRAGMA busy_timeout = 5000;");
+            // 6. SOLO LECTURA: el motor rechaza cualquier escritura por esta conexión.
+            if (readOnly) stmt.execute("PRAGMA query_only = ON;");
+        }
+        return con;
+    }
+
+    private void closeQuietly(Connection con) {
+        StatementCache cache = statementCaches.remove(con);
+        if (cache != null) cache.clear();
+        try { con.close(); } catch (SQLException ignored) {}
+    }
+
+    // ========================================================================================
+    //                                  PRÉSTAMO Y DEVOLUCIÓN
+    // ========================================================================================
+
+    /**
+     * Presta una conexión envuelta en un proxy. Cerrar el proxy la devuelve al pool.
+     * @return Conexión lista para usar.
+     * @throws SQLException Si el pool está cerrado o se agota el tiempo de espera.
+     */
+    Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Pool '" + name + "' cerrado.");
+
+        Lease lease = currentLease.get();
+        if (lease != null && leased.get(lease.physical) == lease) {
+            lease.depth++;
+            return wrap(lease);
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+            QueryStats.recordWait(name, System.nanoTime() - waitStart);
+            if (!acquired) {
+                reportActiveLeases();
+                throw new SQLException("Pool '" + name + "' agotado: sin conexión libre tras " + borrowTimeoutMs + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Espera de conexión interrumpida.", e);
+        }
+
+        Connection physical = idle.poll();
+        try {
+            if (physical != null && physical.isClosed()) statementCaches.remove(physical);
+            if (physical == null || physical.isClosed()) physical = openPhysical();
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+
+        lease = new Lease(physical, statementCaches.computeIfAbsent(physical,
+                c -> new StatementCache(c, statementCacheSize)));
+        leased.put(physical, lease);
+        currentLease.set(lease);
+        return wrap(lease);
+    }
+
+    private Connection wrap(Lease lease) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnection(this, lease));
+    }
+
+    /**
+     * Invocado por el proxy al cerrarse. Solo el cierre más externo devuelve la conexión física.
+     */
+    void release(Lease lease) {
+        if (--lease.depth > 0) return;
+
+        if (currentLease.get() == lease) currentLease.remove();
+        leased.remove(lease.physical);
+        Connection physical = lease.physical;
+        try {
+            // Una transacción abandonada no debe contaminar al siguiente usuario.
+            if (!physical.isClosed() && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            closeQuietly(physical);
+        }
+
+        if (closed) {
+            closeQuietly(physical);
+        } else {
+            idle.push(physical);
+        }
+        permits.release();
+    }
+
+    // ========================================================================================
+    //                                  DETECCIÓN DE FUGAS
+    // ========================================================================================
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leased.values()) {
+            if (!lease.reported && now - lease.borrowedAt > leakThresholdMs) {
+                lease.reported = true;
+                System.err.println("⚠ SICONI POOL [" + name + "]: posible fuga de conexión, retenida "
+                        + (now - lease.borrowedAt) + " ms por el hilo '" + lease.owner.getName() + "'.");
+                lease.origin.printStackTrace();
+            }
+        }
+    }
+
+    private void reportActiveLeases() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leased.values()) {
+            System.err.println("   · Préstamo activo de " + (now - lease.borrowedAt) + " ms en hilo '" + lease.owner.getName() + "'");
+        }
+    }
+
+    // ========================================================================================
+    //                                  ESTADO Y CIERRE
+    // ========================================================================================
+
+    int getSize() { return size; }
+
+    boolean isReadOnly() { return readOnly; }
+
+    /** @return true si el hilo actual tiene una conexión de este pool sin devolver. */
+    boolean isHeldByCurrentThread() {
+        Lease lease = currentLease.get();
+        return lease != null && leased.get(lease.physical) == lease;
+    }
+
+    int getActiveCount() { return leased.size(); }
+
+    int getIdleCount() { return idle.size(); }
+
+    boolean isClosed() { return closed; }
+
+    /**
+     * Cierra las conexiones libres; las prestadas se cierran al ser devueltas.
+     */
+    void shutdown() {
+        closed = true;
+        leakWatcher.shutdownNow();
+        Connection con;
+        while ((con = idle.poll()) != null) closeQuietly(con);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: CsvExportDAO.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.1 (Shared Atomic Move)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Motor de exportación CSV. Lee directamente de la base con un cursor JDBC y
+ * escribe cada fila al archivo a medida que llega, sin pasar por la JTable ni
+ * guardar el resultado en memoria. Informa el avance y admite cancelación; el
+ * archivo final solo aparece si la exportación termina completa.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import com.swimcore.util.AtomicFiles;
+import com.swimcore.util.CsvWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.function.BooleanSupplier;
+
+/**
+ * [DAO - EXPORTACIÓN] Volcado de tablas completas o rangos de fechas a CSV.
+ * [RENDIMIENTO] Memoria constante: una fila del cursor y el búfer del escritor, sin
+ * importar si el rango tiene cien filas o un millón.
+ * [INTEGRIDAD] Se escribe en un archivo temporal ".part" que se renombra al terminar;
+ * una exportación cancelada o fallida no deja un CSV a medias.
+ */
+public class CsvExportDAO {
+
+    /**
+     * Conjuntos exportables. Cada uno define su consulta, los títulos de columna y, si
+     * admite filtro por fechas, la columna de fecha.
+     */
+    public enum Dataset {
+        MOVEMENTS("MOVIMIENTOS DE INVENTARIO", "Movimientos", "m.date",
+                "FROM inventory_movements m LEFT JOIN products p ON p.id = m.product_id",
+                "m.id, m.date, p.code, p.name, m.type, m.quantity, m.delta, m.event, m.sale_id, m.username, m.observation",
+                "m.date DESC, m.id DESC",
+                "ID", "FECHA", "CÓDIGO", "PRODUCTO", "TIPO", "CANTIDAD", "DELTA", "EVENTO", "PEDIDO", "USUARIO", "OBSERVACIÓN"),
+        SALES("VENTAS", "Ventas", "s.date",
+                "FROM sales s LEFT JOIN clients c ON c.id = s.client_id",
+                "s.id, s.date, s.client_id, c.full_name, s.total_divisa, s.amount_paid_usd, s.balance_due_usd, s.total_bs, " +
+                        "s.rate, s.currency, s.payment_method, s.status, s.delivery_date, s.invoice_nro, s.control_nro, s.observations",
+                "s.date DESC, s.id DESC",
+                "PEDIDO", "FECHA", "ID CLIENTE", "CLIENTE", "TOTAL USD", "ABONADO USD", "RESTA USD", "TOTAL BS",
+                "TASA", "MONEDA", "MÉTODO DE PAGO", "ESTADO", "ENTREGA", "FACTURA", "CONTROL", "OBSERVACIONES"),
+        PAYMENTS("PAGOS", "Pagos", "py.payment_date",
+                "FROM payments py",
+                "py.id, py.sale_id, py.payment_date, py.amount_usd, py.payment_method, py.reference, py.notes",
+                "py.payment_date DESC, py.id DESC",
+                "ID", "PEDIDO", "FECHA", "MONTO USD", "MÉTODO", "REFERENCIA", "NOTAS"),
+        CLIENTS("CLIENTES", "Clientes", null,
+                "FROM clients c",
+                "c.id, c.code, c.id_type, c.id_number, c.full_name, c.phone, c.phone_alt, c.email, c.address, c.instagram, " +
+                        "c.is_vip, c.athlete_name, c.birth_date, c.club_name, c.category, c.size, c.measurements, c.profession",
+                "c.full_name, c.id",
+                "ID", "CÓDIGO", "TIPO DOC.", "DOCUMENTO", "NOMBRE", "TELÉFONO", "TELÉFONO ALT.", "EMAIL", "DIRECCIÓN", "INSTAGRAM",
+                "VIP", "ATLETA", "NACIMIENTO", "CLUB", "CATEGORÍA", "TALLA", "MEDIDAS", "PROFESIÓN");
+
+        private final String label;
+        private final String filePrefix;
+        private final String dateColumn;
+        private final String from;
+        private final String columns;
+        private final String orderBy;
+        private final String[] headers;
+
+        Dataset(String label, String filePrefix, String dateColumn, String from, String columns, String orderBy,
+                String... headers) {
+            this.label = label;
+            this.filePrefix = filePrefix;
+            this.dateColumn = dateColumn;
+            this.from = from;
+            this.columns = columns;
+            this.orderBy = orderBy;
+            this.headers = headers;
+        }
+
+        /** @return Nombre legible para menús y diálogos. */
+        public String getLabel() { return label; }
+
+        /** @return Prefijo sugerido para el nombre del archivo. */
+        public String getFilePrefix() { return filePrefix; }
+
+        /** @return true si el conjunto se puede acotar por fechas. */
+        public boolean hasDateRange() { return dateColumn != null; }
+    }
+
+    /**
+     * Avance de la exportación. Se invoca desde el hilo que exporta, no desde el EDT.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param written Filas escritas hasta ahora.
+         * @param total Filas del rango (contadas al inicio).
+         */
+        void progress(long written, long total);
+    }
+
+    // Cada cuántas filas se informa el avance.
+    private static final int PROGRESS_EVERY = 2_000;
+
+    // ========================================================================================
+    //                                  EXPORTACIÓN
+    // ========================================================================================
+
+    /**
+     * Exporta un conjunto a CSV. Pensado para un hilo de fondo (SwingWorker).
+     * @param from Inicio del rango, o null (ignorado si el conjunto no tiene fecha).
+     * @param to Fin del rango, o null.
+     * @param target Archivo final; se reemplaza si ya existe.
+     * @param listener Receptor del avance, o null.
+     * @param cancelled Consultado en cada fila; si devuelve true se aborta sin dejar archivo.
+     * @return Filas exportadas, o -1 si se canceló.
+     */
+    public long export(Dataset dataset, Date from, Date to, File target, ProgressListener listener,
+                       BooleanSupplier cancelled) throws IOException, SQLException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+        File part = new File(target.getAbsolutePath() + ".part");
+
+        long written = 0;
+        boolean complete = false;
+        try (Connection conn = Conexion.conectarLectura()) {
+            if (conn == null) throw new SQLException("Base de datos no disponible.");
+            long total = count(conn, dataset, from, to);
+            if (listener != null) listener.progress(0, total);
+
+            try (PreparedStatement ps = conn.prepareStatement(buildQuery(dataset, "SELECT " + dataset.columns, from, to)
+                    + " ORDER BY " + dataset.orderBy)) {
+                bindRange(ps, dataset, from, to);
+                try (ResultSet rs = ps.executeQuery();
+                     CsvWriter csv = new CsvWriter(new FileOutputStream(part))) {
+                    csv.row(dataset.headers);
+                    int cols = dataset.headers.length;
+                    while (rs.next()) {
+                        if (cancelled != null && cancelled.getAsBoolean()) return -1;
+                        for (int c = 1; c <= cols; c++) csv.field(rs.getString(c));
+                        csv.endRow();
+                        if (++written % PROGRESS_EVERY == 0 && listener != null) {
+                            listener.progress(written, Math.max(total, written));
+                        }
+                    }
+                }
+            }
+            if (listener != null) listener.progress(written, written);
+            complete = true;
+        } finally {
+            if (!complete) part.delete();
+        }
+
+        AtomicFiles.moveIntoPlace(part, target);
+        return written;
+    }
+
+    // ========================================================================================
+    //                                  LÓGICA INTERNA
+    // ========================================================================================
+
+    private long count(Connection conn, Dataset dataset, Date from, Date to) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(buildQuery(dataset, "SELECT COUNT(*)", from, to))) {
+            bindRange(ps, dataset, from, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static String buildQuery(Dataset dataset, String select, Date from, Date to) {
+        StringBuilder sql = new StringBuilder(select).append(' ').append(dataset.from).append(" WHERE 1 = 1");
+        if (dataset.hasDateRange()) {
+            if (from != null) sql.append(" AND ").append(dataset.dateColumn).append(" >= ?");
+            if (to != null) sql.append(" AND ").append(dataset.dateColumn).append(" <= ?");
+        }
+        return sql.toString();
+    }
+
+    private static void bindRange(PreparedStatement ps, Dataset dataset, Date from, Date to) throws SQLException {
+        if (!dataset.hasDateRange()) return;
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        int i = 1;
+        if (from != null) ps.setString(i++, sdf.format(from));
+        if (to != null) ps.setString(i, sdf.format(to));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: DatabaseMetrics.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Persistence Gauges)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Publica en MetricsRegistry el estado de la capa de persistencia: pools de
+ * conexiones, caché de sentencias, caché de catálogo, cola de escrituras,
+ * caché de páginas de SQLite, tamaño del WAL y latencias por sentencia de
+ * QueryStats.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import com.swimcore.util.LatencyHistogram;
+import com.swimcore.util.MetricsRegistry;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * [DAO - DIAGNÓSTICO] Gauges de la base de datos para el panel de diagnóstico.
+ * [RENDIMIENTO] Todo se lee de contadores existentes salvo los PRAGMA de SQLite, que
+ * se consultan como mucho una vez cada {@link #PRAGMA_TTL_MS} ms y nunca abren la base
+ * si aún no está abierta.
+ */
+public final class DatabaseMetrics {
+
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+    private static final long PRAGMA_TTL_MS = 2_000;
+
+    // Última lectura de PRAGMAs: {page_size, cache_size, page_count, freelist_count}.
+    private static long[] pragmas = null;
+    private static long pragmasReadAt = 0;
+
+    private DatabaseMetrics() {}
+
+    /** Registra los gauges de persistencia. Idempotente. */
+    public static void register() {
+        if (!REGISTERED.compareAndSet(false, true)) return;
+
+        pool("db.pool.writer", Conexion::getWriterPool);
+        pool("db.pool.readers", Conexion::getReaderPool);
+
+        MetricsRegistry.gauge("db.statementCache.hits", StatementCache::getHits);
+        MetricsRegistry.gauge("db.statementCache.misses", StatementCache::getMisses);
+        MetricsRegistry.gauge("db.statementCache.evictions", StatementCache::getEvictions);
+        MetricsRegistry.gauge("db.statementCache.hitRate", StatementCache::getHitRate);
+
+        MetricsRegistry.gauge("catalog.hitRate", () -> {
+            long hits = MetricsRegistry.counter("catalog.hits").sum();
+            long total = hits + MetricsRegistry.counter("catalog.misses").sum();
+            return total == 0 ? 0.0 : (double) hits / total;
+        });
+
+        writeQueue("db.writeQueue.pending", WriteQueue::getPendingCount);
+        writeQueue("db.writeQueue.committedOperations", WriteQueue::getCommittedOperations);
+        writeQueue("db.writeQueue.committedBatches", WriteQueue::getCommittedBatches);
+
+        MetricsRegistry.gauge("sqlite.fileBytes", () -> Conexion.getDatabaseFile().length());
+        MetricsRegistry.gauge("sqlite.walBytes", () -> new File(Conexion.getDatabaseFile().getPath() + "-wal").length());
+        MetricsRegistry.gauge("sqlite.pageSize", () -> pragma(0));
+        MetricsRegistry.gauge("sqlite.pageCacheBytes", DatabaseMetrics::pageCacheBytes);
+        MetricsRegistry.gauge("sqlite.pageCount", () -> pragma(2));
+        MetricsRegistry.gauge("sqlite.freelistPages", () -> pragma(3));
+
+        MetricsRegistry.histogramGroup("db.query", () -> {
+            Map<String, LatencyHistogram.Snapshot> map = new LinkedHashMap<>();
+            for (QueryStats.QuerySnapshot q : QueryStats.getQueries()) map.put(q.getFingerprint(), q.getLatency());
+            return map;
+        });
+        MetricsRegistry.histogramGroup("db.connectionWait", QueryStats::getConnectionWaits);
+        MetricsRegistry.gauge("db.query.errors",
+                () -> QueryStats.getQueries().stream().mapToLong(QueryStats.QuerySnapshot::getErrors).sum());
+    }
+
+    private static void pool(String prefix, Supplier<ConnectionPool> source) {
+        poolGauge(prefix + ".size", source, ConnectionPool::getSize);
+        poolGauge(prefix + ".active", source, ConnectionPool::getActiveCount);
+        poolGauge(prefix + ".idle", source, ConnectionPool::getIdleCount);
+    }
+
+    private static void poolGauge(String name, Supplier<ConnectionPool> source,
+                                  Function<ConnectionPool, Integer> reader) {
+        MetricsRegistry.gauge(name, () -> {
+            ConnectionPool p = source.get();
+            return p == null || p.isClosed() ? null : reader.apply(p);
+        });
+    }
+
+    private static void writeQueue(String name, ToLongFunction<WriteQueue> reader) {
+        MetricsRegistry.gauge(name, () -> {
+            WriteQueue q = WriteQueue.getIfStarted();
+            return q == null ? null : reader.applyAsLong(q);
+        });
+    }
+
+    // ========================================================================================
+    //                                  PRAGMAS DE SQLITE
+    // ========================================================================================
+
+    /**
+     * Capacidad de la caché de páginas por conexión: cache_size positivo son páginas,
+     * negativo son KiB (convención de SQLite).
+     */
+    private static Long pageCacheBytes() {
+        Long pageSize = pragma(0), cacheSize = pragma(1);
+        if (pageSize == null || cacheSize == null) return null;
+        return cacheSize >= 0 ? cacheSize * pageSize : -cacheSize * 1024;
+    }
+
+    private static synchronized Long pragma(int index) {
+        long now = System.currentTimeMillis();
+        if (pragmas == null || now - pragmasReadAt > PRAGMA_TTL_MS) {
+            pragmas = readPragmas();
+            pragmasReadAt = now;
+        }
+        return pragmas == null ? null : pragmas[index];
+    }
+
+    /** @return Valores de los PRAGMA en una conexión de lectura, o null si la base no está abierta. */
+    private static long[] readPragmas() {
+        ConnectionPool readers = Conexion.getReaderPool();
+        if (readers == null || readers.isClosed()) return null;
+        String[] names = {"page_size", "cache_size", "page_count", "freelist_count"};
+        long[] values = new long[names.length];
+        Connection borrowed = Conexion.conectarLectura();
+        if (borrowed == null) return null;
+        try (Connection conn = borrowed;
+             Statement st = conn.createStatement()) {
+            for (int i = 0; i < names.length; i++) {
+                try (ResultSet rs = st.executeQuery("PRAGMA " + names[i])) {
+                    values[i] = rs.next() ? rs.getLong(1) : 0;
+                }
+            }
+            return values;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
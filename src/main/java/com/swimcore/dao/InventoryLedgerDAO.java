@@ -0,0 +1,256 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: InventoryLedgerDAO.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.1 (Local Time Convention)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Kardex de solo anexado. Cada cambio de stock (venta, ajuste, alta o edición
+ * de producto) deja en inventory_movements un evento tipado con su delta, la
+ * venta que lo originó y el operador. Periódicamente se guarda en
+ * stock_snapshots una foto del stock de cada producto; el stock a una fecha
+ * se reconstruye desde la foto más cercana más los eventos posteriores.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import com.swimcore.util.SessionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * [DAO - KARDEX] Registro de eventos de inventario y fotos periódicas de stock.
+ * [INTEGRIDAD DE DATOS] Los eventos se escriben en la misma transacción que el cambio de
+ * stock que describen, y la base rechaza cualquier UPDATE o DELETE sobre ellos.
+ * Todas las fechas del kardex y de las fotos están en hora local (la migración V6 convirtió
+ * las anteriores, guardadas en UTC), así que los IDs crecen con la fecha.
+ * [RENDIMIENTO] Una consulta de stock histórico solo recorre los eventos posteriores a la
+ * última foto anterior a la fecha, nunca el historial completo.
+ */
+public class InventoryLedgerDAO {
+
+    // ========================================================================================
+    //                                  TIPOS DE EVENTO
+    // ========================================================================================
+
+    /** Salida por venta registrada (lleva sale_id). */
+    public static final String EVENT_SALE = "VENTA";
+    /** Ajuste manual o rápido desde el inventario. */
+    public static final String EVENT_ADJUSTMENT = "AJUSTE";
+    /** Stock inicial de un producto nuevo. */
+    public static final String EVENT_CREATION = "ALTA";
+    /** Cambio de stock hecho desde el formulario de edición del producto. */
+    public static final String EVENT_EDIT = "EDICION";
+
+    // Política de fotos: una por producto cada N eventos o cada H horas con actividad
+    // (-Dsiconi.ledger.snapshotEvents=... / -Dsiconi.ledger.snapshotHours=...).
+    private static final int SNAPSHOT_EVENTS = Math.max(1, Integer.getInteger("siconi.ledger.snapshotEvents", 200));
+    private static final int SNAPSHOT_HOURS = Math.max(1, Integer.getInteger("siconi.ledger.snapshotHours", 24));
+
+    // Eventos escritos desde la última foto; al llegar al umbral se programa otra.
+    private static final AtomicInteger eventsSinceCheckpoint = new AtomicInteger();
+
+    private static final String SQL_RECORD = "INSERT INTO inventory_movements " +
+            "(product_id, quantity, type, observation, date, delta, event, sale_id, username) " +
+            "VALUES (?, ?, ?, ?, datetime('now', 'localtime'), ?, ?, ?, ?)";
+
+    // ========================================================================================
+    //                                  ESCRITURA DE EVENTOS
+    // ========================================================================================
+
+    /**
+     * Anexa un evento al kardex. Se ejecuta dentro de la transacción del llamador, junto
+     * con el UPDATE de products que describe.
+     * @param delta Unidades sumadas al stock (negativas para salidas).
+     * @param event Tipo de evento (EVENT_*).
+     * @param saleId Venta que lo originó, o null.
+     * @param observation Motivo legible para el historial.
+     */
+    static void record(Connection conn, int productId, int delta, String event, String saleId,
+                       String observation) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_RECORD)) {
+            bindRecord(ps, productId, delta, event, saleId, observation);
+            ps.executeUpdate();
+        }
+        afterRecord(1);
+    }
+
+    /**
+     * Variante por lotes: el llamador agrega filas con {@link #bindRecord} y ejecuta el lote.
+     * @return Sentencia preparada del INSERT de eventos.
+     */
+    static PreparedStatement prepareRecord(Connection conn) throws SQLException {
+        return conn.prepareStatement(SQL_RECORD);
+    }
+
+    static void bindRecord(PreparedStatement ps, int productId, int delta, String event, String saleId,
+                           String observation) throws SQLException {
+        ps.setInt(1, productId);
+        ps.setInt(2, Math.abs(delta));
+        ps.setString(3, delta >= 0 ? "ENTRADA" : "SALIDA");
+        ps.setString(4, observation);
+        ps.setInt(5, delta);
+        ps.setString(6, event);
+        ps.setString(7, saleId);
+        ps.setString(8, SessionManager.getCurrentUser());
+    }
+
+    /** Contabiliza eventos escritos por lote; al cruzar el umbral programa una foto. */
+    static void afterRecord(int events) {
+        if (eventsSinceCheckpoint.addAndGet(events) >= SNAPSHOT_EVENTS) {
+            eventsSinceCheckpoint.set(0);
+            // Fuera de la transacción actual: la foto entra en un grupo posterior de la cola.
+            CompletableFuture.runAsync(() -> new InventoryLedgerDAO().checkpoint());
+        }
+    }
+
+    /**
+     * Foto de stock 0 para un producto recién creado: todo su historial está en el kardex,
+     * así que su stock es reconstruible desde el primer evento.
+     */
+    static void recordOpeningSnapshot(Connection conn, int productId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT OR IGNORE INTO stock_snapshots (product_id, movement_id, taken_at, stock) " +
+                        "VALUES (?, 0, datetime('now', 'localtime'), 0)")) {
+            ps.setInt(1, productId);
+            ps.executeUpdate();
+        }
+    }
+
+    // ========================================================================================
+    //                                  FOTOS PERIÓDICAS (CHECKPOINTS)
+    // ========================================================================================
+
+    /**
+     * Toma una foto de los productos que la necesitan: sin foto previa, o con eventos
+     * posteriores a la última y ya sea SNAPSHOT_EVENTS de ellos o SNAPSHOT_HOURS de antigüedad.
+     * Pasa por la cola de escritura para que el stock y el último evento leídos sean coherentes.
+     * @return Cantidad de fotos nuevas, o -1 si hubo un error.
+     */
+    public int checkpoint() {
+        return WriteQueue.getInstance().submit(InventoryLedgerDAO::checkpoint)
+                .exceptionally(e -> {
+                    e.printStackTrace();
+                    return -1;
+                }).join();
+    }
+
+    /** Cuerpo del checkpoint; también lo usa la migración que crea el kardex. */
+    public static int checkpoint(Connection conn) throws SQLException {
+        String sql = "INSERT INTO stock_snapshots (product_id, movement_id, taken_at, stock) " +
+                "SELECT p.id, (SELECT COALESCE(MAX(id), 0) FROM inventory_movements), datetime('now', 'localtime'), p.current_stock " +
+                "FROM products p " +
+                "LEFT JOIN (SELECT product_id, MAX(movement_id) AS last_id, MAX(taken_at) AS last_at " +
+                "           FROM stock_snapshots GROUP BY product_id) s ON s.product_id = p.id " +
+                "WHERE s.product_id IS NULL " +
+                "   OR (s.last_at <= datetime('now', 'localtime', ?) " +
+                "       AND EXISTS (SELECT 1 FROM inventory_movements m WHERE m.product_id = p.id AND m.id > s.last_id)) " +
+                "   OR (SELECT COUNT(*) FROM inventory_movements m WHERE m.product_id = p.id AND m.id > s.last_id) >= ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, "-" + SNAPSHOT_HOURS + " hours");
+            ps.setInt(2, SNAPSHOT_EVENTS);
+            return ps.executeUpdate();
+        }
+    }
+
+    // ========================================================================================
+    //                                  CONSULTAS HISTÓRICAS
+    // ========================================================================================
+
+    /**
+     * Stock de todos los productos al cierre de una fecha/hora.
+     * Los productos sin foto anterior a esa fecha (creados después, o anteriores al kardex)
+     * no se incluyen: su stock en ese momento no es reconstruible.
+     * @return Filas {código, nombre, stock, eventos recorridos, fecha de la foto usada}.
+     */
+    public List<Object[]> getStockAsOf(Date asOf) {
+        List<Object[]> rows = new ArrayList<>();
+        String sql = "SELECT p.code, p.name, s.stock + COALESCE(SUM(m.delta), 0), COUNT(m.id), s.taken_at " +
+                "FROM products p " +
+                "JOIN stock_snapshots s ON s.product_id = p.id AND s.movement_id = (" +
+                "    SELECT x.movement_id FROM stock_snapshots x " +
+                "    WHERE x.product_id = p.id AND x.taken_at <= ? " +
+                "    ORDER BY x.taken_at DESC, x.movement_id DESC LIMIT 1) " +
+                "LEFT JOIN inventory_movements m ON m.product_id = p.id AND m.id > s.movement_id AND m.date <= ? " +
+                "GROUP BY p.id " +
+                "ORDER BY p.name";
+        String limit = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(asOf);
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, limit);
+            ps.setString(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Object[]{rs.getString(1), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getString(5)});
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    /**
+     * Stock de un producto al cierre de una fecha/hora.
+     * @return Stock reconstruido, o null si no hay foto anterior a esa fecha.
+     */
+    public Integer getStockAsOf(int productId, Date asOf) {
+        String sql = "SELECT s.stock + COALESCE((SELECT SUM(m.delta) FROM inventory_movements m " +
+                "    WHERE m.product_id = s.product_id AND m.id > s.movement_id AND m.date <= ?), 0) " +
+                "FROM stock_snapshots s " +
+                "WHERE s.product_id = ? AND s.taken_at <= ? " +
+                "ORDER BY s.taken_at DESC, s.movement_id DESC LIMIT 1";
+        String limit = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(asOf);
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, limit);
+            ps.setInt(2, productId);
+            ps.setString(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Verificación de consistencia: stock actual contra foto más reciente + eventos.
+     * @return Cantidad de productos cuyo stock no coincide con el kardex.
+     */
+    public int countLedgerMismatches() {
+        String sql = "SELECT COUNT(*) FROM products p " +
+                "JOIN stock_snapshots s ON s.product_id = p.id AND s.movement_id = " +
+                "    (SELECT MAX(x.movement_id) FROM stock_snapshots x WHERE x.product_id = p.id) " +
+                "WHERE p.current_stock != s.stock + COALESCE((SELECT SUM(m.delta) FROM inventory_movements m " +
+                "    WHERE m.product_id = p.id AND m.id > s.movement_id), 0)";
+        try (Connection conn = Conexion.conectarLectura();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+}
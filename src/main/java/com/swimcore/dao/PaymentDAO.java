@@ -6,7 +6,7 @@
  * PROFESORA: Ing. Dubraska Roca
  * ASIGNATURA: Técnicas de Programación III
  * * ARCHIVO: PaymentDAO.java
- * VERSIÓN: 1.0.0 (Transactional Save)
+ * VERSIÓN: 1.1.0 (Group Commit Payments)
  * FECHA: 06 de Febrero de 2026
  * HORA: 07:26 PM (Hora de Venezuela)
  * * DESCRIPCIÓN TÉCNICA:
@@ -28,6 +28,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * [DAO - DATA ACCESS OBJECT] Centraliza la persistencia de pagos.
@@ -49,14 +50,19 @@ public class PaymentDAO {
      * @return true si la operación integral fue confirmada satisfactoriamente.
      */
     public boolean savePaymentAndUpdateSale(Payment payment) {
+        return savePaymentAndUpdateSaleAsync(payment).join();
+    }
+
+    /**
+     * [GROUP COMMIT] Encola el pago en la cola de escritura. Las tres sentencias corren
+     * dentro de un mismo SAVEPOINT, por lo que se confirman o revierten juntas.
+     * @return Futuro que se completa tras el COMMIT con true, o false si falló.
+     */
+    public CompletableFuture<Boolean> savePaymentAndUpdateSaleAsync(Payment payment) {
         String sqlInsertPayment = "INSERT INTO payments (sale_id, payment_date, amount_usd, payment_method, reference, notes) VALUES (?, ?, ?, ?, ?, ?)";
         String sqlUpdateSale = "UPDATE sales SET amount_paid_usd = amount_paid_usd + ?, balance_due_usd = balance_due_usd - ? WHERE id = ?";
 
-        Connection conn = null;
-        try {
-            conn = Conexion.conectar();
-            conn.setAutoCommit(false); // Desactivación de autocommit para control de transacción
-
+        return WriteQueue.getInstance().submit(conn -> {
             // 1. Persistencia del registro de pago
             try (PreparedStatement psPayment = conn.prepareStatement(sqlInsertPayment)) {
                 psPayment.setString(1, payment.getSaleId());
@@ -78,31 +84,13 @@ public class PaymentDAO {
 
             // 3. Verificación de reglas de negocio: Actualización de estado operativo
             updateSaleStatusIfPaid(conn, payment.getSaleId());
-
-            conn.commit(); // Consolidación definitiva de los cambios (ACID Commit)
             return true;
-
-        } catch (SQLException e) {
-            // Manejo de fallos en el motor de base de datos
+        }).exceptionally(e -> {
+            // El SAVEPOINT ya revirtió el pago; la deuda queda intacta.
             System.err.println("Error en transacción de pago. Realizando rollback...");
             e.printStackTrace();
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Reversión total ante inconsistencia detectada
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
             return false;
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true); // Restauración del comportamiento estándar de conexión
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+        });
     }
 
     // ========================================================================================
@@ -118,7 +106,7 @@ public class PaymentDAO {
         List<Payment> payments = new ArrayList<>();
         String sql = "SELECT * FROM payments WHERE sale_id = ? ORDER BY payment_date DESC";
 
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, saleId);
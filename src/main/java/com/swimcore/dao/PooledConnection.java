@@ -0,0 +1,106 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI
+ * ARCHIVO: PooledConnection.java
+ * VERSIÓN: 1.2.0 (Query Timing)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN: Manejador del proxy de conexión prestada por ConnectionPool.
+ * Intercepta close() para devolver la conexión física al pool y cierra los
+ * Statements que el DAO haya olvidado cerrar. Las llamadas a
+ * prepareStatement(sql) se resuelven contra la caché de la conexión física;
+ * las demás sentencias se envuelven para que QueryStats también las mida.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * [PATRÓN DE DISEÑO: PROXY] Envoltorio de una conexión física prestada.
+ * Los DAOs siguen usando try-with-resources sobre Connection sin cambios:
+ * el close() del proxy es idempotente y solo devuelve la conexión al pool.
+ */
+final class PooledConnection implements InvocationHandler {
+
+    private final ConnectionPool pool;
+    private final ConnectionPool.Lease lease;
+    private final List<Statement> openStatements = new ArrayList<>();
+    private boolean closed = false;
+
+    PooledConnection(ConnectionPool pool, ConnectionPool.Lease lease) {
+        this.pool = pool;
+        this.lease = lease;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (!closed) {
+                    closed = true;
+                    closeOpenStatements();
+                    pool.release(lease);
+                }
+                return null;
+            case "isClosed":
+                return closed || lease.physical.isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "PooledConnection[" + lease.physical + (closed ? ", devuelta" : "") + "]";
+            default:
+                break;
+        }
+
+        if (closed) throw new SQLException("La conexión ya fue devuelta al pool.");
+
+        Object result;
+        if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+            result = lease.statements.prepare((String) args[0]);
+        } else {
+            try {
+                result = method.invoke(lease.physical, args);
+            } catch (InvocationTargetException e) {
+                if (QueryStats.ENABLED && method.getName().startsWith("prepare") && args[0] instanceof String) {
+                    QueryStats.recordError((String) args[0], 0, lease.physical, e.getCause());
+                }
+                throw e.getCause();
+            }
+            // createStatement(), prepareStatement(sql, opciones), prepareCall(...): fuera de la caché.
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                result = QueryStats.wrap((Statement) result, sql, lease.physical);
+            }
+        }
+        if (result instanceof Statement) {
+            if (openStatements.size() >= 64) openStatements.removeIf(PooledConnection::isStatementClosed);
+            openStatements.add((Statement) result);
+        }
+        return result;
+    }
+
+    private static boolean isStatementClosed(Statement st) {
+        try { return st.isClosed(); } catch (SQLException e) { return true; }
+    }
+
+    /**
+     * Cierra los Statements que sigan abiertos para que no queden colgados de la
+     * conexión física cuando otro DAO la reciba.
+     */
+    private void closeOpenStatements() {
+        for (Statement st : openStatements) {
+            try { if (!st.isClosed()) st.close(); } catch (SQLException ignored) {}
+        }
+        openStatements.clear();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: ProductCatalog.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Shared Catalog Cache)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Caché compartida del catálogo de productos, indexada por ID y por código.
+ * Se carga una sola vez desde ProductDAO y luego se mantiene al día con cada
+ * escritura confirmada (alta, edición, borrado y movimientos de stock), de modo
+ * que Ventas, Dashboard e Inventario no vuelven a leer la tabla completa.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import com.swimcore.model.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * [DAO - INFRAESTRUCTURA] Catálogo de productos en memoria (Singleton).
+ * [CONCURRENCIA] Las lecturas no bloquean: los mapas son concurrentes y cada entrada se
+ * reemplaza por una copia nueva en lugar de modificarse. Las escrituras se serializan con
+ * un candado y llevan un número de versión para descartar cargas que compitan con ellas.
+ * [ENCAPSULAMIENTO] Nunca se entregan las instancias internas: los consumidores reciben
+ * copias y pueden modificarlas sin afectar a la caché.
+ * [PATRÓN DE DISEÑO: OBSERVER] Las vistas se suscriben para enterarse de los cambios.
+ */
+public final class ProductCatalog {
+
+    /** ID informado a los observadores cuando cambia el catálogo completo. */
+    public static final int ALL = -1;
+
+    /**
+     * Observador de cambios del catálogo. Se invoca en el hilo que hizo la escritura,
+     * que no suele ser el EDT: las vistas deben delegar el repintado a Swing.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /** @param productId Producto modificado, o {@link #ALL} si se invalidó todo. */
+        void catalogChanged(int productId);
+    }
+
+    private static ProductCatalog instance;
+
+    // ========================================================================================
+    //                                  ESTADO
+    // ========================================================================================
+
+    private final Map<Integer, Product> byId = new ConcurrentHashMap<>();
+    private final Map<String, Product> byCode = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Object writeLock = new Object();
+
+    private volatile boolean loaded = false;
+    // Vista ordenada por nombre (como ORDER BY name); se rehace tras cada cambio.
+    private volatile List<Product> sortedByName = null;
+    private long version = 0; // Protegido por writeLock.
+
+    private ProductCatalog() {}
+
+    /** @return La instancia única del catálogo. */
+    public static synchronized ProductCatalog getInstance() {
+        if (instance == null) {
+            instance = new ProductCatalog();
+        }
+        return instance;
+    }
+
+    // ========================================================================================
+    //                                  CARGA E INVALIDACIÓN
+    // ========================================================================================
+
+    /** @return true si el catálogo ya está en memoria. */
+    public boolean isLoaded() { return loaded; }
+
+    /** @return Versión actual; se toma antes de leer la tabla para llamar a {@link #install}. */
+    long getVersion() {
+        synchronized (writeLock) { return version; }
+    }
+
+    /**
+     * Instala el catálogo leído de la base. Si hubo escrituras desde que se tomó la
+     * versión, la lectura puede estar desactualizada y se descarta.
+     * @return true si la carga quedó instalada.
+     */
+    boolean install(List<Product> products, long expectedVersion) {
+        synchronized (writeLock) {
+            if (version != expectedVersion) return false;
+            byId.clear();
+            byCode.clear();
+            for (Product p : products) index(new Product(p));
+            sortedByName = null;
+            loaded = true;
+            return true;
+        }
+    }
+
+    /** Descarta el contenido; la siguiente lectura volverá a cargar desde la base. */
+    public void invalidate() {
+        synchronized (writeLock) {
+            version++;
+            loaded = false;
+            byId.clear();
+            byCode.clear();
+            sortedByName = null;
+        }
+        fireChanged(ALL);
+    }
+
+    // ========================================================================================
+    //                                  LECTURAS (DEVUELVEN COPIAS)
+    // ========================================================================================
+
+    /** @return Todos los productos ordenados por nombre. */
+    public List<Product> getAll() {
+        List<Product> view = sortedByName;
+        if (view == null) {
+            synchronized (writeLock) {
+                if (sortedByName == null) {
+                    List<Product> sorted = new ArrayList<>(byId.values());
+                    sorted.sort(Comparator.comparing(Product::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+                    sortedByName = sorted;
+                }
+                view = sortedByName;
+            }
+        }
+        List<Product> copies = new ArrayList<>(view.size());
+        for (Product p : view) copies.add(new Product(p));
+        return copies;
+    }
+
+    /** @return Copia del producto, o null si no existe. */
+    public Product getById(int id) {
+        Product p = byId.get(id);
+        return p == null ? null : new Product(p);
+    }
+
+    /** @return Copia del producto con ese código, o null si no existe. */
+    public Product getByCode(String code) {
+        if (code == null) return null;
+        Product p = byCode.get(code);
+        return p == null ? null : new Product(p);
+    }
+
+    /** @return Productos con stock actual menor o igual al mínimo, de menor a mayor stock. */
+    public List<Product> getLowStock() {
+        List<Product> list = new ArrayList<>();
+        for (Product p : byId.values()) {
+            if (p.isLowStock()) list.add(new Product(p));
+        }
+        list.sort(Comparator.comparingInt(Product::getCurrentStock));
+        return list;
+    }
+
+    /** @return Cantidad de productos en stock crítico, sin copiar nada. */
+    public int countLowStock() {
+        int count = 0;
+        for (Product p : byId.values()) {
+            if (p.isLowStock()) count++;
+        }
+        return count;
+    }
+
+    // ========================================================================================
+    //                                  ESCRITURAS (TRAS CONFIRMAR EN LA BASE)
+    // ========================================================================================
+
+    /** Registra un producto nuevo o reemplaza la versión en caché de uno existente. */
+    void put(Product product) {
+        synchronized (writeLock) {
+            version++;
+            if (!loaded) return;
+            index(new Product(product));
+            sortedByName = null;
+        }
+        fireChanged(product.getId());
+    }
+
+    /** Quita un producto borrado. */
+    void remove(int id) {
+        synchronized (writeLock) {
+            version++;
+            if (!loaded) return;
+            Product old = byId.remove(id);
+            if (old != null && old.getCode() != null) byCode.remove(old.getCode(), old);
+            sortedByName = null;
+        }
+        fireChanged(id);
+    }
+
+    /**
+     * Aplica un cambio puntual sobre una copia del producto y la publica.
+     * @param change Modificación a aplicar (por ejemplo, el nuevo stock mínimo).
+     */
+    void update(int id, Consumer<Product> change) {
+        synchronized (writeLock) {
+            version++;
+            if (!loaded) return;
+            Product current = byId.get(id);
+            if (current == null) return;
+            Product updated = new Product(current);
+            change.accept(updated);
+            index(updated);
+            sortedByName = null;
+        }
+        fireChanged(id);
+    }
+
+    /** Suma {@code delta} unidades al stock en caché de un producto. */
+    void applyStockDelta(int id, int delta) {
+        update(id, p -> p.setCurrentStock(p.getCurrentStock() + delta));
+    }
+
+    private void index(Product p) {
+        Product old = byId.put(p.getId(), p);
+        if (old != null && old.getCode() != null) byCode.remove(old.getCode(), old);
+        if (p.getCode() != null) byCode.put(p.getCode(), p);
+    }
+
+    // ========================================================================================
+    //                                  OBSERVADORES
+    // ========================================================================================
+
+    public void addListener(Listener listener) { listeners.add(listener); }
+
+    public void removeListener(Listener listener) { listeners.remove(listener); }
+
+    private void fireChanged(int productId) {
+        for (Listener l : listeners) {
+            try {
+                l.catalogChanged(productId);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
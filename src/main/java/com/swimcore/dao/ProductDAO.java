@@ -2,29 +2,48 @@
  * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
  * PROYECTO: SICONI
  * ARCHIVO: ProductDAO.java
- * VERSIÓN: 2.0 (FINAL STABLE - MERGED)
+ * VERSIÓN: 2.9.1 (LEDGER IN LOCAL TIME)
  * DESCRIPCIÓN: Acceso a datos unificado. Corrige errores de duplicidad y
  * asegura la consistencia entre las alertas del menú y el inventario real.
+ * La búsqueda usa el índice de texto completo products_fts (prefijos,
+ * sin distinguir acentos y ordenada por relevancia bm25).
+ * Las lecturas del catálogo completo se sirven desde ProductCatalog, que cada
+ * escritura confirmada mantiene al día. Los movimientos de stock pasan por la
+ * cola de escritura con confirmación agrupada (WriteQueue) y cada uno deja su
+ * evento en el kardex (InventoryLedgerDAO).
  */
 
 package com.swimcore.dao;
 
 import com.swimcore.model.Category;
 import com.swimcore.model.Product;
+import com.swimcore.util.MetricsRegistry;
 import java.sql.*;
+import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ProductDAO {
 
+    // Lecturas servidas por ProductCatalog frente a las que tuvieron que ir a la base.
+    private static final LongAdder CATALOG_HITS = MetricsRegistry.counter("catalog.hits");
+    private static final LongAdder CATALOG_MISSES = MetricsRegistry.counter("catalog.misses");
+
     /**
      * Cuenta cuántos productos tienen stock crítico para el Botón de Alerta.
      * Lógica: Stock Actual <= Stock Mínimo.
      */
     public int getAlertCount() {
+        ProductCatalog catalog = warmCatalog();
+        if (catalog != null) return catalog.countLowStock();
+
         String sql = "SELECT COUNT(*) FROM products WHERE current_stock <= min_stock";
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             if (rs.next()) return rs.getInt(1);
@@ -35,10 +54,13 @@ public class ProductDAO {
     }
 
     public List<Product> getLowStockProducts() {
+        ProductCatalog catalog = warmCatalog();
+        if (catalog != null) return catalog.getLowStock();
+
         List<Product> list = new ArrayList<>();
         // Aseguramos el mismo criterio que getAlertCount
         String sql = "SELECT * FROM products WHERE current_stock <= min_stock ORDER BY current_stock ASC";
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -55,64 +77,120 @@ public class ProductDAO {
                 ? "INSERT INTO products (code, name, description, cost_price, sale_price, current_stock, min_stock, category_id, supplier_id, image_path) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
                 : "UPDATE products SET code=?, name=?, description=?, cost_price=?, sale_price=?, current_stock=?, min_stock=?, category_id=?, supplier_id=?, image_path=? WHERE id=?";
 
-        try (Connection conn = Conexion.conectar();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, p.getCode());
-            pstmt.setString(2, p.getName());
-            pstmt.setString(3, p.getDescription());
-            pstmt.setDouble(4, p.getCostPrice());
-            pstmt.setDouble(5, p.getSalePrice());
-            pstmt.setInt(6, p.getCurrentStock());
-            pstmt.setInt(7, p.getMinStock());
+        // El alta y el cambio de stock desde el formulario quedan en el kardex en la misma transacción.
+        Integer savedId = WriteQueue.getInstance().submit(conn -> {
+            int previousStock = 0;
+            if (p.getId() != 0) {
+                try (PreparedStatement ps = conn.prepareStatement("SELECT current_stock FROM products WHERE id = ?")) {
+                    ps.setInt(1, p.getId());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) previousStock = rs.getInt(1);
+                    }
+                }
+            }
 
-            // Manejo de nulos para claves foráneas
-            if (p.getCategoryId() > 0) pstmt.setInt(8, p.getCategoryId());
-            else pstmt.setObject(8, null);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, p.getCode());
+                pstmt.setString(2, p.getName());
+                pstmt.setString(3, p.getDescription());
+                pstmt.setDouble(4, p.getCostPrice());
+                pstmt.setDouble(5, p.getSalePrice());
+                pstmt.setInt(6, p.getCurrentStock());
+                pstmt.setInt(7, p.getMinStock());
 
-            if (p.getSupplierId() > 0) pstmt.setInt(9, p.getSupplierId());
-            else pstmt.setObject(9, null);
+                // Manejo de nulos para claves foráneas
+                if (p.getCategoryId() > 0) pstmt.setInt(8, p.getCategoryId());
+                else pstmt.setObject(8, null);
 
-            pstmt.setString(10, p.getImagePath());
+                if (p.getSupplierId() > 0) pstmt.setInt(9, p.getSupplierId());
+                else pstmt.setObject(9, null);
 
-            if (p.getId() != 0) pstmt.setInt(11, p.getId());
+                pstmt.setString(10, p.getImagePath());
 
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
+                if (p.getId() != 0) pstmt.setInt(11, p.getId());
+
+                pstmt.executeUpdate();
+            }
+
+            int id = p.getId();
+            if (id == 0) {
+                try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                    if (rs.next()) id = rs.getInt(1);
+                }
+                InventoryLedgerDAO.recordOpeningSnapshot(conn, id);
+                if (p.getCurrentStock() != 0) {
+                    InventoryLedgerDAO.record(conn, id, p.getCurrentStock(), InventoryLedgerDAO.EVENT_CREATION, null, "ALTA DE PRODUCTO");
+                }
+            } else if (p.getCurrentStock() != previousStock) {
+                InventoryLedgerDAO.record(conn, id, p.getCurrentStock() - previousStock, InventoryLedgerDAO.EVENT_EDIT, null, "EDICIÓN DE PRODUCTO");
+            }
+            return id;
+        }).exceptionally(e -> {
             e.printStackTrace();
-            return false;
-        }
+            return null;
+        }).join();
+
+        if (savedId == null) return false;
+        Product cached = new Product(p);
+        cached.setId(savedId);
+        ProductCatalog.getInstance().put(cached);
+        return true;
     }
 
     public boolean updateStockDelta(int id, int delta) {
+        return updateStockDeltaAsync(id, delta).join();
+    }
+
+    /**
+     * [GROUP COMMIT] Encola el ajuste de stock en la cola de escritura.
+     * @return Futuro que se completa tras el COMMIT: true si se aplicó, false si dejaría
+     * el stock en negativo, el producto no existe o hubo un error.
+     */
+    public CompletableFuture<Boolean> updateStockDeltaAsync(int id, int delta) {
+        return updateStockDeltaAsync(id, delta, "MOVIMIENTO MANUAL");
+    }
+
+    /**
+     * Igual que {@link #updateStockDeltaAsync(int, int)}, con la observación que se guarda
+     * en el kardex (p. ej. el neto de una ráfaga de clics agrupada).
+     */
+    public CompletableFuture<Boolean> updateStockDeltaAsync(int id, int delta, String observation) {
         // Validación en SQL: No permite stock negativo
         String sql = "UPDATE products SET current_stock = current_stock + ? WHERE id = ? AND (current_stock + ?) >= 0";
-        try (Connection conn = Conexion.conectar();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, delta);
-            pstmt.setInt(2, id);
-            pstmt.setInt(3, delta);
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
+        return WriteQueue.getInstance().submit(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, delta);
+                pstmt.setInt(2, id);
+                pstmt.setInt(3, delta);
+                if (pstmt.executeUpdate() == 0) return false;
+            }
+            InventoryLedgerDAO.record(conn, id, delta, InventoryLedgerDAO.EVENT_ADJUSTMENT, null, observation);
+            return true;
+        }).thenApply(ok -> {
+            if (ok) ProductCatalog.getInstance().applyStockDelta(id, delta);
+            return ok;
+        }).exceptionally(e -> {
+            e.printStackTrace();
             return false;
-        }
+        });
     }
 
     /**
      * AUDITORÍA STOCK: Transacción segura para modificar stock y guardar historial.
      */
     public boolean auditStock(int productId, int quantity, String observation) {
-        String sqlTable = "CREATE TABLE IF NOT EXISTS inventory_movements (id INTEGER PRIMARY KEY AUTOINCREMENT, product_id INTEGER, quantity INTEGER, type TEXT, observation TEXT, date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
-        String sqlUpdate = "UPDATE products SET current_stock = current_stock + ? WHERE id = ?";
-        String sqlHistory = "INSERT INTO inventory_movements (product_id, quantity, type, observation) VALUES (?, ?, ?, ?)";
-
-        try (Connection conn = Conexion.conectar()) {
-            conn.setAutoCommit(false); // Inicio Transacción
+        return auditStockAsync(productId, quantity, observation).join();
+    }
 
-            try (Statement stmt = conn.createStatement()) { stmt.execute(sqlTable); }
+    /**
+     * [GROUP COMMIT] Versión encolada de auditStock(). La actualización del producto y su
+     * movimiento de kardex forman una unidad atómica (un SAVEPOINT dentro del grupo).
+     */
+    public CompletableFuture<Boolean> auditStockAsync(int productId, int quantity, String observation) {
+        String sqlUpdate = "UPDATE products SET current_stock = current_stock + ? WHERE id = ?";
 
-            try (PreparedStatement psUpd = conn.prepareStatement(sqlUpdate);
-                 PreparedStatement psHis = conn.prepareStatement(sqlHistory)) {
+        return WriteQueue.getInstance().submit(conn -> {
+            try (PreparedStatement psUpd = conn.prepareStatement(sqlUpdate)) {
 
                 // 1. Actualizar Producto
                 psUpd.setInt(1, quantity);
@@ -120,25 +198,18 @@ public class ProductDAO {
                 int rows = psUpd.executeUpdate();
 
                 if (rows == 0) throw new SQLException("Producto no encontrado o error de escritura.");
-
-                // 2. Insertar Historial
-                psHis.setInt(1, productId);
-                psHis.setInt(2, Math.abs(quantity));
-                psHis.setString(3, (quantity > 0) ? "ENTRADA" : "SALIDA");
-                psHis.setString(4, observation == null ? "MOVIMIENTO MANUAL" : observation.toUpperCase());
-                psHis.executeUpdate();
-
-                conn.commit(); // Guardar cambios
-                return true;
-            } catch (SQLException e) {
-                conn.rollback(); // Cancelar si falla algo
-                e.printStackTrace();
-                return false;
             }
-        } catch (SQLException e) {
+            // 2. Evento en el kardex
+            InventoryLedgerDAO.record(conn, productId, quantity, InventoryLedgerDAO.EVENT_ADJUSTMENT, null,
+                    observation == null ? "MOVIMIENTO MANUAL" : observation.toUpperCase());
+            return true;
+        }).thenApply(ok -> {
+            ProductCatalog.getInstance().applyStockDelta(productId, quantity);
+            return ok;
+        }).exceptionally(e -> {
             e.printStackTrace();
             return false;
-        }
+        });
     }
 
     public boolean updateMinStock(int id, int newMinStock) {
@@ -147,35 +218,135 @@ public class ProductDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, newMinStock);
             pstmt.setInt(2, id);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() == 0) return false;
+            ProductCatalog.getInstance().update(id, p -> p.setMinStock(newMinStock));
+            return true;
         } catch (SQLException e) { return false; }
     }
 
+    /** Máximo de coincidencias devueltas por la búsqueda (las más relevantes). */
+    public static final int SEARCH_LIMIT = 500;
+
+    /**
+     * Búsqueda de productos por código, nombre o descripción sobre el índice FTS5.
+     * Cada palabra escrita se trata como prefijo ("tra azu" encuentra "Traje Azul") y
+     * todas deben aparecer. Los resultados salen ordenados por bm25, con más peso en
+     * el código que en el nombre, y en el nombre que en la descripción.
+     * Si el término es un número, el producto con ese ID encabeza la lista.
+     */
     public List<Product> searchProducts(String term) {
         List<Product> list = new ArrayList<>();
-        String sql = "SELECT * FROM products WHERE id = ? OR name LIKE ? OR code LIKE ?";
-        try (Connection conn = Conexion.conectar(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, term);
-            pstmt.setString(2, "%" + term + "%");
-            pstmt.setString(3, "%" + term + "%");
+        if (term == null) return list;
+
+        String match = toFtsQuery(term);
+        if (match.isEmpty()) return list;
+
+        String sql = "SELECT p.* FROM products_fts f JOIN products p ON p.id = f.rowid " +
+                "WHERE products_fts MATCH ? ORDER BY bm25(products_fts, 10.0, 5.0, 1.0) LIMIT " + SEARCH_LIMIT;
+        try (Connection conn = Conexion.conectarLectura(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, match);
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) list.add(mapProduct(rs));
         } catch (SQLException e) { e.printStackTrace(); }
+
+        // Compatibilidad: buscar por el ID numérico que muestra la tabla.
+        String trimmed = term.trim();
+        if (trimmed.matches("\\d{1,9}")) {
+            int id = Integer.parseInt(trimmed);
+            list.removeIf(p -> p.getId() == id);
+            Product exact = getProductById(id);
+            if (exact != null) list.add(0, exact);
+        }
         return list;
     }
 
+    /**
+     * Convierte el texto del usuario en una consulta FTS5 segura. Cada palabra se
+     * entrecomilla (neutraliza la sintaxis de FTS5) y se marca como prefijo. Una palabra
+     * con separadores, como un código, se busca como frase de tokens contiguos:
+     * {@code traje TRJ-00} se convierte en {@code "traje"* "TRJ 00"*}.
+     */
+    private static String toFtsQuery(String term) {
+        StringBuilder sb = new StringBuilder();
+        for (String word : term.trim().split("\\s+")) {
+            String phrase = String.join(" ", word.split("[^\\p{L}\\p{N}]+")).trim();
+            if (phrase.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('"').append(phrase).append("\"*");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Equivalente en memoria de la consulta FTS5 de searchProducts(): normaliza igual
+     * (minúsculas, sin acentos, separando por signos) y exige que cada palabra aparezca
+     * como prefijo, o como frase contigua si trae separadores.
+     * Permite a la vista refinar resultados previos sin volver a consultar la base.
+     */
+    public static boolean matchesSearch(Product p, String term) {
+        String[][] fields = { searchTokens(p.getCode()), searchTokens(p.getName()), searchTokens(p.getDescription()) };
+        for (String word : term.trim().split("\\s+")) {
+            String[] phrase = searchTokens(word);
+            if (phrase.length == 0) continue;
+            boolean found = false;
+            for (String[] tokens : fields) {
+                if (containsPhrasePrefix(tokens, phrase)) { found = true; break; }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Indica si los resultados de {@code previous} contienen todos los de {@code next}, es
+     * decir, si basta con filtrarlos en memoria. Se cumple cuando el nuevo término solo
+     * agrega texto al anterior; no aplica a términos numéricos (incluyen el producto por ID).
+     */
+    public static boolean canNarrowSearch(String previous, String next) {
+        if (previous == null || next == null) return false;
+        String prev = previous.trim();
+        String curr = next.trim();
+        if (prev.isEmpty() || !curr.startsWith(prev)) return false;
+        return !prev.matches("\\d{1,9}") && !curr.matches("\\d{1,9}");
+    }
+
+    private static String[] searchTokens(String text) {
+        if (text == null || text.isEmpty()) return new String[0];
+        String plain = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(plain.split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // Misma semántica que "a b c"* en FTS5: tokens contiguos, solo el último como prefijo.
+    private static boolean containsPhrasePrefix(String[] tokens, String[] phrase) {
+        int last = phrase.length - 1;
+        for (int i = 0; i + last < tokens.length; i++) {
+            boolean ok = true;
+            for (int j = 0; j < last && ok; j++) ok = tokens[i + j].equals(phrase[j]);
+            if (ok && tokens[i + last].startsWith(phrase[last])) return true;
+        }
+        return false;
+    }
+
+    /** Catálogo completo ordenado por nombre. Con la caché cargada no toca la base. */
     public List<Product> getAllProducts() {
-        List<Product> list = new ArrayList<>();
-        try (Connection conn = Conexion.conectar();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM products ORDER BY name ASC")) {
-            while (rs.next()) list.add(mapProduct(rs));
-        } catch (SQLException e) { e.printStackTrace(); }
-        return list;
+        ProductCatalog catalog = warmCatalog();
+        if (catalog != null) return catalog.getAll();
+        List<Product> list = queryAllProducts();
+        return list != null ? list : new ArrayList<>();
     }
 
     public Product getProductById(int id) {
-        try (Connection conn = Conexion.conectar();
+        ProductCatalog catalog = ProductCatalog.getInstance();
+        if (catalog.isLoaded()) {
+            CATALOG_HITS.increment();
+            return catalog.getById(id);
+        }
+        CATALOG_MISSES.increment();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pst = conn.prepareStatement("SELECT * FROM products WHERE id = ?")) {
             pst.setInt(1, id);
             ResultSet rs = pst.executeQuery();
@@ -184,6 +355,61 @@ public class ProductDAO {
         return null;
     }
 
+    /**
+     * Búsqueda exacta por código (lo que teclea o escanea el vendedor).
+     * Con la caché cargada se resuelve en el índice por código de ProductCatalog;
+     * si no, usa el índice UNIQUE de products.code.
+     */
+    public Product getProductByCode(String code) {
+        if (code == null || code.isEmpty()) return null;
+        ProductCatalog catalog = ProductCatalog.getInstance();
+        if (catalog.isLoaded()) {
+            CATALOG_HITS.increment();
+            return catalog.getByCode(code);
+        }
+        CATALOG_MISSES.increment();
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement pst = conn.prepareStatement("SELECT * FROM products WHERE code = ?")) {
+            pst.setString(1, code);
+            ResultSet rs = pst.executeQuery();
+            if (rs.next()) return mapProduct(rs);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Devuelve el catálogo en memoria, cargándolo desde la base la primera vez.
+     * @return El catálogo, o null si la carga falló o compitió con una escritura
+     * (en ese caso el llamador consulta directamente la base).
+     */
+    private ProductCatalog warmCatalog() {
+        ProductCatalog catalog = ProductCatalog.getInstance();
+        if (catalog.isLoaded()) {
+            CATALOG_HITS.increment();
+            return catalog;
+        }
+        CATALOG_MISSES.increment();
+        long version = catalog.getVersion();
+        List<Product> all = queryAllProducts();
+        return (all != null && catalog.install(all, version)) ? catalog : null;
+    }
+
+    /** @return Todos los productos leídos de la base, o null si hubo error. */
+    private List<Product> queryAllProducts() {
+        List<Product> list = new ArrayList<>();
+        try (Connection conn = Conexion.conectarLectura();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM products ORDER BY name ASC")) {
+            while (rs.next()) list.add(mapProduct(rs));
+            return list;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     // Método auxiliar para no repetir código de mapeo
     private Product mapProduct(ResultSet rs) throws SQLException {
         Product p = new Product();
@@ -203,7 +429,7 @@ public class ProductDAO {
 
     public List<Category> getAllCategories() {
         List<Category> list = new ArrayList<>();
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery("SELECT * FROM categories ORDER BY name ASC")) {
             while (rs.next()) list.add(new Category(rs.getInt("id"), rs.getString("name"), rs.getString("description")));
@@ -212,7 +438,7 @@ public class ProductDAO {
     }
 
     public String generateSmartCode(String prefix) {
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement("SELECT code FROM products WHERE code LIKE ? ORDER BY id DESC LIMIT 1")) {
             pstmt.setString(1, prefix + "%");
             ResultSet rs = pstmt.executeQuery();
@@ -237,7 +463,7 @@ public class ProductDAO {
                 "WHERE m.date BETWEEN ? AND ? " +
                 "ORDER BY m.date DESC, m.id DESC";
 
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
             pstmt.setString(1, sdf.format(from));
@@ -258,11 +484,148 @@ public class ProductDAO {
         return data;
     }
 
+    /** Filas por página del historial de movimientos. */
+    public static final int HISTORY_PAGE_SIZE = 200;
+
+    /**
+     * [PAGINACIÓN POR LLAVE] Una página del historial, del más reciente al más antiguo.
+     * Continúa justo después de la fila (afterDate, afterId) en lugar de usar OFFSET, así
+     * cada página es una búsqueda directa en idx_inventory_movements_date sin importar
+     * cuántas se hayan leído antes.
+     * @param from Inicio del rango, o null sin límite inferior.
+     * @param to Fin del rango, o null sin límite superior.
+     * @param afterDate Fecha cruda (columna 1) de la última fila ya mostrada; null para la primera página.
+     * @param afterId ID (columna 0) de esa misma fila.
+     * @return Filas {id, fecha, código, producto, tipo, cantidad, observación}.
+     */
+    public List<Vector<Object>> getHistoryPage(java.util.Date from, java.util.Date to,
+                                               String afterDate, int afterId, int limit) {
+        List<Vector<Object>> data = new ArrayList<>(Math.min(limit, HISTORY_PAGE_SIZE));
+        StringBuilder sql = new StringBuilder(
+                "SELECT m.id, m.date, p.code, p.name, m.type, m.quantity, m.observation " +
+                "FROM inventory_movements m " +
+                "LEFT JOIN products p ON m.product_id = p.id " +
+                "WHERE 1 = 1");
+        if (from != null) sql.append(" AND m.date >= ?");
+        // El cursor ya está dentro del rango y reemplaza al límite superior: si ambos
+        // estuvieran presentes SQLite acotaría el índice con "to" y filtraría el resto.
+        if (afterDate != null) sql.append(" AND (m.date, m.id) < (?, ?)");
+        else if (to != null) sql.append(" AND m.date <= ?");
+        sql.append(" ORDER BY m.date DESC, m.id DESC LIMIT ?");
+
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            int i = 1;
+            if (from != null) pstmt.setString(i++, sdf.format(from));
+            if (afterDate != null) {
+                pstmt.setString(i++, afterDate);
+                pstmt.setInt(i++, afterId);
+            } else if (to != null) {
+                pstmt.setString(i++, sdf.format(to));
+            }
+            pstmt.setInt(i, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Vector<Object> row = new Vector<>(7);
+                    row.add(rs.getInt(1));
+                    row.add(rs.getString(2));
+                    row.add(rs.getString(3));
+                    row.add(rs.getString(4));
+                    row.add(rs.getString(5));
+                    row.add(rs.getInt(6));
+                    row.add(rs.getString(7));
+                    data.add(row);
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return data;
+    }
+
+    /**
+     * Receptor de filas del historial recorrido con un cursor.
+     */
+    @FunctionalInterface
+    public interface HistoryRowHandler {
+        /** @param row {id, fecha, código, producto, tipo, cantidad, observación} (igual que getHistoryPage). */
+        void row(Vector<Object> row) throws Exception;
+    }
+
+    /**
+     * [CURSOR] Recorre todo el historial del rango, del más reciente al más antiguo, en una
+     * sola consulta sobre idx_inventory_movements_date. Cada fila se entrega y se descarta:
+     * la memoria no depende del tamaño del rango (exportaciones de cientos de miles de filas).
+     * Pensado para un hilo de fondo.
+     * @param cancelled Consultado en cada fila; si devuelve true se detiene.
+     * @return Filas entregadas.
+     */
+    public long forEachHistoryRow(java.util.Date from, java.util.Date to, HistoryRowHandler handler,
+                                  java.util.function.BooleanSupplier cancelled) throws Exception {
+        StringBuilder sql = new StringBuilder(
+                "SELECT m.id, m.date, p.code, p.name, m.type, m.quantity, m.observation " +
+                "FROM inventory_movements m " +
+                "LEFT JOIN products p ON m.product_id = p.id " +
+                "WHERE 1 = 1");
+        if (from != null) sql.append(" AND m.date >= ?");
+        if (to != null) sql.append(" AND m.date <= ?");
+        sql.append(" ORDER BY m.date DESC, m.id DESC");
+
+        long count = 0;
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            int i = 1;
+            if (from != null) pstmt.setString(i++, sdf.format(from));
+            if (to != null) pstmt.setString(i, sdf.format(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (cancelled != null && cancelled.getAsBoolean()) break;
+                    Vector<Object> row = new Vector<>(7);
+                    row.add(rs.getInt(1));
+                    row.add(rs.getString(2));
+                    row.add(rs.getString(3));
+                    row.add(rs.getString(4));
+                    row.add(rs.getString(5));
+                    row.add(rs.getInt(6));
+                    row.add(rs.getString(7));
+                    handler.row(row);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Estimación del total de movimientos en el rango, con dos búsquedas en el índice en
+     * lugar de un COUNT. Como el kardex solo se anexa, los IDs crecen con la fecha y la
+     * diferencia entre el primero y el último del rango es prácticamente exacta.
+     * @return Movimientos estimados (0 si el rango está vacío).
+     */
+    public int estimateHistoryCount(java.util.Date from, java.util.Date to) {
+        String sql = "SELECT " +
+                "(SELECT id FROM inventory_movements WHERE date <= ? ORDER BY date DESC, id DESC LIMIT 1), " +
+                "(SELECT id FROM inventory_movements WHERE date >= ? ORDER BY date, id LIMIT 1)";
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, to != null ? sdf.format(to) : "9999-12-31 23:59:59");
+            pstmt.setString(2, from != null ? sdf.format(from) : "0000-01-01 00:00:00");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getObject(1) == null || rs.getObject(2) == null) return 0;
+                return Math.max(0, rs.getInt(1) - rs.getInt(2) + 1);
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return 0;
+    }
+
     public boolean delete(int id) {
         try (Connection conn = Conexion.conectar();
              PreparedStatement pstmt = conn.prepareStatement("DELETE FROM products WHERE id = ?")) {
             pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() == 0) return false;
+            ProductCatalog.getInstance().remove(id);
+            return true;
         } catch (SQLException e) { return false; }
     }
 }
\ No newline at end of file
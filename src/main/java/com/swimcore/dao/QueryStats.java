@@ -0,0 +1,332 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI
+ * ARCHIVO: QueryStats.java
+ * VERSIÓN: 1.0.0 (Query Timing)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN: Instrumentación de la capa DAO. Mide cada ejecución de SQL
+ * (incluido el recorrido del ResultSet), la agrupa por "huella" (el SQL con
+ * los literales reemplazados por ?) y acumula histogramas de latencia, filas
+ * y errores. También mide la espera por una conexión libre de cada pool.
+ * Las sentencias lentas o fallidas se envían a SlowQueryLog.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import com.swimcore.util.LatencyHistogram;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * [DAO - DIAGNÓSTICO] Registro global de tiempos de consulta por huella de SQL.
+ * [RENDIMIENTO] Registrar es un par de incrementos atómicos; la huella de cada texto
+ * SQL se calcula una sola vez. Se desactiva con -Dsiconi.db.stats=false.
+ * [DISEÑO] Los proxies de PooledConnection y StatementCache llaman a {@link #invoke} en
+ * lugar de invocar directamente el método JDBC; los DAOs no cambian.
+ */
+public final class QueryStats {
+
+    // ========================================================================================
+    //                                  CONFIGURACIÓN
+    // ========================================================================================
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("siconi.db.stats", "true"));
+
+    // Umbral de sentencia lenta (-Dsiconi.db.slowMs=...).
+    static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("siconi.db.slowMs", 250));
+
+    // Tope de huellas distintas: SQL armado con valores concatenados no debe crecer sin límite.
+    private static final int MAX_FINGERPRINTS = 1000;
+    private static final String OVERFLOW = "(otras sentencias)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final Map<String, String> FINGERPRINTS = new ConcurrentHashMap<>();
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> WAITS = new ConcurrentHashMap<>();
+
+    private QueryStats() {}
+
+    /**
+     * Acumuladores de una huella.
+     */
+    private static final class Entry {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    // ========================================================================================
+    //                                  CONSULTA DE MÉTRICAS
+    // ========================================================================================
+
+    /**
+     * Foto de las métricas de una huella de SQL.
+     */
+    public static final class QuerySnapshot {
+        private final String fingerprint;
+        private final LatencyHistogram.Snapshot latency;
+        private final long rows;
+        private final long errors;
+
+        QuerySnapshot(String fingerprint, LatencyHistogram.Snapshot latency, long rows, long errors) {
+            this.fingerprint = fingerprint;
+            this.latency = latency;
+            this.rows = rows;
+            this.errors = errors;
+        }
+
+        /** @return SQL normalizado (literales como ?). */
+        public String getFingerprint() { return fingerprint; }
+
+        /** @return Histograma de latencias en nanosegundos (ejecución + lectura de filas). */
+        public LatencyHistogram.Snapshot getLatency() { return latency; }
+
+        /** @return Filas leídas (SELECT) o afectadas (INSERT/UPDATE/DELETE). */
+        public long getRows() { return rows; }
+
+        /** @return Ejecuciones que terminaron en excepción. */
+        public long getErrors() { return errors; }
+    }
+
+    /** @return Métricas por huella, de mayor a menor tiempo total. */
+    public static List<QuerySnapshot> getQueries() {
+        List<QuerySnapshot> list = new ArrayList<>(ENTRIES.size());
+        ENTRIES.forEach((fp, e) -> list.add(new QuerySnapshot(fp, e.latency.snapshot(), e.rows.sum(), e.errors.sum())));
+        list.sort(Comparator.comparingLong((QuerySnapshot q) -> q.getLatency().getSum()).reversed());
+        return list;
+    }
+
+    /** @return Espera por conexión libre (nanosegundos) por nombre de pool. */
+    public static Map<String, LatencyHistogram.Snapshot> getConnectionWaits() {
+        Map<String, LatencyHistogram.Snapshot> map = new LinkedHashMap<>();
+        WAITS.forEach((pool, h) -> map.put(pool, h.snapshot()));
+        return map;
+    }
+
+    /** Borra todas las métricas acumuladas. */
+    public static void reset() {
+        ENTRIES.clear();
+        WAITS.values().forEach(LatencyHistogram::reset);
+    }
+
+    /** @return Resumen legible de las {@code limit} huellas con más tiempo total. */
+    public static String formatTop(int limit) {
+        StringBuilder sb = new StringBuilder();
+        List<QuerySnapshot> queries = getQueries();
+        for (int i = 0; i < Math.min(limit, queries.size()); i++) {
+            QuerySnapshot q = queries.get(i);
+            LatencyHistogram.Snapshot l = q.getLatency();
+            sb.append(String.format("   %,7d x | total %,8.1f ms | p50 %,7.2f ms | p99 %,7.2f ms | %,d filas | %s%n",
+                    l.getCount(), l.getSum() / 1e6, l.getP50() / 1e6, l.getP99() / 1e6, q.getRows(),
+                    abbreviate(q.getFingerprint(), 120)));
+        }
+        return sb.toString();
+    }
+
+    // ========================================================================================
+    //                                  REGISTRO
+    // ========================================================================================
+
+    /** Registra una ejecución terminada; si supera el umbral va al registro de lentas. */
+    static void record(String sql, long nanos, long rows, Connection physical) {
+        String fp = fingerprint(sql);
+        Entry e = entry(fp);
+        e.latency.record(nanos);
+        e.rows.add(rows);
+        if (nanos >= SLOW_NANOS) SlowQueryLog.logStatement(sql, fp, nanos, rows, physical, null);
+    }
+
+    /** Registra una preparación o ejecución fallida (la excepción sigue su curso hacia el DAO). */
+    static void recordError(String sql, long nanos, Connection physical, Throwable error) {
+        String fp = fingerprint(sql);
+        Entry e = entry(fp);
+        e.latency.record(nanos);
+        e.errors.increment();
+        SlowQueryLog.logStatement(sql, fp, nanos, 0, physical, error);
+    }
+
+    /** Registra la espera por una conexión de un pool. */
+    static void recordWait(String pool, long nanos) {
+        if (!ENABLED) return;
+        WAITS.computeIfAbsent(pool, p -> new LatencyHistogram()).record(nanos);
+        if (nanos >= SLOW_NANOS) SlowQueryLog.logWait(pool, nanos);
+    }
+
+    private static Entry entry(String fp) {
+        Entry e = ENTRIES.get(fp);
+        if (e != null) return e;
+        if (ENTRIES.size() >= MAX_FINGERPRINTS) fp = OVERFLOW;
+        return ENTRIES.computeIfAbsent(fp, k -> new Entry());
+    }
+
+    /**
+     * Huella del SQL: espacios colapsados, literales de texto y números como ?, y listas
+     * IN (?, ?, ...) de cualquier largo como IN (?+). Se memoriza por texto exacto.
+     */
+    static String fingerprint(String sql) {
+        String fp = FINGERPRINTS.get(sql);
+        if (fp != null) return fp;
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("IN (?+)");
+        fp = SPACES.matcher(s).replaceAll(" ").trim();
+        if (FINGERPRINTS.size() >= MAX_FINGERPRINTS * 4) FINGERPRINTS.clear();
+        FINGERPRINTS.put(sql, fp);
+        return fp;
+    }
+
+    static String abbreviate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 3) + "...";
+    }
+
+    // ========================================================================================
+    //                                  INTERCEPCIÓN JDBC
+    // ========================================================================================
+
+    /**
+     * Invoca {@code method} sobre la sentencia física. Si es un execute* se mide: las
+     * actualizaciones se registran de inmediato y los ResultSet se devuelven envueltos
+     * para sumar el tiempo de lectura y las filas hasta que se agoten o se cierren.
+     * @param sql SQL de una sentencia preparada, o null si viene en los argumentos.
+     */
+    static Object invoke(Statement target, Method method, Object[] args, String sql, Connection physical) throws Throwable {
+        String name = method.getName();
+        String text = sql;
+        if (text == null && args != null && args.length > 0 && args[0] instanceof String) text = (String) args[0];
+        if (!ENABLED || text == null || !name.startsWith("execute")) return call(target, method, args);
+
+        long t0 = System.nanoTime();
+        Object result;
+        try {
+            result = call(target, method, args);
+        } catch (Throwable e) {
+            recordError(text, System.nanoTime() - t0, physical, e);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - t0;
+        if (result instanceof ResultSet) {
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    new TrackedResultSet((ResultSet) result, text, elapsed, physical));
+        }
+        record(text, elapsed, affectedRows(result), physical);
+        return result;
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Number) return Math.max(0, ((Number) result).longValue());
+        long rows = 0;
+        if (result instanceof int[]) for (int n : (int[]) result) rows += Math.max(0, n);
+        if (result instanceof long[]) for (long n : (long[]) result) rows += Math.max(0, n);
+        return rows;
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Envuelve una sentencia que no pasa por la caché (createStatement, prepareStatement
+     * con opciones) para que también quede medida.
+     */
+    static Statement wrap(Statement target, String sql, Connection physical) {
+        if (!ENABLED) return target;
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "TimedStatement[" + target + "]";
+                        default: return invoke(target, method, args, sql, physical);
+                    }
+                });
+    }
+
+    /**
+     * [PATRÓN DE DISEÑO: PROXY] ResultSet que cuenta filas y suma el tiempo de next().
+     * En SQLite cada next() avanza la consulta en el motor, así que ahí está la mayor parte
+     * del costo. La medición se registra una vez: al agotarse o al cerrarse.
+     */
+    private static final class TrackedResultSet implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final Connection physical;
+        private long nanos;
+        private long rows;
+        private boolean recorded = false;
+
+        TrackedResultSet(ResultSet target, String sql, long executeNanos, Connection physical) {
+            this.target = target;
+            this.sql = sql;
+            this.nanos = executeNanos;
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long t0 = System.nanoTime();
+                    boolean more;
+                    try {
+                        more = (Boolean) call(target, method, args);
+                    } catch (Throwable e) {
+                        nanos += System.nanoTime() - t0;
+                        if (!recorded) {
+                            recorded = true;
+                            recordError(sql, nanos, physical, e);
+                        }
+                        throw e;
+                    }
+                    nanos += System.nanoTime() - t0;
+                    if (more) rows++;
+                    else finish();
+                    return more;
+                }
+                case "close":
+                    finish();
+                    return call(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(target, method, args);
+            }
+        }
+
+        private void finish() {
+            if (recorded) return;
+            recorded = true;
+            record(sql, nanos, rows, physical);
+        }
+    }
+}
@@ -6,18 +6,21 @@
  * PROFESORA: Ing. Dubraska Roca
  * ASIGNATURA: Técnicas de Programación III
  * * ARCHIVO: ReportsDAO.java
- * VERSIÓN: 1.2.0 (Product Profitability Logic)
+ * VERSIÓN: 1.4.0 (SQL-Side Operational Stats)
  * FECHA: 06 de Febrero de 2026
  * HORA: 07:25 PM (Hora de Venezuela)
  * * DESCRIPCIÓN TÉCNICA:
  * Clase especializada en la extracción de métricas de rendimiento y analítica.
  * Implementa consultas de agregación avanzadas sobre el esquema relacional para
  * transformar datos transaccionales en indicadores financieros clave (KPIs).
+ * Las consultas leen el resumen daily_product_sales (una fila por producto y
+ * día) en lugar de recorrer cada línea de venta del rango.
  * -----------------------------------------------------------------------------
  */
 
 package com.swimcore.dao;
 
+import com.swimcore.model.OperationalStats;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -36,13 +39,16 @@ import java.util.Map;
  */
 public class ReportsDAO {
 
+    // Granularidad del resumen daily_product_sales (columna "day").
+    private static final String DAY_FORMAT = "yyyy-MM-dd";
+
     // ========================================================================================
     //                                  MÓDULO DE ANALÍTICA FINANCIERA
     // ========================================================================================
 
     /**
      * Calcula un resumen consolidado de la salud financiera del taller.
-     * Realiza un cálculo ponderado entre precios de venta y costos de producción (cost_price).
+     * Suma ingresos y costos (congelados al vender) del resumen diario.
      * * @param startDate Límite inferior de la ventana temporal.
      * @param endDate Límite superior de la ventana temporal.
      * @return Map con los indicadores: "ingresos", "costos" y "ganancias".
@@ -53,17 +59,15 @@ public class ReportsDAO {
         summary.put("costos", 0.0);
         summary.put("ganancias", 0.0);
 
-        // Consulta con funciones de agregación SUM y cláusulas JOIN triples.
-        String sql = "SELECT SUM(sd.unit_price * sd.quantity) as total_ingresos, " +
-                "       SUM(p.cost_price * sd.quantity) as total_costos " +
-                "FROM sales s " +
-                "JOIN sale_details sd ON s.id = sd.sale_id " +
-                "JOIN products p ON sd.product_id = p.id " +
-                "WHERE s.date BETWEEN ? AND ?";
+        // Agregación sobre el resumen diario: recorre a lo sumo (días x productos) filas.
+        String sql = "SELECT SUM(r.revenue) as total_ingresos, " +
+                "       SUM(r.cost) as total_costos " +
+                "FROM daily_product_sales r " +
+                "WHERE r.day BETWEEN ? AND ?";
 
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        SimpleDateFormat sdf = new SimpleDateFormat(DAY_FORMAT);
 
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, sdf.format(startDate));
@@ -95,18 +99,17 @@ public class ReportsDAO {
      */
     public List<Object[]> getTopSellingProducts(Date startDate, Date endDate, int limit) {
         List<Object[]> topProducts = new ArrayList<>();
-        String sql = "SELECT p.name, SUM(sd.quantity) as total_vendido " +
-                "FROM sales s " +
-                "JOIN sale_details sd ON s.id = sd.sale_id " +
-                "JOIN products p ON sd.product_id = p.id " +
-                "WHERE s.date BETWEEN ? AND ? " +
+        String sql = "SELECT p.name, SUM(r.units) as total_vendido " +
+                "FROM daily_product_sales r " +
+                "JOIN products p ON r.product_id = p.id " +
+                "WHERE r.day BETWEEN ? AND ? " +
                 "GROUP BY p.name " +
                 "ORDER BY total_vendido DESC " +
                 "LIMIT ?";
 
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        SimpleDateFormat sdf = new SimpleDateFormat(DAY_FORMAT);
 
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, sdf.format(startDate));
@@ -133,26 +136,25 @@ public class ReportsDAO {
     /**
      * [NUEVO METODO] Realiza el desglose de margen de utilidad por artículo.
      * [LÓGICA DE NEGOCIO] Cruza el ingreso por subtotal contra el costo unitario de
-     * adquisición o manufactura para determinar la rentabilidad real.
+     * adquisición o manufactura (registrado al vender) para determinar la rentabilidad real.
      * * @return Lista de arreglos conteniendo: [Nombre, Unidades, Ingresos, Costo, Ganancia].
      */
     public List<Object[]> getProductProfitability(Date startDate, Date endDate) {
         List<Object[]> profitabilityData = new ArrayList<>();
         String sql = "SELECT p.name, " +
-                "       SUM(sd.quantity) as unidades_vendidas, " +
-                "       SUM(sd.subtotal) as ingresos_totales, " +
-                "       SUM(p.cost_price * sd.quantity) as costo_total, " +
-                "       (SUM(sd.subtotal) - SUM(p.cost_price * sd.quantity)) as ganancia_neta " +
-                "FROM sales s " +
-                "JOIN sale_details sd ON s.id = sd.sale_id " +
-                "JOIN products p ON sd.product_id = p.id " +
-                "WHERE s.date BETWEEN ? AND ? " +
+                "       SUM(r.units) as unidades_vendidas, " +
+                "       SUM(r.revenue) as ingresos_totales, " +
+                "       SUM(r.cost) as costo_total, " +
+                "       (SUM(r.revenue) - SUM(r.cost)) as ganancia_neta " +
+                "FROM daily_product_sales r " +
+                "JOIN products p ON r.product_id = p.id " +
+                "WHERE r.day BETWEEN ? AND ? " +
                 "GROUP BY p.name " +
                 "ORDER BY ganancia_neta DESC";
 
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        SimpleDateFormat sdf = new SimpleDateFormat(DAY_FORMAT);
 
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, sdf.format(startDate));
@@ -174,4 +176,51 @@ public class ReportsDAO {
         }
         return profitabilityData;
     }
-}
\ No newline at end of file
+
+    // ========================================================================================
+    //                                  INDICADORES OPERATIVOS
+    // ========================================================================================
+
+    /**
+     * [AGREGACIÓN EN MOTOR] Calcula deuda pendiente, pedidos cobrados y pedidos en taller
+     * del período con una sola consulta. No se materializa ningún objeto Sale en Java.
+     * [REGLAS] Saldos menores a 0.10 USD se consideran liquidados; un pedido con saldo está
+     * "en taller" si tiene abono o su estado es EN PROCESO.
+     * * @return OperationalStats con los totales del rango (vacío si no hay ventas o hay error).
+     */
+    public OperationalStats getOperationalStats(Date startDate, Date endDate) {
+        String sql = "SELECT COUNT(*) AS total_ventas, " +
+                "       SUM(CASE WHEN t - p >= 0.1 THEN 1 ELSE 0 END) AS pendientes, " +
+                "       SUM(CASE WHEN t - p >= 0.1 AND (st = 'EN PROCESO' OR p > 0) THEN 1 ELSE 0 END) AS en_taller, " +
+                "       SUM(CASE WHEN p >= t AND t > 0 THEN 1 ELSE 0 END) AS cobradas, " +
+                "       SUM(CASE WHEN t - p >= 0.1 THEN t - p ELSE 0 END) AS monto_pendiente, " +
+                "       SUM(p) AS monto_cobrado " +
+                "FROM (SELECT IFNULL(total_divisa, 0) AS t, IFNULL(amount_paid_usd, 0) AS p, " +
+                "             UPPER(IFNULL(status, '')) AS st " +
+                "      FROM sales WHERE date BETWEEN ? AND ?)";
+
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        try (Connection conn = Conexion.conectarLectura();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, sdf.format(startDate));
+            pstmt.setString(2, sdf.format(endDate));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new OperationalStats(
+                            rs.getInt("total_ventas"),
+                            rs.getInt("pendientes"),
+                            rs.getInt("en_taller"),
+                            rs.getInt("cobradas"),
+                            rs.getDouble("monto_pendiente"),
+                            rs.getDouble("monto_cobrado"));
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return new OperationalStats();
+    }
+}
@@ -2,7 +2,7 @@
  * -----------------------------------------------------------------------------
  * INSTITUCIÓN: UNEG - SICONI
  * ARCHIVO: SaleDAO.java
- * VERSIÓN: 4.2.0 (Integrated Receipt Support)
+ * VERSIÓN: 4.8.0 (Batch Receipt Queries)
  * FECHA: 04 de Febrero de 2026
  * DESCRIPCIÓN: Capa de datos completa con soporte para recibo y reportes.
  * -----------------------------------------------------------------------------
@@ -10,23 +10,44 @@
 
 package com.swimcore.dao;
 
+import com.swimcore.model.ClientLifetimeValue;
 import com.swimcore.model.Sale;
 import com.swimcore.model.SaleDetail;
 import java.sql.*;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class SaleDAO {
 
+    // --- RESUMEN DIARIO (daily_product_sales) ---
+    // Suma (o resta, según el signo) las líneas de una venta en el resumen por producto y día.
+    private static final String SQL_ROLLUP_APPLY =
+            "INSERT INTO daily_product_sales (day, product_id, units, revenue, cost) " +
+            "SELECT substr(s.date, 1, 10), d.product_id, ? * SUM(d.quantity), ? * SUM(d.subtotal), " +
+            "       ? * SUM(d.quantity * COALESCE(d.unit_cost, p.cost_price, 0)) " +
+            "FROM sale_details d JOIN sales s ON s.id = d.sale_id LEFT JOIN products p ON p.id = d.product_id " +
+            "WHERE d.sale_id = ? AND d.product_id IS NOT NULL " +
+            "GROUP BY substr(s.date, 1, 10), d.product_id " +
+            "ON CONFLICT(day, product_id) DO UPDATE SET units = units + excluded.units, " +
+            "revenue = revenue + excluded.revenue, cost = cost + excluded.cost";
+
+    private static final String SQL_ROLLUP_REBUILD =
+            "INSERT INTO daily_product_sales (day, product_id, units, revenue, cost) " +
+            "SELECT substr(s.date, 1, 10), d.product_id, SUM(d.quantity), SUM(d.subtotal), " +
+            "       SUM(d.quantity * COALESCE(d.unit_cost, p.cost_price, 0)) " +
+            "FROM sale_details d JOIN sales s ON s.id = d.sale_id LEFT JOIN products p ON p.id = d.product_id " +
+            "WHERE s.date IS NOT NULL AND d.product_id IS NOT NULL " +
+            "GROUP BY substr(s.date, 1, 10), d.product_id";
+
     // --- MÉTODOS BÁSICOS ---
 
     public int getTotalSaleCount() {
         String sql = "SELECT COUNT(*) FROM sales";
-        try (Connection con = Conexion.conectar();
+        try (Connection con = Conexion.conectarLectura();
              PreparedStatement pst = con.prepareStatement(sql);
              ResultSet rs = pst.executeQuery()) {
             if (rs.next()) return rs.getInt(1);
@@ -34,47 +55,14 @@ public class SaleDAO {
         return 0;
     }
 
-    public String[] getLastInvoiceAndControlNumbers() {
-        String[] numbers = {"FAC-0000", "CTRL-" + new SimpleDateFormat("yyyy").format(new Date()) + "-0000"};
-        String sql = "SELECT invoice_nro, control_nro FROM sales WHERE invoice_nro != '' AND invoice_nro IS NOT NULL ORDER BY id DESC LIMIT 1";
-        try (Connection con = Conexion.conectar();
-             PreparedStatement pst = con.prepareStatement(sql);
-             ResultSet rs = pst.executeQuery()) {
-            if (rs.next()) {
-                numbers[0] = rs.getString("invoice_nro");
-                numbers[1] = rs.getString("control_nro");
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return numbers;
-    }
-
     // --- MÉTODO DE RECUPERACIÓN (SOPORTE PARA RECIBO) ---
     public Sale getSaleById(String saleId) {
         String sql = "SELECT * FROM sales WHERE id = ?";
-        try (Connection con = Conexion.conectar();
+        try (Connection con = Conexion.conectarLectura();
              PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, saleId);
             try (ResultSet rs = pst.executeQuery()) {
-                if (rs.next()) {
-                    Sale s = new Sale();
-                    s.setId(rs.getString("id"));
-                    s.setDate(rs.getString("date"));
-                    s.setClientId(rs.getString("client_id"));
-                    s.setTotalAmountUSD(rs.getDouble("total_divisa"));
-                    s.setAmountPaid(rs.getDouble("amount_paid_usd"));
-                    s.setBalanceDue(rs.getDouble("balance_due_usd"));
-                    s.setExchangeRate(rs.getDouble("rate"));
-                    s.setPaymentMethod(rs.getString("payment_method"));
-                    s.setReference(rs.getString("reference_number"));
-                    s.setStatus(rs.getString("status"));
-                    s.setObservations(rs.getString("observations"));
-                    s.setDeliveryDate(rs.getString("delivery_date"));
-                    s.setInvoiceNumber(rs.getString("invoice_nro"));
-                    s.setControlNumber(rs.getString("control_nro"));
-                    s.setBank(rs.getString("bank"));
-                    s.setPaymentDate(rs.getString("payment_date"));
-                    return s;
-                }
+                if (rs.next()) return mapSale(rs);
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return null;
@@ -84,39 +72,122 @@ public class SaleDAO {
     public List<SaleDetail> getDetailsBySaleId(String saleId) {
         List<SaleDetail> details = new ArrayList<>();
         String sql = "SELECT d.*, p.name FROM sale_details d JOIN products p ON d.product_id = p.id WHERE d.sale_id = ?";
-        try (Connection con = Conexion.conectar();
+        try (Connection con = Conexion.conectarLectura();
              PreparedStatement pst = con.prepareStatement(sql)) {
             pst.setString(1, saleId);
+            try (ResultSet rs = pst.executeQuery()) {
+                while (rs.next()) details.add(mapDetail(rs));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return details;
+    }
+
+    // --- CONSULTAS POR RANGO (REEMISIÓN MASIVA DE RECIBOS) ---
+
+    /**
+     * [CONSULTA POR LOTES] Ventas completas de un rango, en orden cronológico (índice
+     * idx_sales_date). Una sola consulta en lugar de un getSaleById por pedido.
+     * @param from Inicio del rango, o null.
+     * @param to Fin del rango, o null.
+     */
+    public List<Sale> getSalesBetween(java.util.Date from, java.util.Date to) {
+        List<Sale> list = new ArrayList<>();
+        String sql = "SELECT * FROM sales s WHERE 1 = 1" + rangeFilter(from, to) + " ORDER BY s.date, s.id";
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
+            bindRange(pst, from, to);
+            try (ResultSet rs = pst.executeQuery()) {
+                while (rs.next()) list.add(mapSale(rs));
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return list;
+    }
+
+    /**
+     * [CONSULTA POR LOTES] Líneas de todas las ventas de un rango, agrupadas por pedido.
+     * Mismo filtro que getSalesBetween, resuelto con un JOIN en un solo viaje a la BD.
+     * @return Mapa pedido -> líneas (los pedidos sin líneas no aparecen).
+     */
+    public Map<String, List<SaleDetail>> getDetailsForSalesBetween(java.util.Date from, java.util.Date to) {
+        Map<String, List<SaleDetail>> details = new HashMap<>();
+        String sql = "SELECT d.*, p.name FROM sales s JOIN sale_details d ON d.sale_id = s.id " +
+                "JOIN products p ON d.product_id = p.id WHERE 1 = 1" + rangeFilter(from, to) + " ORDER BY d.sale_id, d.id";
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
+            bindRange(pst, from, to);
             try (ResultSet rs = pst.executeQuery()) {
                 while (rs.next()) {
-                    SaleDetail d = new SaleDetail();
-                    d.setSaleId(rs.getString("sale_id"));
-                    d.setProductId(String.valueOf(rs.getInt("product_id")));
-                    d.setProductName(rs.getString("name"));
-                    d.setQuantity(rs.getInt("quantity"));
-                    d.setUnitPrice(rs.getDouble("unit_price"));
-                    d.setSubtotal(rs.getDouble("subtotal"));
-                    details.add(d);
+                    SaleDetail d = mapDetail(rs);
+                    details.computeIfAbsent(d.getSaleId(), k -> new ArrayList<>()).add(d);
                 }
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return details;
     }
 
+    private static String rangeFilter(java.util.Date from, java.util.Date to) {
+        return (from != null ? " AND s.date >= ?" : "") + (to != null ? " AND s.date <= ?" : "");
+    }
+
+    private static void bindRange(PreparedStatement pst, java.util.Date from, java.util.Date to) throws SQLException {
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        int i = 1;
+        if (from != null) pst.setString(i++, sdf.format(from));
+        if (to != null) pst.setString(i, sdf.format(to));
+    }
+
+    private static Sale mapSale(ResultSet rs) throws SQLException {
+        Sale s = new Sale();
+        s.setId(rs.getString("id"));
+        s.setDate(rs.getString("date"));
+        s.setClientId(rs.getString("client_id"));
+        s.setTotalAmountUSD(rs.getDouble("total_divisa"));
+        s.setAmountPaid(rs.getDouble("amount_paid_usd"));
+        s.setBalanceDue(rs.getDouble("balance_due_usd"));
+        s.setExchangeRate(rs.getDouble("rate"));
+        s.setPaymentMethod(rs.getString("payment_method"));
+        s.setReference(rs.getString("reference_number"));
+        s.setStatus(rs.getString("status"));
+        s.setObservations(rs.getString("observations"));
+        s.setDeliveryDate(rs.getString("delivery_date"));
+        s.setInvoiceNumber(rs.getString("invoice_nro"));
+        s.setControlNumber(rs.getString("control_nro"));
+        s.setBank(rs.getString("bank"));
+        s.setPaymentDate(rs.getString("payment_date"));
+        return s;
+    }
+
+    private static SaleDetail mapDetail(ResultSet rs) throws SQLException {
+        SaleDetail d = new SaleDetail();
+        d.setSaleId(rs.getString("sale_id"));
+        d.setProductId(String.valueOf(rs.getInt("product_id")));
+        d.setProductName(rs.getString("name"));
+        d.setQuantity(rs.getInt("quantity"));
+        d.setUnitPrice(rs.getDouble("unit_price"));
+        d.setSubtotal(rs.getDouble("subtotal"));
+        return d;
+    }
+
     // --- REGISTRO DE VENTA (TRANSACCIONAL) ---
     public boolean registerSale(Sale sale, List<SaleDetail> details) {
+        return registerSaleAsync(sale, details).join();
+    }
+
+    /**
+     * [GROUP COMMIT] Encola el registro de la venta (cabecera, detalle, stock y resumen
+     * diario) como una unidad atómica dentro de la próxima transacción agrupada.
+     * @return Futuro que se completa tras el COMMIT con true, o false si falló.
+     */
+    public CompletableFuture<Boolean> registerSaleAsync(Sale sale, List<SaleDetail> details) {
         String sqlSale = "INSERT INTO sales (id, date, client_id, total_divisa, amount_paid_usd, " +
                 "balance_due_usd, total_bs, rate, currency, payment_method, reference_number, " +
                 "status, observations, delivery_date, invoice_nro, control_nro, bank, payment_date) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        String sqlDetail = "INSERT INTO sale_details (sale_id, product_id, quantity, unit_price, subtotal) VALUES (?, ?, ?, ?, ?)";
+        // unit_cost congela el costo vigente al momento de la venta (para el resumen diario).
+        String sqlDetail = "INSERT INTO sale_details (sale_id, product_id, quantity, unit_price, subtotal, unit_cost) " +
+                "VALUES (?, ?, ?, ?, ?, (SELECT cost_price FROM products WHERE id = ?))";
         String sqlUpdateStock = "UPDATE products SET current_stock = current_stock - ? WHERE id = ?";
 
-        Connection conn = null;
-        try {
-            conn = Conexion.conectar();
-            conn.setAutoCommit(false);
+        return WriteQueue.getInstance().submit(conn -> {
             try (PreparedStatement psSale = conn.prepareStatement(sqlSale)) {
                 psSale.setString(1, sale.getId());
                 psSale.setString(2, sale.getDate());
@@ -139,30 +210,41 @@ public class SaleDAO {
                 psSale.executeUpdate();
             }
             try (PreparedStatement psDetail = conn.prepareStatement(sqlDetail);
-                 PreparedStatement psStock = conn.prepareStatement(sqlUpdateStock)) {
+                 PreparedStatement psStock = conn.prepareStatement(sqlUpdateStock);
+                 PreparedStatement psLedger = InventoryLedgerDAO.prepareRecord(conn)) {
                 for (SaleDetail d : details) {
                     psDetail.setString(1, sale.getId());
                     psDetail.setInt(2, Integer.parseInt(d.getProductId()));
                     psDetail.setInt(3, d.getQuantity());
                     psDetail.setDouble(4, d.getUnitPrice());
                     psDetail.setDouble(5, d.getSubtotal());
+                    psDetail.setInt(6, Integer.parseInt(d.getProductId()));
                     psDetail.addBatch();
                     psStock.setInt(1, d.getQuantity());
                     psStock.setInt(2, Integer.parseInt(d.getProductId()));
                     psStock.addBatch();
+                    InventoryLedgerDAO.bindRecord(psLedger, Integer.parseInt(d.getProductId()), -d.getQuantity(),
+                            InventoryLedgerDAO.EVENT_SALE, sale.getId(), "VENTA " + sale.getId());
+                    psLedger.addBatch();
                 }
                 psDetail.executeBatch();
                 psStock.executeBatch();
+                psLedger.executeBatch();
             }
-            conn.commit();
+            InventoryLedgerDAO.afterRecord(details.size());
+            applyDailyRollup(conn, sale.getId(), 1);
             return true;
-        } catch (SQLException e) {
-            if (conn != null) { try { conn.rollback(); } catch (SQLException ex) {} }
+        }).thenApply(ok -> {
+            // El stock descontado se refleja en el catálogo en memoria.
+            ProductCatalog catalog = ProductCatalog.getInstance();
+            for (SaleDetail d : details) {
+                catalog.applyStockDelta(Integer.parseInt(d.getProductId()), -d.getQuantity());
+            }
+            return ok;
+        }).exceptionally(e -> {
             e.printStackTrace();
             return false;
-        } finally {
-            if (conn != null) { try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {} }
-        }
+        });
     }
 
     public void updateSaleStatus(String saleId, String newStatus) {
@@ -176,6 +258,7 @@ public class SaleDAO {
     }
 
     public boolean deleteSale(String saleId) {
+        String sqlPrune = "DELETE FROM daily_product_sales WHERE units = 0 AND day = (SELECT substr(date, 1, 10) FROM sales WHERE id = ?)";
         String sqlDetails = "DELETE FROM sale_details WHERE sale_id = ?";
         String sqlPayments = "DELETE FROM payments WHERE sale_id = ?";
         String sqlSale = "DELETE FROM sales WHERE id = ?";
@@ -183,6 +266,8 @@ public class SaleDAO {
         try {
             conn = Conexion.conectar();
             conn.setAutoCommit(false);
+            applyDailyRollup(conn, saleId, -1);
+            try (PreparedStatement pst = conn.prepareStatement(sqlPrune)) { pst.setString(1, saleId); pst.executeUpdate(); }
             try (PreparedStatement pst = conn.prepareStatement(sqlDetails)) { pst.setString(1, saleId); pst.executeUpdate(); }
             try (PreparedStatement pst = conn.prepareStatement(sqlPayments)) { pst.setString(1, saleId); pst.executeUpdate(); } catch(Exception ignored){}
             try (PreparedStatement pst = conn.prepareStatement(sqlSale)) { pst.setString(1, saleId); pst.executeUpdate(); }
@@ -199,7 +284,7 @@ public class SaleDAO {
     public List<Sale> getAllSales() {
         List<Sale> list = new ArrayList<>();
         String sql = "SELECT * FROM sales";
-        try (Connection con = Conexion.conectar(); Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+        try (Connection con = Conexion.conectarLectura(); Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
             while (rs.next()) {
                 Sale s = new Sale();
                 s.setId(rs.getString("id"));
@@ -214,50 +299,118 @@ public class SaleDAO {
         return list;
     }
 
-    public Map<String, Double> getFinancialReport(Date startDate, Date endDate) {
-        Map<String, Double> financials = new HashMap<>();
-        String start = new SimpleDateFormat("yyyy-MM-dd").format(startDate) + " 00:00:00";
-        String end = new SimpleDateFormat("yyyy-MM-dd").format(endDate) + " 23:59:59";
-        String sql = "SELECT SUM(total_divisa) FROM sales WHERE date BETWEEN ? AND ?";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql)) {
-            pst.setString(1, start); pst.setString(2, end);
-            ResultSet rs = pst.executeQuery();
-            if (rs.next()) {
-                double ing = rs.getDouble(1);
-                financials.put("ingresos", ing);
-                financials.put("costos", ing * 0.70);
-                financials.put("ganancias", ing * 0.30);
+    // --- VALOR HISTÓRICO DEL CLIENTE (ÍNDICE idx_sales_client) ---
+
+    /** Gasto total acumulado de un cliente (USD), sumado en el motor. */
+    public double getClientTotalSpending(String clientId) {
+        String sql = "SELECT IFNULL(SUM(total_divisa), 0) FROM sales WHERE client_id = ?";
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setString(1, clientId);
+            try (ResultSet rs = pst.executeQuery()) {
+                if (rs.next()) return rs.getDouble(1);
             }
         } catch (SQLException e) { e.printStackTrace(); }
-        return financials;
+        return 0.0;
     }
 
-    public List<Object[]> getTopSellingProducts(Date startDate, Date endDate) {
-        List<Object[]> topList = new ArrayList<>();
-        String start = new SimpleDateFormat("yyyy-MM-dd").format(startDate) + " 00:00:00";
-        String end = new SimpleDateFormat("yyyy-MM-dd").format(endDate) + " 23:59:59";
-        String sql = "SELECT p.name, SUM(d.quantity) as total FROM sale_details d JOIN products p ON d.product_id = p.id JOIN sales s ON d.sale_id = s.id WHERE s.date BETWEEN ? AND ? GROUP BY p.name ORDER BY total DESC LIMIT 5";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql)) {
-            pst.setString(1, start); pst.setString(2, end);
-            ResultSet rs = pst.executeQuery();
-            while (rs.next()) topList.add(new Object[]{rs.getString(1), rs.getInt(2)});
+    /** Número de pedidos de un cliente, contado en el motor. */
+    public int getClientOrderCount(String clientId) {
+        String sql = "SELECT COUNT(*) FROM sales WHERE client_id = ?";
+        try (Connection con = Conexion.conectarLectura(); PreparedStatement pst = con.prepareStatement(sql)) {
+            pst.setString(1, clientId);
+            try (ResultSet rs = pst.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
         } catch (SQLException e) { e.printStackTrace(); }
-        return topList;
+        return 0;
     }
 
-    public List<Object[]> getProductProfitability(Date startDate, Date endDate) {
-        List<Object[]> data = new ArrayList<>();
-        String start = new SimpleDateFormat("yyyy-MM-dd").format(startDate) + " 00:00:00";
-        String end = new SimpleDateFormat("yyyy-MM-dd").format(endDate) + " 23:59:59";
-        String sql = "SELECT p.name, SUM(d.quantity), SUM(d.subtotal) FROM sale_details d JOIN products p ON d.product_id = p.id JOIN sales s ON d.sale_id = s.id WHERE s.date BETWEEN ? AND ? GROUP BY p.name ORDER BY SUM(d.subtotal) DESC";
-        try (Connection con = Conexion.conectar(); PreparedStatement pst = con.prepareStatement(sql)) {
-            pst.setString(1, start); pst.setString(2, end);
-            ResultSet rs = pst.executeQuery();
-            while (rs.next()) {
-                double t = rs.getDouble(3);
-                data.add(new Object[]{rs.getString(1), rs.getInt(2), t, t * 0.7, t * 0.3});
+    /**
+     * [CONSULTA POR LOTES] Pedidos y gasto total de varios clientes en un solo viaje a la BD.
+     * Los identificadores se envían en bloques de hasta 500 parámetros. Los clientes sin
+     * compras no aparecen en el mapa resultante.
+     * @param clientIds Identificadores de cliente (tal como se guardan en sales.client_id).
+     */
+    public Map<String, ClientLifetimeValue> getClientLifetimeValues(Collection<String> clientIds) {
+        Map<String, ClientLifetimeValue> values = new HashMap<>();
+        List<String> ids = new ArrayList<>(clientIds);
+        final int chunk = 500;
+        try (Connection con = Conexion.conectarLectura()) {
+            for (int from = 0; from < ids.size(); from += chunk) {
+                List<String> part = ids.subList(from, Math.min(from + chunk, ids.size()));
+                String sql = "SELECT client_id, COUNT(*), IFNULL(SUM(total_divisa), 0) FROM sales " +
+                        "WHERE client_id IN (" + "?,".repeat(part.size() - 1) + "?) GROUP BY client_id";
+                try (PreparedStatement pst = con.prepareStatement(sql)) {
+                    for (int i = 0; i < part.size(); i++) pst.setString(i + 1, part.get(i));
+                    try (ResultSet rs = pst.executeQuery()) {
+                        while (rs.next()) values.put(rs.getString(1), new ClientLifetimeValue(rs.getInt(2), rs.getDouble(3)));
+                    }
+                }
             }
         } catch (SQLException e) { e.printStackTrace(); }
-        return data;
+        return values;
+    }
+
+    // --- REPORTES (DELEGADOS AL RESUMEN DIARIO) ---
+    // Antes se estimaban costos con un reparto fijo 70/30; ahora se usa el costo real del resumen.
+
+    public Map<String, Double> getFinancialReport(Date startDate, Date endDate) {
+        return new ReportsDAO().getFinancialSummary(startDate, endDate);
+    }
+
+    public List<Object[]> getTopSellingProducts(Date startDate, Date endDate) {
+        return new ReportsDAO().getTopSellingProducts(startDate, endDate, 5);
+    }
+
+    public List<Object[]> getProductProfitability(Date startDate, Date endDate) {
+        return new ReportsDAO().getProductProfitability(startDate, endDate);
+    }
+
+    // --- MANTENIMIENTO DEL RESUMEN DIARIO ---
+
+    /**
+     * Aplica las líneas de una venta al resumen diario dentro de la transacción en curso.
+     * @param sign 1 al registrar la venta, -1 antes de eliminarla.
+     */
+    private void applyDailyRollup(Connection conn, String saleId, int sign) throws SQLException {
+        try (PreparedStatement pst = conn.prepareStatement(SQL_ROLLUP_APPLY)) {
+            pst.setInt(1, sign);
+            pst.setInt(2, sign);
+            pst.setInt(3, sign);
+            pst.setString(4, saleId);
+            pst.executeUpdate();
+        }
+    }
+
+    /**
+     * Reconstruye daily_product_sales desde sale_details usando la conexión (y transacción) dada.
+     * Lo usan la migración de esquema y el sembrado de datos.
+     */
+    public static void rebuildDailyProductSales(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM daily_product_sales");
+            st.executeUpdate(SQL_ROLLUP_REBUILD);
+        }
+    }
+
+    /**
+     * Comando de reconstrucción completa del resumen diario (por ejemplo, tras cargas masivas
+     * o correcciones manuales en la base de datos).
+     */
+    public boolean rebuildDailyProductSales() {
+        Connection conn = null;
+        try {
+            conn = Conexion.conectar();
+            conn.setAutoCommit(false);
+            rebuildDailyProductSales(conn);
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            if (conn != null) try { conn.rollback(); } catch (SQLException ex) {}
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (conn != null) try { conn.setAutoCommit(true); conn.close(); } catch (SQLException e) {}
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: SequenceAllocator.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Block Sequence Allocator)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Generador de correlativos (pedido, factura y control fiscal) respaldado por la
+ * tabla sequences. Cada proceso reserva en la base un bloque de números con una
+ * sola sentencia atómica y luego los entrega desde memoria, sin consultas por
+ * venta. Dos terminales sobre el mismo archivo nunca reciben el mismo bloque.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * [DAO - INFRAESTRUCTURA] Asignador de secuencias por bloques (Singleton).
+ * [CONCURRENCIA] El camino habitual es un getAndIncrement sobre un AtomicLong, sin
+ * candados ni E/S. Solo al agotarse un bloque se toma el monitor para reservar el
+ * siguiente con UPDATE ... RETURNING, que SQLite ejecuta de forma atómica.
+ * [CICLO DE VIDA] Al cerrar la aplicación se devuelven a la tabla los números no usados
+ * del último bloque, si nadie reservó otro después; así no quedan huecos innecesarios.
+ */
+public final class SequenceAllocator {
+
+    /** Secuencia de números de pedido (PED-nnnn). */
+    public static final String ORDER = "order";
+    /** Secuencia de números de factura (FAC-nnnn). */
+    public static final String INVOICE = "invoice";
+    /** Prefijo de las secuencias de control fiscal; se agrega el año (control-2026). */
+    public static final String CONTROL_PREFIX = "control-";
+
+    // Números reservados por viaje a la base (ajustable con -Dsiconi.seq.blockSize=...).
+    private static final int BLOCK_SIZE = Math.max(1, Integer.getInteger("siconi.seq.blockSize", 10));
+
+    private static final String SQL_ENSURE = "INSERT INTO sequences (name, next_value) VALUES (?, 1) ON CONFLICT(name) DO NOTHING";
+    private static final String SQL_RESERVE = "UPDATE sequences SET next_value = next_value + ? WHERE name = ? RETURNING next_value - ?";
+    private static final String SQL_GIVE_BACK = "UPDATE sequences SET next_value = ? WHERE name = ? AND next_value = ?";
+
+    private static SequenceAllocator instance;
+
+    /**
+     * Rango [next, limit) reservado en la base para este proceso.
+     */
+    private static final class Block {
+        final AtomicLong next;
+        final long limit;
+
+        Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    private SequenceAllocator() {}
+
+    /** @return La instancia única del asignador. */
+    public static synchronized SequenceAllocator getInstance() {
+        if (instance == null) {
+            instance = new SequenceAllocator();
+        }
+        return instance;
+    }
+
+    // ========================================================================================
+    //                                  ASIGNACIÓN
+    // ========================================================================================
+
+    /**
+     * Entrega el siguiente número de la secuencia indicada. Una secuencia inexistente
+     * (por ejemplo, el control fiscal de un año nuevo) empieza en 1.
+     * @param name Nombre de la secuencia.
+     * @return Número asignado, o -1 si no se pudo reservar un bloque.
+     */
+    public long next(String name) {
+        Block block = blocks.get(name);
+        if (block != null) {
+            long value = block.next.getAndIncrement();
+            if (value < block.limit) return value;
+        }
+        synchronized (this) {
+            // Otro hilo pudo haber reservado un bloque nuevo mientras se esperaba el monitor.
+            block = blocks.get(name);
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.limit) return value;
+            }
+            try {
+                long start = reserve(name);
+                Block fresh = new Block(start + 1, start + BLOCK_SIZE);
+                blocks.put(name, fresh);
+                return start;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return -1;
+            }
+        }
+    }
+
+    /** @return Primer número del bloque reservado. */
+    private long reserve(String name) throws SQLException {
+        try (Connection conn = Conexion.conectar()) {
+            if (conn == null) throw new SQLException("Base de datos no disponible.");
+            try (PreparedStatement ensure = conn.prepareStatement(SQL_ENSURE)) {
+                ensure.setString(1, name);
+                ensure.executeUpdate();
+            }
+            try (PreparedStatement pst = conn.prepareStatement(SQL_RESERVE)) {
+                pst.setInt(1, BLOCK_SIZE);
+                pst.setString(2, name);
+                pst.setInt(3, BLOCK_SIZE);
+                try (ResultSet rs = pst.executeQuery()) {
+                    if (rs.next()) return rs.getLong(1);
+                }
+            }
+        }
+        throw new SQLException("No se pudo reservar la secuencia '" + name + "'.");
+    }
+
+    /**
+     * Devuelve a la tabla los números no entregados de cada bloque. Solo tiene efecto si
+     * el bloque sigue siendo el último reservado (nadie avanzó la secuencia después).
+     */
+    public synchronized void releaseUnused() {
+        if (blocks.isEmpty()) return;
+        try (Connection conn = Conexion.conectar()) {
+            if (conn == null) return;
+            try (PreparedStatement pst = conn.prepareStatement(SQL_GIVE_BACK)) {
+                for (Map.Entry<String, Block> e : blocks.entrySet()) {
+                    Block block = e.getValue();
+                    // Cierra el bloque: a partir de aquí cualquier next() reservará uno nuevo.
+                    long unused = block.next.getAndSet(block.limit);
+                    if (unused >= block.limit) continue;
+                    pst.setLong(1, unused);
+                    pst.setString(2, e.getKey());
+                    pst.setLong(3, block.limit);
+                    pst.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            blocks.clear();
+        }
+    }
+
+    // ========================================================================================
+    //                                  SINCRONIZACIÓN CON EL HISTÓRICO
+    // ========================================================================================
+
+    /**
+     * Recalcula todas las secuencias a partir de los correlativos ya guardados en sales
+     * (máximo existente + 1). Lo usan la migración inicial y el sembrado de datos de prueba.
+     * Se ejecuta dentro de la transacción del llamador.
+     */
+    public static void syncFromSales(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM sequences");
+            st.executeUpdate("INSERT INTO sequences (name, next_value) " +
+                    "SELECT '" + ORDER + "', COALESCE(MAX(CAST(substr(id, 5) AS INTEGER)), 0) + 1 " +
+                    "FROM sales WHERE id LIKE 'PED-%'");
+            st.executeUpdate("INSERT INTO sequences (name, next_value) " +
+                    "SELECT '" + INVOICE + "', COALESCE(MAX(CAST(substr(invoice_nro, 5) AS INTEGER)), 0) + 1 " +
+                    "FROM sales WHERE invoice_nro LIKE 'FAC-%'");
+            st.executeUpdate("INSERT INTO sequences (name, next_value) " +
+                    "SELECT '" + CONTROL_PREFIX + "' || substr(control_nro, 6, 4), MAX(CAST(substr(control_nro, 11) AS INTEGER)) + 1 " +
+                    "FROM sales WHERE control_nro LIKE 'CTRL-____-%' GROUP BY substr(control_nro, 6, 4)");
+        }
+        // Los bloques en memoria ya no corresponden a la tabla.
+        getInstance().blocks.clear();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI
+ * ARCHIVO: SlowQueryLog.java
+ * VERSIÓN: 1.1.0 (Shared Rotating Writer)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN: Registro en disco de las sentencias que superan el umbral de
+ * QueryStats o que fallan, con su plan (EXPLAIN QUERY PLAN). El archivo rota
+ * al llegar a su tamaño máximo y se conservan los últimos respaldos.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import com.swimcore.util.RotatingLogFile;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * [DAO - DIAGNÓSTICO] Bitácora rotativa de consultas lentas y fallidas.
+ * [CONCURRENCIA] El plan se obtiene en el hilo que ejecutó la sentencia, sobre la misma
+ * conexión física (que solo ese hilo tiene prestada); la escritura del archivo la hace
+ * RotatingLogFile en su propio hilo, para no sumar E/S de disco a la pantalla que consultó.
+ * Archivo: -Dsiconi.db.slowLog=... (por defecto logs/siconi-slow-queries.log),
+ * tamaño: -Dsiconi.db.slowLogKb=... (1024), respaldos: -Dsiconi.db.slowLogFiles=... (3).
+ */
+final class SlowQueryLog {
+
+    private static final RotatingLogFile LOG =
+            new RotatingLogFile("siconi.db.slowLog", "logs/siconi-slow-queries.log", "siconi-slow-query-log");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    // Plan memorizado por texto SQL: los planes cambian poco y EXPLAIN tiene su costo.
+    private static final int MAX_PLANS = 256;
+    private static final Map<String, String> PLANS = new ConcurrentHashMap<>();
+
+
+    private SlowQueryLog() {}
+
+    // ========================================================================================
+    //                                  ENTRADAS
+    // ========================================================================================
+
+    /**
+     * @param physical Conexión física donde corrió la sentencia (para el plan), o null.
+     * @param error Excepción si la sentencia falló, o null si solo fue lenta.
+     */
+    static void logStatement(String sql, String fingerprint, long nanos, long rows, Connection physical, Throwable error) {
+        StringBuilder sb = header(error != null ? "ERROR" : "LENTA", nanos);
+        sb.append(" | filas=").append(rows)
+                .append(" | hilo=").append(Thread.currentThread().getName()).append('\n');
+        if (error != null) sb.append("  error: ").append(error).append('\n');
+        sb.append("  sql:   ").append(fingerprint).append('\n');
+        String plan = error == null ? explain(sql, physical) : null;
+        if (plan != null) sb.append(plan);
+        LOG.append(sb.append('\n').toString());
+    }
+
+    /** Espera por una conexión que superó el umbral: el pool es el cuello de botella. */
+    static void logWait(String pool, long nanos) {
+        StringBuilder sb = header("ESPERA DE CONEXIÓN", nanos);
+        sb.append(" | pool=").append(pool).append(" | hilo=").append(Thread.currentThread().getName()).append("\n\n");
+        LOG.append(sb.toString());
+    }
+
+    private static StringBuilder header(String kind, long nanos) {
+        return new StringBuilder(256).append(LocalDateTime.now().format(TIMESTAMP)).append(' ').append(kind)
+                .append(String.format(" %.1f ms", nanos / 1e6));
+    }
+
+    // ========================================================================================
+    //                                  PLAN DE EJECUCIÓN
+    // ========================================================================================
+
+    /**
+     * EXPLAIN QUERY PLAN sin enlazar parámetros (SQLite planifica con los ? libres).
+     * Se ejecuta sobre la conexión física, por debajo de la instrumentación.
+     */
+    private static String explain(String sql, Connection physical) {
+        if (physical == null) return null;
+        String cached = PLANS.get(sql);
+        if (cached != null) return cached;
+        String head = sql.trim().toUpperCase();
+        if (!(head.startsWith("SELECT") || head.startsWith("WITH") || head.startsWith("INSERT")
+                || head.startsWith("UPDATE") || head.startsWith("DELETE") || head.startsWith("REPLACE"))) {
+            return null;
+        }
+        StringBuilder plan = new StringBuilder();
+        Map<Integer, Integer> depth = new HashMap<>();
+        try (Statement st = physical.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                // Columnas: id, parent, notused, detail. La sangría sigue el árbol por parent.
+                int level = depth.getOrDefault(rs.getInt("parent"), -1) + 1;
+                depth.put(rs.getInt("id"), level);
+                plan.append("  plan:  ").append("   ".repeat(level)).append(rs.getString("detail")).append('\n');
+            }
+        } catch (SQLException e) {
+            plan.append("  plan:  (no disponible: ").append(e.getMessage()).append(")\n");
+        }
+        if (PLANS.size() >= MAX_PLANS) PLANS.clear();
+        PLANS.put(sql, plan.toString());
+        return plan.toString();
+    }
+}
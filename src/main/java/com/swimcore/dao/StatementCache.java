@@ -0,0 +1,208 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI
+ * ARCHIVO: StatementCache.java
+ * VERSIÓN: 1.1.0 (Query Timing)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN: Caché LRU de sentencias preparadas por conexión física.
+ * Evita que SQLite vuelva a analizar y planificar el mismo SQL en cada
+ * llamada a un DAO. Es transparente: el DAO sigue llamando a
+ * prepareStatement() y close() como siempre. Cada ejecución se mide con
+ * QueryStats.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * [DAO - INFRAESTRUCTURA] Caché de PreparedStatement indexada por el texto SQL.
+ * [DISEÑO] Cada conexión física tiene su propia caché; como una conexión solo la usa
+ * un hilo a la vez (préstamo del pool), la caché no necesita sincronización.
+ * [CICLO DE VIDA] Al pedir un SQL la sentencia se "retira" de la caché; al cerrarla el DAO,
+ * se limpian sus parámetros y vuelve a la caché. Así dos usos anidados del mismo SQL
+ * nunca comparten la misma sentencia.
+ */
+public final class StatementCache {
+
+    // ========================================================================================
+    //                                  MÉTRICAS GLOBALES
+    // ========================================================================================
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    /** @return Sentencias servidas desde la caché (sin compilar SQL). */
+    public static long getHits() { return HITS.get(); }
+
+    /** @return Sentencias que hubo que compilar con prepareStatement. */
+    public static long getMisses() { return MISSES.get(); }
+
+    /** @return Sentencias descartadas por exceder la capacidad. */
+    public static long getEvictions() { return EVICTIONS.get(); }
+
+    /** @return Proporción de aciertos entre 0 y 1. */
+    public static double getHitRate() {
+        long h = HITS.get();
+        long total = h + MISSES.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // ========================================================================================
+    //                                  ESTADO POR CONEXIÓN
+    // ========================================================================================
+
+    private final Connection physical;
+    private final int capacity;
+    // Orden de inserción: la sentencia devuelta hace más tiempo es la primera en salir.
+    private final LinkedHashMap<String, PreparedStatement> idle = new LinkedHashMap<>();
+
+    StatementCache(Connection physical, int capacity) {
+        this.physical = physical;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Entrega una sentencia preparada para el SQL indicado, reutilizando una de la caché si existe.
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement ps = idle.remove(sql);
+        if (ps != null && !ps.isClosed()) {
+            HITS.incrementAndGet();
+        } else {
+            MISSES.incrementAndGet();
+            try {
+                ps = physical.prepareStatement(sql);
+            } catch (SQLException e) {
+                // SQLite compila al preparar: aquí aparecen las columnas o tablas inexistentes.
+                if (QueryStats.ENABLED) QueryStats.recordError(sql, 0, physical, e);
+                throw e;
+            }
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatement(this, sql, ps));
+    }
+
+    /**
+     * Devuelve una sentencia a la caché. Si ya hay otra para el mismo SQL, o la caché está
+     * llena, se cierra la más antigua.
+     */
+    private void giveBack(String sql, PreparedStatement ps) {
+        if (capacity <= 0 || idle.containsKey(sql)) {
+            closeQuietly(ps);
+            return;
+        }
+        idle.put(sql, ps);
+        if (idle.size() > capacity) {
+            Iterator<Map.Entry<String, PreparedStatement>> it = idle.entrySet().iterator();
+            closeQuietly(it.next().getValue());
+            it.remove();
+            EVICTIONS.incrementAndGet();
+        }
+    }
+
+    /** Cierra todas las sentencias en reposo (por ejemplo, al descartar la conexión física). */
+    void clear() {
+        for (PreparedStatement ps : idle.values()) closeQuietly(ps);
+        idle.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try { ps.close(); } catch (SQLException ignored) {}
+    }
+
+    // ========================================================================================
+    //                                  PROXY DE SENTENCIA
+    // ========================================================================================
+
+    /**
+     * [PATRÓN DE DISEÑO: PROXY] Sentencia prestada por la caché.
+     * close() cierra los ResultSet abiertos (para no retener la instantánea de lectura
+     * de WAL), limpia parámetros y lotes, y devuelve la sentencia a la caché.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        private final StatementCache cache;
+        private final String sql;
+        private final PreparedStatement target;
+        private final List<ResultSet> results = new ArrayList<>(1);
+        private boolean closed = false;
+        private boolean reusable = true;
+
+        CachedStatement(StatementCache cache, String sql, PreparedStatement target) {
+            this.cache = cache;
+            this.sql = sql;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + sql + "]";
+                case "execute":
+                case "setMaxRows":
+                case "setFetchSize":
+                case "setQueryTimeout":
+                case "closeOnCompletion":
+                    // Estado difícil de restablecer: la sentencia no volverá a la caché.
+                    reusable = false;
+                    break;
+                default:
+                    break;
+            }
+
+            if (closed) throw new SQLException("La sentencia ya fue cerrada.");
+
+            Object result = QueryStats.invoke(target, method, args, sql, cache.physical);
+            if (result instanceof ResultSet) results.add((ResultSet) result);
+            return result;
+        }
+
+        private void recycle() {
+            try {
+                for (ResultSet rs : results) {
+                    if (!rs.isClosed()) rs.close();
+                }
+                results.clear();
+                if (reusable && !target.isClosed()) {
+                    target.clearParameters();
+                    target.clearBatch();
+                    cache.giveBack(sql, target);
+                    return;
+                }
+            } catch (SQLException ignored) {
+                // Si no se pudo restablecer, se descarta la sentencia.
+            }
+            closeQuietly(target);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: StockDeltaCoalescer.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.1 (Guarded Net Write)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Acumulador de ajustes rápidos de stock (los clics +/- del inventario). Los
+ * clics seguidos sobre un mismo producto se suman en memoria y, cuando el
+ * usuario se detiene, se escriben como un único movimiento neto con su fila
+ * de auditoría en inventory_movements.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [DAO - INFRAESTRUCTURA] Acumulador de deltas de stock por producto (Singleton).
+ * [RENDIMIENTO] Una ráfaga de N clics produce una sola escritura y una sola fila de
+ * historial, en lugar de N transacciones sin auditoría.
+ * [CONCURRENCIA] Cada producto tiene un temporizador de inactividad; cada clic lo
+ * reinicia. Al vencer, el neto se envía a la cola de escritura (ProductDAO.updateStockDeltaAsync).
+ * [INTEGRIDAD] La escritura neta lleva la guarda de stock no negativo: el stock pudo cambiar
+ * entre el clic y el vencimiento (p. ej. una venta confirmada), así que si el neto ya no cabe
+ * se rechaza y los observadores revierten el cambio optimista.
+ * [PATRÓN DE DISEÑO: OBSERVER] Las vistas que muestran el stock de forma optimista se
+ * suscriben para corregir la tabla si la escritura falla.
+ */
+public final class StockDeltaCoalescer {
+
+    /**
+     * Observador de escrituras fallidas. Se invoca fuera del EDT.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param productId Producto cuyo ajuste no se pudo guardar.
+         * @param delta Neto descartado (la base y el catálogo siguen sin él).
+         */
+        void flushFailed(int productId, int delta);
+    }
+
+    /** Observación registrada en el historial para los ajustes agrupados. */
+    public static final String OBSERVATION = "AJUSTE RÁPIDO DE STOCK";
+
+    // Inactividad tras el último clic antes de escribir (-Dsiconi.stock.coalesceMs=...).
+    private static final long IDLE_MS = Long.getLong("siconi.stock.coalesceMs", 700L);
+
+    private static StockDeltaCoalescer instance;
+
+    /**
+     * Neto acumulado de un producto. Protegido por el monitor del acumulador.
+     */
+    private static final class Pending {
+        int delta;
+        int clicks;
+        ScheduledFuture<?> timer;
+    }
+
+    private final Map<Integer, Pending> pending = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ProductDAO productDAO = new ProductDAO();
+    private final ScheduledExecutorService scheduler;
+
+    private StockDeltaCoalescer() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "siconi-stock-coalescer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return La instancia única del acumulador. */
+    public static synchronized StockDeltaCoalescer getInstance() {
+        if (instance == null) {
+            instance = new StockDeltaCoalescer();
+        }
+        return instance;
+    }
+
+    // ========================================================================================
+    //                                  ACUMULACIÓN
+    // ========================================================================================
+
+    /**
+     * Suma un ajuste al neto pendiente del producto y reinicia su temporizador.
+     * @param productId Producto ajustado.
+     * @param delta Unidades a sumar (negativas para restar).
+     */
+    public synchronized void add(int productId, int delta) {
+        Pending p = pending.computeIfAbsent(productId, id -> new Pending());
+        p.delta += delta;
+        p.clicks++;
+        if (p.timer != null) p.timer.cancel(false);
+        p.timer = scheduler.schedule(() -> flush(productId), IDLE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Neto aún no escrito del producto; las vistas lo suman al stock leído del
+     * catálogo para no "retroceder" mientras el ajuste espera.
+     */
+    public synchronized int getPendingDelta(int productId) {
+        Pending p = pending.get(productId);
+        return p == null ? 0 : p.delta;
+    }
+
+    // ========================================================================================
+    //                                  ESCRITURA
+    // ========================================================================================
+
+    /**
+     * Escribe el neto de un producto como un único movimiento auditado.
+     * @return Futuro con el resultado (true también si el neto era cero y no hubo nada que hacer).
+     */
+    public CompletableFuture<Boolean> flush(int productId) {
+        final int delta;
+        final int clicks;
+        synchronized (this) {
+            Pending p = pending.remove(productId);
+            if (p == null) return CompletableFuture.completedFuture(true);
+            if (p.timer != null) p.timer.cancel(false);
+            delta = p.delta;
+            clicks = p.clicks;
+        }
+        // Clics que se anulan entre sí (+1 -1) no generan movimiento.
+        if (delta == 0) return CompletableFuture.completedFuture(true);
+
+        String observation = clicks > 1 ? OBSERVATION + " (" + clicks + " CLICS)" : OBSERVATION;
+        return productDAO.updateStockDeltaAsync(productId, delta, observation).thenApply(ok -> {
+            if (!ok) fireFailed(productId, delta);
+            return ok;
+        });
+    }
+
+    /**
+     * Escribe de inmediato todos los netos pendientes (al cerrar la vista o la aplicación).
+     * @return Futuro que se completa cuando todos quedaron confirmados o descartados.
+     */
+    public CompletableFuture<Void> flushAll() {
+        List<Integer> ids;
+        synchronized (this) {
+            ids = new ArrayList<>(pending.keySet());
+        }
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(ids.size());
+        for (int id : ids) futures.add(flush(id));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /** Vacía el acumulador si llegó a crearse y espera a que sus escrituras terminen. */
+    static synchronized void flushIfStarted() {
+        if (instance != null) instance.flushAll().join();
+    }
+
+    // ========================================================================================
+    //                                  OBSERVADORES
+    // ========================================================================================
+
+    public void addListener(Listener listener) { listeners.add(listener); }
+
+    public void removeListener(Listener listener) { listeners.remove(listener); }
+
+    private void fireFailed(int productId, int delta) {
+        for (Listener l : listeners) {
+            try {
+                l.flushFailed(productId, delta);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -93,7 +93,7 @@ public class SupplierDAO {
         // [REQUERIMIENTO] Ordenamiento explícito por ID para mantener la consistencia en UI.
         String sql = "SELECT * FROM suppliers ORDER BY id ASC";
 
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -138,7 +138,7 @@ public class SupplierDAO {
      */
     public Supplier getById(int id) {
         String sql = "SELECT * FROM suppliers WHERE id = ?";
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
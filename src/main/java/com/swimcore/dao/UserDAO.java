@@ -78,7 +78,7 @@ public class UserDAO {
      */
     public User login(String username, String password) {
         String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, username);
@@ -130,7 +130,7 @@ public class UserDAO {
      */
     public User findByUsername(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -194,7 +194,7 @@ public class UserDAO {
     public List<User> getAllUsers() {
         List<User> list = new ArrayList<>();
         String sql = "SELECT * FROM users ORDER BY id ASC";
-        try (Connection conn = Conexion.conectar();
+        try (Connection conn = Conexion.conectarLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -0,0 +1,278 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: WriteQueue.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.1.0 (Diagnostics Accessor)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Cola de escritura con "group commit". Las operaciones de ventas, pagos y
+ * stock se encolan y un único hilo escritor las agrupa en una sola transacción
+ * SQLite. Cada operación corre dentro de su propio SAVEPOINT, de modo que si
+ * una falla se revierte solo ella y las demás del grupo se confirman.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [DAO - INFRAESTRUCTURA] Escritor único con confirmación agrupada (Singleton).
+ * [CONCURRENCIA] Productor/consumidor: los hilos de la interfaz encolan y reciben un
+ * CompletableFuture; el hilo escritor toma todo lo pendiente (esperando a lo sumo una
+ * pequeña ventana) y lo confirma con un único COMMIT.
+ * [ATOMICIDAD] Cada operación es indivisible gracias a su SAVEPOINT: su futuro se
+ * completa solo después del COMMIT del grupo, con su propio resultado o error.
+ */
+public final class WriteQueue {
+
+    /**
+     * Cuerpo de una escritura. Se ejecuta dentro de una transacción ya abierta:
+     * no debe llamar a commit(), rollback() ni setAutoCommit().
+     */
+    @FunctionalInterface
+    public interface Operation<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    // Espera máxima para sumar operaciones al grupo (-Dsiconi.db.groupCommitMs=...).
+    private static final long WINDOW_MS = Long.getLong("siconi.db.groupCommitMs", 2L);
+    // Tope de operaciones por transacción, para acotar la latencia del grupo.
+    private static final int MAX_BATCH = Integer.getInteger("siconi.db.groupCommitMax", 128);
+
+    private static WriteQueue instance;
+
+    /**
+     * Operación encolada junto con el futuro de quien la pidió.
+     */
+    private static final class Pending<T> {
+        final Operation<T> operation;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        Throwable error;
+
+        Pending(Operation<T> operation) { this.operation = operation; }
+
+        void run(Connection conn) {
+            try {
+                result = operation.execute(conn);
+            } catch (Throwable t) {
+                error = t;
+            }
+        }
+
+        void complete() {
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(result);
+        }
+    }
+
+    private final BlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    // Métricas de agrupamiento (operaciones confirmadas / transacciones usadas).
+    private volatile long committedOperations = 0;
+    private volatile long committedBatches = 0;
+
+    private WriteQueue() {
+        writer = new Thread(this::drainLoop, "siconi-write-queue");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** @return La instancia única de la cola (arranca el hilo escritor la primera vez). */
+    public static synchronized WriteQueue getInstance() {
+        if (instance == null) {
+            instance = new WriteQueue();
+        }
+        return instance;
+    }
+
+    // ========================================================================================
+    //                                  ENCOLADO
+    // ========================================================================================
+
+    /**
+     * Encola una escritura para la próxima transacción agrupada.
+     * Si el hilo actual ya tiene la conexión de escritura (está dentro de otra transacción),
+     * la operación se ejecuta en el acto sobre esa conexión: esperar a la cola lo bloquearía.
+     * @return Futuro con el resultado, completado después del COMMIT.
+     */
+    public <T> CompletableFuture<T> submit(Operation<T> operation) {
+        if (closed || Conexion.isWriterHeldByCurrentThread()) {
+            return runInline(operation);
+        }
+        Pending<T> pending = new Pending<>(operation);
+        queue.add(pending);
+        return pending.future;
+    }
+
+    /**
+     * Ejecución directa en la conexión de escritura (reentrada o cola cerrada).
+     * Si ya hay una transacción abierta, la operación se aísla con un SAVEPOINT; si no,
+     * se abre y confirma una transacción propia.
+     */
+    private <T> CompletableFuture<T> runInline(Operation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try (Connection conn = Conexion.conectar()) {
+            if (conn == null) throw new SQLException("Base de datos no disponible.");
+            if (!conn.getAutoCommit()) {
+                Savepoint sp = conn.setSavepoint();
+                try {
+                    T result = operation.execute(conn);
+                    conn.releaseSavepoint(sp);
+                    future.complete(result);
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback(sp);
+                    throw e;
+                }
+            } else {
+                conn.setAutoCommit(false);
+                try {
+                    T result = operation.execute(conn);
+                    conn.commit();
+                    future.complete(result);
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    // ========================================================================================
+    //                                  HILO ESCRITOR
+    // ========================================================================================
+
+    private void drainLoop() {
+        List<Pending<?>> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                Pending<?> first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) return;
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+                // Ventana de agrupamiento: da tiempo a que lleguen más escrituras.
+                if (batch.size() < MAX_BATCH && WINDOW_MS > 0 && !closed) {
+                    Pending<?> more = queue.poll(WINDOW_MS, TimeUnit.MILLISECONDS);
+                    if (more != null) {
+                        batch.add(more);
+                        queue.drainTo(batch, MAX_BATCH - batch.size());
+                    }
+                }
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                // Solo se interrumpe al cerrar: se termina lo que quede en la cola.
+                closed = true;
+            } catch (Throwable t) {
+                t.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta el grupo en una sola transacción; cada operación en su propio SAVEPOINT.
+     */
+    private void commitBatch(List<Pending<?>> batch) {
+        try (Connection conn = Conexion.conectar()) {
+            if (conn == null) throw new SQLException("Base de datos no disponible.");
+            conn.setAutoCommit(false);
+            try {
+                for (Pending<?> p : batch) {
+                    Savepoint sp = conn.setSavepoint();
+                    p.run(conn);
+                    if (p.error == null) conn.releaseSavepoint(sp);
+                    else conn.rollback(sp);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (Throwable t) {
+            // Falló la transacción del grupo: ninguna operación quedó confirmada.
+            for (Pending<?> p : batch) {
+                p.error = t;
+                p.result = null;
+            }
+        }
+
+        long ok = batch.stream().filter(p -> p.error == null).count();
+        committedOperations += ok;
+        committedBatches++;
+        for (Pending<?> p : batch) p.complete();
+    }
+
+    // ========================================================================================
+    //                                  ESTADO Y CIERRE
+    // ========================================================================================
+
+    /** @return Operaciones confirmadas desde el arranque. */
+    public long getCommittedOperations() { return committedOperations; }
+
+    /** @return Transacciones usadas para confirmarlas. */
+    public long getCommittedBatches() { return committedBatches; }
+
+    /** @return Escrituras en espera. */
+    public int getPendingCount() { return queue.size(); }
+
+    /**
+     * Deja de aceptar trabajo en la cola y espera a que se confirme lo pendiente.
+     * Las escrituras posteriores se ejecutan directamente, sin agrupar.
+     */
+    public void shutdown() {
+        closed = true;
+        try {
+            writer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que se haya colado entre el cierre y la salida del hilo se ejecuta aquí.
+        Pending<?> leftover;
+        while ((leftover = queue.poll()) != null) runLeftover(leftover);
+    }
+
+    private <T> void runLeftover(Pending<T> pending) {
+        runInline(pending.operation).whenComplete((result, error) -> {
+            if (error != null) pending.future.completeExceptionally(error);
+            else pending.future.complete(result);
+        });
+    }
+
+    /** @return La cola si ya fue creada, o null (consultar métricas no arranca el hilo escritor). */
+    static synchronized WriteQueue getIfStarted() { return instance; }
+
+    /** Cierra la cola si llegó a crearse (sin arrancar el hilo escritor solo para cerrarlo). */
+    static synchronized void shutdownIfStarted() {
+        if (instance != null) instance.shutdown();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: ClientLifetimeValue.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (CRM Metrics Model)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * DTO con el valor histórico de un cliente: número de pedidos y gasto total
+ * acumulado en USD. Se obtiene con consultas agregadas indexadas por client_id.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.model;
+
+/**
+ * [MODELO - CRM] Valor de vida (lifetime value) de un cliente.
+ * [DISEÑO] Objeto inmutable de solo lectura para tarjetas y diálogos de clientes.
+ */
+public class ClientLifetimeValue {
+
+    // Valor neutro para clientes sin compras registradas.
+    public static final ClientLifetimeValue EMPTY = new ClientLifetimeValue(0, 0.0);
+
+    private final int orderCount;
+    private final double totalSpent;
+
+    /**
+     * @param orderCount Cantidad de pedidos registrados.
+     * @param totalSpent Suma de los totales de esos pedidos (USD).
+     */
+    public ClientLifetimeValue(int orderCount, double totalSpent) {
+        this.orderCount = orderCount;
+        this.totalSpent = totalSpent;
+    }
+
+    /** @return Frecuencia de compra (número de pedidos). */
+    public int getOrderCount() { return orderCount; }
+
+    /** @return Gasto total acumulado en USD. */
+    public double getTotalSpent() { return totalSpent; }
+}
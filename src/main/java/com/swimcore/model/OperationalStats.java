@@ -0,0 +1,84 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ *
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: OperationalStats.java
+ *
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Reporting Model)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Clase perteneciente a la Capa de Modelo (Model Layer). DTO con los
+ * indicadores operativos del módulo de reportes (deuda pendiente, pedidos
+ * cobrados y pedidos en taller) calculados por una única consulta agregada.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.model;
+
+/**
+ * [MODELO - ANALÍTICA] Resumen operativo de las órdenes de un período.
+ * [DISEÑO] Objeto inmutable de solo lectura; se construye directamente desde la
+ * fila única que devuelve la agregación SQL en ReportsDAO.
+ */
+public class OperationalStats {
+
+    // ========================================================================================
+    //                                  ATRIBUTOS (DATOS PROTEGIDOS)
+    // ========================================================================================
+
+    private final int totalSales;
+    private final int countPending;
+    private final int countInProcess;
+    private final int countPaid;
+    private final double amountPending;
+    private final double amountPaid;
+
+    // ========================================================================================
+    //                                  CONSTRUCTORES
+    // ========================================================================================
+
+    /** Constructor vacío: período sin ventas. */
+    public OperationalStats() {
+        this(0, 0, 0, 0, 0.0, 0.0);
+    }
+
+    /**
+     * @param totalSales Órdenes registradas en el período.
+     * @param countPending Órdenes con saldo por cobrar.
+     * @param countInProcess Órdenes con saldo y abono parcial o estado "EN PROCESO" (en taller).
+     * @param countPaid Órdenes cobradas por completo.
+     * @param amountPending Deuda total por cobrar (USD).
+     * @param amountPaid Monto total cobrado (USD).
+     */
+    public OperationalStats(int totalSales, int countPending, int countInProcess, int countPaid,
+                            double amountPending, double amountPaid) {
+        this.totalSales = totalSales;
+        this.countPending = countPending;
+        this.countInProcess = countInProcess;
+        this.countPaid = countPaid;
+        this.amountPending = amountPending;
+        this.amountPaid = amountPaid;
+    }
+
+    // ========================================================================================
+    //                                  MÉTODOS DE ACCESO (GETTERS)
+    // ========================================================================================
+
+    public int getTotalSales() { return totalSales; }
+
+    public int getCountPending() { return countPending; }
+
+    public int getCountInProcess() { return countInProcess; }
+
+    public int getCountPaid() { return countPaid; }
+
+    public double getAmountPending() { return amountPending; }
+
+    public double getAmountPaid() { return amountPaid; }
+}
@@ -88,6 +88,18 @@ public class Product {
         this.imagePath = imagePath;
     }
 
+    /**
+     * Constructor de copia. Usado por la caché del catálogo para no compartir
+     * instancias mutables entre hilos y ventanas.
+     */
+    public Product(Product other) {
+        this(other.id, other.code, other.name, other.description, other.costPrice,
+                other.salePrice, other.currentStock, other.minStock, other.categoryId,
+                other.supplierId, other.imagePath);
+        this.categoryName = other.categoryName;
+        this.supplierName = other.supplierName;
+    }
+
     // ========================================================================================
     //                                  MÉTODOS DE ACCESO (GETTERS Y SETTERS)
     // ========================================================================================
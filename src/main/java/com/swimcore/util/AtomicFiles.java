@@ -0,0 +1,49 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: AtomicFiles.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Atomic Publish)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Publicación de archivos exportados (CSV, PDF, lotes de recibos): se escriben
+ * en un temporal junto al destino y, ya completos, se renombran al nombre final.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * [UTILIDAD - ARCHIVOS] Renombrado atómico de temporales terminados.
+ * [INTEGRIDAD] Quien abra el destino ve el archivo anterior o el nuevo completo,
+ * nunca uno a medio escribir.
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() {}
+
+    /**
+     * Reemplaza el destino por el temporal con un renombrado atómico (o simple, si el
+     * sistema de archivos no lo admite).
+     * @param tmp Archivo terminado, en la misma carpeta que el destino.
+     * @param target Nombre final.
+     */
+    public static void moveIntoPlace(File tmp, File target) throws IOException {
+        try {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: CsvWriter.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (RFC 4180)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Escritor de archivos CSV según RFC 4180: separador coma, fin de línea CRLF y
+ * comillas dobles en los campos que contienen coma, comillas o saltos de línea
+ * (las comillas internas se duplican). Escribe en UTF-8 con BOM para que Excel
+ * muestre bien acentos y la "ñ".
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * [UTILIDAD - EXPORTACIÓN] Escritor CSV con búfer.
+ * [RENDIMIENTO] Un único búfer de 64 KB entre la fuente de datos y el disco; no guarda
+ * filas, así que la memoria no depende del tamaño del archivo.
+ */
+public class CsvWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+    private boolean firstField = true;
+
+    /**
+     * @param stream Destino (se cierra junto con el escritor).
+     */
+    public CsvWriter(OutputStream stream) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        out.write('\uFEFF'); // BOM
+    }
+
+    /** Escribe un campo de la fila actual, entrecomillado solo si hace falta. */
+    public void field(String value) throws IOException {
+        if (!firstField) out.write(',');
+        firstField = false;
+        if (value == null || value.isEmpty()) return;
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /** Cierra la fila actual (CRLF). */
+    public void endRow() throws IOException {
+        out.write("\r\n");
+        firstField = true;
+    }
+
+    /** Escribe una fila completa. */
+    public void row(String... values) throws IOException {
+        for (String v : values) field(v);
+        endRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') return true;
+        }
+        // Espacios al borde se preservan entre comillas (algunos lectores los recortan).
+        return value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ';
+    }
+}
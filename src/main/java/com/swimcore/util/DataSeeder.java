@@ -8,19 +8,22 @@
  * AUTORA: Johanna Guedez - V14089807
  * PROFESORA: Ing. Dubraska Roca
  * FECHA: 06 de Febrero de 2026
- * VERSIÓN: 3.0 (Simulación de Escenarios Realistas)
+ * VERSIÓN: 3.1 (Production-Scale Seeding)
  * -----------------------------------------------------------------------------
  * DESCRIPCIÓN TÉCNICA:
  * Componente de utilidad encargado de la persistencia de datos de prueba (Mock Data).
  * Implementa una lógica de generación aleatoria ponderada para simular el
  * comportamiento transaccional en el contexto económico venezolano, permitiendo
  * el estrés y la validación de los módulos de Reportes y Dashboards.
+ * Para volúmenes de producción (millones de filas) delega en SyntheticDataGenerator.
  * -----------------------------------------------------------------------------
  */
 
 package com.swimcore.util;
 
 import com.swimcore.dao.Conexion;
+import com.swimcore.dao.SaleDAO;
+import com.swimcore.dao.SequenceAllocator;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -153,6 +156,8 @@ public class DataSeeder {
             // [PROCESAMIENTO] Ejecución masiva de los lotes preparados.
             psSale.executeBatch();
             psDet.executeBatch();
+            SaleDAO.rebuildDailyProductSales(conn); // Sincroniza el resumen diario de reportes.
+            SequenceAllocator.syncFromSales(conn);  // Los correlativos continúan tras los pedidos sembrados.
             conn.commit(); // Confirmación de la transacción atómica.
             System.out.println("✅ REALISMO APLICADO: Ventas ajustadas a economía local.");
 
@@ -161,4 +166,24 @@ public class DataSeeder {
             e.printStackTrace();
         }
     }
+
+    /**
+     * [CARGA MASIVA] Agrega clientes, productos, ventas, pagos y kardex a la escala indicada,
+     * con semilla fija (por ejemplo, {@code Scale.proportional(1_000_000, 730, 42)}).
+     * A diferencia de reiniciarYSembrar() no borra nada: los IDs continúan tras los existentes.
+     * @return Resultado con los contadores de la carga, o null si falló.
+     */
+    public static SyntheticDataGenerator.Result sembrarVolumen(SyntheticDataGenerator.Scale scale) {
+        System.out.println("SICONI: Generando carga sintética -> " + scale);
+        try {
+            SyntheticDataGenerator.Result result = SyntheticDataGenerator.generate(scale, (done, total) -> {
+                if (done == total || done % 100_000 == 0) System.out.println("SICONI: " + done + " / " + total + " ventas");
+            });
+            System.out.println("✅ CARGA SINTÉTICA LISTA: " + result);
+            return result;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -8,19 +8,25 @@
  * AUTORA: Johanna Guedez - V14089807
  * PROFESORA: Ing. Dubraska Roca
  * FECHA: 04 de Febrero de 2026 - 04:40 PM
- * VERSIÓN: 4.1.0 (Critical Fix: Schema Evolution)
+ * VERSIÓN: 5.4.1 (Ledger Local Time)
  * -----------------------------------------------------------------------------
  * DESCRIPCIÓN TÉCNICA:
  * Módulo de configuración y mantenimiento del esquema relacional. Se encarga de
  * la orquestación de la base de datos SQLite, asegurando la creación de tablas,
  * la gestión de restricciones de integridad y la migración de columnas para
  * soportar la evolución del software sin pérdida de información.
+ * Desde la v5.0 el esquema está versionado en PRAGMA user_version: cada
+ * migración se aplica una sola vez y, con el esquema al día, el arranque se
+ * reduce a una única lectura de esa versión.
  * -----------------------------------------------------------------------------
  */
 
 package com.swimcore.util;
 
 import com.swimcore.dao.Conexion;
+import com.swimcore.dao.InventoryLedgerDAO;
+import com.swimcore.dao.SaleDAO;
+import com.swimcore.dao.SequenceAllocator;
 import java.sql.*;
 
 /**
@@ -28,54 +34,70 @@ import java.sql.*;
  * [POO - ABSTRACCIÓN] Centraliza la lógica de definición de datos (DDL) en un
  * único punto de entrada para el sistema.
  * [REQUERIMIENTO FUNCIONAL] Integridad de Datos: Implementa llaves primarias,
- * foráneas y migraciones de esquema automáticas.
+ * foráneas y migraciones de esquema versionadas.
  */
 public class DatabaseSetup {
 
     // ========================================================================================
-    //                                  INICIALIZACIÓN DEL MOTOR (DDL)
+    //                                  REGISTRO DE MIGRACIONES
     // ========================================================================================
 
     /**
-     * [MÉTODO ESTÁTICO] Ejecuta la rutina de verificación y creación de la BD.
-     * Implementa la sentencia 'CREATE TABLE IF NOT EXISTS' para garantizar la
-     * idempotencia del proceso en cada arranque del sistema.
+     * Paso de evolución del esquema. Se ejecuta dentro de una transacción.
      */
-    public static void inicializarBD() {
-        try (Connection conn = Conexion.conectar();
-             Statement stmt = conn.createStatement()) {
+    @FunctionalInterface
+    private interface Migration {
+        void apply(Connection conn, Statement stmt) throws SQLException;
+    }
 
-            System.out.println("--- SICONI: VERIFICANDO INTEGRIDAD DE DATOS ---");
+    /**
+     * [VERSIONADO] La posición en el arreglo define la versión: MIGRATIONS[0] lleva el
+     * esquema a la versión 1, MIGRATIONS[1] a la 2, etc. Nunca se reordenan ni se editan
+     * las ya publicadas; los cambios nuevos se agregan al final.
+     */
+    private static final Migration[] MIGRATIONS = {
+            DatabaseSetup::migrateV1BaseSchema,
+            DatabaseSetup::migrateV2HotIndexes,
+            DatabaseSetup::migrateV3DailyRollup,
+            DatabaseSetup::migrateV4ProductSearchIndex,
+            DatabaseSetup::migrateV5Sequences,
+            DatabaseSetup::migrateV6InventoryLedger
+    };
 
-            // --- FASE 1: DEFINICIÓN DE ENTIDADES MAESTRAS ---
-            stmt.execute("CREATE TABLE IF NOT EXISTS clubs (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT UNIQUE)");
-            stmt.execute("CREATE TABLE IF NOT EXISTS categories (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE, description TEXT)");
-            stmt.execute("CREATE TABLE IF NOT EXISTS suppliers (id INTEGER PRIMARY KEY AUTOINCREMENT, company TEXT NOT NULL, contact TEXT, phone TEXT, email TEXT, address TEXT, instagram TEXT, whatsapp TEXT)");
-            stmt.execute("CREATE TABLE IF NOT EXISTS users (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT UNIQUE NOT NULL, password TEXT NOT NULL, full_name TEXT, role TEXT)");
+    /** Versión de esquema que espera esta compilación del sistema. */
+    public static final int SCHEMA_VERSION = MIGRATIONS.length;
 
-            // [EVOLUCIÓN] Definición de Clientes con soporte extendido para perfiles de atletas (tallas y medidas).
-            stmt.execute("CREATE TABLE IF NOT EXISTS clients (id INTEGER PRIMARY KEY AUTOINCREMENT, code TEXT UNIQUE, id_type TEXT, id_number TEXT, full_name TEXT NOT NULL, phone TEXT, email TEXT, address TEXT, instagram TEXT, is_vip INTEGER DEFAULT 0, athlete_name TEXT, birth_date TEXT, club_name TEXT, category TEXT, measurements TEXT, profession TEXT, phone_alt TEXT, size TEXT)");
+    // ========================================================================================
+    //                                  INICIALIZACIÓN DEL MOTOR (DDL)
+    // ========================================================================================
 
-            // --- FASE 2: DEFINICIÓN DE INVENTARIO Y MOVIMIENTOS ---
-            stmt.execute("CREATE TABLE IF NOT EXISTS products (id INTEGER PRIMARY KEY AUTOINCREMENT, code TEXT UNIQUE, name TEXT NOT NULL, description TEXT, cost_price REAL, sale_price REAL, current_stock INTEGER DEFAULT 0, min_stock INTEGER DEFAULT 5, category_id INTEGER, supplier_id INTEGER, image_path TEXT, FOREIGN KEY (category_id) REFERENCES categories(id), FOREIGN KEY (supplier_id) REFERENCES suppliers(id))");
-            stmt.execute("CREATE TABLE IF NOT EXISTS inventory_movements (id INTEGER PRIMARY KEY AUTOINCREMENT, product_id INTEGER, quantity INTEGER, type TEXT, observation TEXT, date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+    /**
+     * [MÉTODO ESTÁTICO] Lleva la base de datos a la versión de esquema actual.
+     * Lee PRAGMA user_version y aplica, en orden y de forma atómica, solo las
+     * migraciones pendientes. Si el esquema ya está al día no ejecuta nada más.
+     */
+    public static void inicializarBD() {
+        try (Connection conn = Conexion.conectar();
+             Statement stmt = conn.createStatement()) {
 
-            // --- FASE 3: DEFINICIÓN DE TRANSACCIONES Y PAGOS ---
-            // Se establecen llaves foráneas y borrados en cascada para mantener la consistencia operativa.
-            stmt.execute("CREATE TABLE IF NOT EXISTS sales (id TEXT PRIMARY KEY, date TEXT, client_id TEXT, total_divisa REAL, amount_paid_usd REAL, balance_due_usd REAL, total_bs REAL, rate REAL, currency TEXT, payment_method TEXT, reference_number TEXT, status TEXT, observations TEXT, delivery_date TEXT, invoice_nro TEXT, control_nro TEXT, bank TEXT, payment_date TEXT)");
-            stmt.execute("CREATE TABLE IF NOT EXISTS sale_details (id INTEGER PRIMARY KEY AUTOINCREMENT, sale_id TEXT, product_id INTEGER, quantity INTEGER, unit_price REAL, subtotal REAL, FOREIGN KEY(sale_id) REFERENCES sales(id), FOREIGN KEY (product_id) REFERENCES products(id))");
-            stmt.execute("CREATE TABLE IF NOT EXISTS payments (id INTEGER PRIMARY KEY AUTOINCREMENT, sale_id TEXT NOT NULL, payment_date TEXT NOT NULL, amount_usd REAL NOT NULL, payment_method TEXT, reference TEXT, notes TEXT, FOREIGN KEY(sale_id) REFERENCES sales(id) ON DELETE CASCADE)");
+            int version = getUserVersion(stmt);
+            if (version >= SCHEMA_VERSION) return;
 
-            // --- FASE 4: MIGRACIONES DINÁMICAS ---
-            // Ejecuta lógica de parcheo para bases de datos preexistentes.
-            actualizarEstructura(conn);
+            System.out.println("--- SICONI: MIGRANDO ESQUEMA v" + version + " -> v" + SCHEMA_VERSION + " ---");
 
-            // --- FASE 5: SEMBRADO DE CATÁLOGOS (SEEDING) ---
-            if (isTableEmpty(conn, "clubs")) {
-                stmt.execute("INSERT INTO clubs (name) VALUES ('Sin Club / Particular'), ('CIMOS'), ('CIVG'), ('Tiburones de Bauxilum'), ('Los Raudales'), ('Delfines de Lourdes'), ('CVG Tritones'), ('La Laja'), ('Angostura'), ('Atlantis'), ('Academia Obdulio Villazana')");
-            }
-            if (isTableEmpty(conn, "categories")) {
-                stmt.execute("INSERT INTO categories (name, description) VALUES ('TRAJES DE BAÑO', 'Modelos terminados'), ('ROPA DEPORTIVA', 'Licras, tops, etc.'), ('INSUMOS', 'Telas, hilos, elásticas'), ('EQUIPAMIENTO', 'Lentes, gorros, aletas'), ('ACTIVOS', 'Maquinaria y mobiliario')");
+            for (int v = version; v < SCHEMA_VERSION; v++) {
+                conn.setAutoCommit(false);
+                try {
+                    MIGRATIONS[v].apply(conn, stmt);
+                    // user_version forma parte de la cabecera del archivo: se confirma junto con la migración.
+                    stmt.execute("PRAGMA user_version = " + (v + 1));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
             }
 
             System.out.println("✅ SICONI LISTO: Base de datos sincronizada.");
@@ -85,6 +107,183 @@ public class DatabaseSetup {
         }
     }
 
+    private static int getUserVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ========================================================================================
+    //                                  MIGRACIONES
+    // ========================================================================================
+
+    /**
+     * [V1] Esquema base. Es idempotente para adoptar bases creadas antes del versionado
+     * (user_version = 0), incluidas las que no tienen las columnas más recientes.
+     */
+    private static void migrateV1BaseSchema(Connection conn, Statement stmt) throws SQLException {
+        // --- FASE 1: DEFINICIÓN DE ENTIDADES MAESTRAS ---
+        stmt.execute("CREATE TABLE IF NOT EXISTS clubs (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT UNIQUE)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS categories (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE, description TEXT)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS suppliers (id INTEGER PRIMARY KEY AUTOINCREMENT, company TEXT NOT NULL, contact TEXT, phone TEXT, email TEXT, address TEXT, instagram TEXT, whatsapp TEXT)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS users (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT UNIQUE NOT NULL, password TEXT NOT NULL, full_name TEXT, role TEXT)");
+
+        // [EVOLUCIÓN] Definición de Clientes con soporte extendido para perfiles de atletas (tallas y medidas).
+        stmt.execute("CREATE TABLE IF NOT EXISTS clients (id INTEGER PRIMARY KEY AUTOINCREMENT, code TEXT UNIQUE, id_type TEXT, id_number TEXT, full_name TEXT NOT NULL, phone TEXT, email TEXT, address TEXT, instagram TEXT, is_vip INTEGER DEFAULT 0, athlete_name TEXT, birth_date TEXT, club_name TEXT, category TEXT, measurements TEXT, profession TEXT, phone_alt TEXT, size TEXT)");
+
+        // --- FASE 2: DEFINICIÓN DE INVENTARIO Y MOVIMIENTOS ---
+        stmt.execute("CREATE TABLE IF NOT EXISTS products (id INTEGER PRIMARY KEY AUTOINCREMENT, code TEXT UNIQUE, name TEXT NOT NULL, description TEXT, cost_price REAL, sale_price REAL, current_stock INTEGER DEFAULT 0, min_stock INTEGER DEFAULT 5, category_id INTEGER, supplier_id INTEGER, image_path TEXT, FOREIGN KEY (category_id) REFERENCES categories(id), FOREIGN KEY (supplier_id) REFERENCES suppliers(id))");
+        stmt.execute("CREATE TABLE IF NOT EXISTS inventory_movements (id INTEGER PRIMARY KEY AUTOINCREMENT, product_id INTEGER, quantity INTEGER, type TEXT, observation TEXT, date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+
+        // --- FASE 3: DEFINICIÓN DE TRANSACCIONES Y PAGOS ---
+        // Se establecen llaves foráneas y borrados en cascada para mantener la consistencia operativa.
+        stmt.execute("CREATE TABLE IF NOT EXISTS sales (id TEXT PRIMARY KEY, date TEXT, client_id TEXT, total_divisa REAL, amount_paid_usd REAL, balance_due_usd REAL, total_bs REAL, rate REAL, currency TEXT, payment_method TEXT, reference_number TEXT, status TEXT, observations TEXT, delivery_date TEXT, invoice_nro TEXT, control_nro TEXT, bank TEXT, payment_date TEXT)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS sale_details (id INTEGER PRIMARY KEY AUTOINCREMENT, sale_id TEXT, product_id INTEGER, quantity INTEGER, unit_price REAL, subtotal REAL, FOREIGN KEY(sale_id) REFERENCES sales(id), FOREIGN KEY (product_id) REFERENCES products(id))");
+        stmt.execute("CREATE TABLE IF NOT EXISTS payments (id INTEGER PRIMARY KEY AUTOINCREMENT, sale_id TEXT NOT NULL, payment_date TEXT NOT NULL, amount_usd REAL NOT NULL, payment_method TEXT, reference TEXT, notes TEXT, FOREIGN KEY(sale_id) REFERENCES sales(id) ON DELETE CASCADE)");
+
+        // --- FASE 4: COMPATIBILIDAD CON INSTALACIONES ANTIGUAS ---
+        actualizarEstructura(conn);
+
+        // --- FASE 5: SEMBRADO DE CATÁLOGOS (SEEDING) ---
+        if (isTableEmpty(conn, "clubs")) {
+            stmt.execute("INSERT INTO clubs (name) VALUES ('Sin Club / Particular'), ('CIMOS'), ('CIVG'), ('Tiburones de Bauxilum'), ('Los Raudales'), ('Delfines de Lourdes'), ('CVG Tritones'), ('La Laja'), ('Angostura'), ('Atlantis'), ('Academia Obdulio Villazana')");
+        }
+        if (isTableEmpty(conn, "categories")) {
+            stmt.execute("INSERT INTO categories (name, description) VALUES ('TRAJES DE BAÑO', 'Modelos terminados'), ('ROPA DEPORTIVA', 'Licras, tops, etc.'), ('INSUMOS', 'Telas, hilos, elásticas'), ('EQUIPAMIENTO', 'Lentes, gorros, aletas'), ('ACTIVOS', 'Maquinaria y mobiliario')");
+        }
+    }
+
+    /**
+     * [V2] Índices sobre las columnas de filtrado y unión más consultadas.
+     * Los índices de sale_details y sales son "cubrientes" para los JOIN de reportes:
+     * contienen todas las columnas leídas, así SQLite no necesita visitar la tabla.
+     */
+    private static void migrateV2HotIndexes(Connection conn, Statement stmt) throws SQLException {
+        // Ventas: rango de fechas (reportes, listados) y consultas por cliente.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_sales_date ON sales(date, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_sales_client ON sales(client_id, total_divisa)");
+
+        // Detalle: JOIN sales -> sale_details -> products (cubriente para unidades e ingresos).
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_sale_details_sale ON sale_details(sale_id, product_id, quantity, subtotal, unit_price)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_sale_details_product ON sale_details(product_id)");
+
+        // Pagos: historial por orden, ya ordenado por fecha.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_sale ON payments(sale_id, payment_date)");
+
+        // Kardex: consultas por rango de fechas y por producto.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_movements_date ON inventory_movements(date, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_movements_product ON inventory_movements(product_id, date)");
+
+        // Estadísticas para que el planificador elija los nuevos índices.
+        stmt.execute("ANALYZE");
+    }
+
+    /**
+     * [V3] Tabla resumen daily_product_sales (unidades, ingreso y costo por producto y día).
+     * Se agrega unit_cost a sale_details para congelar el costo vigente al vender; así el
+     * resumen puede restarse con exactitud al borrar una venta aunque el costo cambie después.
+     */
+    private static void migrateV3DailyRollup(Connection conn, Statement stmt) throws SQLException {
+        stmt.execute("ALTER TABLE sale_details ADD COLUMN unit_cost REAL");
+        stmt.execute("UPDATE sale_details SET unit_cost = (SELECT p.cost_price FROM products p WHERE p.id = sale_details.product_id)");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS daily_product_sales (" +
+                "day TEXT NOT NULL, " +
+                "product_id INTEGER NOT NULL, " +
+                "units INTEGER NOT NULL DEFAULT 0, " +
+                "revenue REAL NOT NULL DEFAULT 0, " +
+                "cost REAL NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (day, product_id)) WITHOUT ROWID");
+
+        // Carga inicial a partir del histórico existente.
+        SaleDAO.rebuildDailyProductSales(conn);
+    }
+
+    /**
+     * [V4] Índice de texto completo FTS5 sobre código, nombre y descripción de productos.
+     * Es una tabla de "contenido externo": no duplica el texto, solo guarda el índice
+     * invertido y lee las columnas desde products. El tokenizador unicode61 con
+     * remove_diacritics hace que "baño" y "bano" coincidan; prefix='2 3' precalcula los
+     * prefijos cortos para que la búsqueda mientras se escribe no recorra el vocabulario.
+     * Los disparadores solo reaccionan a cambios de texto, no a movimientos de stock.
+     */
+    private static void migrateV4ProductSearchIndex(Connection conn, Statement stmt) throws SQLException {
+        stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS products_fts USING fts5(" +
+                "code, name, description, " +
+                "content='products', content_rowid='id', " +
+                "tokenize='unicode61 remove_diacritics 2', prefix='2 3')");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS products_fts_ai AFTER INSERT ON products BEGIN " +
+                "INSERT INTO products_fts(rowid, code, name, description) VALUES (new.id, new.code, new.name, new.description); " +
+                "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS products_fts_ad AFTER DELETE ON products BEGIN " +
+                "INSERT INTO products_fts(products_fts, rowid, code, name, description) VALUES ('delete', old.id, old.code, old.name, old.description); " +
+                "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS products_fts_au AFTER UPDATE OF code, name, description ON products BEGIN " +
+                "INSERT INTO products_fts(products_fts, rowid, code, name, description) VALUES ('delete', old.id, old.code, old.name, old.description); " +
+                "INSERT INTO products_fts(rowid, code, name, description) VALUES (new.id, new.code, new.name, new.description); " +
+                "END");
+
+        // Carga inicial del índice con el catálogo existente.
+        stmt.execute("INSERT INTO products_fts(products_fts) VALUES ('rebuild')");
+    }
+
+    /**
+     * [V5] Tabla de secuencias para los correlativos de pedido, factura y control fiscal.
+     * Se inicializa con el máximo ya usado en sales para no repetir números existentes.
+     */
+    private static void migrateV5Sequences(Connection conn, Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS sequences (" +
+                "name TEXT PRIMARY KEY, " +
+                "next_value INTEGER NOT NULL) WITHOUT ROWID");
+        SequenceAllocator.syncFromSales(conn);
+    }
+
+    /**
+     * [V6] Kardex de solo anexado. inventory_movements gana el delta con signo, el tipo de
+     * evento, la venta de origen y el operador; los movimientos existentes se adoptan como
+     * ajustes. Los disparadores impiden modificar o borrar eventos ya escritos.
+     * La fecha de los movimientos adoptados venía del DEFAULT CURRENT_TIMESTAMP (UTC); se
+     * pasa a hora local, como el resto del sistema, antes de instalar los disparadores, para
+     * que fechas e IDs sigan el mismo orden en todo el kardex.
+     * stock_snapshots guarda fotos de stock por producto; movement_id es el último evento
+     * incluido en la foto. La foto inicial toma el stock actual como punto de partida, ya
+     * que las ventas anteriores a esta versión no dejaron eventos.
+     */
+    private static void migrateV6InventoryLedger(Connection conn, Statement stmt) throws SQLException {
+        stmt.execute("ALTER TABLE inventory_movements ADD COLUMN delta INTEGER");
+        stmt.execute("ALTER TABLE inventory_movements ADD COLUMN event TEXT");
+        stmt.execute("ALTER TABLE inventory_movements ADD COLUMN sale_id TEXT");
+        stmt.execute("ALTER TABLE inventory_movements ADD COLUMN username TEXT");
+        stmt.execute("UPDATE inventory_movements SET " +
+                "delta = CASE WHEN type = 'SALIDA' THEN -quantity ELSE quantity END, " +
+                "event = '" + InventoryLedgerDAO.EVENT_ADJUSTMENT + "', " +
+                "date = datetime(date, 'localtime') " +
+                "WHERE delta IS NULL");
+
+        // Índice cubriente para sumar los eventos de un producto posteriores a una foto.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_movements_ledger ON inventory_movements(product_id, id, date, delta)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_inventory_movements_sale ON inventory_movements(sale_id) WHERE sale_id IS NOT NULL");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS inventory_movements_no_update BEFORE UPDATE ON inventory_movements BEGIN " +
+                "SELECT RAISE(ABORT, 'El kardex es de solo anexado: los movimientos no se modifican.'); " +
+                "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS inventory_movements_no_delete BEFORE DELETE ON inventory_movements BEGIN " +
+                "SELECT RAISE(ABORT, 'El kardex es de solo anexado: los movimientos no se borran.'); " +
+                "END");
+
+        stmt.execute("CREATE TABLE IF NOT EXISTS stock_snapshots (" +
+                "product_id INTEGER NOT NULL, " +
+                "movement_id INTEGER NOT NULL, " +
+                "taken_at TEXT NOT NULL, " +
+                "stock INTEGER NOT NULL, " +
+                "PRIMARY KEY (product_id, movement_id)) WITHOUT ROWID");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_stock_snapshots_taken ON stock_snapshots(product_id, taken_at)");
+
+        // Foto inicial de todos los productos.
+        InventoryLedgerDAO.checkpoint(conn);
+    }
+
     // ========================================================================================
     //                                  GESTIÓN DE MIGRACIONES
     // ========================================================================================
@@ -93,7 +292,7 @@ public class DatabaseSetup {
      * Valida la existencia de campos críticos en instalaciones antiguas.
      * Provee compatibilidad hacia atrás mediante la inyección controlada de columnas.
      */
-    private static void actualizarEstructura(Connection conn) {
+    private static void actualizarEstructura(Connection conn) throws SQLException {
         checkAndAddColumn(conn, "clients", "size", "TEXT");
         checkAndAddColumn(conn, "clients", "phone_alt", "TEXT");
         checkAndAddColumn(conn, "clients", "profession", "TEXT");
@@ -106,22 +305,19 @@ public class DatabaseSetup {
     /**
      * [MÉTODO AUXILIAR] Utiliza DatabaseMetaData para inspeccionar el esquema en caliente.
      * Si la columna no se encuentra en el ResultSet de metadatos, se procede al ALTER TABLE.
+     * Solo se invoca desde la migración V1, es decir, una vez por instalación.
      * * @param table Nombre de la entidad.
      * @param column Nombre del nuevo atributo.
      * @param type Tipo de dato SQL.
      */
-    private static void checkAndAddColumn(Connection conn, String table, String column, String type) {
-        try {
-            DatabaseMetaData meta = conn.getMetaData();
-            ResultSet rs = meta.getColumns(null, null, table, column);
-            if (!rs.next()) {
-                try (Statement stmt = conn.createStatement()) {
-                    System.out.println("🔧 Migrando BD: Agregando columna '" + column + "' a tabla '" + table + "'");
-                    stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type + " DEFAULT ''");
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Aviso migración: " + e.getMessage());
+    private static void checkAndAddColumn(Connection conn, String table, String column, String type) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(null, null, table, column)) {
+            if (rs.next()) return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            System.out.println("🔧 Migrando BD: Agregando columna '" + column + "' a tabla '" + table + "'");
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type + " DEFAULT ''");
         }
     }
 
@@ -133,4 +329,4 @@ public class DatabaseSetup {
             return rs.next() && rs.getInt(1) == 0;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,300 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: EdtWatchdog.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.1.0 (Shared Rotating Writer)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Detector de congelamientos de la interfaz. Una cola de eventos propia mide
+ * cada despacho del Event Dispatch Thread; un hilo vigía toma muestras de la
+ * pila del EDT mientras un despacho supera el umbral. Cada congelamiento se
+ * anota en logs/siconi-edt-stalls.log y se acumula por punto de llamada
+ * (la línea de la vista o controlador que bloqueó), para priorizar qué
+ * consultas sacar del EDT.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [UTILIDAD - DIAGNÓSTICO] Cola de eventos cronometrada y vigía de congelamientos del EDT.
+ * [RENDIMIENTO] En el EDT solo se leen dos relojes y se escriben dos campos volátiles por
+ * evento; las pilas las toma el vigía en su propio hilo y la escritura del log corre en
+ * otro, así que medir no agrega congelamientos.
+ * [CONCURRENCIA] Los diálogos modales abren un bucle de eventos anidado dentro de un
+ * despacho que dura lo que el diálogo esté abierto; por eso se miden tramos de trabajo
+ * continuo y no despachos completos: solo cuenta el tiempo en que el EDT no atiende eventos.
+ * Umbral: -Dsiconi.ui.stallMs=... (200). Desactivar: -Dsiconi.ui.watchdog=false.
+ * Bitácora: -Dsiconi.ui.stallLog=... (logs/siconi-edt-stalls.log), tamaño
+ * -Dsiconi.ui.stallLogKb=... (1024), respaldos -Dsiconi.ui.stallLogFiles=... (3).
+ */
+public final class EdtWatchdog {
+
+    // ========================================================================================
+    //                                  CONFIGURACIÓN
+    // ========================================================================================
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("siconi.ui.watchdog", "true"));
+    private static final long STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(20, Long.getLong("siconi.ui.stallMs", 200)));
+    // El vigía mira cuatro veces por umbral: un congelamiento recibe al menos una muestra.
+    private static final long SAMPLE_MS = Math.max(5, TimeUnit.NANOSECONDS.toMillis(STALL_NANOS) / 4);
+    // Tope de muestras por congelamiento (uno de varios segundos no debe llenar la memoria).
+    private static final int MAX_SAMPLES = 64;
+    private static final int LOGGED_FRAMES = 30;
+    private static final String APP_PACKAGE = "com.swimcore.";
+    private static final String NO_SAMPLE = "(sin muestra de pila)";
+
+    private static final RotatingLogFile LOG =
+            new RotatingLogFile("siconi.ui.stallLog", "logs/siconi-edt-stalls.log", "siconi-edt-stall-log");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+    private static final LatencyHistogram DISPATCH = MetricsRegistry.histogram("edt.dispatch");
+    private static final LatencyHistogram STALLS = MetricsRegistry.histogram("edt.stall");
+    private static final LongAdder STALL_COUNT = MetricsRegistry.counter("edt.stalls");
+    private static final Map<String, LatencyHistogram> BY_SITE = new ConcurrentHashMap<>();
+
+
+    // ========================================================================================
+    //                                  ESTADO COMPARTIDO EDT <-> VIGÍA
+    // ========================================================================================
+
+    // Inicio del tramo que el EDT está despachando ahora (0 = ocioso) y su número de tramo.
+    private static volatile long activeSince = 0;
+    private static volatile long activeSegment = 0;
+    private static volatile Thread edt = null;
+    // Congelamiento en curso; lo crea el vigía con la primera muestra y lo cierra el EDT.
+    private static volatile Stall current = null;
+
+    private EdtWatchdog() {}
+
+    /**
+     * Instala la cola cronometrada y arranca el vigía. Idempotente; llamar antes de
+     * crear la primera ventana.
+     */
+    public static void install() {
+        if (!ENABLED || !INSTALLED.compareAndSet(false, true)) return;
+        MetricsRegistry.histogramGroup("edt.stall.site", EdtWatchdog::getStallsBySite);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimedEventQueue());
+        Thread watchdog = new Thread(EdtWatchdog::watch, "siconi-edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    // ========================================================================================
+    //                                  COLA DE EVENTOS CRONOMETRADA
+    // ========================================================================================
+
+    /**
+     * [PATRÓN DE DISEÑO: DECORATOR] Misma cola del sistema, con reloj en cada despacho.
+     * Se mide por tramos de trabajo continuo del EDT: un despacho normal es un tramo; uno
+     * que abre un diálogo modal se corta en el tramo previo a abrirlo (donde suelen ir las
+     * consultas del constructor) y los tramos entre eventos del bucle anidado. La espera
+     * en getNextEvent() nunca cuenta. Los campos sin volatile solo los toca el EDT.
+     */
+    private static final class TimedEventQueue extends EventQueue {
+        private long segmentStart = 0; // 0 = EDT esperando eventos
+        private long segments = 0;
+        private int depth = 0;
+
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            endSegment(System.nanoTime());
+            return super.getNextEvent();
+        }
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            long now = System.nanoTime();
+            endSegment(now); // tramo del despacho externo hasta este evento anidado
+            beginSegment(now);
+            depth++;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                depth--;
+                now = System.nanoTime();
+                endSegment(now);
+                // El despacho externo retoma: su trabajo cuenta desde aquí.
+                if (depth > 0) beginSegment(now);
+            }
+        }
+
+        private void beginSegment(long now) {
+            edt = Thread.currentThread();
+            segmentStart = now;
+            activeSegment = ++segments;
+            activeSince = now;
+        }
+
+        private void endSegment(long now) {
+            if (segmentStart == 0) return;
+            long nanos = now - segmentStart;
+            segmentStart = 0;
+            activeSince = 0;
+            DISPATCH.record(nanos);
+            if (nanos >= STALL_NANOS) finishStall(activeSegment, nanos);
+        }
+    }
+
+    // ========================================================================================
+    //                                  VIGÍA
+    // ========================================================================================
+
+    /**
+     * Muestras de pila de un congelamiento en curso.
+     */
+    private static final class Stall {
+        final long segment;
+        final Map<String, Integer> sites = new LinkedHashMap<>();
+        StackTraceElement[] firstStack;
+        int samples;
+
+        Stall(long segment) { this.segment = segment; }
+
+        synchronized void add(StackTraceElement[] stack) {
+            if (samples >= MAX_SAMPLES) return;
+            if (firstStack == null) firstStack = stack;
+            sites.merge(callSite(stack), 1, Integer::sum);
+            samples++;
+        }
+
+        /** @return Punto de llamada con más muestras. */
+        synchronized String dominantSite() {
+            String best = NO_SAMPLE;
+            int max = 0;
+            for (Map.Entry<String, Integer> e : sites.entrySet()) {
+                if (e.getValue() > max) {
+                    best = e.getKey();
+                    max = e.getValue();
+                }
+            }
+            return best;
+        }
+    }
+
+    private static void watch() {
+        while (true) {
+            try {
+                Thread.sleep(SAMPLE_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long since = activeSince;
+            long segment = activeSegment;
+            Thread target = edt;
+            if (since == 0 || target == null || System.nanoTime() - since < STALL_NANOS) continue;
+            StackTraceElement[] stack = target.getStackTrace();
+            // Si el EDT terminó mientras se tomaba la pila, la muestra es de otro evento.
+            if (activeSegment != segment || activeSince == 0) continue;
+            Stall stall = current;
+            if (stall == null || stall.segment != segment) {
+                stall = new Stall(segment);
+                current = stall;
+            }
+            stall.add(stack);
+        }
+    }
+
+    /** Llamado en el EDT al terminar un despacho que superó el umbral. */
+    private static void finishStall(long segment, long nanos) {
+        Stall stall = current;
+        if (stall == null || stall.segment != segment) stall = new Stall(segment);
+        current = null;
+        String site = stall.dominantSite();
+        STALL_COUNT.increment();
+        STALLS.record(nanos);
+        BY_SITE.computeIfAbsent(site, k -> new LatencyHistogram()).record(nanos);
+        log(stall, site, nanos);
+    }
+
+    /**
+     * Punto de llamada: el marco más interno de una vista o controlador (la línea que
+     * bloqueó el EDT). Si no hay, el primer marco de la aplicación; si tampoco, el tope.
+     */
+    static String callSite(StackTraceElement[] stack) {
+        StackTraceElement firstApp = null;
+        for (StackTraceElement frame : stack) {
+            String cls = frame.getClassName();
+            if (!cls.startsWith(APP_PACKAGE) || cls.startsWith(EdtWatchdog.class.getName())) continue;
+            if (firstApp == null) firstApp = frame;
+            if (cls.startsWith(APP_PACKAGE + "view.") || cls.startsWith(APP_PACKAGE + "controller.")) return format(frame);
+        }
+        if (firstApp != null) return format(firstApp);
+        return stack.length > 0 ? format(stack[0]) : NO_SAMPLE;
+    }
+
+    /** Clase.método(Archivo.java:línea), sin el prefijo de módulo o cargador de clases. */
+    private static String format(StackTraceElement frame) {
+        return frame.getClassName() + "." + frame.getMethodName()
+                + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")";
+    }
+
+    // ========================================================================================
+    //                                  CONSULTA
+    // ========================================================================================
+
+    /** @return Duración de los congelamientos (ns) por punto de llamada. */
+    public static Map<String, LatencyHistogram.Snapshot> getStallsBySite() {
+        Map<String, LatencyHistogram.Snapshot> map = new LinkedHashMap<>();
+        BY_SITE.forEach((site, h) -> map.put(site, h.snapshot()));
+        return map;
+    }
+
+    /** @return Resumen legible de los {@code limit} puntos con más tiempo congelado. */
+    public static String formatTop(int limit) {
+        List<Map.Entry<String, LatencyHistogram.Snapshot>> list = new ArrayList<>(getStallsBySite().entrySet());
+        list.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram.Snapshot> e) -> e.getValue().getSum()).reversed());
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(limit, list.size()); i++) {
+            LatencyHistogram.Snapshot s = list.get(i).getValue();
+            sb.append(String.format("   %,5d x | total %,9.1f ms | máx %,8.1f ms | %s%n",
+                    s.getCount(), s.getSum() / 1e6, s.getMax() / 1e6, list.get(i).getKey()));
+        }
+        return sb.toString();
+    }
+
+    // ========================================================================================
+    //                                  BITÁCORA
+    // ========================================================================================
+
+    private static void log(Stall stall, String site, long nanos) {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append(LocalDateTime.now().format(TIMESTAMP))
+                .append(String.format(" CONGELAMIENTO %.1f ms", nanos / 1e6))
+                .append(" | muestras=").append(stall.samples)
+                .append(" | sitio=").append(site).append('\n');
+        synchronized (stall) {
+            if (stall.sites.size() > 1) {
+                stall.sites.forEach((s, n) -> sb.append("  sitio: ").append(n).append(" x ").append(s).append('\n'));
+            }
+            if (stall.firstStack != null) {
+                int frames = Math.min(LOGGED_FRAMES, stall.firstStack.length);
+                for (int i = 0; i < frames; i++) sb.append("  at ").append(stall.firstStack[i]).append('\n');
+                if (stall.firstStack.length > frames) sb.append("  ... ").append(stall.firstStack.length - frames).append(" más\n");
+            }
+        }
+        LOG.append(sb.append('\n').toString());
+    }
+}
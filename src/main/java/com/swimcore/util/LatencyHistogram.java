@@ -0,0 +1,152 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: LatencyHistogram.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Log-Linear Histogram)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Histograma de latencias sin bloqueos al estilo HDR: cada potencia de dos se
+ * divide en 16 sub-cubetas lineales, con un error relativo máximo del 6,25%
+ * entre 1 ns y varias horas en menos de 700 contadores. Registrar un valor es
+ * un incremento atómico; los percentiles se calculan al tomar una foto.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * [UTILIDAD - MÉTRICAS] Distribución de valores (normalmente nanosegundos).
+ * [CONCURRENCIA] record() puede llamarse desde cualquier hilo sin sincronización;
+ * la foto no es atómica respecto a escrituras simultáneas, lo que basta para métricas.
+ */
+public final class LatencyHistogram {
+
+    // 2^SUB_BITS sub-cubetas por potencia de dos.
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Mayor exponente registrable: 2^44 ns ≈ 4,9 horas; lo demás cae en la última cubeta.
+    private static final int MAX_EXPONENT = 44;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    // ========================================================================================
+    //                                  REGISTRO
+    // ========================================================================================
+
+    /** Registra un valor; los negativos cuentan como 0. */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) current = max.get();
+    }
+
+    /** Pone todos los contadores a cero. */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /** @return Valores registrados. */
+    public long getCount() { return count.sum(); }
+
+    static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(v), MAX_EXPONENT);
+        int sub = (int) (Math.min(v >>> (exponent - SUB_BITS), 2L * SUB_COUNT - 1) & (SUB_COUNT - 1));
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /** @return Límite superior (exclusivo) de la cubeta. */
+    static long upperBoundOf(int index) {
+        if (index < SUB_COUNT) return index + 1;
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        long sub = index % SUB_COUNT;
+        return (SUB_COUNT + sub + 1) << (exponent - SUB_BITS);
+    }
+
+    // ========================================================================================
+    //                                  FOTOS
+    // ========================================================================================
+
+    /** @return Foto inmutable con conteo, media, máximo y percentiles. */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long maxValue = max.get();
+        return new Snapshot(total, sum.sum(), maxValue,
+                percentile(copy, total, 0.50, maxValue),
+                percentile(copy, total, 0.90, maxValue),
+                percentile(copy, total, 0.95, maxValue),
+                percentile(copy, total, 0.99, maxValue),
+                percentile(copy, total, 0.999, maxValue));
+    }
+
+    private static long percentile(long[] buckets, long total, double p, long maxValue) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return Math.min(upperBoundOf(i) - 1, maxValue);
+        }
+        return maxValue;
+    }
+
+    /**
+     * Foto de un histograma. Los percentiles son el límite superior de su cubeta.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long p50;
+        private final long p90;
+        private final long p95;
+        private final long p99;
+        private final long p999;
+
+        Snapshot(long count, long sum, long max, long p50, long p90, long p95, long p99, long p999) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+
+        public long getCount() { return count; }
+        public long getSum() { return sum; }
+        public long getMax() { return max; }
+        public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP95() { return p95; }
+        public long getP99() { return p99; }
+        public long getP999() { return p999; }
+    }
+}
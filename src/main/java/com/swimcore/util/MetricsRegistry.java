@@ -0,0 +1,277 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: MetricsRegistry.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Live Metrics Registry)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Registro global de métricas de la aplicación: contadores, histogramas de
+ * latencia (LatencyHistogram), indicadores calculados al vuelo (gauges) y
+ * familias de histogramas que mantiene otro componente (p. ej. QueryStats).
+ * Una foto del registro se puede exportar como JSON para adjuntarla a un
+ * reporte de lentitud.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * [UTILIDAD - MÉTRICAS] Registro sin bloqueos de métricas en vivo.
+ * [CONCURRENCIA] Los contadores son LongAdder y los histogramas LatencyHistogram: registrar
+ * desde cualquier hilo no toma monitores. Los gauges solo se evalúan al tomar la foto, así
+ * que su costo lo paga quien mira (el panel de diagnóstico), no la operación medida.
+ * Convención de nombres: prefijo por subsistema con puntos ("edt.latency", "db.pool.readers.active").
+ */
+public final class MetricsRegistry {
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, Supplier<? extends Number>> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, Supplier<Map<String, LatencyHistogram.Snapshot>>> HISTOGRAM_GROUPS = new ConcurrentHashMap<>();
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    static {
+        registerJvmGauges();
+    }
+
+    private MetricsRegistry() {}
+
+    // ========================================================================================
+    //                                  REGISTRO
+    // ========================================================================================
+
+    /** @return Contador con ese nombre (se crea la primera vez). */
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    /** @return Histograma con ese nombre (se crea la primera vez). */
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    /**
+     * Registra (o reemplaza) un indicador que se calcula al tomar la foto.
+     * Si el proveedor falla o devuelve null, el valor se reporta como null.
+     */
+    public static void gauge(String name, Supplier<? extends Number> supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    /**
+     * Registra una familia de histogramas cuyas claves administra otro componente
+     * (p. ej. una por huella de SQL); se consulta al tomar la foto.
+     */
+    public static void histogramGroup(String name, Supplier<Map<String, LatencyHistogram.Snapshot>> source) {
+        HISTOGRAM_GROUPS.put(name, source);
+    }
+
+    /** Pone a cero contadores e histogramas propios (gauges y familias no se tocan). */
+    public static void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    // ========================================================================================
+    //                                  JVM
+    // ========================================================================================
+
+    /** Memoria, recolector de basura e hilos de la JVM (MXBeans de java.lang.management). */
+    private static void registerJvmGauges() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm.heap.used", () -> memory.getHeapMemoryUsage().getUsed());
+        gauge("jvm.heap.committed", () -> memory.getHeapMemoryUsage().getCommitted());
+        gauge("jvm.heap.max", () -> memory.getHeapMemoryUsage().getMax());
+        gauge("jvm.nonHeap.used", () -> memory.getNonHeapMemoryUsage().getUsed());
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String prefix = "jvm.gc." + gc.getName().replace(' ', '_');
+            gauge(prefix + ".count", gc::getCollectionCount);
+            gauge(prefix + ".timeMs", gc::getCollectionTime);
+        }
+        gauge("jvm.threads.live", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        gauge("jvm.uptimeMs", () -> ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    // ========================================================================================
+    //                                  FOTOS
+    // ========================================================================================
+
+    /** @return Foto de todas las métricas, con las claves ordenadas. */
+    public static Snapshot snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, c) -> counters.put(name, c.sum()));
+
+        Map<String, LatencyHistogram.Snapshot> histograms = new TreeMap<>();
+        HISTOGRAMS.forEach((name, h) -> histograms.put(name, h.snapshot()));
+
+        Map<String, Number> gauges = new TreeMap<>();
+        GAUGES.forEach((name, g) -> gauges.put(name, evaluate(g)));
+
+        Map<String, Map<String, LatencyHistogram.Snapshot>> groups = new TreeMap<>();
+        HISTOGRAM_GROUPS.forEach((name, source) -> {
+            try {
+                groups.put(name, new TreeMap<>(source.get()));
+            } catch (RuntimeException e) {
+                groups.put(name, Collections.emptyMap());
+            }
+        });
+        return new Snapshot(LocalDateTime.now().format(TIMESTAMP), counters, histograms, gauges, groups);
+    }
+
+    private static Number evaluate(Supplier<? extends Number> gauge) {
+        try {
+            return gauge.get();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Foto inmutable del registro.
+     */
+    public static final class Snapshot {
+        private final String timestamp;
+        private final Map<String, Long> counters;
+        private final Map<String, LatencyHistogram.Snapshot> histograms;
+        private final Map<String, Number> gauges;
+        private final Map<String, Map<String, LatencyHistogram.Snapshot>> histogramGroups;
+
+        Snapshot(String timestamp, Map<String, Long> counters, Map<String, LatencyHistogram.Snapshot> histograms,
+                 Map<String, Number> gauges, Map<String, Map<String, LatencyHistogram.Snapshot>> histogramGroups) {
+            this.timestamp = timestamp;
+            this.counters = Collections.unmodifiableMap(counters);
+            this.histograms = Collections.unmodifiableMap(histograms);
+            this.gauges = Collections.unmodifiableMap(gauges);
+            this.histogramGroups = Collections.unmodifiableMap(histogramGroups);
+        }
+
+        public String getTimestamp() { return timestamp; }
+        public Map<String, Long> getCounters() { return counters; }
+        public Map<String, LatencyHistogram.Snapshot> getHistograms() { return histograms; }
+        public Map<String, Number> getGauges() { return gauges; }
+        public Map<String, Map<String, LatencyHistogram.Snapshot>> getHistogramGroups() { return histogramGroups; }
+
+        /** @return Valor del contador, o 0 si no existe. */
+        public long counter(String name) { return counters.getOrDefault(name, 0L); }
+
+        /** @return Valor del gauge, o null si no existe o no está disponible. */
+        public Number gauge(String name) { return gauges.get(name); }
+
+        /** @return Foto del histograma, o null si nunca se registró. */
+        public LatencyHistogram.Snapshot histogram(String name) { return histograms.get(name); }
+
+        // ------------------------------------------------------------------------------------
+        //                                  JSON
+        // ------------------------------------------------------------------------------------
+
+        /**
+         * Serializa la foto a JSON (sin dependencias externas).
+         * Los histogramas van en nanosegundos, igual que se registran.
+         */
+        public String toJson() {
+            StringBuilder sb = new StringBuilder(4096);
+            sb.append("{\n  \"timestamp\": ").append(quote(timestamp)).append(",\n");
+
+            sb.append("  \"counters\": {");
+            appendEntries(sb, counters, (out, v) -> out.append(v));
+            sb.append("},\n");
+
+            sb.append("  \"gauges\": {");
+            appendEntries(sb, gauges, Snapshot::appendNumber);
+            sb.append("},\n");
+
+            sb.append("  \"histograms\": {");
+            appendEntries(sb, histograms, Snapshot::appendHistogram);
+            sb.append("},\n");
+
+            sb.append("  \"histogramGroups\": {");
+            appendEntries(sb, histogramGroups, (out, group) -> {
+                out.append('{');
+                boolean first = true;
+                for (Map.Entry<String, LatencyHistogram.Snapshot> e : group.entrySet()) {
+                    out.append(first ? "\n      " : ",\n      ").append(quote(e.getKey())).append(": ");
+                    appendHistogram(out, e.getValue());
+                    first = false;
+                }
+                out.append(group.isEmpty() ? "}" : "\n    }");
+            });
+            sb.append("}\n}\n");
+            return sb.toString();
+        }
+
+        private interface ValueWriter<V> {
+            void write(StringBuilder out, V value);
+        }
+
+        private static <V> void appendEntries(StringBuilder sb, Map<String, V> map, ValueWriter<V> writer) {
+            boolean first = true;
+            for (Map.Entry<String, V> e : map.entrySet()) {
+                sb.append(first ? "\n    " : ",\n    ").append(quote(e.getKey())).append(": ");
+                writer.write(sb, e.getValue());
+                first = false;
+            }
+            if (!map.isEmpty()) sb.append("\n  ");
+        }
+
+        private static void appendNumber(StringBuilder sb, Number n) {
+            if (n == null) {
+                sb.append("null");
+            } else if (n instanceof Double || n instanceof Float) {
+                double d = n.doubleValue();
+                sb.append(Double.isFinite(d) ? String.valueOf(d) : "null");
+            } else {
+                sb.append(n.longValue());
+            }
+        }
+
+        private static void appendHistogram(StringBuilder sb, LatencyHistogram.Snapshot h) {
+            sb.append("{\"count\": ").append(h.getCount())
+                    .append(", \"mean\": ").append(Math.round(h.getMean()))
+                    .append(", \"p50\": ").append(h.getP50())
+                    .append(", \"p90\": ").append(h.getP90())
+                    .append(", \"p95\": ").append(h.getP95())
+                    .append(", \"p99\": ").append(h.getP99())
+                    .append(", \"p999\": ").append(h.getP999())
+                    .append(", \"max\": ").append(h.getMax())
+                    .append(", \"sum\": ").append(h.getSum()).append('}');
+        }
+
+        /** Cadena JSON con los escapes obligatorios (comillas, barra invertida y control). */
+        static String quote(String s) {
+            StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                        else sb.append(c);
+                }
+            }
+            return sb.append('"').toString();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: PdfRenderService.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.1.1 (Atomic Publish via AtomicFiles)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Servicio de renderizado de PDF en segundo plano. Recibos y reportes se
+ * encolan como trabajos y cada uno devuelve un CompletableFuture con el archivo
+ * final. El documento se escribe en un temporal de la misma carpeta y se
+ * renombra al terminar, así nunca queda a la vista un PDF a medio escribir.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import javax.swing.*;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * [UTILIDAD - DOCUMENTOS] Ejecutor dedicado de PDFs (Singleton).
+ * [CONCURRENCIA] Pocos hilos de fondo con cola acotada: si la cola se llena, un hilo de
+ * fondo que encola espera turno (contrapresión); desde el EDT el trabajo se rechaza en
+ * lugar de congelar la interfaz.
+ * [RENDIMIENTO] Las fuentes se resuelven una vez y se comparten entre documentos; las
+ * plantillas de tabla de cada generador se copian en lugar de reconstruirse.
+ */
+public final class PdfRenderService {
+
+    /**
+     * Contenido de un documento. Se ejecuta en un hilo de renderizado con el documento ya
+     * abierto; el servicio lo cierra y publica el archivo al terminar.
+     */
+    @FunctionalInterface
+    public interface RenderJob {
+        void render(Document document, PdfWriter writer) throws Exception;
+    }
+
+    // Hilos de renderizado (-Dsiconi.pdf.threads=...) y tamaño de la cola (-Dsiconi.pdf.queue=...).
+    private static final int THREADS = Math.max(1, Integer.getInteger("siconi.pdf.threads",
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2))));
+    private static final int QUEUE_CAPACITY = Math.max(1, Integer.getInteger("siconi.pdf.queue", 32));
+
+    private static PdfRenderService instance;
+
+    // Fuentes compartidas: clave "familia|tamaño|estilo|color".
+    private static final Map<String, Font> FONTS = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private PdfRenderService() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "siconi-pdf-render-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, ex) -> {
+                    if (ex.isShutdown() || SwingUtilities.isEventDispatchThread()) {
+                        throw new RejectedExecutionException("Cola de documentos PDF llena.");
+                    }
+                    try {
+                        ex.getQueue().put(r); // Contrapresión para productores de fondo
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** @return La instancia única del servicio. */
+    public static synchronized PdfRenderService getInstance() {
+        if (instance == null) {
+            instance = new PdfRenderService();
+            // Cola y resultados visibles en el panel de diagnóstico (MetricsRegistry).
+            PdfRenderService service = instance;
+            MetricsRegistry.gauge("pdf.queued", service::getQueuedCount);
+            MetricsRegistry.gauge("pdf.active", service::getActiveCount);
+            MetricsRegistry.gauge("pdf.completed", service::getCompletedCount);
+            MetricsRegistry.gauge("pdf.failed", service::getFailedCount);
+        }
+        return instance;
+    }
+
+    // ========================================================================================
+    //                                  ENCOLADO DE TRABAJOS
+    // ========================================================================================
+
+    /** Documento A4 (tamaño por defecto de iText). */
+    public CompletableFuture<File> submit(File target, RenderJob job) {
+        return submit(target, new Document(PageSize.A4), job);
+    }
+
+    /** Documento con el tamaño de página indicado y márgenes por defecto. */
+    public CompletableFuture<File> submit(File target, Rectangle pageSize, RenderJob job) {
+        return submit(target, new Document(pageSize), job);
+    }
+
+    /**
+     * Encola un documento.
+     * @param target Archivo final; se reemplaza si existe.
+     * @param document Documento sin abrir (tamaño de página y márgenes ya definidos).
+     * @param job Contenido del documento.
+     * @return Futuro con el archivo publicado, o excepcional si falló o la cola está llena.
+     */
+    public CompletableFuture<File> submit(File target, Document document, RenderJob job) {
+        CompletableFuture<File> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    File file = renderNow(target, document, job);
+                    completed.incrementAndGet();
+                    future.complete(file);
+                } catch (Throwable t) {
+                    failed.incrementAndGet();
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            failed.incrementAndGet();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Escribe el documento en "nombre.pdf.tmp" y lo renombra al nombre final. Síncrono:
+     * lo usan los hilos del servicio y los trabajos largos que ya corren en su propio hilo
+     * (lotes, reportes de cientos de miles de filas) para no ocupar la cola de recibos.
+     */
+    public static File renderNow(File target, Document document, RenderJob job) throws Exception {
+        File folder = target.getAbsoluteFile().getParentFile();
+        if (folder != null && !folder.exists()) folder.mkdirs();
+        File tmp = new File(target.getAbsolutePath() + ".tmp");
+
+        boolean ok = false;
+        try {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp), 64 * 1024)) {
+                PdfWriter writer = PdfWriter.getInstance(document, out);
+                document.open();
+                try {
+                    job.render(document, writer);
+                } catch (Throwable t) {
+                    // Cerrar un documento a medias lanza su propio error ("no pages"): se
+                    // descarta para que llegue al llamador la causa real.
+                    try { document.close(); } catch (Exception ignored) {}
+                    throw t;
+                }
+                document.close();
+            }
+            AtomicFiles.moveIntoPlace(tmp, target);
+            ok = true;
+            return target;
+        } finally {
+            if (!ok) tmp.delete();
+        }
+    }
+
+    // ========================================================================================
+    //                                  RECURSOS COMPARTIDOS
+    // ========================================================================================
+
+    /**
+     * Fuente resuelta una sola vez por combinación. Las instancias son compartidas: no
+     * deben modificarse con sus setters.
+     */
+    public static Font font(String fontName, float size, int style, BaseColor color) {
+        String key = fontName + "|" + size + "|" + style + "|" + color;
+        return FONTS.computeIfAbsent(key, k -> FontFactory.getFont(fontName, size, style, color));
+    }
+
+    // ========================================================================================
+    //                                  ESTADO Y CIERRE
+    // ========================================================================================
+
+    /** @return Documentos en espera. */
+    public int getQueuedCount() { return executor.getQueue().size(); }
+
+    /** @return Documentos renderizándose ahora. */
+    public int getActiveCount() { return executor.getActiveCount(); }
+
+    /** @return Documentos publicados desde el arranque. */
+    public long getCompletedCount() { return completed.get(); }
+
+    /** @return Documentos fallidos o rechazados desde el arranque. */
+    public long getFailedCount() { return failed.get(); }
+
+    /** Deja de aceptar trabajos y espera (acotado) a que terminen los pendientes. */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Cierra el servicio si llegó a crearse (sin arrancarlo solo para cerrarlo). */
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) instance.shutdown();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: ReceiptBatchGenerator.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.1 (Atomic Publish via AtomicFiles)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Reemisión masiva de recibos para un rango de fechas (cierre de mes). Carga
+ * ventas, líneas y clientes con tres consultas por lotes, renderiza los PDF en
+ * paralelo (un hilo por núcleo) y opcionalmente los une en un solo documento.
+ * Devuelve contadores de rendimiento de cada fase.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.pdf.PdfCopy;
+import com.itextpdf.text.pdf.PdfReader;
+import com.swimcore.dao.ClientDAO;
+import com.swimcore.dao.SaleDAO;
+import com.swimcore.model.Client;
+import com.swimcore.model.Sale;
+import com.swimcore.model.SaleDetail;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * [UTILIDAD - DOCUMENTOS] Regeneración por lotes de recibos PDF.
+ * [RENDIMIENTO] Tres consultas en total (ventas, líneas, clientes) en lugar de tres por
+ * pedido; el renderizado usa un pool temporal del tamaño de los núcleos disponibles, aparte
+ * de PdfRenderService para no retrasar los recibos del punto de venta.
+ * [INTEGRIDAD] Cada recibo y el PDF unificado se publican con renombrado atómico.
+ */
+public final class ReceiptBatchGenerator {
+
+    /**
+     * Avance del lote. Se invoca desde los hilos de renderizado, no desde el EDT.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param done Recibos procesados (publicados o fallidos).
+         * @param total Recibos del rango.
+         */
+        void progress(int done, int total);
+    }
+
+    /**
+     * Resultado del lote con sus contadores de rendimiento.
+     */
+    public static final class Result {
+        private final int sales;
+        private final int rendered;
+        private final int failed;
+        private final boolean cancelled;
+        private final long loadMillis;
+        private final long renderMillis;
+        private final long mergeMillis;
+        private final long bytes;
+        private final File merged;
+
+        Result(int sales, int rendered, int failed, boolean cancelled, long loadMillis, long renderMillis,
+               long mergeMillis, long bytes, File merged) {
+            this.sales = sales;
+            this.rendered = rendered;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.loadMillis = loadMillis;
+            this.renderMillis = renderMillis;
+            this.mergeMillis = mergeMillis;
+            this.bytes = bytes;
+            this.merged = merged;
+        }
+
+        /** @return Ventas encontradas en el rango. */
+        public int getSales() { return sales; }
+
+        /** @return Recibos publicados. */
+        public int getRendered() { return rendered; }
+
+        /** @return Recibos que fallaron (la traza ya se imprimió). */
+        public int getFailed() { return failed; }
+
+        /** @return true si el lote se canceló antes de terminar. */
+        public boolean isCancelled() { return cancelled; }
+
+        /** @return Milisegundos de las consultas por lotes. */
+        public long getLoadMillis() { return loadMillis; }
+
+        /** @return Milisegundos del renderizado en paralelo. */
+        public long getRenderMillis() { return renderMillis; }
+
+        /** @return Milisegundos de la unión en un solo PDF (0 si no se pidió). */
+        public long getMergeMillis() { return mergeMillis; }
+
+        /** @return Bytes escritos en recibos individuales. */
+        public long getBytes() { return bytes; }
+
+        /** @return PDF unificado, o null si no se pidió o no hubo recibos. */
+        public File getMerged() { return merged; }
+
+        /** @return Recibos por segundo durante la fase de renderizado. */
+        public double getReceiptsPerSecond() {
+            return renderMillis > 0 ? rendered * 1000.0 / renderMillis : rendered;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d recibos (%d fallidos) | carga %d ms | render %d ms (%.1f recibos/s, %,d KB) | unión %d ms",
+                    rendered, sales, failed, loadMillis, renderMillis, getReceiptsPerSecond(), bytes / 1024, mergeMillis);
+        }
+    }
+
+    // Hilos del lote (-Dsiconi.pdf.batchThreads=...); por defecto uno por núcleo.
+    private static final int THREADS = Math.max(1, Integer.getInteger("siconi.pdf.batchThreads",
+            Runtime.getRuntime().availableProcessors()));
+
+    private ReceiptBatchGenerator() {}
+
+    // ========================================================================================
+    //                                  REEMISIÓN POR RANGO
+    // ========================================================================================
+
+    /**
+     * Regenera los recibos de todas las ventas del rango. Bloquea hasta terminar: pensado
+     * para un hilo de fondo (SwingWorker).
+     * @param from Inicio del rango, o null.
+     * @param to Fin del rango, o null.
+     * @param merge true para generar además un PDF único con todos los recibos.
+     * @param listener Receptor del avance, o null.
+     * @param cancelled Consultado antes de cada recibo; si devuelve true el lote se detiene
+     *                  (los recibos ya publicados se conservan, no se genera el PDF unificado).
+     */
+    public static Result regenerate(Date from, Date to, boolean merge, ProgressListener listener,
+                                    BooleanSupplier cancelled) throws Exception {
+        // --- FASE 1: CARGA POR LOTES ---
+        long t0 = System.nanoTime();
+        SaleDAO saleDAO = new SaleDAO();
+        List<Sale> sales = saleDAO.getSalesBetween(from, to);
+        Map<String, List<SaleDetail>> details = saleDAO.getDetailsForSalesBetween(from, to);
+        Set<String> clientKeys = new HashSet<>();
+        for (Sale s : sales) clientKeys.add(s.getClientId());
+        Map<String, Client> clients = new ClientDAO().getClientsByKeys(clientKeys);
+        long loadMillis = (System.nanoTime() - t0) / 1_000_000;
+
+        // --- FASE 2: RENDERIZADO EN PARALELO ---
+        long t1 = System.nanoTime();
+        int total = sales.size();
+        File[] files = new File[total];
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        if (listener != null) listener.progress(0, total);
+
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(THREADS, Math.max(1, total)), r -> {
+            Thread t = new Thread(r, "siconi-pdf-batch-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (int i = 0; i < total; i++) {
+                final int index = i;
+                final Sale sale = sales.get(i);
+                final Client client = sale.getClientId() != null ? clients.get(sale.getClientId()) : null;
+                final List<SaleDetail> items = details.getOrDefault(sale.getId(), Collections.emptyList());
+                pool.execute(() -> {
+                    if (cancelled != null && cancelled.getAsBoolean()) return;
+                    try {
+                        File file = PdfRenderService.renderNow(ReceiptGenerator.receiptFile(sale, client), new Document(PageSize.A4),
+                                (document, writer) -> ReceiptGenerator.writeReceipt(document, sale, items, client));
+                        files[index] = file;
+                        bytes.addAndGet(file.length());
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        failed.incrementAndGet();
+                    }
+                    if (listener != null) listener.progress(done.incrementAndGet(), total);
+                });
+            }
+        } finally {
+            pool.shutdown();
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                if (cancelled != null && cancelled.getAsBoolean()) pool.shutdownNow();
+            }
+        }
+        long renderMillis = (System.nanoTime() - t1) / 1_000_000;
+        int rendered = 0;
+        for (File f : files) if (f != null) rendered++;
+
+        boolean wasCancelled = cancelled != null && cancelled.getAsBoolean();
+        if (wasCancelled || !merge || rendered == 0) {
+            return new Result(total, rendered, failed.get(), wasCancelled, loadMillis, renderMillis, 0, bytes.get(), null);
+        }
+
+        // --- FASE 3: PDF UNIFICADO ---
+        long t2 = System.nanoTime();
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd");
+        File target = new File(ReceiptGenerator.FOLDER_PATH, "Lote_" + (from != null ? sdf.format(from) : "inicio")
+                + "_" + (to != null ? sdf.format(to) : "hoy") + ".pdf");
+        mergeFiles(files, target);
+        long mergeMillis = (System.nanoTime() - t2) / 1_000_000;
+        return new Result(total, rendered, failed.get(), false, loadMillis, renderMillis, mergeMillis, bytes.get(), target);
+    }
+
+    // ========================================================================================
+    //                                  LÓGICA INTERNA
+    // ========================================================================================
+
+    /**
+     * Copia las páginas de cada recibo, en orden cronológico, a un único PDF. PdfCopy
+     * trabaja página a página: no necesita volver a maquetar ni tener todo en memoria.
+     */
+    private static void mergeFiles(File[] parts, File target) throws Exception {
+        File tmp = new File(target.getAbsolutePath() + ".tmp");
+        boolean ok = false;
+        try {
+            Document document = new Document();
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp), 64 * 1024)) {
+                PdfCopy copy = new PdfCopy(document, out);
+                document.open();
+                for (File part : parts) {
+                    if (part == null) continue;
+                    PdfReader reader = new PdfReader(part.getAbsolutePath());
+                    try {
+                        copy.addDocument(reader);
+                        copy.freeReader(reader);
+                    } finally {
+                        reader.close();
+                    }
+                }
+                document.close();
+            }
+            AtomicFiles.moveIntoPlace(tmp, target);
+            ok = true;
+        } finally {
+            if (!ok) tmp.delete();
+        }
+    }
+}
@@ -3,7 +3,7 @@
  * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
  * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
  * ARCHIVO: ReceiptGenerator.java
- * VERSIÓN: 1.2.0 (FIXED: Font Ambiguity & Variable Scope)
+ * VERSIÓN: 1.3.0 (Background Rendering)
  * FECHA: 04 de Febrero de 2026 - 11:10 PM (Venezuela)
  * * DESCRIPCIÓN TÉCNICA:
  * Motor dual de salida de datos para facturación. Implementa la generación de
@@ -23,7 +23,6 @@ import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.Phrase;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
-import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.Rectangle;
 
 import com.swimcore.model.Client;
@@ -35,11 +34,12 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.print.*;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * [UTILIDAD - PERSISTENCIA DOCUMENTAL] Clase encargada de la materialización de ventas.
@@ -59,6 +59,10 @@ public class ReceiptGenerator {
     private static final com.itextpdf.text.Font PDF_FONT_BODY = new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 10, com.itextpdf.text.Font.NORMAL);
     private static final com.itextpdf.text.Font PDF_FONT_SMALL = new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 8, com.itextpdf.text.Font.ITALIC);
 
+    // Plantilla de la tabla de ítems (anchos + fila de títulos). Cada recibo trabaja sobre
+    // una copia: iText modifica la tabla al agregarla a un documento.
+    private static final PdfPTable ITEMS_TABLE_TEMPLATE = buildItemsTableTemplate();
+
     // Atributos de instancia para el soporte de renderizado Swing a papel.
     private JPanel ticketPanel;
     private String saleCode;
@@ -78,109 +82,131 @@ public class ReceiptGenerator {
 
     /**
      * [MÉTODO ESTÁTICO] Genera un archivo PDF estructurado con los datos de una venta.
-     * Realiza el saneamiento de nombres de archivo y la construcción de tablas dinámicas.
+     * El documento se renderiza en segundo plano (PdfRenderService): el método retorna
+     * de inmediato y el archivo aparece en Recibos_SICONI cuando está completo.
      * * @param sale Objeto con los datos de cabecera de venta.
      * @param details Lista de ítems facturados.
      * @param client Objeto cliente (opcional).
      * @param openFile Booleano que determina si se debe abrir el archivo tras su creación.
+     * @return Futuro con el archivo publicado.
      */
-    public static void generateReceipt(Sale sale, List<SaleDetail> details, Client client, boolean openFile) {
-        try {
-            // Gestión de directorios de salida
-            File folder = new File(FOLDER_PATH);
-            if (!folder.exists()) folder.mkdir();
-
-            // Normalización de nombre de archivo para evitar errores de sistema de archivos
-            String safeClientName = (client != null ? client.getFullName() : "Cliente")
-                    .replaceAll("[^a-zA-Z0-9.-]", "_");
-            String fileName = FOLDER_PATH + "/" + sale.getId() + "_" + safeClientName + ".pdf";
-
-            Document document = new Document();
-            PdfWriter.getInstance(document, new FileOutputStream(fileName));
-            document.open();
-
-            // --- SECCIÓN: ENCABEZADO CORPORATIVO ---
-            Paragraph title = new Paragraph("SICONI", PDF_FONT_TITLE);
-            title.setAlignment(Element.ALIGN_CENTER);
-            document.add(title);
-
-            Paragraph slogan = new Paragraph("TALLER DE CONFECCIÓN", PDF_FONT_SUBTITLE);
-            slogan.setAlignment(Element.ALIGN_CENTER);
-            document.add(slogan);
-
-            document.add(new Paragraph("Puerto Ordaz, Venezuela", PDF_FONT_BODY));
-            document.add(new Paragraph("R.I.F: V-14089807-1", PDF_FONT_BODY));
-            document.add(new Paragraph(" "));
-
-            // --- SECCIÓN: DATOS DE TRANSACCIÓN ---
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(100);
-
-            infoTable.addCell(getPdfCell("Nro Control: " + sale.getId(), PDF_FONT_SUBTITLE, false));
-
-            // Tratamiento de cadenas de fecha para evitar excepciones de índice.
-            String displayDate = (sale.getDate() != null && sale.getDate().length() > 10)
-                    ? sale.getDate().substring(0, 10)
-                    : new SimpleDateFormat("dd/MM/yyyy").format(new Date());
-
-            infoTable.addCell(getPdfCell("Fecha: " + displayDate, PDF_FONT_BODY, true));
-
-            if (client != null) {
-                infoTable.addCell(getPdfCell("Cliente: " + client.getFullName(), PDF_FONT_BODY, false));
-                infoTable.addCell(getPdfCell("Cédula/RIF: " + client.getIdNumber(), PDF_FONT_BODY, true));
-            } else {
-                infoTable.addCell(getPdfCell("Cliente: CONTADO / MOSTRADOR", PDF_FONT_BODY, false));
-                infoTable.addCell(getPdfCell("", PDF_FONT_BODY, true));
+    public static CompletableFuture<File> generateReceipt(Sale sale, List<SaleDetail> details, Client client, boolean openFile) {
+        // Copia de los ítems: el llamador puede vaciar su carrito mientras el recibo espera turno.
+        final List<SaleDetail> items = new ArrayList<>(details);
+        CompletableFuture<File> future = PdfRenderService.getInstance()
+                .submit(receiptFile(sale, client), (document, writer) -> writeReceipt(document, sale, items, client));
+        future.whenComplete((file, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                return;
             }
-            document.add(infoTable);
-            document.add(new Paragraph(" "));
-
-            // --- SECCIÓN: DETALLE DE PRODUCTOS ---
-            PdfPTable table = new PdfPTable(4);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[]{1, 4, 2, 2});
-
-            table.addCell(getPdfCell("CANT", PDF_FONT_SUBTITLE, true));
-            table.addCell(getPdfCell("DESCRIPCIÓN / TALLA", PDF_FONT_SUBTITLE, false));
-            table.addCell(getPdfCell("PRECIO", PDF_FONT_SUBTITLE, true));
-            table.addCell(getPdfCell("TOTAL", PDF_FONT_SUBTITLE, true));
-
-            for (SaleDetail d : details) {
-                table.addCell(getPdfCell(String.valueOf(d.getQuantity()), PDF_FONT_BODY, true));
-                table.addCell(getPdfCell(d.getProductName(), PDF_FONT_BODY, false));
-                // Cálculo de precio unitario derivado para consistencia visual
-                double unitPrice = (d.getQuantity() > 0) ? (d.getSubtotal() / d.getQuantity()) : 0;
-                table.addCell(getPdfCell(String.format("$%.2f", unitPrice), PDF_FONT_BODY, true));
-                table.addCell(getPdfCell(String.format("$%.2f", d.getSubtotal()), PDF_FONT_BODY, true));
+            // Integración con el escritorio para previsualización inmediata.
+            if (openFile && Desktop.isDesktopSupported()) {
+                try {
+                    Desktop.getDesktop().open(file);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
             }
-            document.add(table);
+        });
+        return future;
+    }
 
-            // --- SECCIÓN: RESUMEN FINANCIERO ---
-            document.add(new Paragraph(" "));
-            PdfPTable totalTable = new PdfPTable(2);
-            totalTable.setWidthPercentage(40);
-            totalTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
+    /**
+     * Ruta del recibo de una venta. Normaliza el nombre del cliente para evitar errores
+     * de sistema de archivos.
+     */
+    public static File receiptFile(Sale sale, Client client) {
+        String safeClientName = (client != null ? client.getFullName() : "Cliente")
+                .replaceAll("[^a-zA-Z0-9.-]", "_");
+        return new File(FOLDER_PATH, sale.getId() + "_" + safeClientName + ".pdf");
+    }
 
-            totalTable.addCell(getPdfCell("TOTAL:", PDF_FONT_SUBTITLE, false));
-            totalTable.addCell(getPdfCell(String.format("$ %.2f", sale.getTotalAmountUSD()), PDF_FONT_SUBTITLE, true));
+    /**
+     * Contenido del recibo. Corre en un hilo de renderizado con el documento ya abierto.
+     */
+    static void writeReceipt(Document document, Sale sale, List<SaleDetail> details, Client client) throws Exception {
+        // --- SECCIÓN: ENCABEZADO CORPORATIVO ---
+        Paragraph title = new Paragraph("SICONI", PDF_FONT_TITLE);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+
+        Paragraph slogan = new Paragraph("TALLER DE CONFECCIÓN", PDF_FONT_SUBTITLE);
+        slogan.setAlignment(Element.ALIGN_CENTER);
+        document.add(slogan);
+
+        document.add(new Paragraph("Puerto Ordaz, Venezuela", PDF_FONT_BODY));
+        document.add(new Paragraph("R.I.F: V-14089807-1", PDF_FONT_BODY));
+        document.add(new Paragraph(" "));
+
+        // --- SECCIÓN: DATOS DE TRANSACCIÓN ---
+        PdfPTable infoTable = new PdfPTable(2);
+        infoTable.setWidthPercentage(100);
+
+        infoTable.addCell(getPdfCell("Nro Control: " + sale.getId(), PDF_FONT_SUBTITLE, false));
+
+        // Tratamiento de cadenas de fecha para evitar excepciones de índice.
+        String displayDate = (sale.getDate() != null && sale.getDate().length() > 10)
+                ? sale.getDate().substring(0, 10)
+                : new SimpleDateFormat("dd/MM/yyyy").format(new Date());
+
+        infoTable.addCell(getPdfCell("Fecha: " + displayDate, PDF_FONT_BODY, true));
+
+        if (client != null) {
+            infoTable.addCell(getPdfCell("Cliente: " + client.getFullName(), PDF_FONT_BODY, false));
+            infoTable.addCell(getPdfCell("Cédula/RIF: " + client.getIdNumber(), PDF_FONT_BODY, true));
+        } else {
+            infoTable.addCell(getPdfCell("Cliente: CONTADO / MOSTRADOR", PDF_FONT_BODY, false));
+            infoTable.addCell(getPdfCell("", PDF_FONT_BODY, true));
+        }
+        document.add(infoTable);
+        document.add(new Paragraph(" "));
+
+        // --- SECCIÓN: DETALLE DE PRODUCTOS ---
+        // Copia de la plantilla: anchos y fila de títulos ya construidos.
+        PdfPTable table = new PdfPTable(ITEMS_TABLE_TEMPLATE);
+
+        for (SaleDetail d : details) {
+            table.addCell(getPdfCell(String.valueOf(d.getQuantity()), PDF_FONT_BODY, true));
+            table.addCell(getPdfCell(d.getProductName(), PDF_FONT_BODY, false));
+            // Cálculo de precio unitario derivado para consistencia visual
+            double unitPrice = (d.getQuantity() > 0) ? (d.getSubtotal() / d.getQuantity()) : 0;
+            table.addCell(getPdfCell(String.format("$%.2f", unitPrice), PDF_FONT_BODY, true));
+            table.addCell(getPdfCell(String.format("$%.2f", d.getSubtotal()), PDF_FONT_BODY, true));
+        }
+        document.add(table);
 
-            totalTable.addCell(getPdfCell("ABONADO:", PDF_FONT_BODY, false));
-            totalTable.addCell(getPdfCell(String.format("$ %.2f", sale.getAmountPaid()), PDF_FONT_BODY, true));
+        // --- SECCIÓN: RESUMEN FINANCIERO ---
+        document.add(new Paragraph(" "));
+        PdfPTable totalTable = new PdfPTable(2);
+        totalTable.setWidthPercentage(40);
+        totalTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
-            totalTable.addCell(getPdfCell("RESTA:", PDF_FONT_TITLE, false));
-            totalTable.addCell(getPdfCell(String.format("$ %.2f", sale.getBalanceDue()), PDF_FONT_TITLE, true));
+        totalTable.addCell(getPdfCell("TOTAL:", PDF_FONT_SUBTITLE, false));
+        totalTable.addCell(getPdfCell(String.format("$ %.2f", sale.getTotalAmountUSD()), PDF_FONT_SUBTITLE, true));
 
-            document.add(totalTable);
-            document.close();
+        totalTable.addCell(getPdfCell("ABONADO:", PDF_FONT_BODY, false));
+        totalTable.addCell(getPdfCell(String.format("$ %.2f", sale.getAmountPaid()), PDF_FONT_BODY, true));
 
-            // Integración con el escritorio para previsualización inmediata.
-            if (openFile && Desktop.isDesktopSupported()) {
-                Desktop.getDesktop().open(new File(fileName));
-            }
+        totalTable.addCell(getPdfCell("RESTA:", PDF_FONT_TITLE, false));
+        totalTable.addCell(getPdfCell(String.format("$ %.2f", sale.getBalanceDue()), PDF_FONT_TITLE, true));
+
+        document.add(totalTable);
+    }
 
-        } catch (Exception e) {
+    private static PdfPTable buildItemsTableTemplate() {
+        PdfPTable table = new PdfPTable(4);
+        table.setWidthPercentage(100);
+        try {
+            table.setWidths(new float[]{1, 4, 2, 2});
+        } catch (com.itextpdf.text.DocumentException e) {
             e.printStackTrace();
         }
+        table.addCell(getPdfCell("CANT", PDF_FONT_SUBTITLE, true));
+        table.addCell(getPdfCell("DESCRIPCIÓN / TALLA", PDF_FONT_SUBTITLE, false));
+        table.addCell(getPdfCell("PRECIO", PDF_FONT_SUBTITLE, true));
+        table.addCell(getPdfCell("TOTAL", PDF_FONT_SUBTITLE, true));
+        return table;
     }
 
     /**
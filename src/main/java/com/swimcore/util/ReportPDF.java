@@ -6,7 +6,7 @@
  * PROFESORA: Ing. Dubraska Roca
  * ASIGNATURA: Técnicas de Programación III
  * * ARCHIVO: ReportPDF.java
- * VERSIÓN: 2.7.0 (Core Reporting Engine)
+ * VERSIÓN: 2.8.0 (Background Rendering)
  * FECHA: 06 de Febrero de 2026
  * HORA: 04:30 PM (Hora de Venezuela)
  * * DESCRIPCIÓN TÉCNICA:
@@ -21,9 +21,9 @@ package com.swimcore.util;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import com.itextpdf.text.pdf.draw.LineSeparator;
-import java.io.FileOutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 import java.awt.Desktop;
 import java.io.File;
 
@@ -38,39 +38,39 @@ public class ReportPDF {
     //                                  LÓGICA DE GENERACIÓN (API)
     // ========================================================================================
 
+    // --- CONFIGURACIÓN DE TIPOGRAFÍA ---
+    // Fuentes constantes compartidas entre reportes para garantizar la uniformidad visual.
+    private static final Font TITLE_FONT = PdfRenderService.font(FontFactory.HELVETICA_BOLD, 18, Font.UNDEFINED, BaseColor.BLACK);
+    private static final Font HEADER_FONT = PdfRenderService.font(FontFactory.HELVETICA_BOLD, 12, Font.UNDEFINED, BaseColor.DARK_GRAY);
+    private static final Font DATA_FONT = PdfRenderService.font(FontFactory.HELVETICA, 12, Font.UNDEFINED, BaseColor.BLACK);
+    private static final Font RED_FONT = PdfRenderService.font(FontFactory.HELVETICA_BOLD, 12, Font.UNDEFINED, BaseColor.RED);
+    private static final Font FOOTER_FONT = PdfRenderService.font(FontFactory.HELVETICA_OBLIQUE, 10, Font.UNDEFINED, BaseColor.GRAY);
+
     /**
      * [METODO ESTÁTICO] Coordina la creación del documento PDF.
      * Implementa un algoritmo de construcción secuencial: Configuración -> Apertura ->
-     * Inyección de Datos -> Cierre -> Visualización.
+     * Inyección de Datos -> Cierre -> Visualización. El renderizado corre en segundo plano
+     * (PdfRenderService); el método retorna de inmediato.
      * * @param rango Descripción del periodo de tiempo analizado.
      * @param ingresos Sumatoria total de cobros efectivos.
      * @param deuda Saldo pendiente por cobrar (Cuentas por Cobrar).
      * @param pedidosPendientes Contador de órdenes sin pago completado.
      * @param enTaller Unidades actualmente en proceso de manufactura.
+     * @return Futuro con el archivo generado (ya abierto en el visor si el SO lo permite).
      */
-    public static void generateReport(String rango, double ingresos, double deuda, int pedidosPendientes, int enTaller) {
-        // [ESTRUCTURA] Instanciación del documento iText y definición de nombre dinámico basado en timestamp.
-        Document document = new Document();
-        String fileName = "Reporte_SICONI_" + System.currentTimeMillis() + ".pdf";
-
-        try {
-            PdfWriter.getInstance(document, new FileOutputStream(fileName));
-            document.open();
-
-            // --- CONFIGURACIÓN DE TIPOGRAFÍA ---
-            // Se definen fuentes constantes para garantizar la uniformidad visual del documento.
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.BLACK);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.DARK_GRAY);
-            Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 12, BaseColor.BLACK);
-            Font redFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.RED);
+    public static CompletableFuture<File> generateReport(String rango, double ingresos, double deuda, int pedidosPendientes, int enTaller) {
+        // [ESTRUCTURA] Nombre dinámico basado en timestamp.
+        File file = new File("Reporte_SICONI_" + System.currentTimeMillis() + ".pdf");
+        String emision = new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date());
 
+        CompletableFuture<File> future = PdfRenderService.getInstance().submit(file, (document, writer) -> {
             // --- SECCIÓN: ENCABEZADO ---
-            Paragraph title = new Paragraph("SICONI - REPORTE GERENCIAL", titleFont);
+            Paragraph title = new Paragraph("SICONI - REPORTE GERENCIAL", TITLE_FONT);
             title.setAlignment(Element.ALIGN_CENTER);
             document.add(title);
 
             // Inserción de metadatos del reporte (Fecha y rango)
-            document.add(new Paragraph("Fecha de Emisión: " + new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date())));
+            document.add(new Paragraph("Fecha de Emisión: " + emision));
             document.add(new Paragraph("Rango Analizado: " + rango));
             document.add(new Chunk(new LineSeparator())); // Separador visual
             document.add(new Paragraph("\n"));
@@ -80,48 +80,47 @@ public class ReportPDF {
             PdfPTable table = new PdfPTable(2);
             table.setWidthPercentage(100);
 
-            addCell(table, "INGRESOS TOTALES (COBRADO):", headerFont);
-            addCell(table, String.format("$ %,.2f", ingresos), dataFont);
+            addCell(table, "INGRESOS TOTALES (COBRADO):", HEADER_FONT);
+            addCell(table, String.format("$ %,.2f", ingresos), DATA_FONT);
 
-            addCell(table, "CUENTAS POR COBRAR (DEUDA):", headerFont);
-            addCell(table, String.format("$ %,.2f", deuda), redFont);
+            addCell(table, "CUENTAS POR COBRAR (DEUDA):", HEADER_FONT);
+            addCell(table, String.format("$ %,.2f", deuda), RED_FONT);
 
             document.add(table);
             document.add(new Paragraph("\n"));
 
             // --- SECCIÓN: RESUMEN OPERATIVO ---
-            Paragraph subtitulo = new Paragraph("ESTADO OPERATIVO (TALLER)", headerFont);
+            Paragraph subtitulo = new Paragraph("ESTADO OPERATIVO (TALLER)", HEADER_FONT);
             document.add(subtitulo);
             document.add(new Paragraph("\n"));
 
             PdfPTable tableOp = new PdfPTable(2);
             tableOp.setWidthPercentage(100);
 
-            addCell(tableOp, "PEDIDOS EN TALLER / PROCESO:", headerFont);
-            addCell(tableOp, String.valueOf(enTaller) + " Unidades", dataFont);
+            addCell(tableOp, "PEDIDOS EN TALLER / PROCESO:", HEADER_FONT);
+            addCell(tableOp, String.valueOf(enTaller) + " Unidades", DATA_FONT);
 
-            addCell(tableOp, "PEDIDOS PENDIENTES DE PAGO:", headerFont);
-            addCell(tableOp, String.valueOf(pedidosPendientes) + " Pedidos", redFont);
+            addCell(tableOp, "PEDIDOS PENDIENTES DE PAGO:", HEADER_FONT);
+            addCell(tableOp, String.valueOf(pedidosPendientes) + " Pedidos", RED_FONT);
 
             document.add(tableOp);
 
             // --- SECCIÓN: CIERRE (FOOTER) ---
             document.add(new Paragraph("\n\n\n"));
-            Paragraph footer = new Paragraph("Generado automáticamente por SICONI System", FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10, BaseColor.GRAY));
+            Paragraph footer = new Paragraph("Generado automáticamente por SICONI System", FOOTER_FONT);
             footer.setAlignment(Element.ALIGN_CENTER);
             document.add(footer);
-
-            document.close();
-
-            // [INTEGRACIÓN CON SO] Apertura automática del archivo generado utilizando la clase Desktop.
-            if (Desktop.isDesktopSupported()) {
-                Desktop.getDesktop().open(new File(fileName));
+        });
+
+        // [INTEGRACIÓN CON SO] Apertura automática del archivo generado utilizando la clase Desktop.
+        future.thenAccept(f -> {
+            try {
+                if (Desktop.isDesktopSupported()) Desktop.getDesktop().open(f);
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-
-        } catch (Exception e) {
-            // Manejo de excepciones en operaciones de I/O y renderizado de PDF.
-            e.printStackTrace();
-        }
+        });
+        return future;
     }
 
     // ========================================================================================
@@ -0,0 +1,102 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: RotatingLogFile.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Shared Diagnostic Log Writer)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Archivo de texto rotativo para las bitácoras de diagnóstico (consultas
+ * lentas, congelamientos del EDT). Las entradas se escriben en un hilo propio;
+ * al llegar al tamaño máximo el archivo rota y se conservan los últimos
+ * respaldos.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * [UTILIDAD - DIAGNÓSTICO] Bitácora rotativa con escritura en segundo plano.
+ * [CONCURRENCIA] append() solo encola: la E/S de disco nunca la paga el hilo que
+ * registra (una consulta, el EDT). Si el disco no da abasto se descartan las nuevas.
+ * Configuración uniforme a partir de un prefijo de propiedades, p. ej. "siconi.db.slowLog":
+ * archivo -D&lt;prefijo&gt;=..., tamaño -D&lt;prefijo&gt;Kb=... (1024) y
+ * respaldos -D&lt;prefijo&gt;Files=... (3).
+ */
+public final class RotatingLogFile {
+
+    // Entradas pendientes de escribir.
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final File file;
+    private final long maxBytes;
+    private final int backups;
+    private final ExecutorService writer;
+
+    /**
+     * @param propertyPrefix Prefijo de las propiedades de sistema que la configuran.
+     * @param defaultPath Ruta si no se indica -D&lt;prefijo&gt;.
+     * @param threadName Nombre del hilo escritor (visible en volcados de hilos).
+     */
+    public RotatingLogFile(String propertyPrefix, String defaultPath, String threadName) {
+        this.file = new File(System.getProperty(propertyPrefix, defaultPath));
+        this.maxBytes = Long.getLong(propertyPrefix + "Kb", 1024) * 1024;
+        this.backups = Math.max(0, Integer.getInteger(propertyPrefix + "Files", 3));
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, threadName);
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /** @return Archivo activo (los respaldos son el mismo nombre con .1, .2...). */
+    public File getFile() { return file; }
+
+    /** Encola una entrada ya formateada (incluidos sus saltos de línea). */
+    public void append(String entry) {
+        writer.execute(() -> {
+            try {
+                File dir = file.getAbsoluteFile().getParentFile();
+                if (dir != null && !dir.exists()) dir.mkdirs();
+                byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+                if (file.length() + bytes.length > maxBytes) rotate();
+                try (Writer w = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+                    w.write(entry);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /** log -> log.1 -> log.2 ... ; el respaldo más antiguo se descarta. */
+    private void rotate() {
+        if (backups == 0) {
+            file.delete();
+            return;
+        }
+        new File(file.getPath() + "." + backups).delete();
+        for (int i = backups - 1; i >= 1; i--) {
+            File from = new File(file.getPath() + "." + i);
+            if (from.exists()) from.renameTo(new File(file.getPath() + "." + (i + 1)));
+        }
+        file.renameTo(new File(file.getPath() + ".1"));
+    }
+}
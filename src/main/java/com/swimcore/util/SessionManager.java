@@ -0,0 +1,46 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: SessionManager.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Operator Session)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Módulo utilitario que recuerda al operador autenticado durante la sesión.
+ * Lo consulta la capa de datos para firmar los movimientos del kardex.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+/**
+ * [UTILIDAD - SEGURIDAD] Sesión del operador actual.
+ * [POO - ABSTRACCIÓN] API estática: LoginView la fija al autenticar y los DAO la leen
+ * sin depender de la interfaz gráfica.
+ */
+public class SessionManager {
+
+    /** Usuario informado cuando no hay sesión (arranque, sembrado de datos, pruebas). */
+    public static final String SYSTEM_USER = "SISTEMA";
+
+    private static volatile String currentUser = null;
+
+    /**
+     * Registra al operador que inició sesión.
+     * @param username Nombre de usuario autenticado.
+     */
+    public static void setCurrentUser(String username) {
+        currentUser = (username == null || username.trim().isEmpty()) ? null : username.trim();
+    }
+
+    /** @return Usuario de la sesión, o {@link #SYSTEM_USER} si nadie ha iniciado sesión. */
+    public static String getCurrentUser() {
+        String user = currentUser;
+        return user != null ? user : SYSTEM_USER;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: StreamingPdfTable.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Large Table Streaming)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Tabla PDF de tamaño arbitrario escrita por fragmentos. Usa el soporte de
+ * tablas grandes de iText (LargeElement): la tabla se marca incompleta y se
+ * agrega al documento cada cierto número de filas; iText maqueta esas filas,
+ * las escribe en las páginas y las libera, conservando solo la cabecera que se
+ * repite en cada página.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+
+/**
+ * [UTILIDAD - DOCUMENTOS] Tabla PDF con volcado periódico al documento.
+ * [RENDIMIENTO] En memoria solo viven las filas del fragmento actual: exportar 200 mil
+ * movimientos usa el mismo heap que exportar mil.
+ * Uso: cabecera con addHeaderCell(), filas con addCell() y finish() al terminar.
+ */
+public class StreamingPdfTable {
+
+    // Filas por fragmento: suficientes para llenar varias páginas por volcado.
+    public static final int DEFAULT_FLUSH_ROWS = 500;
+
+    private final Document document;
+    private final PdfPTable table;
+    private final int columns;
+    private final int flushRows;
+    private int cellsInRow = 0;
+    private int pendingRows = 0;
+    private long rows = 0;
+
+    /**
+     * @param document Documento ya abierto.
+     * @param widths Anchos relativos de las columnas.
+     * @param flushRows Filas por fragmento.
+     */
+    public StreamingPdfTable(Document document, float[] widths, int flushRows) throws DocumentException {
+        this.document = document;
+        this.columns = widths.length;
+        this.flushRows = Math.max(1, flushRows);
+        this.table = new PdfPTable(widths.length);
+        table.setWidthPercentage(100);
+        table.setWidths(widths);
+        table.setComplete(false);
+    }
+
+    public StreamingPdfTable(Document document, float[] widths) throws DocumentException {
+        this(document, widths, DEFAULT_FLUSH_ROWS);
+    }
+
+    /** Celda de la cabecera; la cabecera se repite al inicio de cada página. */
+    public void addHeaderCell(PdfPCell cell) {
+        table.addCell(cell);
+        if (++cellsInRow == columns) {
+            cellsInRow = 0;
+            table.setHeaderRows(table.getHeaderRows() + 1);
+        }
+    }
+
+    /** Celda del cuerpo; al completar un fragmento de filas se vuelca al documento. */
+    public void addCell(PdfPCell cell) throws DocumentException {
+        table.addCell(cell);
+        if (++cellsInRow < columns) return;
+        cellsInRow = 0;
+        rows++;
+        if (++pendingRows >= flushRows) {
+            document.add(table); // Tabla incompleta: iText escribe estas filas y las libera
+            pendingRows = 0;
+        }
+    }
+
+    /** @return Filas de datos agregadas hasta ahora. */
+    public long getRowCount() { return rows; }
+
+    /** Cierra la tabla y vuelca las filas restantes. */
+    public void finish() throws DocumentException {
+        table.setComplete(true);
+        document.add(table);
+    }
+}
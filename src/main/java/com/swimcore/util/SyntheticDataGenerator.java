@@ -0,0 +1,531 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: SyntheticDataGenerator.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (Production-Scale Seeding)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Generador de datos sintéticos a escala de producción: N clientes, M productos
+ * y K ventas repartidas en un período, con planes de pago (contado, abono y
+ * saldo pendiente) y los eventos de kardex correspondientes. Con la misma
+ * semilla produce siempre los mismos datos, sin importar cuántos hilos se usen.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import com.swimcore.dao.Conexion;
+import com.swimcore.dao.InventoryLedgerDAO;
+import com.swimcore.dao.ProductCatalog;
+import com.swimcore.dao.SaleDAO;
+import com.swimcore.dao.SequenceAllocator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * [UTILIDAD - PERSISTENCIA] Carga masiva y reproducible para benchmarks y perfilado.
+ * [RENDIMIENTO] Las ventas se generan por fragmentos en varios hilos (números
+ * aleatorios, fechas, montos y textos) mientras un único hilo, el escritor de SQLite,
+ * inserta los fragmentos ya preparados en orden, por lotes y con un COMMIT por fragmento.
+ * [INTEGRIDAD] Cada fragmento tiene su propia semilla derivada de la global, por eso el
+ * resultado no depende del reparto entre hilos. El stock final de cada producto coincide
+ * con la suma de sus eventos de kardex (alta + reposiciones - ventas).
+ * Los registros se agregan a los existentes: los IDs continúan tras los ya presentes.
+ */
+public final class SyntheticDataGenerator {
+
+    /**
+     * Dimensiones de la carga.
+     */
+    public static final class Scale {
+        final int clients;
+        final int products;
+        final int sales;
+        final int days;
+        final long seed;
+
+        /**
+         * @param clients Clientes a crear.
+         * @param products Productos a crear.
+         * @param sales Ventas a crear.
+         * @param days Días hacia atrás (desde hoy) sobre los que se reparten las ventas.
+         * @param seed Semilla fija; la misma semilla reproduce los mismos datos.
+         */
+        public Scale(int clients, int products, int sales, int days, long seed) {
+            if (clients < 1 || products < 1 || sales < 0 || days < 1) {
+                throw new IllegalArgumentException("Escala inválida: se necesita al menos un cliente, un producto y un día.");
+            }
+            this.clients = clients;
+            this.products = products;
+            this.sales = sales;
+            this.days = days;
+            this.seed = seed;
+        }
+
+        /**
+         * Escala con las proporciones de la tienda: un cliente cada 10 ventas (mínimo 100)
+         * y un producto cada 50 (mínimo 200).
+         */
+        public static Scale proportional(int sales, int days, long seed) {
+            return new Scale(Math.max(100, sales / 10), Math.max(200, sales / 50), sales, days, seed);
+        }
+
+        public int getClients() { return clients; }
+        public int getProducts() { return products; }
+        public int getSales() { return sales; }
+        public int getDays() { return days; }
+        public long getSeed() { return seed; }
+
+        @Override
+        public String toString() {
+            return String.format("%,d clientes, %,d productos, %,d ventas en %d días (semilla %d)", clients, products, sales, days, seed);
+        }
+    }
+
+    /**
+     * Avance de la carga. Se invoca desde el hilo escritor tras cada COMMIT.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void progress(int salesDone, int salesTotal);
+    }
+
+    /**
+     * Resultado con el primer número asignado a cada entidad y los contadores de filas.
+     */
+    public static final class Result {
+        private final int firstClientId;
+        private final int firstProductId;
+        private final long firstOrderNumber;
+        private final long rows;
+        private final long millis;
+
+        Result(int firstClientId, int firstProductId, long firstOrderNumber, long rows, long millis) {
+            this.firstClientId = firstClientId;
+            this.firstProductId = firstProductId;
+            this.firstOrderNumber = firstOrderNumber;
+            this.rows = rows;
+            this.millis = millis;
+        }
+
+        /** @return ID del primer cliente creado; el cliente n (0..N-1) es first + n. */
+        public int getFirstClientId() { return firstClientId; }
+
+        /** @return ID del primer producto creado; el producto m (0..M-1) es first + m. */
+        public int getFirstProductId() { return firstProductId; }
+
+        /** @return Número de la primera venta creada; la venta k es {@link #orderId}(first + k). */
+        public long getFirstOrderNumber() { return firstOrderNumber; }
+
+        /** @return Filas insertadas en todas las tablas. */
+        public long getRows() { return rows; }
+
+        /** @return Milisegundos totales de la carga. */
+        public long getMillis() { return millis; }
+
+        /** @return Filas por segundo. */
+        public double getRowsPerSecond() { return millis > 0 ? rows * 1000.0 / millis : rows; }
+
+        @Override
+        public String toString() {
+            return String.format("%,d filas en %,d ms (%,.0f filas/s)", rows, millis, getRowsPerSecond());
+        }
+    }
+
+    // Ventas por fragmento: unidad de generación en paralelo y de COMMIT.
+    private static final int CHUNK_SALES = 5_000;
+
+    // Hilos de generación (-Dsiconi.seed.threads=...); por defecto uno por núcleo.
+    private static final int THREADS = Math.max(1, Integer.getInteger("siconi.seed.threads",
+            Runtime.getRuntime().availableProcessors()));
+
+    private static final DateTimeFormatter DB_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Vocabulario del catálogo y de los clientes.
+    private static final String[] WORDS = {"Traje", "Bikini", "Enterizo", "Licra", "Short", "Gorro", "Toalla",
+            "Azul", "Negro", "Fucsia", "Dorado", "Coral", "Competencia", "Entrenamiento", "Junior", "Elite"};
+    private static final String[] FIRST_NAMES = {"María", "José", "Ana", "Luis", "Carmen", "Carlos", "Rosa", "Jesús",
+            "Daniela", "Miguel", "Gabriela", "Andrés", "Valentina", "Pedro", "Sofía", "Jorge"};
+    private static final String[] LAST_NAMES = {"González", "Rodríguez", "Pérez", "Hernández", "García", "Martínez",
+            "López", "Díaz", "Ramírez", "Torres", "Rojas", "Guedez", "Medina", "Silva", "Castillo", "Romero"};
+    private static final String[] METHODS = {"PAGO MÓVIL", "PAGO MÓVIL", "TRANSFERENCIA", "ZELLE", "EFECTIVO"};
+
+    private SyntheticDataGenerator() {}
+
+    // ========================================================================================
+    //                                  IDENTIFICADORES PÚBLICOS
+    // ========================================================================================
+
+    /** @return ID de pedido con el formato de SequenceAllocator. */
+    public static String orderId(long number) { return String.format("PED-%04d", number); }
+
+    /** @return Cédula sintética del cliente con ID {@code clientId}. */
+    public static String idNumber(int clientId) { return String.valueOf(10_000_000 + clientId); }
+
+    /** @return Palabra {@code n} del vocabulario de nombres de producto (para búsquedas). */
+    public static String word(int n) { return WORDS[Math.floorMod(n, WORDS.length)]; }
+
+    // ========================================================================================
+    //                                  CARGA
+    // ========================================================================================
+
+    /**
+     * Genera e inserta la carga completa. Bloquea hasta terminar y ocupa la conexión de
+     * escritura todo ese tiempo: pensado para herramientas fuera de horario, no para el EDT.
+     * @param listener Receptor del avance, o null.
+     */
+    public static Result generate(Scale scale, ProgressListener listener) throws Exception {
+        long t0 = System.nanoTime();
+        long rows = 0;
+        Connection conn = Conexion.conectar();
+        if (conn == null) throw new SQLException("Base de datos no disponible.");
+        try {
+            conn.setAutoCommit(false);
+            int firstClient = nextValue(conn, "SELECT COALESCE(MAX(id), 0) + 1 FROM clients");
+            int firstProduct = nextValue(conn, "SELECT COALESCE(MAX(id), 0) + 1 FROM products");
+            long firstOrder = nextValue(conn, "SELECT COALESCE(MAX(CAST(substr(id, 5) AS INTEGER)), 0) + 1 FROM sales WHERE id LIKE 'PED-%'");
+            LocalDateTime end = LocalDateTime.now().withNano(0);
+            LocalDateTime start = end.minusDays(scale.days);
+
+            // --- FASE 1: MAESTROS (secuencial, son pocos frente a las ventas) ---
+            Catalog catalog = new Catalog(scale, firstProduct);
+            rows += insertClients(conn, scale, firstClient);
+            rows += insertProducts(conn, catalog, start.minusDays(1));
+            conn.commit();
+
+            // --- FASE 2: VENTAS POR FRAGMENTOS (generación en paralelo, escritura en orden) ---
+            int chunks = (scale.sales + CHUNK_SALES - 1) / CHUNK_SALES;
+            AtomicInteger seq = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(THREADS, Math.max(1, chunks)), r -> {
+                Thread t = new Thread(r, "siconi-seed-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            try (ChunkWriter writer = new ChunkWriter(conn)) {
+                Deque<Future<Chunk>> window = new ArrayDeque<>();
+                int submitted = 0;
+                int done = 0;
+                while (done < chunks) {
+                    // Ventana acotada: como mucho dos fragmentos por hilo esperando en memoria.
+                    while (submitted < chunks && window.size() < THREADS * 2) {
+                        final int index = submitted++;
+                        window.add(pool.submit(() -> Chunk.build(scale, catalog, index, firstClient, firstOrder, start)));
+                    }
+                    Chunk chunk = window.poll().get();
+                    rows += writer.write(chunk);
+                    conn.commit();
+                    done++;
+                    if (listener != null) listener.progress(Math.min(scale.sales, done * CHUNK_SALES), scale.sales);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            // --- FASE 3: DERIVADOS (resumen diario, correlativos y fotos de stock) ---
+            SaleDAO.rebuildDailyProductSales(conn);
+            SequenceAllocator.syncFromSales(conn);
+            InventoryLedgerDAO.checkpoint(conn);
+            conn.commit();
+            ProductCatalog.getInstance().invalidate();
+
+            return new Result(firstClient, firstProduct, firstOrder, rows, (System.nanoTime() - t0) / 1_000_000);
+        } catch (Exception e) {
+            try { conn.rollback(); } catch (SQLException ignored) {}
+            throw e;
+        } finally {
+            try { conn.setAutoCommit(true); conn.close(); } catch (SQLException ignored) {}
+        }
+    }
+
+    // ========================================================================================
+    //                                  MAESTROS
+    // ========================================================================================
+
+    private static int nextValue(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 1;
+        }
+    }
+
+    private static long insertClients(Connection conn, Scale scale, int firstId) throws SQLException {
+        SplittableRandom rnd = new SplittableRandom(mix(scale.seed, -1));
+        String sql = "INSERT INTO clients (id, code, id_type, id_number, full_name, phone, email, is_vip) VALUES (?, ?, 'V', ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int n = 0; n < scale.clients; n++) {
+                int id = firstId + n;
+                String first = FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+                ps.setInt(1, id);
+                ps.setString(2, String.format("DG-%04d", id));
+                ps.setString(3, idNumber(id));
+                ps.setString(4, first + " " + last + " " + LAST_NAMES[rnd.nextInt(LAST_NAMES.length)]);
+                ps.setString(5, "04" + (12 + rnd.nextInt(15)) + String.format("%07d", rnd.nextInt(10_000_000)));
+                ps.setString(6, stripAccents(first + "." + last).toLowerCase() + id + "@correo.com");
+                ps.setInt(7, rnd.nextInt(12) == 0 ? 1 : 0);
+                ps.addBatch();
+                if ((n + 1) % CHUNK_SALES == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        return scale.clients;
+    }
+
+    private static long insertProducts(Connection conn, Catalog catalog, LocalDateTime openedAt) throws SQLException {
+        String opened = openedAt.format(DB_DATE);
+        String sqlProduct = "INSERT INTO products (id, code, name, description, cost_price, sale_price, current_stock, min_stock, category_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 5, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sqlProduct);
+             PreparedStatement psMove = ChunkWriter.prepareMovement(conn)) {
+            for (int m = 0; m < catalog.size; m++) {
+                int id = catalog.firstId + m;
+                ps.setInt(1, id);
+                ps.setString(2, String.format("SYN-%05d", id));
+                ps.setString(3, catalog.names[m]);
+                ps.setString(4, "Modelo " + word(m + 5) + " de " + word(m + 11));
+                ps.setDouble(5, catalog.cost[m]);
+                ps.setDouble(6, catalog.price[m]);
+                ps.setInt(7, catalog.openingStock[m]);
+                ps.setInt(8, 1 + m % 2); // TRAJES DE BAÑO / ROPA DEPORTIVA
+                ps.addBatch();
+                // Alta con el stock inicial: el kardex reconstruye el stock desde aquí.
+                ChunkWriter.bindMovement(psMove, id, catalog.openingStock[m], InventoryLedgerDAO.EVENT_CREATION,
+                        null, opened, "ALTA DE PRODUCTO");
+                if ((m + 1) % CHUNK_SALES == 0) { ps.executeBatch(); psMove.executeBatch(); }
+            }
+            ps.executeBatch();
+            psMove.executeBatch();
+        }
+        return catalog.size * 2L;
+    }
+
+    // ========================================================================================
+    //                                  LÓGICA INTERNA
+    // ========================================================================================
+
+    /** Semilla independiente por fragmento (mezcla de SplitMix64). */
+    private static long mix(long seed, long stream) {
+        long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String stripAccents(String s) {
+        return Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    /**
+     * Catálogo en memoria (solo lectura una vez construido, compartido por los hilos).
+     */
+    private static final class Catalog {
+        final int size;
+        final int firstId;
+        final String[] names;
+        final double[] cost;
+        final double[] price;
+        final int[] openingStock;
+
+        Catalog(Scale scale, int firstId) {
+            this.size = scale.products;
+            this.firstId = firstId;
+            this.names = new String[size];
+            this.cost = new double[size];
+            this.price = new double[size];
+            this.openingStock = new int[size];
+            SplittableRandom rnd = new SplittableRandom(mix(scale.seed, -2));
+            for (int m = 0; m < size; m++) {
+                names[m] = word(m) + " " + word(m / 3) + " " + word(m / 7) + " T" + (8 + m % 10);
+                cost[m] = Math.round((8 + rnd.nextDouble() * 32) * 100) / 100.0;
+                price[m] = Math.round(cost[m] * (1.6 + rnd.nextDouble() * 0.6) * 100) / 100.0;
+                openingStock[m] = 10 + rnd.nextInt(90);
+            }
+        }
+
+        /** Popularidad sesgada: pocos modelos concentran la mayoría de las ventas. */
+        int pick(SplittableRandom rnd) {
+            return (int) (size * Math.pow(rnd.nextDouble(), 2.5));
+        }
+    }
+
+    /**
+     * Fragmento de ventas ya preparado: todas las filas de sus tablas, listas para enlazar.
+     */
+    private static final class Chunk {
+        final List<Object[]> sales = new ArrayList<>();
+        final List<Object[]> details = new ArrayList<>();
+        final List<Object[]> payments = new ArrayList<>();
+        final List<Object[]> movements = new ArrayList<>();
+        final List<Object[]> restocks = new ArrayList<>();
+
+        static Chunk build(Scale scale, Catalog catalog, int index, int firstClient, long firstOrder,
+                           LocalDateTime start) {
+            Chunk c = new Chunk();
+            SplittableRandom rnd = new SplittableRandom(mix(scale.seed, index));
+            int from = index * CHUNK_SALES;
+            int to = Math.min(scale.sales, from + CHUNK_SALES);
+            long spanSeconds = scale.days * 86_400L;
+            LocalDateTime now = start.plusSeconds(spanSeconds);
+            int[] sold = new int[catalog.size];
+
+            for (int k = from; k < to; k++) {
+                // Fechas crecientes con el número de pedido, con ruido dentro de su franja.
+                long slot = spanSeconds / Math.max(1, scale.sales);
+                LocalDateTime date = start.plusSeconds(spanSeconds * k / Math.max(1, scale.sales) + (slot > 1 ? rnd.nextLong(slot) : 0));
+                String when = date.format(DB_DATE);
+                String id = orderId(firstOrder + k);
+                int client = firstClient + (int) (scale.clients * Math.pow(rnd.nextDouble(), 1.7));
+                // Tasa de cambio con deriva diaria, como la referencia oficial.
+                double rate = Math.round((36.0 + 0.09 * Duration.between(start, date).toDays()) * 100) / 100.0;
+
+                int lines = 1 + (rnd.nextInt(10) < 6 ? 0 : rnd.nextInt(3));
+                double total = 0;
+                for (int l = 0; l < lines; l++) {
+                    int m = catalog.pick(rnd);
+                    int qty = rnd.nextInt(10) < 8 ? 1 : 2 + rnd.nextInt(3);
+                    double subtotal = Math.round(qty * catalog.price[m] * 100) / 100.0;
+                    total += subtotal;
+                    sold[m] += qty;
+                    int productId = catalog.firstId + m;
+                    c.details.add(new Object[]{id, productId, qty, catalog.price[m], subtotal, catalog.cost[m]});
+                    c.movements.add(new Object[]{productId, -qty, InventoryLedgerDAO.EVENT_SALE, id, when, "VENTA " + id});
+                }
+                total = Math.round(total * 100) / 100.0;
+
+                // --- PLAN DE PAGO ---
+                // 70% contado (a veces en dos cuotas), 15% abono inicial con saldo, 15% pendiente.
+                String method = METHODS[rnd.nextInt(METHODS.length)];
+                double roll = rnd.nextDouble();
+                double paid = 0;
+                if (roll < 0.70) {
+                    if (rnd.nextInt(3) == 0) {
+                        double deposit = Math.round(total * 50) / 100.0;
+                        c.payments.add(new Object[]{id, when, deposit, method, "Abono inicial"});
+                        LocalDateTime second = date.plusDays(3 + rnd.nextInt(12));
+                        c.payments.add(new Object[]{id, (second.isAfter(now) ? now : second).format(DB_DATE),
+                                Math.round((total - deposit) * 100) / 100.0, method, "Pago final"});
+                    } else {
+                        c.payments.add(new Object[]{id, when, total, method, "Pago total"});
+                    }
+                    paid = total;
+                } else if (roll < 0.85) {
+                    paid = Math.round(total * 50) / 100.0;
+                    c.payments.add(new Object[]{id, when, paid, method, "Abono inicial"});
+                }
+                double balance = Math.round((total - paid) * 100) / 100.0;
+                boolean old = date.isBefore(now.minusDays(30));
+                String status = balance > 0.01 ? (paid > 0 ? "EN PROCESO" : "PENDIENTE") : (old ? "ENTREGADO" : "PAGADO");
+                String delivery = date.plusDays(7 + rnd.nextInt(14)).toLocalDate().toString();
+                c.sales.add(new Object[]{id, when, String.valueOf(client), total, paid, balance,
+                        Math.round(total * rate * 100) / 100.0, rate, method, status, delivery});
+            }
+
+            // Reposición al inicio del fragmento por lo vendido en él: el stock no se vuelve
+            // negativo y el saldo de cada producto vuelve a su stock inicial.
+            if (from < to) {
+                LocalDateTime first = start.plusSeconds(spanSeconds * from / Math.max(1, scale.sales));
+                String when = first.format(DB_DATE);
+                for (int m = 0; m < sold.length; m++) {
+                    if (sold[m] > 0) {
+                        c.restocks.add(new Object[]{catalog.firstId + m, sold[m], InventoryLedgerDAO.EVENT_ADJUSTMENT, null, when, "REPOSICIÓN"});
+                    }
+                }
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Inserta los fragmentos con sentencias preparadas una sola vez y reutilizadas.
+     */
+    private static final class ChunkWriter implements AutoCloseable {
+        private final PreparedStatement psSale;
+        private final PreparedStatement psDetail;
+        private final PreparedStatement psPayment;
+        private final PreparedStatement psMove;
+
+        ChunkWriter(Connection conn) throws SQLException {
+            psSale = conn.prepareStatement("INSERT INTO sales (id, date, client_id, total_divisa, amount_paid_usd, balance_due_usd, " +
+                    "total_bs, rate, currency, payment_method, status, observations, delivery_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'USD', ?, ?, 'Carga sintética', ?)");
+            psDetail = conn.prepareStatement("INSERT INTO sale_details (sale_id, product_id, quantity, unit_price, subtotal, unit_cost) VALUES (?, ?, ?, ?, ?, ?)");
+            psPayment = conn.prepareStatement("INSERT INTO payments (sale_id, payment_date, amount_usd, payment_method, notes) VALUES (?, ?, ?, ?, ?)");
+            psMove = prepareMovement(conn);
+        }
+
+        static PreparedStatement prepareMovement(Connection conn) throws SQLException {
+            return conn.prepareStatement("INSERT INTO inventory_movements (product_id, quantity, type, observation, date, delta, event, sale_id, username) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'sistema')");
+        }
+
+        static void bindMovement(PreparedStatement ps, int productId, int delta, String event, String saleId,
+                                 String date, String observation) throws SQLException {
+            ps.setInt(1, productId);
+            ps.setInt(2, Math.abs(delta));
+            ps.setString(3, delta >= 0 ? "ENTRADA" : "SALIDA");
+            ps.setString(4, observation);
+            ps.setString(5, date);
+            ps.setInt(6, delta);
+            ps.setString(7, event);
+            ps.setString(8, saleId);
+            ps.addBatch();
+        }
+
+        long write(Chunk c) throws SQLException {
+            for (Object[] r : c.sales) {
+                for (int i = 0; i < r.length; i++) psSale.setObject(i + 1, r[i]);
+                psSale.addBatch();
+            }
+            for (Object[] r : c.details) {
+                for (int i = 0; i < r.length; i++) psDetail.setObject(i + 1, r[i]);
+                psDetail.addBatch();
+            }
+            for (Object[] r : c.payments) {
+                for (int i = 0; i < r.length; i++) psPayment.setObject(i + 1, r[i]);
+                psPayment.addBatch();
+            }
+            // Las reposiciones van primero: en el kardex preceden a las ventas del fragmento.
+            for (Object[] r : c.restocks) {
+                bindMovement(psMove, (Integer) r[0], (Integer) r[1], (String) r[2], (String) r[3], (String) r[4], (String) r[5]);
+            }
+            for (Object[] r : c.movements) {
+                bindMovement(psMove, (Integer) r[0], (Integer) r[1], (String) r[2], (String) r[3], (String) r[4], (String) r[5]);
+            }
+            psSale.executeBatch();
+            psDetail.executeBatch();
+            psPayment.executeBatch();
+            psMove.executeBatch();
+            return (long) c.sales.size() + c.details.size() + c.payments.size() + c.restocks.size() + c.movements.size();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            psSale.close();
+            psDetail.close();
+            psPayment.close();
+            psMove.close();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * CARRERA: Ingeniería en Informática
+ * ASIGNATURA: Programación III / Proyecto de Software
+ * PROYECTO: GESTIÓN DE INVENTARIO DE UNA TIENDA (SICONI)
+ * ARCHIVO: UiMetrics.java
+ * AUTORA: Johanna Guedez - V14089807
+ * PROFESORA: Ing. Dubraska Roca
+ * FECHA: 17 de Octubre de 2026
+ * VERSIÓN: 1.0.0 (EDT Probe & SwingWorker Gauges)
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Métricas de la interfaz para el MetricsRegistry: una sonda que mide cuánto
+ * tarda el Event Dispatch Thread en atender un evento encolado (tiempo que la
+ * pantalla estuvo bloqueada) y el estado del pool interno de SwingWorker.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.util;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.Window;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * [UTILIDAD - MÉTRICAS] Sonda del EDT y gauges de SwingWorker.
+ * [RENDIMIENTO] La sonda publica un invokeLater cada 100 ms (-Dsiconi.ui.probeMs=...) y
+ * registra en "edt.latency" cuánto esperó en la cola: con el EDT libre son microsegundos;
+ * si un DAO corre en el EDT, la espera es el congelamiento que vio el usuario.
+ * [CONCURRENCIA] Una sola sonda en vuelo a la vez: si el EDT está trabado no se acumulan
+ * eventos de medición en su cola.
+ */
+public final class UiMetrics {
+
+    private static final long PROBE_MS = Math.max(10, Long.getLong("siconi.ui.probeMs", 100));
+    // Prefijo con que el JDK nombra los hilos del pool de SwingWorker.
+    private static final String WORKER_THREAD_PREFIX = "SwingWorker-pool-";
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+    private static final AtomicBoolean PROBE_IN_FLIGHT = new AtomicBoolean();
+    private static final LatencyHistogram EDT_LATENCY = MetricsRegistry.histogram("edt.latency");
+
+    private UiMetrics() {}
+
+    /** Arranca la sonda y registra los gauges. Idempotente. */
+    public static void start() {
+        if (!STARTED.compareAndSet(false, true)) return;
+        registerSwingWorkerGauges();
+        ScheduledExecutorService probe = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "siconi-edt-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        probe.scheduleWithFixedDelay(UiMetrics::probe, PROBE_MS, PROBE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void probe() {
+        // Sin ventanas no hay pantalla que medir; además, un evento periódico impediría
+        // que AWT se apague solo cuando la aplicación cierra su última ventana.
+        if (!anyWindowDisplayable()) return;
+        if (!PROBE_IN_FLIGHT.compareAndSet(false, true)) {
+            MetricsRegistry.counter("edt.probe.skipped").increment();
+            return;
+        }
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            EDT_LATENCY.record(System.nanoTime() - posted);
+            PROBE_IN_FLIGHT.set(false);
+        });
+    }
+
+    private static boolean anyWindowDisplayable() {
+        for (Window w : Window.getWindows()) {
+            if (w.isDisplayable()) return true;
+        }
+        return false;
+    }
+
+    // ========================================================================================
+    //                                  SWINGWORKER
+    // ========================================================================================
+
+    /**
+     * El pool de SwingWorker es privado del JDK. Con
+     * {@code --add-opens java.desktop/javax.swing=ALL-UNNAMED} se lee su cola real;
+     * sin esa opción solo se cuentan los hilos ocupados (pila fuera de getTask) y la
+     * profundidad de cola se reporta como no disponible (null).
+     */
+    private static void registerSwingWorkerGauges() {
+        ThreadPoolExecutor pool = swingWorkerPool();
+        if (pool != null) {
+            MetricsRegistry.gauge("swingworker.queued", () -> pool.getQueue().size());
+            MetricsRegistry.gauge("swingworker.active", pool::getActiveCount);
+            MetricsRegistry.gauge("swingworker.threads", pool::getPoolSize);
+            MetricsRegistry.gauge("swingworker.completed", pool::getCompletedTaskCount);
+        } else {
+            MetricsRegistry.gauge("swingworker.queued", () -> null);
+            MetricsRegistry.gauge("swingworker.active", () -> countWorkerThreads(true));
+            MetricsRegistry.gauge("swingworker.threads", () -> countWorkerThreads(false));
+        }
+    }
+
+    private static ThreadPoolExecutor swingWorkerPool() {
+        try {
+            Method m = SwingWorker.class.getDeclaredMethod("getWorkersExecutorService");
+            m.setAccessible(true);
+            ExecutorService executor = (ExecutorService) m.invoke(null);
+            return executor instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) executor : null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Módulo java.desktop cerrado (lo normal): se usa el conteo de hilos.
+            return null;
+        }
+    }
+
+    private static int countWorkerThreads(boolean busyOnly) {
+        int n = 0;
+        for (Map.Entry<Thread, StackTraceElement[]> e : Thread.getAllStackTraces().entrySet()) {
+            if (!e.getKey().getName().startsWith(WORKER_THREAD_PREFIX)) continue;
+            if (!busyOnly || !isIdleWorker(e.getValue())) n++;
+        }
+        return n;
+    }
+
+    private static boolean isIdleWorker(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if ("getTask".equals(frame.getMethodName())
+                    && "java.util.concurrent.ThreadPoolExecutor".equals(frame.getClassName())) return true;
+        }
+        return false;
+    }
+}
@@ -2,7 +2,7 @@
  * -----------------------------------------------------------------------------
  * INSTITUCIÓN: UNEG - SICONI
  * ARCHIVO: ClientManagementDialog.java
- * VERSIÓN: 9.0.0 (ANTI-BOUNCE: Cierre Seguro sin Rebote)
+ * VERSIÓN: 9.1.0 (Batch Lifetime Value on Cards)
  * FECHA: 07 de Febrero de 2026
  * DESCRIPCIÓN: Se implementa bloqueo de doble clic para evitar el "zapateo"
  * al cerrar la ventana o confirmar selección.
@@ -12,7 +12,9 @@
 package com.swimcore.view;
 
 import com.swimcore.controller.ClientController;
+import com.swimcore.controller.SaleController;
 import com.swimcore.model.Client;
+import com.swimcore.model.ClientLifetimeValue;
 import com.swimcore.util.ImagePanel;
 import com.swimcore.util.LanguageManager;
 import com.swimcore.util.LuxuryMessage;
@@ -28,6 +30,7 @@ import java.awt.event.*;
 import java.net.URL;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ClientManagementDialog extends JDialog {
@@ -38,6 +41,8 @@ public class ClientManagementDialog extends JDialog {
 
     private ClientController controller;
     private List<Client> allClients = Collections.emptyList();
+    // Valor histórico por id de cliente, cargado en lote junto con la lista.
+    private Map<String, ClientLifetimeValue> lifetimeValues = Collections.emptyMap();
     private JPanel cardsPanel;
     private Client selectedClient = null;
     private final boolean isSelectionMode;
@@ -102,7 +107,11 @@ public class ClientManagementDialog extends JDialog {
                 if (controller == null) {
                     controller = new ClientController();
                 }
-                return controller.getAllClients();
+                List<Client> clients = controller.getAllClients();
+                // Una sola consulta agregada para todas las tarjetas.
+                lifetimeValues = new SaleController().getCustomerLifetimeValues(
+                        clients.stream().map(c -> String.valueOf(c.getId())).collect(Collectors.toList()));
+                return clients;
             }
 
             @Override
@@ -402,7 +411,7 @@ public class ClientManagementDialog extends JDialog {
         } else {
             for (Client client : clients) {
                 boolean isSelected = (selectedClient != null && client.getId() == selectedClient.getId());
-                ClientCard card = new ClientCard(client, isSelected);
+                ClientCard card = new ClientCard(client, isSelected, lifetimeValues.get(String.valueOf(client.getId())));
 
                 card.addMouseListener(new MouseAdapter() {
                     public void mouseClicked(MouseEvent e) {
@@ -6,7 +6,7 @@
  * PROFESORA: Ing. Dubraska Roca
  * ASIGNATURA: Técnicas de Programación III
  * * ARCHIVO: DashboardView.java
- * VERSIÓN: 4.0.0 (ANTI-FREEZE: Worker Implementation)
+ * VERSIÓN: 4.2.0 (Performance Diagnostics Access)
  * FECHA: 07 de Febrero de 2026
  * HORA: 04:45 PM (Hora de Venezuela)
  * * DESCRIPCIÓN: Panel de control principal (Dashboard).
@@ -16,8 +16,8 @@
 
 package com.swimcore.view;
 
+import com.swimcore.dao.ProductCatalog;
 import com.swimcore.dao.ProductDAO;
-import com.swimcore.model.Product;
 import com.swimcore.util.CurrencyManager;
 import com.swimcore.util.ImagePanel;
 import com.swimcore.util.LanguageManager;
@@ -25,6 +25,7 @@ import com.swimcore.util.SoundManager;
 import com.swimcore.view.components.AlertCard;
 import com.swimcore.view.components.SoftButton;
 import com.swimcore.view.dialogs.CurrencySettingsDialog;
+import com.swimcore.view.dialogs.DiagnosticsDialog;
 import com.swimcore.model.Client;
 
 import javax.swing.*;
@@ -33,7 +34,6 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.net.URL;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -54,6 +54,11 @@ public class DashboardView extends JFrame {
     private final Color COLOR_TEXTO = new Color(240, 240, 240);
     private JLabel lblRateValue;
 
+    // [PATRÓN DE DISEÑO: OBSERVER] La alerta se recalcula cuando cambia el catálogo.
+    // El Timer agrupa ráfagas de cambios (p. ej. una venta de varias líneas) en un solo recálculo.
+    private final Timer stockAlertRefresh = new Timer(300, e -> updateStockAlert());
+    private final ProductCatalog.Listener catalogListener = id -> SwingUtilities.invokeLater(stockAlertRefresh::restart);
+
     /**
      * Constructor del Dashboard.
      * Se encarga de la inicialización de componentes y la configuración del Layout.
@@ -77,9 +82,18 @@ public class DashboardView extends JFrame {
         mainPanel.add(createFooter(), BorderLayout.SOUTH);
 
         // Inicio del hilo secundario para verificación de stock.
+        stockAlertRefresh.setRepeats(false);
+        ProductCatalog.getInstance().addListener(catalogListener);
         updateStockAlert();
     }
 
+    @Override
+    public void dispose() {
+        ProductCatalog.getInstance().removeListener(catalogListener);
+        stockAlertRefresh.stop();
+        super.dispose();
+    }
+
     /**
      * Construye el encabezado superior con Branding y Alertas.
      * Incluye el Widget de Tasa de Cambio (BCV).
@@ -140,8 +154,19 @@ public class DashboardView extends JFrame {
             lblRateValue.setText(String.format(Locale.US, LanguageManager.get("dashboard.rate"), CurrencyManager.getTasa()));
         });
 
+        // [DIAGNÓSTICO] Métricas en vivo para documentar cuándo y por qué la caja va lenta.
+        SoftButton btnDiagnostics = new SoftButton(createIcon("/images/icons/icon_stats.png", 20, 20));
+        if (btnDiagnostics.getIcon() == null) btnDiagnostics.setText("📈");
+        btnDiagnostics.setPreferredSize(new Dimension(40, 40));
+        btnDiagnostics.setToolTipText(LanguageManager.get("dashboard.diagnostics"));
+        btnDiagnostics.addActionListener(e -> {
+            SoundManager.getInstance().playClick();
+            new DiagnosticsDialog(this).setVisible(true);
+        });
+
         rateWidget.add(lblRateValue);
         rateWidget.add(btnEditRate);
+        rateWidget.add(btnDiagnostics);
 
         headerPanel.add(leftPanel, BorderLayout.WEST);
         headerPanel.add(rateWidget, BorderLayout.EAST);
@@ -157,9 +182,8 @@ public class DashboardView extends JFrame {
         new SwingWorker<Long, Void>() {
             @Override
             protected Long doInBackground() throws Exception {
-                // [DAO] Consulta al modelo de datos
-                List<Product> allProducts = productDAO.getAllProducts();
-                return allProducts.stream().filter(Product::isLowStock).count();
+                // [DAO] Conteo sobre el catálogo en memoria (solo la primera vez lee la base).
+                return (long) productDAO.getAlertCount();
             }
             @Override
             protected void done() {
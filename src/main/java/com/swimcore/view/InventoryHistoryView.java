@@ -1,36 +1,37 @@
 /*
  * -----------------------------------------------------------------------------
  * ARCHIVO: InventoryHistoryView.java
- * VERSIÓN: 4.0 (GOLDEN EDITION)
- * CAMBIOS: Icono PDF Agregado + Diagnóstico de Base de Datos
+ * VERSIÓN: 4.6 (NULL-SAFE PDF CELLS)
+ * CAMBIOS: Historial completo paginado por scroll (sin LIMIT 100), en modelo columnar.
+ *          El CSV se exporta en streaming desde la base.
  * -----------------------------------------------------------------------------
  */
 package com.swimcore.view;
 
 import com.itextpdf.text.*; // PDF Core
 import com.itextpdf.text.pdf.*; // PDF Tables
-import com.swimcore.dao.Conexion;
+import com.swimcore.dao.CsvExportDAO;
+import com.swimcore.dao.ProductDAO;
 import com.swimcore.util.ImagePanel;
 import com.swimcore.util.LanguageManager;
+import com.swimcore.util.PdfRenderService;
+import com.swimcore.util.StreamingPdfTable;
+import com.swimcore.view.components.ColumnarTableModel;
+import com.swimcore.view.components.ColumnarTableModel.ColumnType;
+import com.swimcore.view.components.KeysetPageLoader;
 import com.swimcore.view.components.SoftButton;
+import com.swimcore.view.dialogs.CsvExportDialog;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.Font;
 import java.awt.Image;
 import java.awt.Rectangle; // AWT Rectangle
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.net.URL;
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.Statement;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -39,7 +40,9 @@ import java.util.Date;
 public class InventoryHistoryView extends JDialog {
 
     private JTable table;
-    private DefaultTableModel model;
+    private ColumnarTableModel model;
+    private KeysetPageLoader historyLoader;
+    private final ProductDAO productDAO = new ProductDAO();
 
     public InventoryHistoryView(Window owner) {
         super(owner, LanguageManager.get("audit.dialog.title"), ModalityType.APPLICATION_MODAL);
@@ -69,21 +72,22 @@ public class InventoryHistoryView extends JDialog {
                 LanguageManager.get("audit.column.observation_reason")
         };
 
-        model = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        model = new ColumnarTableModel(columns, new ColumnType[]{
+                ColumnType.INT, ColumnType.TEXT, ColumnType.STRING, ColumnType.STRING,
+                ColumnType.STRING, ColumnType.INT, ColumnType.TEXT });
 
         table = new JTable(model);
         styleTable(table);
 
-        // CARGAMOS LOS DATOS (Aquí es donde ocurre la magia)
-        loadData(model);
-
         JScrollPane scroll = new JScrollPane(table);
         scroll.getViewport().setBackground(new Color(30,30,30));
         scroll.setBorder(new EmptyBorder(10,20,10,20));
         main.add(scroll, BorderLayout.CENTER);
 
+        // CARGAMOS LOS DATOS (primera página de inmediato, el resto al hacer scroll)
+        historyLoader = new KeysetPageLoader(table, scroll, model, ProductDAO.HISTORY_PAGE_SIZE, null);
+        loadData();
+
         // --- PANEL DE BOTONES ---
         JPanel pBtn = new JPanel();
         pBtn.setOpaque(false);
@@ -126,43 +130,14 @@ public class InventoryHistoryView extends JDialog {
     }
 
     // --- CARGAR DATOS DE BASE DE DATOS ---
-    private void loadData(DefaultTableModel model) {
-        // SQL simple para ver todo el historial
-        String sql = "SELECT m.id, m.date, p.id as product_code, p.name, m.type, m.quantity, m.observation " +
-                "FROM inventory_movements m " +
-                "JOIN products p ON m.product_id = p.id " +
-                "ORDER BY m.date DESC LIMIT 100"; // Limité a 100 para probar rápido
-
-        try (Connection con = Conexion.conectar();
-             Statement st = con.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
-
-            boolean hayDatos = false;
-            while(rs.next()) {
-                hayDatos = true;
-                model.addRow(new Object[]{
-                        rs.getInt("id"),
-                        rs.getString("date"),
-                        "D-" + rs.getString("product_code"),
-                        rs.getString("name"),
-                        rs.getString("type"),
-                        rs.getInt("quantity"),
-                        rs.getString("observation")
-                });
-            }
-
-            if (!hayDatos) {
-                // Si conecta pero no hay filas
-                System.out.println("Conexión exitosa, pero la tabla 'inventory_movements' está vacía.");
-            }
-
-        } catch (Exception e) {
-            // ¡ESTO ES IMPORTANTE! Si falla, te saldrá una ventana avisando.
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "Error al cargar datos de la BD:\n" + e.getMessage(),
-                    "Error de Conexión", JOptionPane.ERROR_MESSAGE);
-        }
+    /**
+     * Historial completo, del más reciente al más antiguo, cargado por páginas
+     * (paginación por llave sobre fecha e ID) a medida que se hace scroll.
+     */
+    private void loadData() {
+        historyLoader.reset((after, limit) -> after == null
+                ? productDAO.getHistoryPage(null, null, null, 0, limit)
+                : productDAO.getHistoryPage(null, null, (String) after.get(1), (Integer) after.get(0), limit));
     }
 
     private void styleTable(JTable t) {
@@ -171,7 +146,7 @@ public class InventoryHistoryView extends JDialog {
         t.getTableHeader().setForeground(new Color(212, 175, 55));
         t.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 14));
 
-        t.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
                 Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
@@ -192,22 +167,18 @@ public class InventoryHistoryView extends JDialog {
 
                 return c;
             }
-        });
+        };
+        t.setDefaultRenderer(Object.class, renderer);
+        t.setDefaultRenderer(Number.class, renderer);
     }
 
     // --- MÉTODOS DE EXPORTACIÓN (CSV y PDF) ---
     private void exportarCSV() {
-        JFileChooser fc = new JFileChooser();
-        if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try (FileWriter fw = new FileWriter(fc.getSelectedFile() + ".csv")) {
-                for(int i=0; i<table.getColumnCount(); i++) fw.write(table.getColumnName(i) + ",");
-                fw.write("\n");
-                for(int i=0; i<table.getRowCount(); i++) {
-                    for(int j=0; j<table.getColumnCount(); j++) fw.write(table.getValueAt(i, j) + ",");
-                    fw.write("\n");
-                }
-                JOptionPane.showMessageDialog(this, "CSV Exportado.");
-            } catch(Exception e) { e.printStackTrace(); }
+        // Historial completo leído directo de la base, sin depender de las páginas cargadas.
+        File target = CsvExportDialog.chooseTarget(this, CsvExportDAO.Dataset.MOVEMENTS);
+        if (target == null) return;
+        if (CsvExportDialog.run(this, CsvExportDAO.Dataset.MOVEMENTS, null, null, target) >= 0) {
+            JOptionPane.showMessageDialog(this, "CSV Exportado.");
         }
     }
 
@@ -216,62 +187,75 @@ public class InventoryHistoryView extends JDialog {
             JOptionPane.showMessageDialog(this, "No hay datos para exportar.", "Aviso", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        try {
-            Document doc = new Document(PageSize.A4.rotate(), 30, 30, 40, 40);
-            String name = "Reporte_" + System.currentTimeMillis() + ".pdf";
-            PdfWriter.getInstance(doc, new FileOutputStream(name));
-            doc.open();
-
-            // Usamos nombres completos para evitar el error de ambigüedad
-            com.itextpdf.text.Font fTitle = new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 22, com.itextpdf.text.Font.BOLD);
-
-            // Header con Logo
-            PdfPTable hTable = new PdfPTable(2);
-            hTable.setWidthPercentage(100); hTable.setWidths(new float[]{1f, 4f});
-
-            PdfPCell cLogo = new PdfPCell();
-            cLogo.setBorder(com.itextpdf.text.Rectangle.NO_BORDER); // <--- SOLUCIÓN ERROR AMBIGUO
-            try {
-                // Carga logo
-                com.itextpdf.text.Image img = com.itextpdf.text.Image.getInstance(getClass().getResource("/images/logo.png"));
-                img.scaleToFit(100, 60);
-                cLogo.addElement(img);
-            } catch(Exception e) { cLogo.addElement(new Paragraph("SICONI")); }
-            hTable.addCell(cLogo);
-
-            PdfPCell cTxt = new PdfPCell(new Paragraph("REPORTE DE AUDITORÍA\nGenerado: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), fTitle));
-            cTxt.setBorder(com.itextpdf.text.Rectangle.NO_BORDER);
-            cTxt.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            hTable.addCell(cTxt);
-
-            doc.add(hTable);
-            doc.add(new Paragraph(" ")); // Espacio
-
-            // Tabla PDF
-            PdfPTable pTable = new PdfPTable(model.getColumnCount());
-            pTable.setWidthPercentage(100);
-
-            // Cabeceras
-            for(int i=0; i<model.getColumnCount(); i++) {
-                PdfPCell c = new PdfPCell(new Phrase(model.getColumnName(i)));
-                c.setBackgroundColor(BaseColor.BLACK);
-                c.setPadding(5);
-                pTable.addCell(c); // El texto saldrá negro por defecto, si quieres blanco avísame
+        // El historial completo se lee directo de la base con un cursor, sin cargarlo en la tabla.
+        int cols = model.getColumnCount();
+        String[] headers = new String[cols];
+        for (int j = 0; j < cols; j++) headers[j] = model.getColumnName(j);
+        String generated = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        File file = new File("Reporte_" + System.currentTimeMillis() + ".pdf");
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        // Reporte potencialmente enorme: corre en su propio hilo, no en la cola de recibos.
+        new SwingWorker<File, Void>() {
+            @Override
+            protected File doInBackground() throws Exception {
+                return PdfRenderService.renderNow(file, new Document(PageSize.A4.rotate(), 30, 30, 40, 40), (doc, writer) -> {
+                    // Usamos nombres completos para evitar el error de ambigüedad
+                    com.itextpdf.text.Font fTitle = PdfRenderService.font(FontFactory.HELVETICA, 22, com.itextpdf.text.Font.BOLD, BaseColor.BLACK);
+
+                    // Header con Logo
+                    PdfPTable hTable = new PdfPTable(2);
+                    hTable.setWidthPercentage(100); hTable.setWidths(new float[]{1f, 4f});
+
+                    PdfPCell cLogo = new PdfPCell();
+                    cLogo.setBorder(com.itextpdf.text.Rectangle.NO_BORDER); // <--- SOLUCIÓN ERROR AMBIGUO
+                    try {
+                        // Carga logo
+                        com.itextpdf.text.Image img = com.itextpdf.text.Image.getInstance(getClass().getResource("/images/logo.png"));
+                        img.scaleToFit(100, 60);
+                        cLogo.addElement(img);
+                    } catch(Exception e) { cLogo.addElement(new Paragraph("SICONI")); }
+                    hTable.addCell(cLogo);
+
+                    PdfPCell cTxt = new PdfPCell(new Paragraph("REPORTE DE AUDITORÍA\nGenerado: " + generated, fTitle));
+                    cTxt.setBorder(com.itextpdf.text.Rectangle.NO_BORDER);
+                    cTxt.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                    hTable.addCell(cTxt);
+
+                    doc.add(hTable);
+                    doc.add(new Paragraph(" ")); // Espacio
+
+                    // Tabla PDF por fragmentos (la memoria no crece con el número de filas)
+                    float[] widths = new float[cols];
+                    java.util.Arrays.fill(widths, 1f);
+                    StreamingPdfTable pTable = new StreamingPdfTable(doc, widths);
+
+                    // Cabeceras
+                    for (String header : headers) {
+                        PdfPCell c = new PdfPCell(new Phrase(header));
+                        c.setBackgroundColor(BaseColor.BLACK);
+                        c.setPadding(5);
+                        pTable.addHeaderCell(c); // El texto saldrá negro por defecto, si quieres blanco avísame
+                    }
+
+                    // Datos
+                    productDAO.forEachHistoryRow(null, null, row -> {
+                        for (Object value : row) pTable.addCell(new PdfPCell(new Phrase(value != null ? value.toString() : "")));
+                    }, null);
+                    pTable.finish();
+                });
             }
 
-            // Datos
-            for(int i=0; i<model.getRowCount(); i++) {
-                for(int j=0; j<model.getColumnCount(); j++) {
-                    pTable.addCell(model.getValueAt(i,j).toString());
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    Desktop.getDesktop().open(get());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(InventoryHistoryView.this, "Error PDF: " + e.getMessage());
                 }
             }
-            doc.add(pTable);
-            doc.close();
-
-            Desktop.getDesktop().open(new File(name));
-
-        } catch(Exception e) {
-            JOptionPane.showMessageDialog(this, "Error PDF: " + e.getMessage());
-        }
+        }.execute();
     }
-}
\ No newline at end of file
+}
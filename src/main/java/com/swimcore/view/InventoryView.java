@@ -1,32 +1,38 @@
 /*
 INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
 ARCHIVO: InventoryView.java
-VERSIÓN: 16.1.0 (LUXURY FINAL: Interactive Filter Added)
+VERSIÓN: 16.5.0 (Columnar Table Model)
 FECHA: Febrero 2026
 */
 package com.swimcore.view;
 
 import com.swimcore.dao.ProductDAO;
+import com.swimcore.dao.StockDeltaCoalescer;
 import com.swimcore.model.Product;
 import com.swimcore.util.CurrencyManager;
 import com.swimcore.util.ImagePanel;
 import com.swimcore.util.LanguageManager;
 import com.swimcore.util.LuxuryMessage;
+import com.swimcore.view.components.ColumnarTableModel;
+import com.swimcore.view.components.ColumnarTableModel.ColumnType;
 import com.swimcore.view.components.InventorySidePanel;
 import com.swimcore.view.components.SoftButton;
 import com.swimcore.view.dialogs.*;
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 public class InventoryView extends JDialog {
     private JTable productTable;
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
     private final ProductDAO productDAO = new ProductDAO();
 
     // VARIABLE PROMOVIDA PARA CAMBIO DINÁMICO
@@ -51,6 +57,19 @@ public class InventoryView extends JDialog {
     private JTextField txtSearch;
     private boolean filterLowStock = false;
 
+    // --- BÚSQUEDA INCREMENTAL (todo este estado se lee y escribe solo en el EDT) ---
+    private static final int SEARCH_DEBOUNCE_MS = 250;
+    private Timer searchDebounce;
+    private SwingWorker<List<Product>, Void> searchWorker;
+    private int searchSeq = 0;                  // Identifica la búsqueda vigente
+    private String lastSearchTerm = null;       // Último término mostrado
+    private List<Product> lastSearchResults = null; // Sus resultados, base para refinar en memoria
+
+    // --- AJUSTES RÁPIDOS DE STOCK (clics +/- acumulados y escritos al quedar inactivos) ---
+    private final StockDeltaCoalescer stockCoalescer = StockDeltaCoalescer.getInstance();
+    private final StockDeltaCoalescer.Listener stockFlushListener =
+            (id, delta) -> SwingUtilities.invokeLater(() -> revertStock(id, delta));
+
     public InventoryView(JFrame parent) {
         this(parent, false);
     }
@@ -78,6 +97,7 @@ public class InventoryView extends JDialog {
         initCenterSection(mainPanel);
 
         add(mainPanel, BorderLayout.CENTER);
+        stockCoalescer.addListener(stockFlushListener);
         loadProducts("");
 
         if (showOnlyLowStock) {
@@ -171,28 +191,35 @@ public class InventoryView extends JDialog {
                 new LineBorder(COLOR_GOLD, 1),
                 new EmptyBorder(0, 10, 0, 10)
         ));
-        txtSearch.addKeyListener(new KeyAdapter() {
-            @Override public void keyReleased(KeyEvent e) { loadProducts(txtSearch.getText()); }
+        // Cada cambio reinicia la espera; la consulta sale cuando el usuario deja de teclear.
+        searchDebounce = new Timer(SEARCH_DEBOUNCE_MS, e -> runSearch());
+        searchDebounce.setRepeats(false);
+        txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchDebounce.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchDebounce.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchDebounce.restart(); }
         });
+        txtSearch.addActionListener(e -> runSearch());
 
         SoftButton btnSearch = new SoftButton(null);
         btnSearch.setText("🔍");
         btnSearch.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 20));
         btnSearch.setPreferredSize(new Dimension(55, 40));
-        btnSearch.addActionListener(e -> loadProducts(txtSearch.getText()));
+        btnSearch.addActionListener(e -> { lastSearchResults = null; runSearch(); });
 
         searchBarPanel.add(txtSearch);
         searchBarPanel.add(btnSearch);
         centerContainer.add(searchBarPanel, BorderLayout.NORTH);
 
         String[] cols = { "ID", "CÓDIGO", "PRODUCTO", "CATEGORÍA", "STOCK", "PRECIO", "PROVEEDOR", "min_stock" };
-        tableModel = new DefaultTableModel(cols, 0) {
-            @Override public boolean isCellEditable(int r, int c) { return false; }
-            @Override public Class<?> getColumnClass(int c) { return (c == 0 || c == 4 || c == 7) ? Integer.class : String.class; }
-        };
+        // Columnas primitivas: el precio se guarda como número y se formatea al pintarse.
+        tableModel = new ColumnarTableModel(cols, new ColumnType[]{
+                ColumnType.INT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.STRING,
+                ColumnType.INT, ColumnType.DOUBLE, ColumnType.STRING, ColumnType.INT });
 
         productTable = new JTable(tableModel);
         styleTable(); // APLICACIÓN DE ESTILO
+        ColumnarTableModel.installHeaderSorting(productTable);
 
         JScrollPane scrollPane = new JScrollPane(productTable);
         scrollPane.setBorder(new LineBorder(COLOR_GOLD, 1));
@@ -267,12 +294,11 @@ public class InventoryView extends JDialog {
                 // LÓGICA DE ALINEACIÓN Y FORMATO
                 if (column == 0) { // ID CON CEROS
                     setHorizontalAlignment(JLabel.CENTER);
-                    try {
-                        setText(String.format("%03d", Integer.parseInt(value.toString())));
-                    } catch (Exception e) {}
+                    if (value instanceof Integer) setText(String.format("%03d", (Integer) value));
                     setForeground(Color.GRAY);
                 } else if (column == 5) { // PRECIO CENTRADO Y DORADO
                     setHorizontalAlignment(JLabel.CENTER);
+                    if (value instanceof Double) setText(String.format("%,.2f", (Double) value));
                     setForeground(COLOR_GOLD);
                     setFont(new Font("Segoe UI", Font.BOLD, 14));
                 } else if (column == 6) { // PROVEEDOR CENTRADO
@@ -296,43 +322,133 @@ public class InventoryView extends JDialog {
         cm.getColumn(4).setCellRenderer(new PersistentStockRenderer());
     }
 
+    /**
+     * Recarga síncrona (apertura, tras editar, borrar o cambiar la tasa). Descarta
+     * cualquier búsqueda en curso para que no sobrescriba la tabla al terminar.
+     */
     private void loadProducts(String query) {
-        tableModel.setRowCount(0);
+        cancelPendingSearch();
+        lastSearchTerm = null;
+        lastSearchResults = null;
+        renderProducts(fetchProducts(filterLowStock, query));
+    }
+
+    /**
+     * [CONCURRENCIA] Búsqueda mientras se escribe. La consulta corre fuera del EDT; si
+     * llega otra antes de terminar, la anterior se cancela y su resultado se ignora.
+     * Cuando el nuevo término solo amplía el anterior ("tra" -> "traj"), se filtran en
+     * memoria los resultados ya obtenidos en lugar de volver a consultar SQLite.
+     */
+    private void runSearch() {
+        cancelPendingSearch();
+        final int seq = searchSeq;
+        final String term = txtSearch.getText().trim();
+        final boolean lowStock = filterLowStock;
+        final String prevTerm = lastSearchTerm;
+        final List<Product> prevResults = lastSearchResults;
+
+        searchWorker = new SwingWorker<List<Product>, Void>() {
+            @Override
+            protected List<Product> doInBackground() {
+                // Si la búsqueda anterior se truncó en SEARCH_LIMIT, le pueden faltar coincidencias.
+                if (!lowStock && prevResults != null && prevResults.size() < ProductDAO.SEARCH_LIMIT
+                        && ProductDAO.canNarrowSearch(prevTerm, term)) {
+                    List<Product> narrowed = new ArrayList<>();
+                    for (Product p : prevResults) {
+                        if (isCancelled()) return narrowed;
+                        if (ProductDAO.matchesSearch(p, term)) narrowed.add(p);
+                    }
+                    return narrowed;
+                }
+                return fetchProducts(lowStock, term);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || seq != searchSeq) return;
+                try {
+                    List<Product> list = get();
+                    renderProducts(list);
+                    boolean textual = !lowStock && !term.isEmpty();
+                    lastSearchTerm = textual ? term : null;
+                    lastSearchResults = textual ? list : null;
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        searchWorker.execute();
+    }
+
+    private void cancelPendingSearch() {
+        if (searchDebounce != null) searchDebounce.stop();
+        if (searchWorker != null && !searchWorker.isDone()) searchWorker.cancel(false);
+        searchSeq++;
+    }
+
+    /** Consulta a la base según el modo de la vista. Puede ejecutarse fuera del EDT. */
+    private List<Product> fetchProducts(boolean lowStock, String query) {
+        if (lowStock) return productDAO.getLowStockProducts();
+        if (query != null && !query.isEmpty()) return productDAO.searchProducts(query);
+        return productDAO.getAllProducts();
+    }
+
+    private void renderProducts(List<Product> list) {
+        tableModel.clear();
         String symbol = CurrencyManager.getSymbol();
         productTable.getColumnModel().getColumn(5).setHeaderValue("PRECIO (" + symbol + ")");
         productTable.getTableHeader().repaint();
         if(btnTasa != null) btnTasa.setText(String.format(Locale.US, LanguageManager.get("inventory.rate_btn"), CurrencyManager.getTasa()));
 
-        List<Product> list;
-        if (filterLowStock) list = productDAO.getLowStockProducts();
-        else if (query != null && !query.isEmpty()) list = productDAO.searchProducts(query);
-        else list = productDAO.getAllProducts();
-
+        int mode = CurrencyManager.getMode();
+        tableModel.ensureCapacity(list.size());
         for (Product p : list) {
             double price = p.getSalePrice();
-            int mode = CurrencyManager.getMode();
             double displayPrice = (mode == 2) ? price * CurrencyManager.getTasa() :
                     (mode == 1) ? CurrencyManager.convert(price) : price;
-            String cleanPrice = String.format("%,.2f", displayPrice);
 
-            tableModel.addRow(new Object[]{
+            tableModel.appendRow(
                     p.getId(),
                     p.getCode(),
                     p.getName(),
                     "General",
-                    p.getCurrentStock(),
-                    cleanPrice,
+                    p.getCurrentStock() + stockCoalescer.getPendingDelta(p.getId()),
+                    displayPrice,
                     "S/P",
                     p.getMinStock()
-            });
+            );
         }
+        tableModel.fireRowsAppended(0);
+    }
+
+    @Override
+    public void dispose() {
+        cancelPendingSearch();
+        stockCoalescer.removeListener(stockFlushListener);
+        stockCoalescer.flushAll(); // Sin esperar: la cola de escritura lo confirma en segundo plano.
+        super.dispose();
     }
 
+    /**
+     * Ajuste optimista: la tabla cambia al instante y el clic se suma al neto pendiente
+     * del producto, que se escribe (con su fila de historial) cuando el usuario se detiene.
+     */
     private void updateStockQuickly(int id, int delta, int row, int newVal) {
         tableModel.setValueAt(newVal, row, 4);
-        new SwingWorker<Void, Void>() {
-            @Override protected Void doInBackground() { productDAO.updateStockDelta(id, delta); return null; }
-        }.execute();
+        lastSearchResults = null; // Su stock quedó desactualizado: no sirven para refinar.
+        stockCoalescer.add(id, delta);
+    }
+
+    /**
+     * El neto de un producto no se pudo guardar: la fila vuelve al stock confirmado
+     * (más lo que el usuario haya ajustado después).
+     */
+    private void revertStock(int id, int delta) {
+        Product p = productDAO.getProductById(id);
+        int row = tableModel.findRow(0, id);
+        if (row != -1 && p != null) tableModel.setValueAt(p.getCurrentStock() + stockCoalescer.getPendingDelta(id), row, 4);
+        lastSearchResults = null;
+        LuxuryMessage.show(this, "SICONI", "No se pudo guardar el ajuste de stock (" + (delta > 0 ? "+" : "") + delta + "). Se restauró el valor anterior.", true);
     }
 
     private void editSelected() {
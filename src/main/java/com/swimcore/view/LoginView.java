@@ -6,7 +6,7 @@
  * PROFESORA: Ing. Dubraska Roca
  * ASIGNATURA: Técnicas de Programación III
  * * ARCHIVO: LoginView.java
- * VERSIÓN: 2.7.1 (Footer Translation Fix)
+ * VERSIÓN: 2.8.0 (Operator Session)
  * FECHA: 07 de Febrero de 2026
  * HORA: 11:30 AM (Hora de Venezuela)
  * * DESCRIPCIÓN: Ventana de acceso principal con soporte de internacionalización completo.
@@ -18,6 +18,7 @@ package com.swimcore.view;
 import com.swimcore.dao.UserDAO;
 import com.swimcore.model.User;
 import com.swimcore.util.LanguageManager;
+import com.swimcore.util.SessionManager;
 import com.swimcore.util.SoundManager;
 import com.swimcore.view.dialogs.UserManagementDialog;
 
@@ -321,6 +322,7 @@ public class LoginView extends JFrame {
                     dao.saveUser(new User("admin", "1234", "Johanna Guedez", "ADMIN"));
                 }
             }
+            SessionManager.setCurrentUser(u); // Firma de los movimientos del kardex
             txtUser.setEnabled(false);
             txtPass.setEnabled(false);
             btnLogin.setText(LanguageManager.get("login.success"));
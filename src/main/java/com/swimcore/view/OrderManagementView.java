@@ -2,9 +2,11 @@
  * -----------------------------------------------------------------------------
  * INSTITUCIÓN: UNEG - SICONI
  * ARCHIVO: OrderManagementView.java
- * VERSIÓN: 15.0.0 (ASYNC PRINTING + THREAD SAFE)
+ * VERSIÓN: 15.1.0 (COLUMNAR ORDERS TABLE)
  * DESCRIPCIÓN: Optimización de rendimiento. La generación del recibo y la
  * carga de detalles ahora ocurren en segundo plano para no congelar la UI.
+ * La lista de pedidos usa un modelo columnar (montos como double, cliente y
+ * estado codificados) y se ordena al hacer clic en el encabezado.
  * -----------------------------------------------------------------------------
  */
 
@@ -18,6 +20,8 @@ import com.swimcore.model.Payment;
 import com.swimcore.util.ImagePanel;
 import com.swimcore.util.LanguageManager;
 import com.swimcore.util.LuxuryMessage;
+import com.swimcore.view.components.ColumnarTableModel;
+import com.swimcore.view.components.ColumnarTableModel.ColumnType;
 import com.swimcore.view.components.SoftButton;
 import com.swimcore.view.dialogs.AddPaymentDialog;
 import com.swimcore.view.dialogs.ReceiptPreviewDialog;
@@ -42,7 +46,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 public class OrderManagementView extends JDialog {
@@ -51,7 +57,7 @@ public class OrderManagementView extends JDialog {
     private final PaymentDAO paymentDAO = new PaymentDAO();
     private final SaleDAO saleDAO = new SaleDAO();
 
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
     private JTable ordersTable;
     private JPanel detailsPanel;
 
@@ -150,12 +156,13 @@ public class OrderManagementView extends JDialog {
 
     private JScrollPane createTablePanel() {
         String[] columns = {"N° PEDIDO", "CLIENTE", "ENTREGA", "TOTAL", "RESTA", "ESTADO"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new ColumnarTableModel(columns, new ColumnType[]{
+                ColumnType.TEXT, ColumnType.STRING, ColumnType.STRING,
+                ColumnType.DOUBLE, ColumnType.DOUBLE, ColumnType.STRING });
 
         ordersTable = new JTable(tableModel);
         styleTable();
+        ColumnarTableModel.installHeaderSorting(ordersTable);
         initLuxuryContextMenu();
 
         ordersTable.getSelectionModel().addListSelectionListener(e -> {
@@ -428,7 +435,7 @@ public class OrderManagementView extends JDialog {
 
             @Override
             protected Void doInBackground() throws Exception {
-                try (Connection conn = com.swimcore.dao.Conexion.conectar()) {
+                try (Connection conn = com.swimcore.dao.Conexion.conectarLectura()) {
                     // 1. Datos Principales
                     try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT * FROM sales WHERE id = '" + saleId + "'")) {
                         if (rs.next()) {
@@ -499,13 +506,15 @@ public class OrderManagementView extends JDialog {
             @Override
             protected List<Vector<Object>> doInBackground() throws Exception {
                 List<Vector<Object>> data = new ArrayList<>();
+                Map<Integer, String> clientNames = new HashMap<>();
+                if (clientCache != null) for (Client c : clientCache) clientNames.putIfAbsent(c.getId(), c.getFullName());
                 String sql = "SELECT id, client_id, delivery_date, total_divisa, balance_due_usd, status FROM sales ORDER BY date DESC";
-                try (Connection conn = com.swimcore.dao.Conexion.conectar(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+                try (Connection conn = com.swimcore.dao.Conexion.conectarLectura(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
                     while (rs.next()) {
                         Vector<Object> row = new Vector<>();
                         row.add(rs.getString("id"));
                         int clientId = rs.getInt("client_id");
-                        String clientName = (clientCache != null) ? clientCache.stream().filter(c -> c.getId() == clientId).map(Client::getFullName).findFirst().orElse("N/A") : "Cargando...";
+                        String clientName = (clientCache != null) ? clientNames.getOrDefault(clientId, "N/A") : "Cargando...";
                         row.add(clientName);
 
                         String dDate = rs.getString("delivery_date");
@@ -528,8 +537,10 @@ public class OrderManagementView extends JDialog {
             protected void done() {
                 try {
                     List<Vector<Object>> rows = get();
-                    tableModel.setRowCount(0);
-                    for(Vector<Object> r : rows) tableModel.addRow(r);
+                    tableModel.clear();
+                    tableModel.ensureCapacity(rows.size());
+                    for(Vector<Object> r : rows) tableModel.appendRow(r);
+                    tableModel.fireRowsAppended(0);
                 } catch(Exception e) { e.printStackTrace(); }
             }
         }.execute();
@@ -566,7 +577,7 @@ public class OrderManagementView extends JDialog {
             protected List<TicketItem> doInBackground() throws Exception {
                 List<TicketItem> lista = new ArrayList<>();
                 String sql = "SELECT d.quantity, d.subtotal, p.name FROM sale_details d LEFT JOIN products p ON d.product_id = p.id WHERE d.sale_id = ?";
-                try (Connection conn = com.swimcore.dao.Conexion.conectar(); PreparedStatement pst = conn.prepareStatement(sql)) {
+                try (Connection conn = com.swimcore.dao.Conexion.conectarLectura(); PreparedStatement pst = conn.prepareStatement(sql)) {
                     pst.setString(1, selectedSaleId);
                     ResultSet rs = pst.executeQuery();
                     while(rs.next()){
@@ -642,7 +653,7 @@ public class OrderManagementView extends JDialog {
         cm.getColumn(4).setPreferredWidth(80);
         cm.getColumn(5).setPreferredWidth(130);
 
-        ordersTable.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int col) {
                 Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, col);
@@ -670,7 +681,10 @@ public class OrderManagementView extends JDialog {
                 setBorder(new EmptyBorder(0, 10, 0, 10));
                 return c;
             }
-        });
+        };
+        // Los montos son Double en el modelo: se registra el mismo renderer para esa clase.
+        ordersTable.setDefaultRenderer(Object.class, renderer);
+        ordersTable.setDefaultRenderer(Double.class, renderer);
     }
 
     private JLabel createInfoLabel(String text, int fontSize, Color color) {
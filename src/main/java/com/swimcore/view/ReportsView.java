@@ -6,7 +6,7 @@
  * PROFESORA: Ing. Dubraska Roca
  * ASIGNATURA: Técnicas de Programación III
  * * ARCHIVO: ReportsView.java
- * VERSIÓN: FINAL OPTIMIZADA (Tabla Limpia + Branding SICONI)
+ * VERSIÓN: FINAL OPTIMIZADA (Tabla Limpia + Branding SICONI + Exportación CSV)
  * FECHA: 06 de Febrero de 2026
  * HORA: 07:00 PM (Hora de Venezuela)
  * * DESCRIPCIÓN TÉCNICA:
@@ -20,13 +20,17 @@ package com.swimcore.view;
 import com.github.lgooddatepicker.components.DatePicker;
 import com.github.lgooddatepicker.components.DatePickerSettings;
 import com.github.lgooddatepicker.components.DatePickerSettings.DateArea;
-import com.swimcore.dao.SaleDAO;
-import com.swimcore.model.Sale;
+import com.swimcore.dao.CsvExportDAO;
+import com.swimcore.dao.ReportsDAO;
+import com.swimcore.model.OperationalStats;
 import com.swimcore.util.CurrencyManager;
 import com.swimcore.util.LuxuryMessage;
+import com.swimcore.util.ReceiptBatchGenerator;
 import com.swimcore.util.ReportPDF;
 import com.swimcore.util.SoundManager;
 import com.swimcore.view.components.SoftButton;
+import com.swimcore.view.dialogs.CsvExportDialog;
+import com.swimcore.view.dialogs.ReceiptBatchDialog;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -55,6 +59,7 @@ import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
+import java.io.File;
 import java.net.URL;
 import java.text.NumberFormat;
 import java.time.LocalDate;
@@ -65,7 +70,7 @@ import java.util.List;
 
 public class ReportsView extends JDialog {
 
-    private final SaleDAO saleDAO = new SaleDAO();
+    private final ReportsDAO reportsDAO = new ReportsDAO();
     private DatePicker dateFrom, dateTo;
     private SoftButton btnCurrencyToggle;
 
@@ -198,6 +203,23 @@ public class ReportsView extends JDialog {
         btnPrint.addActionListener(e -> imprimirReportePDF());
         actionPanel.add(btnPrint);
 
+        SoftButton btnCsv = new SoftButton(null);
+        btnCsv.setText("CSV");
+        btnCsv.setFont(new Font("Segoe UI", Font.BOLD, 11));
+        btnCsv.setPreferredSize(new Dimension(80, 38));
+        btnCsv.setBackground(new Color(0, 120, 60));
+        btnCsv.addActionListener(e -> showCsvMenu(btnCsv));
+        actionPanel.add(btnCsv);
+
+        SoftButton btnReceipts = new SoftButton(null);
+        btnReceipts.setText("RECIBOS");
+        btnReceipts.setFont(new Font("Segoe UI", Font.BOLD, 11));
+        btnReceipts.setPreferredSize(new Dimension(90, 38));
+        btnReceipts.setBackground(new Color(120, 90, 20));
+        btnReceipts.setToolTipText("Reemitir los recibos PDF de todas las ventas del rango");
+        btnReceipts.addActionListener(e -> regenerateReceipts());
+        actionPanel.add(btnReceipts);
+
         SoftButton btnExit = new SoftButton(null);
         btnExit.setText("SALIR");
         btnExit.setFont(new Font("Segoe UI", Font.BOLD, 11));
@@ -214,11 +236,75 @@ public class ReportsView extends JDialog {
     private void imprimirReportePDF() {
         SoundManager.getInstance().playClick();
         String rango = dateFrom.getText() + " al " + dateTo.getText();
-        try {
-            ReportPDF.generateReport(rango, currentIngresos, currentDeuda, currentPendientesTotal, currentEnTaller);
-            LuxuryMessage.show("Éxito", "Reporte PDF generado correctamente.", false);
-        } catch (Exception e) {
-            LuxuryMessage.show("Error", "No se pudo generar el PDF.", true);
+        // El PDF se renderiza en segundo plano; el aviso llega cuando el archivo está listo.
+        ReportPDF.generateReport(rango, currentIngresos, currentDeuda, currentPendientesTotal, currentEnTaller)
+                .whenComplete((file, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error == null) {
+                        LuxuryMessage.show("Éxito", "Reporte PDF generado correctamente.", false);
+                    } else {
+                        error.printStackTrace();
+                        LuxuryMessage.show("Error", "No se pudo generar el PDF.", true);
+                    }
+                }));
+    }
+
+    /**
+     * Menú de exportación CSV: ventas, pagos y movimientos del rango seleccionado, o la
+     * cartera completa de clientes. Los datos se leen directo de la base en segundo plano.
+     */
+    private void showCsvMenu(Component anchor) {
+        SoundManager.getInstance().playClick();
+        JPopupMenu menu = new JPopupMenu();
+        for (CsvExportDAO.Dataset dataset : CsvExportDAO.Dataset.values()) {
+            JMenuItem item = new JMenuItem(dataset.getLabel() + (dataset.hasDateRange() ? " (RANGO)" : ""));
+            item.addActionListener(e -> exportCsv(dataset));
+            menu.add(item);
+        }
+        menu.show(anchor, 0, anchor.getHeight());
+    }
+
+    private void exportCsv(CsvExportDAO.Dataset dataset) {
+        Date startDate = null, endDate = null;
+        if (dataset.hasDateRange()) {
+            if (dateFrom.getDate() == null || dateTo.getDate() == null) return;
+            startDate = Date.from(dateFrom.getDate().atStartOfDay(ZoneId.systemDefault()).toInstant());
+            endDate = Date.from(dateTo.getDate().atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        File target = CsvExportDialog.chooseTarget(this, dataset);
+        if (target == null) return;
+        long rows = CsvExportDialog.run(this, dataset, startDate, endDate, target);
+        if (rows >= 0) LuxuryMessage.show(this, "Éxito", String.format("%,d filas exportadas a %s", rows, target.getName()), false);
+    }
+
+    /**
+     * Reemisión de todos los recibos del rango (cierre de mes), con la opción de unirlos
+     * en un solo PDF. Las consultas y el renderizado corren en segundo plano.
+     */
+    private void regenerateReceipts() {
+        SoundManager.getInstance().playClick();
+        if (dateFrom.getDate() == null || dateTo.getDate() == null) return;
+        int option = JOptionPane.showConfirmDialog(this,
+                "Se regenerarán los recibos de todas las ventas del " + dateFrom.getText() + " al " + dateTo.getText() + ".\n" +
+                        "¿Desea además un PDF único con todos los recibos?",
+                "SICONI - Recibos del período", JOptionPane.YES_NO_CANCEL_OPTION);
+        if (option == JOptionPane.CANCEL_OPTION || option == JOptionPane.CLOSED_OPTION) return;
+
+        Date startDate = Date.from(dateFrom.getDate().atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date endDate = Date.from(dateTo.getDate().atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toInstant());
+        ReceiptBatchGenerator.Result result = ReceiptBatchDialog.run(this, startDate, endDate, option == JOptionPane.YES_OPTION);
+        if (result == null) return;
+        if (result.isCancelled()) {
+            LuxuryMessage.show(this, "LOTE CANCELADO", String.format("%,d recibos generados antes de cancelar.", result.getRendered()), true);
+            return;
+        }
+        LuxuryMessage.show(this, "Éxito", String.format("%,d recibos generados (%.1f por segundo)%s", result.getRendered(),
+                result.getReceiptsPerSecond(), result.getMerged() != null ? "\nPDF único: " + result.getMerged().getName() : ""), false);
+        if (result.getMerged() != null && Desktop.isDesktopSupported()) {
+            try {
+                Desktop.getDesktop().open(result.getMerged());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -373,37 +459,13 @@ public class ReportsView extends JDialog {
             @Override
             protected ReportData doInBackground() throws Exception {
                 ReportData data = new ReportData();
-                data.profitability = saleDAO.getProductProfitability(startDate, endDate);
-                List<Sale> allSales = saleDAO.getAllSales();
-
-                data.stats = new OperationalStats();
-                currentIngresos = 0; currentDeuda = 0; currentPendientesTotal = 0; currentEnTaller = 0;
-
-                for (Sale s : allSales) {
-                    try {
-                        double total = s.getTotalAmountUSD();
-                        double paid = s.getAmountPaid();
-                        double deudaReal = total - paid;
-                        if (deudaReal < 0.1) deudaReal = 0;
-
-                        if (deudaReal > 0) {
-                            data.stats.amountPending += deudaReal;
-                            if ("EN PROCESO".equalsIgnoreCase(s.getStatus()) || paid > 0) {
-                                data.stats.countInProcess++;
-                            }
-                            data.stats.countPending++;
-                        }
-                        data.stats.amountPaid += paid;
-                        if (paid >= total && total > 0) {
-                            data.stats.countPaid++;
-                        }
-                        data.stats.totalSales++;
-                    } catch (Exception e) {}
-                }
-                currentIngresos = data.stats.amountPaid;
-                currentDeuda = data.stats.amountPending;
-                currentPendientesTotal = data.stats.countPending;
-                currentEnTaller = data.stats.countInProcess;
+                data.profitability = reportsDAO.getProductProfitability(startDate, endDate);
+                // Indicadores operativos agregados en SQL y filtrados por el rango elegido.
+                data.stats = reportsDAO.getOperationalStats(startDate, endDate);
+                currentIngresos = data.stats.getAmountPaid();
+                currentDeuda = data.stats.getAmountPending();
+                currentPendientesTotal = data.stats.getCountPending();
+                currentEnTaller = data.stats.getCountInProcess();
                 return data;
             }
             @Override
@@ -427,10 +489,6 @@ public class ReportsView extends JDialog {
         }.execute();
     }
 
-    private static class OperationalStats {
-        int totalSales=0; int countPending=0; int countInProcess=0; int countPaid=0; double amountPending=0; double amountPaid=0;
-    }
-
     private static class ReportData {
         List<Object[]> profitability;
         OperationalStats stats;
@@ -470,18 +528,18 @@ public class ReportsView extends JDialog {
         double rate = (mode == 2) ? CurrencyManager.getTasa() : 1.0;
 
         // AQUÍ ELIMINAMOS "Pedidos" y "Unidades" PARA AHORRAR ESPACIO
-        operationalTableModel.addRow(new Object[]{"POR COBRAR (DEUDA)", stats.countPending, String.format(Locale.US, "%,.2f", stats.amountPending * rate)});
-        operationalTableModel.addRow(new Object[]{"EN TALLER (PRODUCCIÓN)", stats.countInProcess, "---"});
-        operationalTableModel.addRow(new Object[]{"COBRADO Y ENTREGADO", stats.countPaid, String.format(Locale.US, "%,.2f", stats.amountPaid * rate)});
+        operationalTableModel.addRow(new Object[]{"POR COBRAR (DEUDA)", stats.getCountPending(), String.format(Locale.US, "%,.2f", stats.getAmountPending() * rate)});
+        operationalTableModel.addRow(new Object[]{"EN TALLER (PRODUCCIÓN)", stats.getCountInProcess(), "---"});
+        operationalTableModel.addRow(new Object[]{"COBRADO Y ENTREGADO", stats.getCountPaid(), String.format(Locale.US, "%,.2f", stats.getAmountPaid() * rate)});
     }
 
     private void updateDonutChart(OperationalStats stats) {
         DefaultPieDataset dataset = new DefaultPieDataset();
-        int pendientesPuros = stats.countPending - stats.countInProcess;
+        int pendientesPuros = stats.getCountPending() - stats.getCountInProcess();
         if(pendientesPuros < 0) pendientesPuros = 0;
 
-        dataset.setValue("COMPLETADOS", stats.countPaid);
-        dataset.setValue("EN TALLER", stats.countInProcess);
+        dataset.setValue("COMPLETADOS", stats.getCountPaid());
+        dataset.setValue("EN TALLER", stats.getCountInProcess());
         dataset.setValue("PENDIENTES", pendientesPuros);
 
         JFreeChart chart = ChartFactory.createRingChart("EFICIENCIA DE ENTREGAS", dataset, true, true, false);
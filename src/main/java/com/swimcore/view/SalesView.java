@@ -2,8 +2,8 @@
  * -----------------------------------------------------------------------------
  * INSTITUCIÓN: UNEG - SICONI
  * ARCHIVO: SalesView.java
- * VERSIÓN: 69.0 (FIX: Constructor Mismatch Solved - Snapshot Strategy)
- * FECHA: 04 de Febrero de 2026 - 09:00 PM
+ * VERSIÓN: 70.2 (Correlativos sin respaldo inventado)
+ * FECHA: 17 de Octubre de 2026
  * DESCRIPCIÓN: Soluciona el error de compilación capturando los datos del pedido
  * en variables temporales (Snapshot) para pasarlos al Recibo Pasivo.
  * -----------------------------------------------------------------------------
@@ -43,6 +43,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.awt.Desktop;
 
 public class SalesView extends JPanel {
@@ -67,11 +68,19 @@ public class SalesView extends JPanel {
     private SoftButton btnTasa, btnPay50, btnPay100;
     private SoftButton btnReceipt;
     private JLabel lblOrderNum;
+    // Correlativos reservados para el pedido en pantalla (0 / null = aún sin reservar).
+    private int reservedOrderNumber = 0;
+    private String reservedInvoice = null;
+    private String reservedControl = null;
 
     private double totalAmount = 0.0;
     private double currentTasa = CurrencyManager.getTasa();
     private String lastOrderIdSaved = null;
 
+    // Recibo del último pedido, encolado al guardar: se renderiza mientras el usuario sigue.
+    private CompletableFuture<File> pendingReceipt = null;
+    private String pendingReceiptId = null;
+
     // --- SNAPSHOT VARIABLES (PARA EL RECIBO PASIVO) ---
     // Guardamos aquí los datos antes de borrar el formulario
     private List<ReceiptPreviewDialog.TicketItem> lastItemsSnapshot = new ArrayList<>();
@@ -141,11 +150,24 @@ public class SalesView extends JPanel {
     }
 
     private void generarConsecutivoPedido() {
-        int nextId = saleController.getNextOrderNumber();
-        String formattedId = String.format("PED-%04d", nextId);
+        // Se reserva una sola vez por pedido; "Limpiar" conserva el número aún no usado.
+        if (reservedOrderNumber <= 0) reservedOrderNumber = saleController.getNextOrderNumber();
+        // Sin número reservado el pedido no se puede guardar; se reintenta al guardar.
+        String formattedId = reservedOrderNumber > 0 ? String.format("PED-%04d", reservedOrderNumber) : "PED-????";
         if(lblOrderNum != null) lblOrderNum.setText("# " + formattedId);
     }
 
+    /**
+     * Reserva factura y control si aún no se tienen. Solo pide el que falte, para no
+     * consumir correlativos fiscales en los reintentos.
+     * @return true si ambos números están reservados.
+     */
+    private boolean reservarCorrelativosFiscales() {
+        if (reservedInvoice == null) reservedInvoice = saleController.getNextInvoiceNumber();
+        if (reservedControl == null) reservedControl = saleController.getNextControlNumber();
+        return reservedInvoice != null && reservedControl != null;
+    }
+
     private JPanel createHeaderStack() {
         JPanel stack = new JPanel(new BorderLayout());
         stack.setOpaque(false);
@@ -305,8 +327,14 @@ public class SalesView extends JPanel {
             boolean en = chkInvoice.isSelected();
             toggleInvoice(en);
             if(en) {
-                txtInvoice.setText(saleController.getNextInvoiceNumber());
-                txtControl.setText(saleController.getNextControlNumber());
+                if (!reservarCorrelativosFiscales()) {
+                    LuxuryMessage.show("Error", "No se pudo reservar el número de factura o de control. Intente de nuevo.", true);
+                    chkInvoice.setSelected(false);
+                    toggleInvoice(false);
+                    return;
+                }
+                txtInvoice.setText(reservedInvoice);
+                txtControl.setText(reservedControl);
             }
         });
 
@@ -432,6 +460,22 @@ public class SalesView extends JPanel {
             return;
         }
 
+        // [INTEGRIDAD] Nunca se guarda con un correlativo inventado: si la secuencia no
+        // respondió, se reintenta y, si sigue sin número, no se registra el pedido.
+        generarConsecutivoPedido();
+        if (reservedOrderNumber <= 0) {
+            LuxuryMessage.show("Error", "No se pudo reservar el número de pedido. Intente de nuevo.", true);
+            return;
+        }
+        if (chkInvoice.isSelected() && (reservedInvoice == null || reservedControl == null)) {
+            if (!reservarCorrelativosFiscales()) {
+                LuxuryMessage.show("Error", "No se pudo reservar el número de factura o de control. Intente de nuevo.", true);
+                return;
+            }
+            txtInvoice.setText(reservedInvoice);
+            txtControl.setText(reservedControl);
+        }
+
         // Obtener ID limpio (solo números)
         String rawId = lblOrderNum.getText().replace("# ", "").replace("PED-", "").trim();
         String orderId = "PED-" + rawId; // Formato DB
@@ -485,6 +529,14 @@ public class SalesView extends JPanel {
         if(saleController.registerSale(s, cartDetails)){
             lastOrderIdSaved = orderId;
 
+            // El PDF se encola de inmediato (no bloquea); al pedir el comprobante ya suele estar listo.
+            pendingReceipt = com.swimcore.util.ReceiptGenerator.generateReceipt(s, cartDetails, currentClient, false);
+            pendingReceiptId = orderId;
+
+            // Los correlativos usados se consumen; el siguiente pedido reservará otros.
+            reservedOrderNumber = 0;
+            if (chkInvoice.isSelected()) { reservedInvoice = null; reservedControl = null; }
+
             // Habilitamos el botón
             btnReceipt.setVisible(true); // <--- ¡AQUÍ APARECE EL BOTÓN!
 
@@ -518,32 +570,24 @@ public class SalesView extends JPanel {
 
     private void runPrintSimulation(boolean openFile) {
 
-        // --- PASO 1: RECUPERAR DATOS NECESARIOS ---
-        // Necesitamos el objeto Sale completo y los detalles para pasarlos al generador.
-        Sale tempSale = saleController.getSaleById(lastOrderIdSaved);
+        // --- PASO 1: RECIBO YA ENCOLADO AL GUARDAR ---
+        CompletableFuture<File> receipt = lastOrderIdSaved != null && lastOrderIdSaved.equals(pendingReceiptId) ? pendingReceipt : null;
 
-        if (tempSale == null) {
-            JOptionPane.showMessageDialog(this, "Error: No se encontró el pedido guardado (ID: " + lastOrderIdSaved + ").", "Error de Búsqueda", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        if (receipt == null) {
+            // --- PASO 2: RECUPERAR DATOS NECESARIOS ---
+            // Necesitamos el objeto Sale completo y los detalles para pasarlos al generador.
+            Sale tempSale = saleController.getSaleById(lastOrderIdSaved);
 
-        // Reconstruimos los detalles del snapshot para que coincidan con lo que espera el generador
-        List<SaleDetail> details = saleController.getDetailsFromSnapshot(lastItemsSnapshot, lastOrderIdSaved);
+            if (tempSale == null) {
+                JOptionPane.showMessageDialog(this, "Error: No se encontró el pedido guardado (ID: " + lastOrderIdSaved + ").", "Error de Búsqueda", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
 
-        // --- PASO 2: GENERAR EL PDF EN DISCO ---
-        try {
-            // Llamada al generador: Pasamos los datos recuperados y 'false' para que NO se abra solo.
-            com.swimcore.util.ReceiptGenerator.generateReceipt(
-                    tempSale,
-                    details,
-                    currentClient, // Pasamos el cliente actual de la vista
-                    false // <-- SIEMPRE FALSE AQUÍ, la vista previa o el explorer se encargarán después.
-            );
+            // Reconstruimos los detalles del snapshot para que coincidan con lo que espera el generador
+            List<SaleDetail> details = saleController.getDetailsFromSnapshot(lastItemsSnapshot, lastOrderIdSaved);
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error al generar el archivo PDF en disco. Revise la consola para más detalles. Error: " + ex.getMessage(), "Error de Generación", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
-            return;
+            // Encolado del PDF: 'false' para que NO se abra solo, la vista previa o el explorer se encargarán después.
+            receipt = com.swimcore.util.ReceiptGenerator.generateReceipt(tempSale, details, currentClient, false);
         }
         // ----------------------------------------------------
 
@@ -553,9 +597,16 @@ public class SalesView extends JPanel {
         JLabel l = new JLabel("Generando recibo...", SwingConstants.CENTER); l.setForeground(COLOR_NEON); l.setFont(new Font("Consolas",1,14));
         p.add(l); d.add(p);
 
-        Timer t = new Timer(1000, e -> {
+        // El aviso se cierra cuando el PDF está realmente en disco (no tras una espera fija).
+        receipt.whenComplete((file, error) -> SwingUtilities.invokeLater(() -> {
             d.dispose();
 
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Error al generar el archivo PDF en disco. Revise la consola para más detalles. Error: " + error.getMessage(), "Error de Generación", JOptionPane.ERROR_MESSAGE);
+                error.printStackTrace();
+                return;
+            }
+
             if(openFile) {
                 // Si el usuario pidió ABRIR VISTA PREVIA (el diálogo blanco)
                 // Usamos los datos del snapshot para la vista previa.
@@ -579,8 +630,7 @@ public class SalesView extends JPanel {
                     JOptionPane.showMessageDialog(this, "No se pudo abrir la carpeta 'Recibos_SICONI'. Error: " + desktopEx.getMessage(), "Error de Sistema", JOptionPane.ERROR_MESSAGE);
                 }
             }
-        });
-        t.setRepeats(false); t.start();
+        }));
         d.setVisible(true);
     }
 
@@ -710,8 +760,14 @@ public class SalesView extends JPanel {
 
     private void adjustQty(int v) { try { int q = Integer.parseInt(txtQuantity.getText()); if(q+v>0) txtQuantity.setText(String.valueOf(q+v)); } catch(Exception e){ txtQuantity.setText("1"); } }
 
+    /** Busca por código de producto; si no existe y el texto es numérico, lo intenta como ID. */
     private void addProductByCode() {
-        try { Product p = productDAO.getProductById(Integer.parseInt(txtProductCode.getText().trim())); if(p != null) { cmbProducts.setSelectedItem(p.getName()); addToCart(); txtProductCode.setText(""); } } catch(Exception e){}
+        String code = txtProductCode.getText().trim();
+        Product p = productDAO.getProductByCode(code);
+        if (p == null && code.matches("\\d+")) {
+            try { p = productDAO.getProductById(Integer.parseInt(code)); } catch (NumberFormatException e) {}
+        }
+        if (p != null) { cmbProducts.setSelectedItem(p.getName()); addToCart(); txtProductCode.setText(""); }
     }
 
     private void removeFromCart(int r) { if(r>=0) { cartDetails.remove(r); tableModel.removeRow(r); updateCalculations(); } }
@@ -841,6 +897,13 @@ public class SalesView extends JPanel {
                 new SwingWorker<Void, Void>() {
                     @Override protected Void doInBackground() {
                         try {
+                            // Recibo pre-renderizado al guardar: solo esperar y abrir.
+                            CompletableFuture<File> pending = orderId.equals(pendingReceiptId) ? pendingReceipt : null;
+                            if (pending != null && !pending.isCompletedExceptionally()) {
+                                File file = pending.get();
+                                if (Desktop.isDesktopSupported()) Desktop.getDesktop().open(file);
+                                return null;
+                            }
                             com.swimcore.dao.SaleDAO sDAO = new com.swimcore.dao.SaleDAO();
                             Sale sale = sDAO.getSaleById(orderId);
                             List<SaleDetail> details = sDAO.getDetailsBySaleId(orderId);
@@ -854,7 +917,7 @@ public class SalesView extends JPanel {
                                 }
                             }
                             // Generar y Abrir (true = abrir automáticamente)
-                            com.swimcore.util.ReceiptGenerator.generateReceipt(sale, details, client, true);
+                            com.swimcore.util.ReceiptGenerator.generateReceipt(sale, details, client, true).get();
                         } catch(Exception ex) { ex.printStackTrace(); }
                         return null;
                     }
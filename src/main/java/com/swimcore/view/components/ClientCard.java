@@ -3,7 +3,7 @@
  * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
  * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
  * ARCHIVO: ClientCard.java
- * VERSIÓN: 5.0.0 (Colores por Tipo + Nombre Ajustado)
+ * VERSIÓN: 5.1.0 (Lifetime Value Line)
  * FECHA: Enero 2026
  *
  * DESCRIPCIÓN TÉCNICA:
@@ -17,6 +17,7 @@
 package com.swimcore.view.components;
 
 import com.swimcore.model.Client;
+import com.swimcore.model.ClientLifetimeValue;
 import javax.swing.*;
 import javax.swing.border.Border;
 import java.awt.*;
@@ -51,6 +52,14 @@ public class ClientCard extends JPanel {
      * @param isSelected Booleano que indica el estado de foco del componente.
      */
     public ClientCard(Client client, boolean isSelected) {
+        this(client, isSelected, null);
+    }
+
+    /**
+     * Constructor con valor histórico del cliente (pedidos y gasto acumulado).
+     * @param lifetimeValue Métricas precalculadas por lote; null para omitir la línea.
+     */
+    public ClientCard(Client client, boolean isSelected, ClientLifetimeValue lifetimeValue) {
         this.isSelected = isSelected;
 
         // Configuración del Layout (BorderLayout) para distribución espacial:
@@ -112,6 +121,15 @@ public class ClientCard extends JPanel {
             textPanel.add(lblClub);
         }
 
+        // Valor histórico del cliente (frecuencia y gasto acumulado).
+        if (lifetimeValue != null) {
+            textPanel.add(Box.createVerticalStrut(5));
+            JLabel lblValue = new JLabel(String.format("%d pedidos · $%,.2f", lifetimeValue.getOrderCount(), lifetimeValue.getTotalSpent()));
+            lblValue.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            lblValue.setForeground(Color.LIGHT_GRAY);
+            textPanel.add(lblValue);
+        }
+
         add(textPanel, BorderLayout.CENTER);
 
         // --- COMPONENTE 3: IDENTIFICADOR (EAST) ---
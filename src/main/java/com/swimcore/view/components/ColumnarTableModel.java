@@ -0,0 +1,375 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
+ * ARCHIVO: ColumnarTableModel.java
+ * VERSIÓN: 1.0.0 (Columnar Row Store)
+ * FECHA: 17 de Octubre de 2026
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Modelo de tabla que guarda cada columna como un arreglo primitivo (int[],
+ * double[]) o como códigos de diccionario para textos repetidos (categorías,
+ * tipos, nombres). Las celdas solo se convierten a objeto cuando la tabla las
+ * pinta, y el formato (moneda, ceros a la izquierda) lo aplica el renderer.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.view.components;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * [VISTA - COMPONENTE] Modelo de tabla columnar de solo lectura.
+ * [RENDIMIENTO] Una fila ocupa unos pocos bytes por columna en lugar de un Vector con un
+ * objeto por celda; ordenar compara primitivos y mueve arreglos, sin crear objetos.
+ * [USO] Carga masiva: {@link #appendRow} por fila y un único {@link #fireRowsAppended}
+ * al final. Los cambios puntuales usan {@link #setValueAt}, que sí notifica a la tabla.
+ */
+public class ColumnarTableModel extends AbstractTableModel {
+
+    /** Representación física de una columna. */
+    public enum ColumnType {
+        /** Entero primitivo (IDs, cantidades, stock). */
+        INT,
+        /** Decimal primitivo (precios, montos). */
+        DOUBLE,
+        /** Texto con pocos valores distintos: se guarda un código por fila y cada valor una vez. */
+        STRING,
+        /** Texto casi único por fila (fechas, observaciones): se guarda tal cual. */
+        TEXT
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String[] names;
+    private final ColumnType[] types;
+    private final Object[] data;              // int[] | double[] | String[] según el tipo
+    private final Dictionary[] dictionaries;  // Solo en columnas STRING
+    private int rowCount = 0;
+    private int capacity = INITIAL_CAPACITY;
+
+    // Estado del ordenamiento por encabezado (-1 = orden de carga).
+    private int sortColumn = -1;
+    private boolean sortAscending = true;
+
+    /**
+     * Diccionario de una columna STRING: cada texto distinto recibe un código entero.
+     */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) return -1;
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String decode(int code) { return code < 0 ? null : values.get(code); }
+
+        void clear() { codes.clear(); values.clear(); }
+
+        /** Posición de cada código en orden alfabético (null primero), para ordenar por enteros. */
+        int[] ranks() {
+            Integer[] order = new Integer[values.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(values.get(a), values.get(b)));
+            int[] rank = new int[order.length];
+            for (int i = 0; i < order.length; i++) rank[order[i]] = i;
+            return rank;
+        }
+    }
+
+    /**
+     * @param names Títulos de las columnas.
+     * @param types Tipo físico de cada columna (misma longitud que {@code names}).
+     */
+    public ColumnarTableModel(String[] names, ColumnType[] types) {
+        if (names.length != types.length) throw new IllegalArgumentException("Columnas y tipos no coinciden.");
+        this.names = names.clone();
+        this.types = types.clone();
+        this.data = new Object[types.length];
+        this.dictionaries = new Dictionary[types.length];
+        for (int c = 0; c < types.length; c++) {
+            data[c] = newColumn(types[c], capacity);
+            if (types[c] == ColumnType.STRING) dictionaries[c] = new Dictionary();
+        }
+    }
+
+    // ========================================================================================
+    //                                  CARGA DE FILAS
+    // ========================================================================================
+
+    /** Vacía el modelo (y los diccionarios) y notifica a la tabla. */
+    public void clear() {
+        rowCount = 0;
+        capacity = INITIAL_CAPACITY;
+        for (int c = 0; c < types.length; c++) {
+            data[c] = newColumn(types[c], capacity);
+            if (dictionaries[c] != null) dictionaries[c].clear();
+        }
+        sortColumn = -1;
+        fireTableDataChanged();
+    }
+
+    /** Reserva espacio para {@code rows} filas en total (evita crecer de a poco en cargas grandes). */
+    public void ensureCapacity(int rows) {
+        if (rows <= capacity) return;
+        capacity = Math.max(rows, capacity + (capacity >> 1)); // Crecimiento geométrico
+        for (int c = 0; c < types.length; c++) data[c] = copyOf(data[c], capacity);
+    }
+
+    /**
+     * Agrega una fila sin notificar a la tabla.
+     * @param values Un valor por columna: Number para INT/DOUBLE, cualquier objeto para textos.
+     * @return Índice de la fila nueva.
+     */
+    public int appendRow(Object... values) {
+        int row = newRow();
+        for (int c = 0; c < types.length; c++) store(row, c, c < values.length ? values[c] : null);
+        return row;
+    }
+
+    /** Variante para filas que ya llegan como lista (p. ej. desde la capa de datos). */
+    public int appendRow(List<?> values) {
+        int row = newRow();
+        for (int c = 0; c < types.length; c++) store(row, c, c < values.size() ? values.get(c) : null);
+        return row;
+    }
+
+    /** Notifica de una sola vez las filas agregadas desde {@code firstRow}. */
+    public void fireRowsAppended(int firstRow) {
+        if (firstRow < rowCount) fireTableRowsInserted(firstRow, rowCount - 1);
+    }
+
+    /** Agrega una fila y la notifica (para altas sueltas). */
+    public void addRow(Object... values) {
+        int row = appendRow(values);
+        fireTableRowsInserted(row, row);
+    }
+
+    // ========================================================================================
+    //                                  LECTURA TIPADA
+    // ========================================================================================
+
+    public int getInt(int row, int col) { return ((int[]) data[col])[row]; }
+
+    public double getDouble(int row, int col) { return ((double[]) data[col])[row]; }
+
+    public String getString(int row, int col) {
+        if (types[col] == ColumnType.STRING) return dictionaries[col].decode(((int[]) data[col])[row]);
+        if (types[col] == ColumnType.TEXT) return ((String[]) data[col])[row];
+        return String.valueOf(getValueAt(row, col));
+    }
+
+    /**
+     * @return Primera fila cuya columna INT vale {@code value}, o -1.
+     */
+    public int findRow(int col, int value) {
+        int[] values = (int[]) data[col];
+        for (int r = 0; r < rowCount; r++) {
+            if (values[r] == value) return r;
+        }
+        return -1;
+    }
+
+    // ========================================================================================
+    //                                  CONTRATO DE TableModel
+    // ========================================================================================
+
+    @Override public int getRowCount() { return rowCount; }
+
+    @Override public int getColumnCount() { return types.length; }
+
+    @Override public String getColumnName(int col) { return names[col]; }
+
+    @Override
+    public Class<?> getColumnClass(int col) {
+        switch (types[col]) {
+            case INT: return Integer.class;
+            case DOUBLE: return Double.class;
+            default: return String.class;
+        }
+    }
+
+    @Override public boolean isCellEditable(int row, int col) { return false; }
+
+    /** Convierte la celda a objeto; la tabla solo lo pide para las filas visibles. */
+    @Override
+    public Object getValueAt(int row, int col) {
+        switch (types[col]) {
+            case INT: return ((int[]) data[col])[row];
+            case DOUBLE: return ((double[]) data[col])[row];
+            case STRING: return dictionaries[col].decode(((int[]) data[col])[row]);
+            default: return ((String[]) data[col])[row];
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int col) {
+        store(row, col, value);
+        fireTableCellUpdated(row, col);
+    }
+
+    // ========================================================================================
+    //                                  ORDENAMIENTO
+    // ========================================================================================
+
+    /**
+     * Reordena físicamente las filas por una columna (orden estable). Los textos de
+     * diccionario se comparan por su posición alfabética precalculada, no carácter a carácter.
+     */
+    public void sortBy(int col, boolean ascending) {
+        int[] order = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) order[i] = i;
+
+        final Comparison cmp;
+        switch (types[col]) {
+            case INT: {
+                int[] v = (int[]) data[col];
+                cmp = (a, b) -> Integer.compare(v[a], v[b]);
+                break;
+            }
+            case DOUBLE: {
+                double[] v = (double[]) data[col];
+                cmp = (a, b) -> Double.compare(v[a], v[b]);
+                break;
+            }
+            case STRING: {
+                int[] codes = (int[]) data[col];
+                int[] rank = dictionaries[col].ranks();
+                cmp = (a, b) -> Integer.compare(codes[a] < 0 ? -1 : rank[codes[a]], codes[b] < 0 ? -1 : rank[codes[b]]);
+                break;
+            }
+            default: {
+                String[] v = (String[]) data[col];
+                cmp = (a, b) -> v[a] == null ? (v[b] == null ? 0 : -1)
+                        : v[b] == null ? 1 : String.CASE_INSENSITIVE_ORDER.compare(v[a], v[b]);
+            }
+        }
+        mergeSort(order, new int[rowCount], 0, rowCount, ascending ? cmp : (a, b) -> cmp.compare(b, a));
+
+        for (int c = 0; c < types.length; c++) data[c] = permute(data[c], order);
+        sortColumn = col;
+        sortAscending = ascending;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Ordena al hacer clic en el encabezado; un segundo clic en la misma columna invierte el orden.
+     */
+    public static void installHeaderSorting(JTable table) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!(table.getModel() instanceof ColumnarTableModel)) return;
+                ColumnarTableModel model = (ColumnarTableModel) table.getModel();
+                int viewCol = header.columnAtPoint(e.getPoint());
+                if (viewCol < 0) return;
+                int col = table.convertColumnIndexToModel(viewCol);
+                boolean ascending = model.sortColumn != col || !model.sortAscending;
+                table.clearSelection();
+                model.sortBy(col, ascending);
+            }
+        });
+    }
+
+    // ========================================================================================
+    //                                  LÓGICA INTERNA
+    // ========================================================================================
+
+    @FunctionalInterface
+    private interface Comparison {
+        int compare(int rowA, int rowB);
+    }
+
+    private int newRow() {
+        if (rowCount == capacity) ensureCapacity(capacity + 1);
+        sortColumn = -1;
+        return rowCount++;
+    }
+
+    private void store(int row, int col, Object value) {
+        switch (types[col]) {
+            case INT:
+                ((int[]) data[col])[row] = value instanceof Number ? ((Number) value).intValue() : 0;
+                break;
+            case DOUBLE:
+                ((double[]) data[col])[row] = value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+                break;
+            case STRING:
+                ((int[]) data[col])[row] = dictionaries[col].encode(value == null ? null : value.toString());
+                break;
+            default:
+                ((String[]) data[col])[row] = value == null ? null : value.toString();
+        }
+    }
+
+    private static Object newColumn(ColumnType type, int size) {
+        switch (type) {
+            case DOUBLE: return new double[size];
+            case TEXT: return new String[size];
+            default: return new int[size]; // INT y códigos de STRING
+        }
+    }
+
+    private static Object copyOf(Object column, int size) {
+        if (column instanceof int[]) return Arrays.copyOf((int[]) column, size);
+        if (column instanceof double[]) return Arrays.copyOf((double[]) column, size);
+        return Arrays.copyOf((String[]) column, size);
+    }
+
+    private Object permute(Object column, int[] order) {
+        int n = order.length;
+        if (column instanceof int[]) {
+            int[] src = (int[]) column, dst = new int[capacity];
+            for (int i = 0; i < n; i++) dst[i] = src[order[i]];
+            return dst;
+        }
+        if (column instanceof double[]) {
+            double[] src = (double[]) column, dst = new double[capacity];
+            for (int i = 0; i < n; i++) dst[i] = src[order[i]];
+            return dst;
+        }
+        String[] src = (String[]) column, dst = new String[capacity];
+        for (int i = 0; i < n; i++) dst[i] = src[order[i]];
+        return dst;
+    }
+
+    /** Merge sort estable sobre índices de fila (Arrays.sort no acepta comparadores de int). */
+    private static void mergeSort(int[] a, int[] tmp, int from, int to, Comparison cmp) {
+        if (to - from < 2) return;
+        if (to - from <= 16) { // Inserción para tramos cortos
+            for (int i = from + 1; i < to; i++) {
+                int x = a[i], j = i - 1;
+                while (j >= from && cmp.compare(a[j], x) > 0) { a[j + 1] = a[j]; j--; }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, tmp, from, mid, cmp);
+        mergeSort(a, tmp, mid, to, cmp);
+        if (cmp.compare(a[mid - 1], a[mid]) <= 0) return; // Ya en orden
+        System.arraycopy(a, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) a[k++] = cmp.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < to) a[k++] = tmp[j++];
+    }
+}
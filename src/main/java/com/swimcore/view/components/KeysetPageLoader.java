@@ -0,0 +1,167 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
+ * ARCHIVO: KeysetPageLoader.java
+ * VERSIÓN: 1.1.0 (Columnar Model)
+ * FECHA: 17 de Octubre de 2026
+ * -----------------------------------------------------------------------------
+ * DESCRIPCIÓN TÉCNICA:
+ * Cargador incremental de tablas. Pide a la capa de datos una página a la vez
+ * (paginación por llave: "las siguientes N filas después de la última") y la
+ * agrega al modelo cuando el usuario se acerca al final del scroll. La primera
+ * página aparece de inmediato aunque el rango tenga miles de filas.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.view.components;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.UnaryOperator;
+
+/**
+ * [VISTA - COMPONENTE] Paginador de scroll infinito para JTable.
+ * [CONCURRENCIA] Cada página se consulta en un SwingWorker; el modelo solo se toca en el
+ * EDT. Un número de generación descarta páginas de una consulta anterior (cambio de filtro).
+ * [PATRÓN ESTRATEGIA] La consulta (PageSource) y el formato de las filas los define la vista.
+ */
+public class KeysetPageLoader {
+
+    /**
+     * Fuente de páginas. Recibe la última fila cruda ya cargada (null para la primera
+     * página) y devuelve hasta {@code limit} filas a continuación. Corre fuera del EDT.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+        List<Vector<Object>> fetch(Vector<Object> after, int limit) throws Exception;
+    }
+
+    // Filas de margen antes del final del scroll para pedir la página siguiente.
+    private static final int PREFETCH_ROWS = 40;
+
+    private final JTable table;
+    private final JScrollPane scroll;
+    private final ColumnarTableModel model;
+    private final int pageSize;
+    private final UnaryOperator<Vector<Object>> formatter;
+
+    private PageSource source;
+    private Vector<Object> lastRaw = null;  // Cursor: última fila tal como llegó de la base
+    private boolean hasMore = false;
+    private boolean loading = false;
+    private int generation = 0;
+    private Runnable onPageLoaded = null;
+    private Runnable onAllLoaded = null;     // Pendiente de loadRemaining()
+
+    /**
+     * @param scroll Panel de scroll que contiene la tabla.
+     * @param formatter Transformación de cada fila antes de mostrarla (p. ej. formato de fecha);
+     *                  recibe una copia, el cursor conserva la fila original.
+     */
+    public KeysetPageLoader(JTable table, JScrollPane scroll, ColumnarTableModel model, int pageSize,
+                            UnaryOperator<Vector<Object>> formatter) {
+        this.table = table;
+        this.scroll = scroll;
+        this.model = model;
+        this.pageSize = pageSize;
+        this.formatter = formatter != null ? formatter : UnaryOperator.identity();
+        scroll.getVerticalScrollBar().addAdjustmentListener(e -> maybeLoadMore());
+    }
+
+    /** Se ejecuta en el EDT tras agregar cada página (para actualizar contadores). */
+    public void setOnPageLoaded(Runnable onPageLoaded) { this.onPageLoaded = onPageLoaded; }
+
+    /**
+     * Vacía la tabla y empieza una consulta nueva desde la primera página.
+     */
+    public void reset(PageSource newSource) {
+        generation++;
+        source = newSource;
+        lastRaw = null;
+        hasMore = true;
+        loading = false;
+        onAllLoaded = null;
+        model.clear();
+        loadNextPage();
+    }
+
+    /** @return true si quedan páginas por leer. */
+    public boolean hasMore() { return hasMore; }
+
+    /** @return Filas cargadas hasta ahora. */
+    public int getLoadedCount() { return model.getRowCount(); }
+
+    /**
+     * Carga todas las páginas restantes (para exportar el rango completo) y luego ejecuta
+     * {@code then} en el EDT.
+     */
+    public void loadRemaining(Runnable then) {
+        if (!hasMore && !loading) {
+            then.run();
+            return;
+        }
+        onAllLoaded = then;
+        // Si hay una página en curso, su done() continúa la cadena.
+        if (!loading) loadNextPage();
+    }
+
+    // ========================================================================================
+    //                                  LÓGICA INTERNA
+    // ========================================================================================
+
+    private void maybeLoadMore() {
+        if (!hasMore || loading) return;
+        JScrollBar bar = scroll.getVerticalScrollBar();
+        int margin = PREFETCH_ROWS * table.getRowHeight();
+        if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - margin) {
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
+        final int gen = generation;
+        final PageSource src = source;
+        final Vector<Object> after = lastRaw;
+        loading = true;
+
+        new SwingWorker<List<Vector<Object>>, Void>() {
+            @Override
+            protected List<Vector<Object>> doInBackground() throws Exception {
+                return src.fetch(after, pageSize);
+            }
+
+            @Override
+            protected void done() {
+                if (gen != generation) return; // Página de una consulta reemplazada
+                loading = false;
+                try {
+                    List<Vector<Object>> page = get();
+                    int first = model.getRowCount();
+                    model.ensureCapacity(first + page.size());
+                    for (Vector<Object> raw : page) model.appendRow(formatter.apply(new Vector<>(raw)));
+                    model.fireRowsAppended(first);
+                    if (!page.isEmpty()) lastRaw = page.get(page.size() - 1);
+                    hasMore = page.size() == pageSize;
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    hasMore = false;
+                }
+                if (onPageLoaded != null) onPageLoaded.run();
+                if (onAllLoaded != null) {
+                    if (hasMore) {
+                        loadNextPage();
+                    } else {
+                        Runnable then = onAllLoaded;
+                        onAllLoaded = null;
+                        then.run();
+                    }
+                } else {
+                    // Si la página no llenó la ventana visible, no habrá scroll: se pide otra.
+                    SwingUtilities.invokeLater(KeysetPageLoader.this::maybeLoadMore);
+                }
+            }
+        }.execute();
+    }
+}
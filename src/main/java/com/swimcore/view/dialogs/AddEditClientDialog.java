@@ -134,7 +134,7 @@ public class AddEditClientDialog extends JDialog {
                 // Ya no instanciamos el controlador aquí, solo consultamos datos auxiliares
                 Vector<String> clubs = new Vector<>();
                 clubs.add("Sin Club / Particular");
-                try (Connection con = Conexion.conectar();
+                try (Connection con = Conexion.conectarLectura();
                      Statement st = con.createStatement();
                      ResultSet rs = st.executeQuery("SELECT name FROM clubs ORDER BY name ASC")) {
                     while(rs.next()) clubs.add(rs.getString("name"));
@@ -119,7 +119,7 @@ public class AddPaymentDialog extends JDialog {
      */
     private void loadInitialData() {
         String sql = "SELECT balance_due_usd FROM sales WHERE id = '" + this.saleId + "'";
-        try (Connection conn = com.swimcore.dao.Conexion.conectar();
+        try (Connection conn = com.swimcore.dao.Conexion.conectarLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             if (rs.next()) {
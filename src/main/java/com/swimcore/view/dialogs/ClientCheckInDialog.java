@@ -2,7 +2,7 @@
  * -----------------------------------------------------------------------------
  * INSTITUCIÓN: UNEG - SICONI
  * ARCHIVO: ClientCheckInDialog.java
- * VERSIÓN: 4.2.0 (UX Premium + Padding Fix)
+ * VERSIÓN: 4.3.0 (Client Lifetime Value)
  * FECHA: 06 de Febrero de 2026
  * HORA: 10:00 PM (Hora de Venezuela)
  * DESCRIPCIÓN TÉCNICA:
@@ -15,7 +15,9 @@
 package com.swimcore.view.dialogs;
 
 import com.swimcore.controller.ClientController;
+import com.swimcore.controller.SaleController;
 import com.swimcore.model.Client;
+import com.swimcore.model.ClientLifetimeValue;
 import com.swimcore.util.SoundManager;
 import com.swimcore.view.components.SoftButton;
 
@@ -30,6 +32,7 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 
 /**
  * [VISTA - CHECK-IN] Clase que gestiona la interfaz de registro rápido de clientes.
@@ -40,6 +43,7 @@ public class ClientCheckInDialog extends JDialog {
 
     // [MVC - CONTROLADOR] Enlace con la lógica de negocio de clientes.
     private final ClientController clientController;
+    private final SaleController saleController;
 
     // Objeto que almacena el resultado de la operación (Cliente seleccionado/creado).
     private Client selectedClient = null;
@@ -73,6 +77,7 @@ public class ClientCheckInDialog extends JDialog {
     public ClientCheckInDialog(Frame parent) {
         super(parent, "Gestión de Clientes", true);
         this.clientController = new ClientController();
+        this.saleController = new SaleController();
 
         setSize(600, 720); // Dimensiones ajustadas para contenido extendido
         setLocationRelativeTo(parent);
@@ -308,7 +313,11 @@ public class ClientCheckInDialog extends JDialog {
         isEditMode = true;
         currentClientCode = c.getCode();
 
-        lblIdDisplay.setText("EDITANDO: " + c.getCode());
+        ClientLifetimeValue value = saleController
+                .getCustomerLifetimeValues(Collections.singletonList(String.valueOf(c.getId())))
+                .get(String.valueOf(c.getId()));
+        lblIdDisplay.setText(String.format("EDITANDO: %s  |  %d pedidos · $%,.2f",
+                c.getCode(), value.getOrderCount(), value.getTotalSpent()));
         lblIdDisplay.setForeground(COL_GOLD);
 
         txtName.setText(c.getFullName());
@@ -0,0 +1,74 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
+ * ARCHIVO: CsvExportDialog.java
+ * VERSIÓN: 1.1.0 (Shared Progress Dialog)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN TÉCNICA:
+ * Exportaciones CSV con progreso: elige el archivo destino y lanza la
+ * exportación (CsvExportDAO) en un ProgressTaskDialog, que muestra filas escritas
+ * contra el total del rango y permite cancelar sin dejar archivos a medias.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.view.dialogs;
+
+import com.swimcore.dao.CsvExportDAO;
+import com.swimcore.dao.CsvExportDAO.Dataset;
+import com.swimcore.util.LuxuryMessage;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * [VISTA - EXPORTACIÓN] Progreso y cancelación de una exportación CSV.
+ * [CONCURRENCIA] La lectura y escritura corren fuera del EDT (ProgressTaskDialog); el
+ * llamador recibe el resultado cuando el diálogo modal se cierra.
+ */
+public final class CsvExportDialog {
+
+    private CsvExportDialog() {}
+
+    /**
+     * Muestra el diálogo, exporta y espera a que termine.
+     * @param owner Ventana sobre la que se centra.
+     * @param dataset Conjunto a exportar.
+     * @param from Inicio del rango, o null.
+     * @param to Fin del rango, o null.
+     * @param target Archivo destino.
+     * @return Filas exportadas, o -1 si se canceló o falló (el error ya se informó).
+     */
+    public static long run(Window owner, Dataset dataset, Date from, Date to, File target) {
+        Long rows = ProgressTaskDialog.run(owner, "Exportar CSV", "EXPORTANDO " + dataset.getLabel(),
+                "Preparando exportación...",
+                (progress, cancelled) -> new CsvExportDAO().export(dataset, from, to, target, progress::update, cancelled),
+                (written, total) -> String.format("%,d de %,d filas", written, total),
+                "No se pudo exportar: ");
+        if (rows == null) return -1;
+        if (rows < 0) LuxuryMessage.show(owner, "EXPORTACIÓN CANCELADA", "No se generó ningún archivo.", true);
+        return rows;
+    }
+
+    /**
+     * Selector de archivo con la carpeta Reportes/CSV y un nombre sugerido.
+     * @return Archivo elegido (con extensión .csv), o null si se canceló.
+     */
+    public static File chooseTarget(Component parent, Dataset dataset) {
+        JFileChooser fc = new JFileChooser();
+        fc.setDialogTitle("Exportar " + dataset.getLabel() + " a CSV");
+        File reportDir = new File("Reportes/CSV");
+        if (!reportDir.exists()) reportDir.mkdirs();
+        String defaultName = dataset.getFilePrefix() + "_" + new SimpleDateFormat("yyyyMMdd_HHmm").format(new Date()) + ".csv";
+        fc.setCurrentDirectory(reportDir);
+        fc.setSelectedFile(new File(reportDir, defaultName));
+        fc.setFileFilter(new FileNameExtensionFilter("Archivos CSV (*.csv)", "csv"));
+        if (fc.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) return null;
+        File file = fc.getSelectedFile();
+        return file.getName().toLowerCase().endsWith(".csv") ? file : new File(file.getAbsolutePath() + ".csv");
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
+ * ARCHIVO: DiagnosticsDialog.java
+ * VERSIÓN: 1.1.0 (EDT Stall Sites)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN TÉCNICA:
+ * Panel de diagnóstico de rendimiento. Muestra en vivo, a partir de
+ * MetricsRegistry, los percentiles de bloqueo del EDT, la latencia de las
+ * sentencias SQL y de la espera por conexión, y los indicadores de cachés,
+ * memoria, recolector de basura, SQLite (caché de páginas y WAL), pools y
+ * colas de trabajo (escrituras, SwingWorker y PDF). La foto se puede
+ * exportar como JSON.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.view.dialogs;
+
+import com.swimcore.dao.DatabaseMetrics;
+import com.swimcore.dao.QueryStats;
+import com.swimcore.util.LatencyHistogram;
+import com.swimcore.util.LuxuryMessage;
+import com.swimcore.util.MetricsRegistry;
+import com.swimcore.util.UiMetrics;
+import com.swimcore.view.components.SoftButton;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.LineBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * [VISTA - DIAGNÓSTICO] Métricas en vivo para documentar una caja lenta.
+ * [CONCURRENCIA] La foto se toma en un hilo propio (algunos gauges consultan SQLite o
+ * recorren los hilos de la JVM) y solo el volcado a las tablas ocurre en el EDT; así
+ * el panel no produce la lentitud que intenta medir. No se usa SwingWorker para no
+ * contaminar la métrica de su propio pool.
+ */
+public class DiagnosticsDialog extends JDialog {
+
+    private static final Color COLOR_GOLD = new Color(212, 175, 55);
+    private static final Color COLOR_BG = new Color(25, 25, 25);
+    private static final Color COLOR_TABLE_BG = new Color(35, 35, 35);
+    private static final int REFRESH_MS = 1000;
+    // Sentencias SQL listadas (las de mayor tiempo total).
+    private static final int TOP_QUERIES = 15;
+
+    private final DefaultTableModel latencyModel = readOnlyModel("Métrica", "Muestras", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Máx ms");
+    private final DefaultTableModel gaugeModel = readOnlyModel("Indicador", "Valor");
+    private final JLabel lblStatus = new JLabel(" ", SwingConstants.LEFT);
+
+    // Hilo de muestreo; una foto a la vez.
+    private final ExecutorService sampler = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "siconi-diagnostics");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean sampling = new AtomicBoolean();
+    private final Timer refreshTimer = new Timer(REFRESH_MS, e -> refresh());
+
+    /**
+     * @param owner Ventana sobre la que se centra. No es modal: se puede dejar abierto
+     *              mientras se reproduce la lentitud en otra pantalla.
+     */
+    public DiagnosticsDialog(Window owner) {
+        super(owner, "Diagnóstico de rendimiento", ModalityType.MODELESS);
+        UiMetrics.start();
+        DatabaseMetrics.register();
+
+        setSize(980, 680);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        JPanel content = new JPanel(new BorderLayout(0, 12));
+        content.setBackground(COLOR_BG);
+        content.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(COLOR_GOLD, 2), new EmptyBorder(16, 20, 12, 20)));
+
+        JLabel lblTitle = new JLabel("DIAGNÓSTICO DE RENDIMIENTO", SwingConstants.CENTER);
+        lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        lblTitle.setForeground(COLOR_GOLD);
+        content.add(lblTitle, BorderLayout.NORTH);
+
+        JTable latencyTable = createTable(latencyModel);
+        latencyTable.getColumnModel().getColumn(0).setPreferredWidth(420);
+        JTable gaugeTable = createTable(gaugeModel);
+        gaugeTable.getColumnModel().getColumn(0).setPreferredWidth(300);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, wrap(latencyTable, "LATENCIAS (desde el arranque o el último reinicio)"),
+                wrap(gaugeTable, "INDICADORES"));
+        split.setResizeWeight(0.55);
+        split.setBorder(null);
+        split.setOpaque(false);
+        content.add(split, BorderLayout.CENTER);
+
+        SoftButton btnReset = button("REINICIAR", e -> {
+            MetricsRegistry.reset();
+            QueryStats.reset();
+            refresh();
+        });
+        SoftButton btnExport = button("EXPORTAR JSON", e -> exportJson());
+        SoftButton btnClose = button("CERRAR", e -> dispose());
+
+        lblStatus.setForeground(Color.GRAY);
+        lblStatus.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttons.setOpaque(false);
+        buttons.add(btnReset);
+        buttons.add(btnExport);
+        buttons.add(btnClose);
+        JPanel south = new JPanel(new BorderLayout());
+        south.setOpaque(false);
+        south.add(lblStatus, BorderLayout.CENTER);
+        south.add(buttons, BorderLayout.EAST);
+        content.add(south, BorderLayout.SOUTH);
+        setContentPane(content);
+
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowOpened(WindowEvent e) {
+                refresh();
+                refreshTimer.start();
+            }
+            @Override public void windowClosed(WindowEvent e) {
+                refreshTimer.stop();
+                sampler.shutdown();
+            }
+        });
+    }
+
+    // ========================================================================================
+    //                                  ACTUALIZACIÓN
+    // ========================================================================================
+
+    /** Pide una foto al hilo de muestreo; si la anterior sigue en curso, se omite. */
+    private void refresh() {
+        if (sampler.isShutdown() || !sampling.compareAndSet(false, true)) return;
+        sampler.execute(() -> {
+            try {
+                MetricsRegistry.Snapshot snapshot = MetricsRegistry.snapshot();
+                SwingUtilities.invokeLater(() -> render(snapshot));
+            } finally {
+                sampling.set(false);
+            }
+        });
+    }
+
+    private void render(MetricsRegistry.Snapshot snapshot) {
+        latencyModel.setRowCount(0);
+        snapshot.getHistograms().forEach((name, h) -> addLatencyRow(label(name), h));
+        // Congelamientos por punto de llamada (EdtWatchdog), del que más tiempo costó al que menos.
+        Map<String, LatencyHistogram.Snapshot> stalls = snapshot.getHistogramGroups().get("edt.stall.site");
+        if (stalls != null) {
+            stalls.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().getSum(), a.getValue().getSum()))
+                    .forEach(e -> addLatencyRow("Congelamiento: " + abbreviate(e.getKey(), 110), e.getValue()));
+        }
+        Map<String, LatencyHistogram.Snapshot> waits = snapshot.getHistogramGroups().get("db.connectionWait");
+        if (waits != null) waits.forEach((pool, h) -> addLatencyRow("Espera de conexión: " + pool, h));
+        Map<String, LatencyHistogram.Snapshot> queries = snapshot.getHistogramGroups().get("db.query");
+        if (queries != null) {
+            // El mapa llega ordenado por texto; aquí interesa el mayor tiempo total primero.
+            queries.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().getSum(), a.getValue().getSum()))
+                    .limit(TOP_QUERIES)
+                    .forEach(e -> addLatencyRow("SQL: " + abbreviate(e.getKey(), 110), e.getValue()));
+        }
+
+        gaugeModel.setRowCount(0);
+        snapshot.getCounters().forEach((name, v) -> gaugeModel.addRow(new Object[]{name, String.format("%,d", v)}));
+        snapshot.getGauges().forEach((name, v) -> gaugeModel.addRow(new Object[]{name, formatGauge(name, v)}));
+
+        lblStatus.setText("Última lectura: " + snapshot.getTimestamp().replace('T', ' ')
+                + "  |  actualización cada " + REFRESH_MS / 1000 + " s");
+    }
+
+    private void addLatencyRow(String name, LatencyHistogram.Snapshot h) {
+        latencyModel.addRow(new Object[]{name, String.format("%,d", h.getCount()), ms(h.getP50()), ms(h.getP90()),
+                ms(h.getP99()), ms(h.getP999()), ms(h.getMax())});
+    }
+
+    /** Nombres legibles para los histogramas conocidos; el resto se muestra tal cual. */
+    private static String label(String metric) {
+        switch (metric) {
+            case "edt.latency": return "EDT: espera de un evento en cola (bloqueo de pantalla)";
+            case "edt.dispatch": return "EDT: tramos de trabajo por evento";
+            case "edt.stall": return "EDT: congelamientos (sobre el umbral)";
+            default: return metric;
+        }
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%,.2f", nanos / 1e6);
+    }
+
+    private static String formatGauge(String name, Number value) {
+        if (value == null) return "n/d";
+        if (name.endsWith("Bytes") || name.startsWith("jvm.heap") || name.startsWith("jvm.nonHeap")) {
+            return String.format("%,.1f MB", value.doubleValue() / (1024 * 1024));
+        }
+        if (name.endsWith("hitRate")) return String.format("%.1f %%", value.doubleValue() * 100);
+        if (value instanceof Double || value instanceof Float) return String.format("%,.3f", value.doubleValue());
+        return String.format("%,d", value.longValue());
+    }
+
+    private static String abbreviate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 3) + "...";
+    }
+
+    // ========================================================================================
+    //                                  EXPORTACIÓN
+    // ========================================================================================
+
+    /** Guarda una foto nueva como JSON en la carpeta Reportes/Diagnostico. */
+    private void exportJson() {
+        JFileChooser fc = new JFileChooser();
+        fc.setDialogTitle("Exportar diagnóstico");
+        File reportDir = new File("Reportes/Diagnostico");
+        if (!reportDir.exists()) reportDir.mkdirs();
+        String defaultName = "diagnostico_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".json";
+        fc.setCurrentDirectory(reportDir);
+        fc.setSelectedFile(new File(reportDir, defaultName));
+        fc.setFileFilter(new FileNameExtensionFilter("Archivos JSON (*.json)", "json"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File chosen = fc.getSelectedFile();
+        File target = chosen.getName().toLowerCase().endsWith(".json") ? chosen : new File(chosen.getAbsolutePath() + ".json");
+
+        sampler.execute(() -> {
+            try (Writer w = new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8)) {
+                w.write(MetricsRegistry.snapshot().toJson());
+                SwingUtilities.invokeLater(() -> LuxuryMessage.show(this, "DIAGNÓSTICO",
+                        "Foto guardada en:\n" + target.getAbsolutePath(), false));
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                SwingUtilities.invokeLater(() -> LuxuryMessage.show(this, "ERROR",
+                        "No se pudo guardar el diagnóstico:\n" + ex.getMessage(), true));
+            }
+        });
+    }
+
+    // ========================================================================================
+    //                                  COMPONENTES
+    // ========================================================================================
+
+    private static DefaultTableModel readOnlyModel(String... columns) {
+        return new DefaultTableModel(columns, 0) { @Override public boolean isCellEditable(int r, int c) { return false; } };
+    }
+
+    private static JTable createTable(DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setRowHeight(26);
+        table.setBackground(COLOR_TABLE_BG);
+        table.setForeground(Color.WHITE);
+        table.setGridColor(new Color(60, 60, 60));
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        table.getTableHeader().setBackground(COLOR_BG);
+        table.getTableHeader().setForeground(COLOR_GOLD);
+        table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        return table;
+    }
+
+    private static JPanel wrap(JTable table, String title) {
+        JLabel lbl = new JLabel(title);
+        lbl.setForeground(COLOR_GOLD);
+        lbl.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(new LineBorder(COLOR_GOLD, 1));
+        scroll.getViewport().setBackground(COLOR_TABLE_BG);
+        JPanel panel = new JPanel(new BorderLayout(0, 6));
+        panel.setOpaque(false);
+        panel.add(lbl, BorderLayout.NORTH);
+        panel.add(scroll, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private static SoftButton button(String text, ActionListener action) {
+        SoftButton b = new SoftButton(null);
+        b.setText(text);
+        b.setPreferredSize(new Dimension(160, 38));
+        b.addActionListener(action);
+        return b;
+    }
+}
@@ -6,11 +6,13 @@
  *
  * AUTORA: Johanna Guedez
  * FECHA: 05 de Febrero de 2026
- * VERSIÓN: 13.0 (PLATINUM: High Header + Fuchsia Title + Clean Footer)
+ * VERSIÓN: 13.5 (PLATINUM: Streaming PDF)
  * * DESCRIPCIÓN TÉCNICA:
  * Módulo de Auditoría Avanzada. Provee herramientas visuales para el análisis
  * histórico del inventario, con capacidades de filtrado por rango de fechas,
  * exportación a formatos estándar (PDF/CSV) y diseño de interfaz de alta gama.
+ * Permite consultar el stock de cada producto al cierre de la fecha 'Hasta',
+ * reconstruido desde el kardex (foto más cercana + eventos posteriores).
  * -----------------------------------------------------------------------------
  */
 package com.swimcore.view.dialogs;
@@ -20,11 +22,18 @@ import com.github.lgooddatepicker.components.DatePickerSettings;
 import com.github.lgooddatepicker.components.DatePickerSettings.DateArea;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
+import com.swimcore.dao.CsvExportDAO;
+import com.swimcore.dao.InventoryLedgerDAO;
 import com.swimcore.dao.ProductDAO;
 import com.swimcore.util.ImagePanel;
 import com.swimcore.util.LanguageManager;
 import com.swimcore.util.LuxuryMessage;
+import com.swimcore.util.PdfRenderService;
 import com.swimcore.util.SoundManager;
+import com.swimcore.util.StreamingPdfTable;
+import com.swimcore.view.components.ColumnarTableModel;
+import com.swimcore.view.components.ColumnarTableModel.ColumnType;
+import com.swimcore.view.components.KeysetPageLoader;
 import com.swimcore.view.components.SoftButton;
 
 import javax.swing.*;
@@ -43,9 +52,6 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
@@ -66,12 +72,17 @@ public class InventoryHistoryDialog extends JDialog {
 
     // [PATRÓN DAO] Acceso a la capa de persistencia para consultas de inventario.
     private final ProductDAO productDAO = new ProductDAO();
+    private final InventoryLedgerDAO ledgerDAO = new InventoryLedgerDAO();
 
     // Componentes de la interfaz gráfica
-    private DefaultTableModel model;
+    private ColumnarTableModel model;
     private DatePicker dateFrom;
     private DatePicker dateTo;
     private JTable table;
+    private KeysetPageLoader historyLoader;
+    private JLabel lblCount;
+    private int historyEstimate = -1; // Total estimado del rango (-1 = aún no se conoce)
+    private int estimateSeq = 0;      // Descarta estimaciones de un filtro anterior
 
     // Paleta de Colores (Diseño Luxury)
     private final Color LUX_BG_DARK = new Color(20, 20, 20);
@@ -310,7 +321,10 @@ public class InventoryHistoryDialog extends JDialog {
                 LanguageManager.get("audit.column.type", "TIPO"), LanguageManager.get("audit.column.quantity", "CANT."),
                 LanguageManager.get("audit.column.observation_reason", "OBSERVACIÓN / MOTIVO")
         };
-        model = new DefaultTableModel(cols, 0) { @Override public boolean isCellEditable(int r, int c) { return false; } };
+        // Tipo, código y producto se repiten mucho: van codificados en diccionario.
+        model = new ColumnarTableModel(cols, new ColumnType[]{
+                ColumnType.INT, ColumnType.TEXT, ColumnType.STRING, ColumnType.STRING,
+                ColumnType.STRING, ColumnType.INT, ColumnType.TEXT });
         table = new JTable(model);
         table.setRowHeight(40);
         table.setBackground(LUX_BG_DARK);
@@ -325,7 +339,7 @@ public class InventoryHistoryDialog extends JDialog {
         header.setPreferredSize(new Dimension(0, 45));
 
         // Renderizado personalizado de celdas (Formato condicional)
-        table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
             @Override public Component getTableCellRendererComponent(JTable table, Object value, boolean isSel, boolean hasFocus, int row, int col) {
                 Component c = super.getTableCellRendererComponent(table, value, isSel, hasFocus, row, col);
                 if (!isSel) c.setBackground(row % 2 == 0 ? LUX_BG_DARK : new Color(35, 35, 35));
@@ -347,7 +361,9 @@ public class InventoryHistoryDialog extends JDialog {
                 if (col == 3 || col == 6) setHorizontalAlignment(JLabel.LEFT); else setHorizontalAlignment(JLabel.CENTER);
                 return c;
             }
-        });
+        };
+        table.setDefaultRenderer(Object.class, renderer);
+        table.setDefaultRenderer(Number.class, renderer); // ID y cantidad son Integer en el modelo
 
         TableColumnModel cm = table.getColumnModel();
         cm.getColumn(0).setPreferredWidth(50); cm.getColumn(1).setPreferredWidth(160);
@@ -360,6 +376,9 @@ public class InventoryHistoryDialog extends JDialog {
         scroll.getViewport().setBackground(LUX_BG_DARK);
         scroll.setPreferredSize(new Dimension(1000, 445));
 
+        historyLoader = new KeysetPageLoader(table, scroll, model, ProductDAO.HISTORY_PAGE_SIZE, this::formatHistoryRow);
+        historyLoader.setOnPageLoaded(this::updateCountLabel);
+
         JPanel p = new JPanel(new BorderLayout());
         p.setOpaque(false); p.setBorder(new EmptyBorder(10, 40, 10, 40));
         p.add(scroll);
@@ -373,6 +392,14 @@ public class InventoryHistoryDialog extends JDialog {
         SoftButton btnBack = createBigActionButton("CERRAR VENTANA", Color.WHITE, "btn_back.png");
         btnBack.setPreferredSize(new Dimension(220, 70));
         btnBack.addActionListener(e -> { SoundManager.getInstance().playClick(); dispose(); });
+        SoftButton btnAsOf = createBigActionButton("STOCK A LA FECHA", LUX_GOLD, "icon_audit.png");
+        btnAsOf.setPreferredSize(new Dimension(220, 70));
+        btnAsOf.addActionListener(e -> { SoundManager.getInstance().playClick(); showStockAsOf(); });
+        lblCount = createLabel("");
+        lblCount.setForeground(LUX_GOLD);
+        lblCount.setBorder(new EmptyBorder(0, 0, 0, 30));
+        footer.add(lblCount);
+        footer.add(btnAsOf);
         footer.add(btnBack);
         add(footer, BorderLayout.SOUTH);
     }
@@ -381,64 +408,146 @@ public class InventoryHistoryDialog extends JDialog {
 
     /**
      * [PATRÓN DAO] Recupera el historial de movimientos de la BD según rango de fechas.
+     * Las filas llegan por páginas (paginación por llave sobre fecha e ID) a medida que el
+     * usuario hace scroll; en paralelo se estima el total del rango para el contador.
      */
     private void loadData() {
-        if (dateFrom.getDate() == null || dateTo.getDate() == null) return;
+        Date[] range = selectedRange();
+        if (range == null) return;
+        Date d1 = range[0];
+        Date d2 = range[1];
+
+        historyEstimate = -1;
+        historyLoader.reset((after, limit) -> after == null
+                ? productDAO.getHistoryPage(d1, d2, null, 0, limit)
+                : productDAO.getHistoryPage(d1, d2, (String) after.get(1), (Integer) after.get(0), limit));
+
+        final int seq = ++estimateSeq;
+        new SwingWorker<Integer, Void>() {
+            @Override protected Integer doInBackground() { return productDAO.estimateHistoryCount(d1, d2); }
+            @Override protected void done() {
+                if (seq != estimateSeq) return;
+                try { historyEstimate = get(); } catch (Exception e) { historyEstimate = -1; }
+                updateCountLabel();
+            }
+        }.execute();
+    }
+
+    /**
+     * Rango de los selectores: desde el inicio del día 'Desde' hasta el final del día 'Hasta'.
+     * @return {desde, hasta}, o null si falta una fecha o el rango está invertido.
+     */
+    private Date[] selectedRange() {
+        if (dateFrom.getDate() == null || dateTo.getDate() == null) return null;
         LocalDate ldFrom = dateFrom.getDate(); LocalDate ldTo = dateTo.getDate();
         if(ldFrom.isAfter(ldTo)) {
             LuxuryMessage.show(this, "ERROR DE FECHAS", "La fecha 'Desde' no puede ser posterior a 'Hasta'.", true);
-            return;
+            return null;
         }
         LocalDateTime ldtFrom = ldFrom.atStartOfDay();
         LocalDateTime ldtTo = ldTo.atTime(LocalTime.MAX);
-        Date d1 = Date.from(ldtFrom.atZone(ZoneId.systemDefault()).toInstant());
-        Date d2 = Date.from(ldtTo.atZone(ZoneId.systemDefault()).toInstant());
-        model.setRowCount(0);
+        return new Date[]{
+                Date.from(ldtFrom.atZone(ZoneId.systemDefault()).toInstant()),
+                Date.from(ldtTo.atZone(ZoneId.systemDefault()).toInstant())
+        };
+    }
+
+    // Formatos reutilizados entre filas (solo se usan en el EDT).
+    private final SimpleDateFormat dbDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private final SimpleDateFormat screenDateFormat = new SimpleDateFormat("dd/MM/yyyy hh:mm a");
+
+    /** Convierte la fecha cruda de la base al formato de pantalla. */
+    private Vector<Object> formatHistoryRow(Vector<Object> row) {
+        Object rawDate = row.get(1);
         try {
-            List<Vector<Object>> data = productDAO.getHistoryByDateRange(d1, d2);
-            SimpleDateFormat sdfInput = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            SimpleDateFormat sdfOutput = new SimpleDateFormat("dd/MM/yyyy hh:mm a");
-            for (Vector<Object> row : data) {
-                Object rawDate = row.get(1);
+            if (rawDate != null) {
+                String dateStr = rawDate.toString();
+                if (dateStr.contains(".")) dateStr = dateStr.substring(0, dateStr.indexOf("."));
+                Date dateObj = dbDateFormat.parse(dateStr);
+                row.set(1, screenDateFormat.format(dateObj));
+            }
+        } catch (Exception ex) {}
+        return row;
+    }
+
+    private void updateCountLabel() {
+        if (lblCount == null) return;
+        int loaded = historyLoader.getLoadedCount();
+        if (!historyLoader.hasMore()) {
+            lblCount.setText(loaded + " MOVIMIENTOS");
+        } else if (historyEstimate >= 0) {
+            lblCount.setText("MOSTRANDO " + loaded + " DE ≈ " + Math.max(loaded, historyEstimate));
+        } else {
+            lblCount.setText("MOSTRANDO " + loaded + "...");
+        }
+    }
+
+    /**
+     * [KARDEX] Stock de cada producto al cierre de la fecha 'Hasta'. La consulta corre fuera
+     * del EDT y solo recorre los eventos posteriores a la foto más cercana de cada producto.
+     */
+    private void showStockAsOf() {
+        if (dateTo.getDate() == null) return;
+        LocalDate day = dateTo.getDate();
+        Date asOf = Date.from(day.atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()).toInstant());
+
+        new SwingWorker<List<Object[]>, Void>() {
+            @Override protected List<Object[]> doInBackground() { return ledgerDAO.getStockAsOf(asOf); }
+
+            @Override protected void done() {
                 try {
-                    if (rawDate != null) {
-                        String dateStr = rawDate.toString();
-                        if (dateStr.contains(".")) dateStr = dateStr.substring(0, dateStr.indexOf("."));
-                        Date dateObj = sdfInput.parse(dateStr);
-                        row.set(1, sdfOutput.format(dateObj));
+                    List<Object[]> rows = get();
+                    if (rows.isEmpty()) {
+                        LuxuryMessage.show(InventoryHistoryDialog.this, "SIN DATOS",
+                                "No hay fotos de stock anteriores a esa fecha.", true);
+                        return;
                     }
-                } catch (Exception ex) {}
-                model.addRow(row);
+                    showStockAsOfTable(day, rows);
+                } catch (Exception e) {
+                    LuxuryMessage.show(InventoryHistoryDialog.this, "ERROR", "Error al reconstruir el stock: " + e.getMessage(), true);
+                }
             }
-        } catch (Exception e) {
-            LuxuryMessage.show(this, "ERROR", "Error al cargar datos: " + e.getMessage(), true);
-        }
+        }.execute();
+    }
+
+    private void showStockAsOfTable(LocalDate day, List<Object[]> rows) {
+        String[] cols = {"CÓDIGO", "PRODUCTO", "STOCK", "EVENTOS", "FOTO BASE"};
+        DefaultTableModel asOfModel = new DefaultTableModel(cols, 0) { @Override public boolean isCellEditable(int r, int c) { return false; } };
+        for (Object[] r : rows) asOfModel.addRow(r);
+
+        JTable asOfTable = new JTable(asOfModel);
+        asOfTable.setRowHeight(32);
+        asOfTable.setBackground(LUX_BG_DARK);
+        asOfTable.setForeground(LUX_TEXT_WHITE);
+        asOfTable.setGridColor(new Color(60, 60, 60));
+        asOfTable.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        asOfTable.getTableHeader().setBackground(new Color(25, 25, 25));
+        asOfTable.getTableHeader().setForeground(LUX_GOLD);
+        asOfTable.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 14));
+        asOfTable.getColumnModel().getColumn(1).setPreferredWidth(280);
+
+        JScrollPane scroll = new JScrollPane(asOfTable);
+        scroll.setBorder(new LineBorder(LUX_GOLD, 1));
+        scroll.getViewport().setBackground(LUX_BG_DARK);
+
+        JDialog d = new JDialog(this, "STOCK AL " + day.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), ModalityType.APPLICATION_MODAL);
+        d.getContentPane().setBackground(LUX_BG_DARK);
+        d.add(scroll);
+        d.setSize(760, 500);
+        d.setLocationRelativeTo(this);
+        d.setVisible(true);
     }
 
     // --- FUNCIONALIDAD: EXPORTACIÓN DE REPORTES ---
 
     private void exportToCSV() {
-        JFileChooser fc = new JFileChooser();
-        fc.setDialogTitle("Exportar Reporte CSV");
-        String defaultName = "Reporte_Inventario_" + new SimpleDateFormat("yyyyMMdd_HHmm").format(new Date()) + ".csv";
-        File reportDir = new File("Reportes/CSV");
-        if (!reportDir.exists()) reportDir.mkdirs();
-        fc.setCurrentDirectory(reportDir);
-        fc.setSelectedFile(new File(reportDir, defaultName));
-        fc.setFileFilter(new FileNameExtensionFilter("Archivos CSV (*.csv)", "csv"));
-
-        if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            String filePath = fc.getSelectedFile().getAbsolutePath();
-            if (!filePath.endsWith(".csv")) filePath += ".csv";
-            try (FileWriter fw = new FileWriter(filePath)) {
-                for (int i = 0; i < table.getColumnCount(); i++) fw.write(table.getColumnName(i) + ",");
-                fw.write("\n");
-                for (int i = 0; i < table.getRowCount(); i++) {
-                    for (int j = 0; j < table.getColumnCount(); j++) fw.write(table.getValueAt(i, j) + ",");
-                    fw.write("\n");
-                }
-                new LuxuryPDFDialog(this, filePath).setVisible(true);
-            } catch (IOException e) { e.printStackTrace(); }
+        // El CSV se lee directo de la base (todo el rango, sin depender de lo cargado en la tabla).
+        Date[] range = selectedRange();
+        if (range == null) return;
+        File target = CsvExportDialog.chooseTarget(this, CsvExportDAO.Dataset.MOVEMENTS);
+        if (target == null) return;
+        if (CsvExportDialog.run(this, CsvExportDAO.Dataset.MOVEMENTS, range[0], range[1], target) >= 0) {
+            new LuxuryPDFDialog(this, target.getAbsolutePath()).setVisible(true);
         }
     }
 
@@ -451,105 +560,30 @@ public class InventoryHistoryDialog extends JDialog {
             LuxuryMessage.show(this, "VACÍO", "No hay datos para exportar.", true);
             return;
         }
-
-        // Usamos SwingWorker para no congelar la pantalla mientras se crea el PDF
-        new SwingWorker<String, Void>() {
+        // Todo el rango se lee directo de la base, sin depender de las páginas cargadas en la tabla.
+        Date[] range = selectedRange();
+        if (range == null) return;
+        String[] headers = new String[model.getColumnCount()];
+        for (int i = 0; i < headers.length; i++) headers[i] = model.getColumnName(i);
+        File target = new File("Reporte_SICONI_" + System.currentTimeMillis() + ".pdf");
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        // Usamos SwingWorker para no congelar la pantalla mientras se crea el PDF. El reporte
+        // puede tener cientos de miles de filas: corre en su propio hilo y no en la cola de recibos.
+        new SwingWorker<File, Void>() {
             @Override
-            protected String doInBackground() throws Exception {
-                Document doc = new Document(PageSize.A4.rotate(), 30, 30, 10, 30);
-                String fileName = "Reporte_SICONI_" + System.currentTimeMillis() + ".pdf";
-                PdfWriter.getInstance(doc, new FileOutputStream(fileName));
-                doc.open();
-
-                BaseColor COLOR_GOLD = new BaseColor(212, 175, 55);
-                BaseColor COLOR_HEADER_BG = BaseColor.BLACK;
-                BaseColor COLOR_HEADER_TXT = new BaseColor(212, 175, 55);
-                BaseColor COLOR_FUCSIA = new BaseColor(255, 0, 128);
-
-                // --- HEADER ---
-                com.itextpdf.text.Font fTitle = new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 24, com.itextpdf.text.Font.BOLD, COLOR_FUCSIA);
-                com.itextpdf.text.Font fSub = new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 10, com.itextpdf.text.Font.NORMAL, BaseColor.GRAY);
-
-                Paragraph pTitle = new Paragraph("REPORTE DE INVENTARIO", fTitle);
-                pTitle.setAlignment(Element.ALIGN_CENTER);
-                doc.add(pTitle);
-
-                com.itextpdf.text.Font fBrand = new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 16, com.itextpdf.text.Font.BOLD, COLOR_GOLD);
-                Paragraph pBrand = new Paragraph("DAYANA GUÉDEZ SWIMWEAR", fBrand);
-                pBrand.setAlignment(Element.ALIGN_CENTER);
-                pBrand.setSpacingBefore(5);
-                doc.add(pBrand);
-
-                String fecha = new SimpleDateFormat("dd/MM/yyyy hh:mm a").format(new Date());
-                Paragraph pDate = new Paragraph("Generado el: " + fecha, fSub);
-                pDate.setAlignment(Element.ALIGN_CENTER);
-                pDate.setSpacingBefore(2);
-                doc.add(pDate);
-
-                doc.add(new Paragraph(" "));
-
-                // --- TABLA ---
-                PdfPTable pTable = new PdfPTable(model.getColumnCount());
-                pTable.setWidthPercentage(100);
-                try {
-                    // Ajuste de anchos para que la tabla se vea bien
-                    pTable.setWidths(new float[]{0.8f, 2.5f, 1.2f, 4f, 1.5f, 1f, 4f});
-                } catch(Exception e) { }
-
-                // Cabeceras
-                for (int i = 0; i < model.getColumnCount(); i++) {
-                    PdfPCell c = new PdfPCell(new Phrase(model.getColumnName(i), new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 10, com.itextpdf.text.Font.BOLD, COLOR_HEADER_TXT)));
-                    c.setBackgroundColor(COLOR_HEADER_BG);
-                    c.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    c.setPadding(8);
-                    c.setBorderColor(COLOR_GOLD);
-                    pTable.addCell(c);
-                }
-
-                // Datos
-                for(int i=0; i<model.getRowCount(); i++) {
-                    for(int j=0; j<model.getColumnCount(); j++) {
-                        Object valObj = model.getValueAt(i, j);
-                        String val = (valObj != null) ? valObj.toString() : "";
-
-                        PdfPCell c = new PdfPCell(new Phrase(val, new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 9)));
-                        c.setPadding(6);
-                        c.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                        c.setBackgroundColor((i % 2 == 0) ? BaseColor.WHITE : new BaseColor(245, 245, 245));
-
-                        // Alineación y colores condicionales
-                        if (j == 0 || j == 5) c.setHorizontalAlignment(Element.ALIGN_CENTER);
-                        if (j == 4) { // Columna TIPO
-                            if (val.contains("ENTRADA")) c.setPhrase(new Phrase(val, new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 9, com.itextpdf.text.Font.BOLD, new BaseColor(0,150,50))));
-                            if (val.contains("SALIDA")) c.setPhrase(new Phrase(val, new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 9, com.itextpdf.text.Font.BOLD, new BaseColor(200,0,0))));
-                        }
-                        pTable.addCell(c);
-                    }
-                }
-                doc.add(pTable);
-
-                // --- LOGO (Carga segura) ---
-                try {
-                    URL logoUrl = getClass().getResource("/images/logo.png");
-                    if (logoUrl != null) {
-                        com.itextpdf.text.Image img = com.itextpdf.text.Image.getInstance(logoUrl);
-                        img.scaleToFit(150, 80);
-                        img.setAlignment(Element.ALIGN_CENTER);
-                        img.setSpacingBefore(30);
-                        doc.add(img);
-                    }
-                } catch (Exception e) {}
-
-                doc.close();
-                return fileName;
+            protected File doInBackground() throws Exception {
+                return PdfRenderService.renderNow(target, new Document(PageSize.A4.rotate(), 30, 30, 10, 30),
+                        (doc, writer) -> writeAuditReport(doc, headers, range[0], range[1]));
             }
 
             @Override
             protected void done() {
+                setCursor(Cursor.getDefaultCursor());
                 try {
-                    String fileName = get();
+                    File file = get();
                     // Mostrar diálogo de éxito personalizado
-                    new LuxuryPDFDialog(InventoryHistoryDialog.this, fileName).setVisible(true);
+                    new LuxuryPDFDialog(InventoryHistoryDialog.this, file.getPath()).setVisible(true);
                 } catch (Exception e) {
                     e.printStackTrace();
                     LuxuryMessage.show(InventoryHistoryDialog.this, "ERROR PDF", "Fallo al crear PDF.\n" + e.getMessage(), true);
@@ -557,6 +591,102 @@ public class InventoryHistoryDialog extends JDialog {
             }
         }.execute();
     }
+
+    // Paleta y fuentes del reporte (compartidas entre celdas y reportes).
+    private static final BaseColor PDF_GOLD = new BaseColor(212, 175, 55);
+    private static final BaseColor PDF_ROW_ALT = new BaseColor(245, 245, 245);
+    private static final com.itextpdf.text.Font PDF_FONT_TITLE = PdfRenderService.font(FontFactory.HELVETICA, 24, com.itextpdf.text.Font.BOLD, new BaseColor(255, 0, 128));
+    private static final com.itextpdf.text.Font PDF_FONT_SUB = PdfRenderService.font(FontFactory.HELVETICA, 10, com.itextpdf.text.Font.NORMAL, BaseColor.GRAY);
+    private static final com.itextpdf.text.Font PDF_FONT_BRAND = PdfRenderService.font(FontFactory.HELVETICA, 16, com.itextpdf.text.Font.BOLD, PDF_GOLD);
+    private static final com.itextpdf.text.Font PDF_FONT_HEADER = PdfRenderService.font(FontFactory.HELVETICA, 10, com.itextpdf.text.Font.BOLD, PDF_GOLD);
+    private static final com.itextpdf.text.Font PDF_FONT_CELL = PdfRenderService.font(FontFactory.HELVETICA, 9, com.itextpdf.text.Font.NORMAL, BaseColor.BLACK);
+    private static final com.itextpdf.text.Font PDF_FONT_IN = PdfRenderService.font(FontFactory.HELVETICA, 9, com.itextpdf.text.Font.BOLD, new BaseColor(0, 150, 50));
+    private static final com.itextpdf.text.Font PDF_FONT_OUT = PdfRenderService.font(FontFactory.HELVETICA, 9, com.itextpdf.text.Font.BOLD, new BaseColor(200, 0, 0));
+
+    /**
+     * [LIBRERÍA iText] Contenido del reporte: encabezado, tabla por fragmentos alimentada
+     * por el cursor de la base y logo. Corre en un hilo de fondo con el documento abierto.
+     */
+    private void writeAuditReport(Document doc, String[] headers, Date from, Date to) throws Exception {
+        // --- HEADER ---
+        Paragraph pTitle = new Paragraph("REPORTE DE INVENTARIO", PDF_FONT_TITLE);
+        pTitle.setAlignment(Element.ALIGN_CENTER);
+        doc.add(pTitle);
+
+        Paragraph pBrand = new Paragraph("DAYANA GUÉDEZ SWIMWEAR", PDF_FONT_BRAND);
+        pBrand.setAlignment(Element.ALIGN_CENTER);
+        pBrand.setSpacingBefore(5);
+        doc.add(pBrand);
+
+        SimpleDateFormat screenFormat = new SimpleDateFormat("dd/MM/yyyy hh:mm a");
+        Paragraph pDate = new Paragraph("Generado el: " + screenFormat.format(new Date()), PDF_FONT_SUB);
+        pDate.setAlignment(Element.ALIGN_CENTER);
+        pDate.setSpacingBefore(2);
+        doc.add(pDate);
+
+        doc.add(new Paragraph(" "));
+
+        // --- TABLA (por fragmentos: la memoria no crece con el número de filas) ---
+        StreamingPdfTable pTable = new StreamingPdfTable(doc, new float[]{0.8f, 2.5f, 1.2f, 4f, 1.5f, 1f, 4f});
+
+        // Cabeceras (se repiten en cada página)
+        for (String header : headers) {
+            PdfPCell c = new PdfPCell(new Phrase(header, PDF_FONT_HEADER));
+            c.setBackgroundColor(BaseColor.BLACK);
+            c.setHorizontalAlignment(Element.ALIGN_CENTER);
+            c.setPadding(8);
+            c.setBorderColor(PDF_GOLD);
+            pTable.addHeaderCell(c);
+        }
+
+        // Datos
+        SimpleDateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        productDAO.forEachHistoryRow(from, to, row -> {
+            BaseColor background = (pTable.getRowCount() % 2 == 0) ? BaseColor.WHITE : PDF_ROW_ALT;
+            for (int j = 0; j < row.size(); j++) {
+                Object valObj = row.get(j);
+                String val = (valObj != null) ? valObj.toString() : "";
+                if (j == 1) val = formatPdfDate(val, dbFormat, screenFormat);
+
+                com.itextpdf.text.Font font = PDF_FONT_CELL;
+                if (j == 4) { // Columna TIPO
+                    if (val.contains("ENTRADA")) font = PDF_FONT_IN;
+                    if (val.contains("SALIDA")) font = PDF_FONT_OUT;
+                }
+                PdfPCell c = new PdfPCell(new Phrase(val, font));
+                c.setPadding(6);
+                c.setVerticalAlignment(Element.ALIGN_MIDDLE);
+                c.setBackgroundColor(background);
+                // Alineación condicional
+                if (j == 0 || j == 5) c.setHorizontalAlignment(Element.ALIGN_CENTER);
+                pTable.addCell(c);
+            }
+        }, null);
+        pTable.finish();
+
+        // --- LOGO (Carga segura) ---
+        try {
+            URL logoUrl = getClass().getResource("/images/logo.png");
+            if (logoUrl != null) {
+                com.itextpdf.text.Image img = com.itextpdf.text.Image.getInstance(logoUrl);
+                img.scaleToFit(150, 80);
+                img.setAlignment(Element.ALIGN_CENTER);
+                img.setSpacingBefore(30);
+                doc.add(img);
+            }
+        } catch (Exception e) {}
+    }
+
+    /** Fecha cruda de la base al formato de pantalla (igual que formatHistoryRow). */
+    private static String formatPdfDate(String raw, SimpleDateFormat dbFormat, SimpleDateFormat screenFormat) {
+        try {
+            String dateStr = raw.contains(".") ? raw.substring(0, raw.indexOf(".")) : raw;
+            return screenFormat.format(dbFormat.parse(dateStr));
+        } catch (Exception ex) {
+            return raw;
+        }
+    }
+
     // Clase interna para el diálogo de confirmación de exportación
     private class LuxuryPDFDialog extends JDialog {
         public LuxuryPDFDialog(Dialog parent, String filePath) {
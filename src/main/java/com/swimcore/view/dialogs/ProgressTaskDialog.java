@@ -0,0 +1,167 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
+ * ARCHIVO: ProgressTaskDialog.java
+ * VERSIÓN: 1.0.0 (Shared Progress & Cancel)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN TÉCNICA:
+ * Diálogo modal de progreso para tareas largas en segundo plano (exportación
+ * CSV, reemisión de recibos). Muestra avance contra el total y permite cancelar;
+ * la tarea consulta la cancelación y decide cómo detenerse.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.view.dialogs;
+
+import com.swimcore.util.LuxuryMessage;
+import com.swimcore.view.components.SoftButton;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * [VISTA - PROGRESO] Progreso y cancelación de una tarea de fondo.
+ * [CONCURRENCIA] La tarea corre en un SwingWorker; el diálogo es modal, así que el
+ * llamador recupera el resultado cuando setVisible() retorna.
+ * @param <T> Resultado de la tarea.
+ */
+public class ProgressTaskDialog<T> extends JDialog {
+
+    /** Trabajo a ejecutar fuera del EDT. */
+    @FunctionalInterface
+    public interface Task<T> {
+        /**
+         * @param progress Receptor del avance (se puede llamar desde el hilo de fondo).
+         * @param cancelled true cuando el usuario pidió cancelar.
+         */
+        T run(Progress progress, BooleanSupplier cancelled) throws Exception;
+    }
+
+    /** Avance de la tarea. */
+    @FunctionalInterface
+    public interface Progress {
+        void update(long done, long total);
+    }
+
+    /** Texto de estado para un avance (se invoca en el EDT). */
+    @FunctionalInterface
+    public interface StatusFormat {
+        String format(long done, long total);
+    }
+
+    private static final Color COLOR_GOLD = new Color(212, 175, 55);
+    private static final Color COLOR_BG = new Color(25, 25, 25);
+
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel lblStatus;
+    private volatile boolean cancelRequested = false;
+    private T result;
+
+    /**
+     * @param owner Ventana sobre la que se centra.
+     * @param title Título de la ventana.
+     * @param heading Encabezado visible (en mayúsculas).
+     * @param initialStatus Estado mientras no hay avance.
+     * @param task Trabajo a ejecutar.
+     * @param status Texto de estado para cada avance.
+     * @param errorPrefix Inicio del mensaje si la tarea falla.
+     */
+    public ProgressTaskDialog(Window owner, String title, String heading, String initialStatus,
+                              Task<T> task, StatusFormat status, String errorPrefix) {
+        super(owner, title, ModalityType.APPLICATION_MODAL);
+        setUndecorated(true);
+        setSize(420, 190);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        JPanel content = new JPanel(new BorderLayout(0, 12));
+        content.setBackground(COLOR_BG);
+        content.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(COLOR_GOLD, 2), new EmptyBorder(18, 24, 14, 24)));
+
+        JLabel lblTitle = new JLabel(heading, SwingConstants.CENTER);
+        lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        lblTitle.setForeground(COLOR_GOLD);
+        content.add(lblTitle, BorderLayout.NORTH);
+
+        JPanel center = new JPanel(new GridLayout(2, 1, 0, 8));
+        center.setOpaque(false);
+        progressBar.setStringPainted(true);
+        progressBar.setIndeterminate(true);
+        progressBar.setForeground(COLOR_GOLD);
+        progressBar.setBackground(new Color(45, 45, 45));
+        lblStatus = new JLabel(initialStatus, SwingConstants.CENTER);
+        lblStatus.setForeground(Color.LIGHT_GRAY);
+        lblStatus.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        center.add(progressBar);
+        center.add(lblStatus);
+        content.add(center, BorderLayout.CENTER);
+
+        SoftButton btnCancel = new SoftButton(null);
+        btnCancel.setText("CANCELAR");
+        btnCancel.setPreferredSize(new Dimension(140, 38));
+        btnCancel.addActionListener(e -> {
+            cancelRequested = true;
+            btnCancel.setEnabled(false);
+            lblStatus.setText("Cancelando...");
+        });
+        JPanel south = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        south.setOpaque(false);
+        south.add(btnCancel);
+        content.add(south, BorderLayout.SOUTH);
+        setContentPane(content);
+
+        // Se arranca al abrir: si terminara antes de mostrarse, el dispose() llegaría tarde.
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowOpened(WindowEvent e) { start(task, status, errorPrefix); }
+        });
+    }
+
+    /**
+     * Muestra el diálogo, ejecuta la tarea y espera a que termine.
+     * @return Resultado de la tarea, o null si falló (el error ya se informó).
+     */
+    public static <T> T run(Window owner, String title, String heading, String initialStatus,
+                            Task<T> task, StatusFormat status, String errorPrefix) {
+        ProgressTaskDialog<T> dialog = new ProgressTaskDialog<>(owner, title, heading, initialStatus, task, status, errorPrefix);
+        dialog.setVisible(true);
+        return dialog.result;
+    }
+
+    private void start(Task<T> task, StatusFormat status, String errorPrefix) {
+        new SwingWorker<T, long[]>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.run((done, total) -> publish(new long[]{done, total}), () -> cancelRequested);
+            }
+
+            @Override
+            protected void process(List<long[]> chunks) {
+                if (cancelRequested) return;
+                long[] last = chunks.get(chunks.size() - 1);
+                long done = last[0], total = last[1];
+                progressBar.setIndeterminate(false);
+                progressBar.setValue(total > 0 ? (int) (done * 100 / total) : 100);
+                lblStatus.setText(status.format(done, total));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    result = get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    LuxuryMessage.show(ProgressTaskDialog.this, "ERROR", errorPrefix + cause.getMessage(), true);
+                }
+                dispose();
+            }
+        }.execute();
+    }
+}
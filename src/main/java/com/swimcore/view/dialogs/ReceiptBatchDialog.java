@@ -0,0 +1,47 @@
+/*
+ * -----------------------------------------------------------------------------
+ * INSTITUCIÓN: Universidad Nacional Experimental de Guayana (UNEG)
+ * PROYECTO: SICONI - Sistema de Control de Negocio e Inventario | DG SWIMWEAR
+ * ARCHIVO: ReceiptBatchDialog.java
+ * VERSIÓN: 1.1.0 (Shared Progress Dialog)
+ * FECHA: 17 de Octubre de 2026
+ * DESCRIPCIÓN TÉCNICA:
+ * Reemisión masiva de recibos de un rango con progreso: lanza el lote
+ * (ReceiptBatchGenerator) en un ProgressTaskDialog, que muestra recibos
+ * generados contra el total y permite cancelar.
+ * -----------------------------------------------------------------------------
+ */
+
+package com.swimcore.view.dialogs;
+
+import com.swimcore.util.ReceiptBatchGenerator;
+
+import java.awt.*;
+import java.util.Date;
+
+/**
+ * [VISTA - DOCUMENTOS] Progreso y cancelación de un lote de recibos.
+ * [CONCURRENCIA] El lote corre fuera del EDT (ProgressTaskDialog); el llamador recibe
+ * el resultado cuando el diálogo modal se cierra.
+ */
+public final class ReceiptBatchDialog {
+
+    private ReceiptBatchDialog() {}
+
+    /**
+     * Muestra el diálogo, genera el lote y espera a que termine.
+     * @param owner Ventana sobre la que se centra.
+     * @param from Inicio del rango.
+     * @param to Fin del rango.
+     * @param merge true para generar además un PDF único.
+     * @return Resultado con contadores, o null si falló (el error ya se informó).
+     */
+    public static ReceiptBatchGenerator.Result run(Window owner, Date from, Date to, boolean merge) {
+        return ProgressTaskDialog.run(owner, "Recibos del período", "REEMITIENDO RECIBOS",
+                "Consultando ventas del rango...",
+                (progress, cancelled) -> ReceiptBatchGenerator.regenerate(from, to, merge, progress::update, cancelled),
+                (done, total) -> done == total && merge ? "Uniendo en un solo PDF..."
+                        : String.format("%,d de %,d recibos", done, total),
+                "No se pudieron generar los recibos: ");
+    }
+}